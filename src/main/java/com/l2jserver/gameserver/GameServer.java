@@ -46,6 +46,7 @@ import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.commons.util.IPv4Filter;
 import com.l2jserver.commons.util.Util;
 import com.l2jserver.gameserver.bbs.service.ForumsBBSManager;
+import com.l2jserver.gameserver.bbs.service.MarketBBSManager;
 import com.l2jserver.gameserver.cache.HtmCache;
 import com.l2jserver.gameserver.dao.factory.impl.DAOFactory;
 import com.l2jserver.gameserver.data.json.ExperienceData;
@@ -99,6 +100,7 @@ import com.l2jserver.gameserver.datatables.ItemTable;
 import com.l2jserver.gameserver.datatables.MerchantPriceConfigTable;
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.datatables.SpawnTable;
+import com.l2jserver.gameserver.handler.CommunityBoardHandler;
 import com.l2jserver.gameserver.handler.EffectHandler;
 import com.l2jserver.gameserver.idfactory.IdFactory;
 import com.l2jserver.gameserver.instancemanager.AirShipManager;
@@ -319,6 +321,7 @@ public final class GameServer {
 		
 		printSection("Handlers");
 		ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/handlers/MasterHandler.java");
+		CommunityBoardHandler.getInstance().registerHandler(MarketBBSManager.getInstance());
 		
 		printSection("AI");
 		ScriptEngineManager.getInstance().executeScript("com/l2jserver/datapack/ai/AILoader.java");
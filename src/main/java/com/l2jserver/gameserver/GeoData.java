@@ -20,15 +20,27 @@ package com.l2jserver.gameserver;
 
 import static com.l2jserver.gameserver.config.Configuration.geodata;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.l2jserver.gameserver.data.xml.impl.DoorData;
+import com.l2jserver.gameserver.enums.GeoDataLoadMode;
 import com.l2jserver.gameserver.model.L2Object;
 import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.Location;
@@ -58,40 +70,63 @@ public class GeoData {
 	
 	private static final Map<String, Boolean> GEODATA_REGIONS = new HashMap<>();
 	
-	private final GeoDriver _driver = new GeoDriver();
+	/** Geodata cells per region side. */
+	private static final int REGION_CELLS = 2048;
+	
+	private static final int REGIONS_X = (L2World.TILE_X_MAX - L2World.TILE_X_MIN) + 1;
+	
+	private static final int REGIONS_Y = (L2World.TILE_Y_MAX - L2World.TILE_Y_MIN) + 1;
+	
+	private static final int REGION_UNCHECKED = 0;
+	
+	private static final int REGION_LOADED = 1;
+	
+	private static final int REGION_UNAVAILABLE = 2;
+	
+	private final GeoDriver _driver;
+	
+	private final GeoDataLoadMode _loadMode = geodata().getGeoDataLoadMode();
+	
+	private final AtomicIntegerArray _regionStates = new AtomicIntegerArray(REGIONS_X * REGIONS_Y);
+	
+	private final Object[] _regionLocks = new Object[REGIONS_X * REGIONS_Y];
+	
+	private final AtomicInteger _loadedRegions = new AtomicInteger();
+	
+	private final AtomicLong _loadedBytes = new AtomicLong();
+	
+	private final LosCache _losCache;
 	
 	protected GeoData() {
+		this(new GeoDriver(), geodata().getLosCacheSize());
 		loadGeodataRegions();
 		
-		int loadedRegions = 0;
+		final long start = System.currentTimeMillis();
 		try {
-			for (int regionX = L2World.TILE_X_MIN; regionX <= L2World.TILE_X_MAX; regionX++) {
-				for (int regionY = L2World.TILE_Y_MIN; regionY <= L2World.TILE_Y_MAX; regionY++) {
-					final Path geoFilePath = geodata().getGeoDataPath().toPath().resolve(String.format(FILE_NAME_FORMAT, regionX, regionY));
-					final Boolean loadFile = GEODATA_REGIONS.get(regionX + "_" + regionY);
-					if (loadFile != null) {
-						if (loadFile) {
-							LOG.info("Loading {}...", geoFilePath.getFileName());
-							_driver.loadRegion(geoFilePath, regionX, regionY);
-							loadedRegions++;
-						}
-					} else if (geodata().tryLoadUnspecifiedRegions() && Files.exists(geoFilePath)) {
-						try {
-							LOG.info("Loading {}...", geoFilePath.getFileName());
-							_driver.loadRegion(geoFilePath, regionX, regionY);
-							loadedRegions++;
-						} catch (Exception ex) {
-							LOG.warn("Failed to load {}!", geoFilePath.getFileName(), ex);
-						}
-					}
-				}
+			switch (_loadMode) {
+				case PARALLEL -> loadParallel();
+				case LAZY -> loadWarmUp();
+				default -> loadSequential();
 			}
 		} catch (Exception ex) {
 			LOG.error("Failed to load geodata!", ex);
 			System.exit(1);
 		}
 		
-		LOG.info("Loaded {} regions.", loadedRegions);
+		LOG.info("Loaded {} regions ({} MiB) in {} ms using {} mode.", _loadedRegions.get(), _loadedBytes.get() / (1024 * 1024), System.currentTimeMillis() - start, _loadMode);
+	}
+	
+	/**
+	 * Creates a geodata over the given driver, without loading any region.
+	 * @param driver the geodata driver
+	 * @param losCacheSize the line of sight cache size, 0 disables the cache
+	 */
+	GeoData(GeoDriver driver, int losCacheSize) {
+		_driver = driver;
+		_losCache = losCacheSize > 0 ? new LosCache(losCacheSize) : null;
+		for (int i = 0; i < _regionLocks.length; i++) {
+			_regionLocks[i] = new Object();
+		}
 	}
 	
 	private static void loadGeodataRegions() {
@@ -107,11 +142,229 @@ public class GeoData {
 		}
 	}
 	
+	private void loadSequential() throws Exception {
+		for (int regionX = L2World.TILE_X_MIN; regionX <= L2World.TILE_X_MAX; regionX++) {
+			for (int regionY = L2World.TILE_Y_MIN; regionY <= L2World.TILE_Y_MAX; regionY++) {
+				loadRegionAtStartup(regionX, regionY);
+			}
+		}
+	}
+	
+	private void loadParallel() throws Exception {
+		final int threads = geodata().getGeoDataLoadThreads() > 0 ? geodata().getGeoDataLoadThreads() : Runtime.getRuntime().availableProcessors();
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int regionX = L2World.TILE_X_MIN; regionX <= L2World.TILE_X_MAX; regionX++) {
+				for (int regionY = L2World.TILE_Y_MIN; regionY <= L2World.TILE_Y_MAX; regionY++) {
+					final int x = regionX;
+					final int y = regionY;
+					futures.add(executor.submit(() -> {
+						loadRegionAtStartup(x, y);
+						return null;
+					}));
+				}
+			}
+			
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException ex) {
+					throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private void loadWarmUp() throws Exception {
+		for (int regionX = L2World.TILE_X_MIN; regionX <= L2World.TILE_X_MAX; regionX++) {
+			for (int regionY = L2World.TILE_Y_MIN; regionY <= L2World.TILE_Y_MAX; regionY++) {
+				final String key = regionX + "_" + regionY;
+				if (GEODATA_REGIONS.containsKey(key) || geodata().getWarmUpRegions().contains(key)) {
+					loadRegionAtStartup(regionX, regionY);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Loads a region during startup.<br>
+	 * Failing to load an included region is fatal, failing to load an unspecified one is not.
+	 * @param regionX the region X
+	 * @param regionY the region Y
+	 * @throws Exception if an included region could not be loaded
+	 */
+	private void loadRegionAtStartup(int regionX, int regionY) throws Exception {
+		final int index = getRegionIndex(regionX - L2World.TILE_X_MIN, regionY - L2World.TILE_Y_MIN);
+		final Path geoFilePath = getRegionFile(regionX, regionY);
+		if (geoFilePath == null) {
+			_regionStates.set(index, REGION_UNAVAILABLE);
+			return;
+		}
+		
+		try {
+			loadRegion(geoFilePath, regionX, regionY);
+			_regionStates.set(index, REGION_LOADED);
+		} catch (Exception ex) {
+			_regionStates.set(index, REGION_UNAVAILABLE);
+			if (GEODATA_REGIONS.containsKey(regionX + "_" + regionY)) {
+				throw ex;
+			}
+			LOG.warn("Failed to load {}!", geoFilePath.getFileName(), ex);
+		}
+	}
+	
+	/**
+	 * Gets the file of the given region, if it should be loaded.
+	 * @param regionX the region X
+	 * @param regionY the region Y
+	 * @return the region file, {@code null} if the region is excluded or its file does not exist
+	 */
+	private static Path getRegionFile(int regionX, int regionY) {
+		final Path geoFilePath = geodata().getGeoDataPath().toPath().resolve(getRegionFileName(regionX, regionY));
+		final Boolean loadFile = GEODATA_REGIONS.get(regionX + "_" + regionY);
+		if (loadFile != null) {
+			return loadFile ? geoFilePath : null;
+		}
+		return geodata().tryLoadUnspecifiedRegions() && Files.exists(geoFilePath) ? geoFilePath : null;
+	}
+	
+	private void loadRegion(Path geoFilePath, int regionX, int regionY) throws IOException {
+		final long start = System.nanoTime();
+		_driver.loadRegion(geoFilePath, regionX, regionY);
+		final long size = Files.size(geoFilePath);
+		_loadedRegions.incrementAndGet();
+		_loadedBytes.addAndGet(size);
+		LOG.info("Loaded {} ({} KiB) in {} ms.", geoFilePath.getFileName(), size / 1024, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+	
+	private static int getRegionIndex(int offsetX, int offsetY) {
+		return (offsetX * REGIONS_Y) + offsetY;
+	}
+	
+	/**
+	 * Gets the region X, which is the world tile X, containing the given geodata X.
+	 * @param geoX the geodata X
+	 * @return the region X
+	 */
+	static int getRegionX(int geoX) {
+		return Math.floorDiv(geoX, REGION_CELLS);
+	}
+	
+	/**
+	 * Gets the region Y, which is the world tile Y, containing the given geodata Y.
+	 * @param geoY the geodata Y
+	 * @return the region Y
+	 */
+	static int getRegionY(int geoY) {
+		return Math.floorDiv(geoY, REGION_CELLS);
+	}
+	
+	/**
+	 * Verifies if the given region is one of the world tiles.
+	 * @param regionX the region X
+	 * @param regionY the region Y
+	 * @return {@code true} if the region is inside the world, {@code false} otherwise
+	 */
+	static boolean isWorldRegion(int regionX, int regionY) {
+		return (regionX >= L2World.TILE_X_MIN) && (regionX <= L2World.TILE_X_MAX) && (regionY >= L2World.TILE_Y_MIN) && (regionY <= L2World.TILE_Y_MAX);
+	}
+	
+	/**
+	 * Gets the geodata file name of the given region.
+	 * @param regionX the region X
+	 * @param regionY the region Y
+	 * @return the file name
+	 */
+	static String getRegionFileName(int regionX, int regionY) {
+		return String.format(FILE_NAME_FORMAT, regionX, regionY);
+	}
+	
+	/**
+	 * In lazy mode, loads the region containing the given geodata position the first time it is queried.
+	 * @param geoX the geodata X
+	 * @param geoY the geodata Y
+	 */
+	private void ensureRegion(int geoX, int geoY) {
+		if (_loadMode != GeoDataLoadMode.LAZY) {
+			return;
+		}
+		
+		final int regionX = getRegionX(geoX);
+		final int regionY = getRegionY(geoY);
+		if (!isWorldRegion(regionX, regionY)) {
+			return;
+		}
+		
+		final int index = getRegionIndex(regionX - L2World.TILE_X_MIN, regionY - L2World.TILE_Y_MIN);
+		if (_regionStates.get(index) != REGION_UNCHECKED) {
+			return;
+		}
+		
+		synchronized (_regionLocks[index]) {
+			if (_regionStates.get(index) != REGION_UNCHECKED) {
+				return;
+			}
+			
+			final Path geoFilePath = getRegionFile(regionX, regionY);
+			int state = REGION_UNAVAILABLE;
+			if (geoFilePath != null) {
+				try {
+					loadRegion(geoFilePath, regionX, regionY);
+					state = REGION_LOADED;
+					if (_losCache != null) {
+						// cached results were computed without this region's geodata
+						_losCache.clear();
+					}
+				} catch (Exception ex) {
+					LOG.warn("Failed to load {}!", geoFilePath.getFileName(), ex);
+				}
+			}
+			_regionStates.set(index, state);
+		}
+	}
+	
+	/**
+	 * Gets the number of loaded regions.
+	 * @return the loaded region count
+	 */
+	public int getLoadedRegionCount() {
+		return _loadedRegions.get();
+	}
+	
+	/**
+	 * Gets the size of the loaded region files, which is the resident footprint when {@code ForceGeoData} is enabled.
+	 * @return the loaded bytes
+	 */
+	public long getLoadedBytes() {
+		return _loadedBytes.get();
+	}
+	
+	/**
+	 * Gets the number of line of sight checks answered from the cache.
+	 * @return the cache hits
+	 */
+	public long getLosCacheHits() {
+		return _losCache != null ? _losCache.getHits() : 0;
+	}
+	
+	/**
+	 * Gets the number of line of sight checks that had to walk the geodata.
+	 * @return the cache misses
+	 */
+	public long getLosCacheMisses() {
+		return _losCache != null ? _losCache.getMisses() : 0;
+	}
+	
 	public boolean hasGeoPos(int geoX, int geoY) {
+		ensureRegion(geoX, geoY);
 		return _driver.hasGeoPos(geoX, geoY);
 	}
 	
 	public boolean checkNearestNswe(int geoX, int geoY, int worldZ, int nswe) {
+		ensureRegion(geoX, geoY);
 		return _driver.checkNearestNswe(geoX, geoY, worldZ, nswe);
 	}
 	
@@ -141,14 +394,17 @@ public class GeoData {
 	}
 	
 	public int getNearestZ(int geoX, int geoY, int worldZ) {
+		ensureRegion(geoX, geoY);
 		return _driver.getNearestZ(geoX, geoY, worldZ);
 	}
 	
 	public int getNextLowerZ(int geoX, int geoY, int worldZ) {
+		ensureRegion(geoX, geoY);
 		return _driver.getNextLowerZ(geoX, geoY, worldZ);
 	}
 	
 	public int getNextHigherZ(int geoX, int geoY, int worldZ) {
+		ensureRegion(geoX, geoY);
 		return _driver.getNextHigherZ(geoX, geoY, worldZ);
 	}
 	
@@ -311,16 +567,33 @@ public class GeoData {
 			return true;
 		}
 		
+		if ((_losCache == null) || !LosCache.isCacheable(z, tz)) {
+			return canSeeThrough(geoX, geoY, z, tGeoX, tGeoY, tz);
+		}
+		
+		final Boolean cached = _losCache.get(geoX, geoY, z, tGeoX, tGeoY, tz);
+		if (cached != null) {
+			return cached;
+		}
+		
+		final boolean result = canSeeThrough(geoX, geoY, z, tGeoX, tGeoY, tz);
+		_losCache.put(geoX, geoY, z, tGeoX, tGeoY, tz, result);
+		return result;
+	}
+	
+	/**
+	 * Walks the geodata between two different cells.
+	 * @param geoX the geodata X
+	 * @param geoY the geodata Y
+	 * @param z the nearest Z
+	 * @param tGeoX the target's geodata X
+	 * @param tGeoY the target's geodata Y
+	 * @param tz the target's nearest Z
+	 * @return {@code true} if there is line of sight between the given cells, {@code false} otherwise
+	 */
+	private boolean canSeeThrough(int geoX, int geoY, int z, int tGeoX, int tGeoY, int tz) {
 		if (tz > z) {
-			int tmp = tx;
-			tx = x;
-			x = tmp;
-			
-			tmp = ty;
-			ty = y;
-			y = tmp;
-			
-			tmp = tz;
+			int tmp = tz;
 			tz = z;
 			z = tmp;
 			
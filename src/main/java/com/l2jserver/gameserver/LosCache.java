@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, direct-mapped cache of geodata line of sight results.<br>
+ * Entries are keyed by the quantized geodata cells and nearest Z of both ends, which are the only inputs of the geodata walk.<br>
+ * A colliding entry simply replaces the previous one.
+ */
+final class LosCache {
+	
+	private static final int Z_MASK = 0xFFFF;
+	
+	private final AtomicReferenceArray<Entry> _entries;
+	
+	private final int _mask;
+	
+	private final LongAdder _hits = new LongAdder();
+	
+	private final LongAdder _misses = new LongAdder();
+	
+	/**
+	 * Creates a cache with at least the given number of entries, rounded up to a power of two.
+	 * @param size the minimum number of entries
+	 */
+	LosCache(int size) {
+		final int capacity = Integer.highestOneBit(Math.max(2, size - 1)) << 1;
+		_entries = new AtomicReferenceArray<>(capacity);
+		_mask = capacity - 1;
+	}
+	
+	/**
+	 * Checks if the given heights fit in the cache key.
+	 * @param z the origin Z
+	 * @param tz the target Z
+	 * @return {@code true} if the pair can be cached, {@code false} otherwise
+	 */
+	static boolean isCacheable(int z, int tz) {
+		return (z == (short) z) && (tz == (short) tz);
+	}
+	
+	/**
+	 * Gets a cached result.
+	 * @param geoX the origin geodata X
+	 * @param geoY the origin geodata Y
+	 * @param z the origin nearest Z
+	 * @param tGeoX the target geodata X
+	 * @param tGeoY the target geodata Y
+	 * @param tz the target nearest Z
+	 * @return the cached result, {@code null} if there is none
+	 */
+	Boolean get(int geoX, int geoY, int z, int tGeoX, int tGeoY, int tz) {
+		final long origin = pack(geoX, geoY, z);
+		final long target = pack(tGeoX, tGeoY, tz);
+		final Entry entry = _entries.get(index(origin, target));
+		if ((entry != null) && (entry._origin == origin) && (entry._target == target)) {
+			_hits.increment();
+			return entry._result;
+		}
+		_misses.increment();
+		return null;
+	}
+	
+	/**
+	 * Stores a result.
+	 * @param geoX the origin geodata X
+	 * @param geoY the origin geodata Y
+	 * @param z the origin nearest Z
+	 * @param tGeoX the target geodata X
+	 * @param tGeoY the target geodata Y
+	 * @param tz the target nearest Z
+	 * @param result the line of sight result
+	 */
+	void put(int geoX, int geoY, int z, int tGeoX, int tGeoY, int tz, boolean result) {
+		final long origin = pack(geoX, geoY, z);
+		final long target = pack(tGeoX, tGeoY, tz);
+		_entries.set(index(origin, target), new Entry(origin, target, result));
+	}
+	
+	/**
+	 * Removes all entries.
+	 */
+	void clear() {
+		for (int i = 0; i < _entries.length(); i++) {
+			_entries.set(i, null);
+		}
+	}
+	
+	long getHits() {
+		return _hits.sum();
+	}
+	
+	long getMisses() {
+		return _misses.sum();
+	}
+	
+	private int index(long origin, long target) {
+		long hash = (origin * 0x9E3779B97F4A7C15L) ^ target;
+		hash *= 0xC2B2AE3D27D4EB4FL;
+		return (int) (hash ^ (hash >>> 32)) & _mask;
+	}
+	
+	private static long pack(int geoX, int geoY, int z) {
+		return ((long) geoX << 40) | ((long) (geoY & 0xFFFFFF) << 16) | (z & Z_MASK);
+	}
+	
+	private static final class Entry {
+		final long _origin;
+		final long _target;
+		final boolean _result;
+		
+		Entry(long origin, long target, boolean result) {
+			_origin = origin;
+			_target = target;
+			_result = result;
+		}
+	}
+}
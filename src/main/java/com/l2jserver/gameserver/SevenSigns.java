@@ -49,6 +49,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.l2jserver.commons.database.ConnectionFactory;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.instancemanager.CastleManager;
 import com.l2jserver.gameserver.model.AutoSpawnHandler;
 import com.l2jserver.gameserver.model.AutoSpawnHandler.AutoSpawnInstance;
@@ -710,7 +711,7 @@ public class SevenSigns {
 			return;
 		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(UPDATE_PLAYER)) {
 			ps.setString(1, sevenDat.getString("cabal"));
 			ps.setInt(2, sevenDat.getInt("seal"));
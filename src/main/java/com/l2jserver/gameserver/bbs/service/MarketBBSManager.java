@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.bbs.service;
+
+import java.util.List;
+import java.util.StringTokenizer;
+
+import com.l2jserver.gameserver.datatables.ItemTable;
+import com.l2jserver.gameserver.handler.CommunityBoardHandler;
+import com.l2jserver.gameserver.handler.IParseBoardHandler;
+import com.l2jserver.gameserver.instancemanager.PrivateStoreManager;
+import com.l2jserver.gameserver.instancemanager.PrivateStoreManager.Offer;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.util.Util;
+
+/**
+ * Market BBS Manager.<br>
+ * Lists the private stores selling or buying an item, {@code _bbsmarket;sell;<itemId>} and {@code _bbsmarket;buy;<itemId>}.
+ */
+public class MarketBBSManager extends BaseBBSManager implements IParseBoardHandler {
+	
+	private static final String[] COMMANDS = {
+		"_bbsmarket"
+	};
+	
+	private static final int MAX_OFFERS = 30;
+	
+	protected MarketBBSManager() {
+		// Do nothing.
+	}
+	
+	@Override
+	public boolean parseCommunityBoardCommand(String command, L2PcInstance player) {
+		parsecmd(command, player);
+		return true;
+	}
+	
+	@Override
+	public String[] getCommunityBoardCommands() {
+		return COMMANDS;
+	}
+	
+	@Override
+	public void parsecmd(String command, L2PcInstance activeChar) {
+		final StringTokenizer st = new StringTokenizer(command, ";");
+		st.nextToken();
+		final boolean buy = st.hasMoreTokens() && st.nextToken().equals("buy");
+		int itemId = 0;
+		if (st.hasMoreTokens()) {
+			try {
+				itemId = Integer.parseInt(st.nextToken());
+			} catch (NumberFormatException e) {
+				// Ignore, shows the usage.
+			}
+		}
+		
+		final L2Item item = ItemTable.getInstance().getTemplate(itemId);
+		if (item == null) {
+			CommunityBoardHandler.separateAndSend("<html><body><br><br><center>Usage: _bbsmarket;sell;itemId or _bbsmarket;buy;itemId</center><br><br></body></html>", activeChar);
+			return;
+		}
+		
+		final List<Offer> offers = buy ? PrivateStoreManager.getInstance().getBuyers(itemId, MAX_OFFERS) : PrivateStoreManager.getInstance().getSellers(itemId, MAX_OFFERS);
+		final StringBuilder html = new StringBuilder(512 + (offers.size() * 160));
+		html.append("<html><body><br><br><center><font color=\"LEVEL\">").append(buy ? "Buying " : "Selling ").append(item.getName()).append("</font><br>");
+		if (offers.isEmpty()) {
+			html.append("No private store is ").append(buy ? "buying" : "selling").append(" this item.");
+		} else {
+			html.append("<table width=610><tr><td width=200>Store</td><td width=150>Price</td><td width=150>Count</td><td width=110>Enchant</td></tr>");
+			for (Offer offer : offers) {
+				html.append("<tr><td>").append(offer.getOwnerName()).append("</td><td>").append(Util.formatAdena(offer.getPrice())).append("</td><td>").append(offer.getCount()).append("</td><td>+").append(offer.getEnchant()).append("</td></tr>");
+			}
+			html.append("</table>");
+		}
+		html.append("<br><a action=\"bypass _bbsmarket;").append(buy ? "sell" : "buy").append(";").append(itemId).append("\">").append(buy ? "Show sellers" : "Show buyers").append("</a></center></body></html>");
+		CommunityBoardHandler.separateAndSend(html.toString(), activeChar);
+	}
+	
+	@Override
+	public void parsewrite(String ar1, String ar2, String ar3, String ar4, String ar5, L2PcInstance activeChar) {
+		// Nothing to write.
+	}
+	
+	public static MarketBBSManager getInstance() {
+		return SingletonHolder._instance;
+	}
+	
+	private static class SingletonHolder {
+		protected static final MarketBBSManager _instance = new MarketBBSManager();
+	}
+}
@@ -21,22 +21,48 @@ package com.l2jserver.gameserver.cache;
 import static com.l2jserver.gameserver.config.Configuration.general;
 import static com.l2jserver.gameserver.config.Configuration.server;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 
-import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Objects;
+import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.util.file.filter.HTMLFilter;
 
 /**
- * HTML Cache.
+ * HTML Cache.<br>
+ * Pages are kept as templates, by path relative to the datapack or script root.<br>
+ * With a cache size, the least recently used pages are evicted and read again when requested.<br>
+ * Pages not requested for a while can be kept compressed, and changed files can be reloaded.<br>
+ * Lookups do not lock, eviction and compression only lock the entries they change.
  * @author Layane
  * @author Zoey76
  */
@@ -46,29 +72,67 @@ public class HtmCache {
 	
 	private static final HTMLFilter HTML_FILTER = new HTMLFilter();
 	
-	private static final Map<String, String> HTML_CACHE = general().lazyCache() ? new ConcurrentHashMap<>() : new HashMap<>();
+	/** Interval between compression sweeps, in milliseconds. */
+	private static final long COMPRESS_INTERVAL = 60000;
 	
-	private int _loadedFiles;
+	private final File _datapackRoot;
 	
-	private long _bytesBuffLen;
+	private final File _scriptRoot;
+	
+	private final boolean _lazy;
+	
+	/** The maximum bytes held by the cached pages, 0 for no limit. */
+	private final long _maxBytes;
+	
+	private final Map<String, HtmEntry> _cache = new ConcurrentHashMap<>();
+	
+	/** Language prefixed paths without a file, their default page is used. */
+	private final Set<String> _missing = ConcurrentHashMap.newKeySet();
+	
+	private final AtomicLong _usedBytes = new AtomicLong();
+	
+	private final Object _evictLock = new Object();
+	
+	private final LongAdder _hits = new LongAdder();
+	
+	private final LongAdder _misses = new LongAdder();
 	
 	protected HtmCache() {
+		this(server().getDatapackRoot(), server().getScriptRoot(), general().lazyCache(), general().getHtmCacheSize() * 1048576L);
+		
+		if (general().getHtmCacheCompressAfter() > 0) {
+			final long maxIdle = TimeUnit.MINUTES.toNanos(general().getHtmCacheCompressAfter());
+			ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(() -> compress(maxIdle), COMPRESS_INTERVAL, COMPRESS_INTERVAL);
+		}
+		
+		if (general().htmCacheWatch()) {
+			startWatch();
+		}
+	}
+	
+	HtmCache(File datapackRoot, File scriptRoot, boolean lazy, long maxBytes) {
+		_datapackRoot = datapackRoot;
+		_scriptRoot = scriptRoot;
+		_lazy = lazy;
+		_maxBytes = maxBytes;
 		reload();
 	}
 	
 	public void reload() {
-		reload(server().getDatapackRoot());
+		reload(_datapackRoot);
 	}
 	
 	public void reload(File f) {
-		if (!general().lazyCache()) {
+		for (Map.Entry<String, HtmEntry> entry : _cache.entrySet()) {
+			remove(entry.getKey(), entry.getValue());
+		}
+		_missing.clear();
+		
+		if (!_lazy) {
 			LOG.info("Html cache start...");
 			parseDir(f);
 			LOG.info(String.format("%.3f", getMemoryUsage()) + " megabytes on " + getLoadedFiles() + " files loaded");
 		} else {
-			HTML_CACHE.clear();
-			_loadedFiles = 0;
-			_bytesBuffLen = 0;
 			LOG.info("Running lazy cache.");
 		}
 	}
@@ -78,12 +142,45 @@ public class HtmCache {
 		LOG.info("Reloaded specified path.");
 	}
 	
+	/**
+	 * @return the megabytes held by the cached pages
+	 */
 	public double getMemoryUsage() {
-		return ((float) _bytesBuffLen / 1048576);
+		return ((float) getUsedBytes() / 1048576);
+	}
+	
+	/**
+	 * @return the bytes held by the cached pages, their characters or compressed content
+	 */
+	public long getUsedBytes() {
+		return _usedBytes.get();
 	}
 	
 	public int getLoadedFiles() {
-		return _loadedFiles;
+		return _cache.size();
+	}
+	
+	/**
+	 * @return the number of requested pages found in the cache
+	 */
+	public long getHits() {
+		return _hits.sum();
+	}
+	
+	/**
+	 * @return the number of requested pages read from disk or not found
+	 */
+	public long getMisses() {
+		return _misses.sum();
+	}
+	
+	/**
+	 * @return the ratio of requested pages found in the cache
+	 */
+	public double getHitRate() {
+		final long hits = getHits();
+		final long requests = hits + getMisses();
+		return requests > 0 ? (double) hits / requests : 0;
 	}
 	
 	private void parseDir(File dir) {
@@ -100,55 +197,84 @@ public class HtmCache {
 	}
 	
 	public String loadFile(File file) {
+		final HtmTemplate template = loadTemplate(file, getPath(file));
+		return template != null ? template.getText() : null;
+	}
+	
+	private HtmTemplate loadTemplate(File file, String path) {
 		if (!HTML_FILTER.accept(file)) {
 			return null;
 		}
 		
-		String content = null;
-		try (var fis = new FileInputStream(file);
-			var bis = new BufferedInputStream(fis)) {
-			final int bytes = bis.available();
-			byte[] raw = new byte[bytes];
-			
-			bis.read(raw);
-			content = new String(raw, UTF_8);
+		try {
+			String content = new String(Files.readAllBytes(file.toPath()), UTF_8);
 			content = content.replaceAll("(?s)<!--.*?-->", ""); // Remove html comments
-			
-			String oldContent = HTML_CACHE.put(file.getCanonicalPath(), content);
-			if (oldContent == null) {
-				_bytesBuffLen += bytes;
-				_loadedFiles++;
-			} else {
-				_bytesBuffLen = (_bytesBuffLen - oldContent.length()) + bytes;
-			}
+			final HtmTemplate template = HtmTemplate.parse(content);
+			put(path, new HtmEntry(file.toPath().toAbsolutePath().normalize(), template));
+			return template;
 		} catch (Exception e) {
 			LOG.warn("Problem with htm file {}!", file, e);
 		}
-		return content;
+		return null;
 	}
 	
 	public String getHtm(String prefix, String path) {
+		final HtmTemplate template = getTemplate(prefix, path);
+		return template != null ? template.getText() : null;
+	}
+	
+	/**
+	 * Gets a page, the language prefixed one if there is one, the default one otherwise.
+	 * @param prefix the language prefix, may be {@code null}
+	 * @param path the path to the HTM
+	 * @return the HTM parsed as a template, {@code null} if it could not be found
+	 */
+	public HtmTemplate getTemplate(String prefix, String path) {
 		final var newPath = Objects.firstNonNull(prefix, "") + path;
-		var content = HTML_CACHE.get(newPath);
-		if (general().lazyCache() && (content == null)) {
-			content = loadFile(new File(server().getDatapackRoot(), newPath));
-			if (content == null) {
-				content = loadFile(new File(server().getScriptRoot(), newPath));
+		var template = get(newPath);
+		if ((template == null) && (prefix != null) && _missing.contains(newPath)) {
+			template = get(path);
+		}
+		
+		if (template != null) {
+			_hits.increment();
+			return template;
+		}
+		
+		_misses.increment();
+		template = load(newPath);
+		
+		// If multilanguage content is not present, try default location.
+		if ((template == null) && (prefix != null)) {
+			template = get(path);
+			if (template == null) {
+				template = load(path);
 			}
 			
-			// If multilanguage content is not present, try default location.
-			if (prefix != null && content == null) {
-				content = loadFile(new File(server().getDatapackRoot(), path));
-				if (content == null) {
-					content = loadFile(new File(server().getScriptRoot(), path));
-				}
+			if (template != null) {
+				// Only prefixed paths of existing pages are remembered, so requests cannot grow the set.
+				_missing.add(newPath);
 			}
 		}
-		return content;
+		return template;
+	}
+	
+	/**
+	 * Reads a page missing from the cache from the datapack or the script root.
+	 * @param path the path to the HTM
+	 * @return the HTM parsed as a template, {@code null} if it could not be found or every page is loaded at startup
+	 */
+	private HtmTemplate load(String path) {
+		if (!_lazy && (_maxBytes <= 0)) {
+			return null;
+		}
+		
+		final HtmTemplate template = loadTemplate(new File(_datapackRoot, path), path);
+		return template != null ? template : loadTemplate(new File(_scriptRoot, path), path);
 	}
 	
 	public boolean contains(String path) {
-		return HTML_CACHE.containsKey(path);
+		return _cache.containsKey(path);
 	}
 	
 	/**
@@ -156,7 +282,298 @@ public class HtmCache {
 	 * @return {@code true} if the path targets a HTM or HTML file, {@code false} otherwise.
 	 */
 	public boolean isLoadable(String path) {
-		return HTML_FILTER.accept(new File(server().getDatapackRoot(), path));
+		return HTML_FILTER.accept(new File(_datapackRoot, path));
+	}
+	
+	private HtmTemplate get(String path) {
+		final HtmEntry entry = _cache.get(path);
+		if (entry == null) {
+			return null;
+		}
+		
+		entry._lastAccess = System.nanoTime();
+		final HtmTemplate template = entry._template;
+		if (template != null) {
+			return template;
+		}
+		
+		// Compressed, inflate and parse without holding the entry
+		final byte[] compressed = entry._compressed;
+		if (compressed == null) {
+			// Inflated meanwhile
+			return entry._template;
+		}
+		
+		final HtmTemplate inflated;
+		try {
+			inflated = HtmTemplate.parse(new String(inflate(compressed), UTF_8));
+		} catch (DataFormatException e) {
+			LOG.warn("Problem with compressed htm {}!", path, e);
+			remove(path, entry);
+			return null;
+		}
+		
+		synchronized (entry) {
+			if (entry._template != null) {
+				// Inflated meanwhile
+				return entry._template;
+			}
+			
+			if (entry._compressed == compressed) {
+				entry._template = inflated;
+				entry._compressed = null;
+				resize(entry, sizeOf(inflated.getText()));
+			}
+		}
+		return inflated;
+	}
+	
+	private void put(String path, HtmEntry entry) {
+		_usedBytes.addAndGet(entry._size);
+		final HtmEntry oldEntry = _cache.put(path, entry);
+		if (oldEntry != null) {
+			release(oldEntry);
+		}
+		
+		if ((_maxBytes > 0) && (_usedBytes.get() > _maxBytes)) {
+			evict();
+		}
+	}
+	
+	private void remove(String path, HtmEntry entry) {
+		if (_cache.remove(path, entry)) {
+			release(entry);
+		}
+	}
+	
+	private void release(HtmEntry entry) {
+		synchronized (entry) {
+			entry._cached = false;
+			_usedBytes.addAndGet(-entry._size);
+		}
+	}
+	
+	private void resize(HtmEntry entry, int size) {
+		synchronized (entry) {
+			if (entry._cached) {
+				_usedBytes.addAndGet(size - entry._size);
+			}
+			entry._size = size;
+		}
+	}
+	
+	/**
+	 * Evicts the least recently used pages, down to 90% of the cache size so that evictions are not run for every page read.
+	 */
+	private void evict() {
+		synchronized (_evictLock) {
+			if (_usedBytes.get() <= _maxBytes) {
+				return;
+			}
+			
+			final List<Map.Entry<String, HtmEntry>> entries = new ArrayList<>(_cache.entrySet());
+			entries.sort(Comparator.comparingLong(entry -> entry.getValue()._lastAccess));
+			final long target = (_maxBytes * 9) / 10;
+			// The most recently used page is kept even if it is bigger than the cache
+			for (int i = 0; (i < (entries.size() - 1)) && (_usedBytes.get() > target); i++) {
+				remove(entries.get(i).getKey(), entries.get(i).getValue());
+			}
+		}
+	}
+	
+	/**
+	 * Compresses the pages not requested for the given time.
+	 * @param maxIdle the time without requests, in nanoseconds
+	 */
+	void compress(long maxIdle) {
+		final long now = System.nanoTime();
+		for (HtmEntry entry : _cache.values()) {
+			final HtmTemplate template = entry._template;
+			if ((template == null) || ((now - entry._lastAccess) <= maxIdle)) {
+				continue;
+			}
+			
+			final byte[] compressed = deflate(template.getText().getBytes(UTF_8));
+			synchronized (entry) {
+				// Requested or reloaded meanwhile
+				if ((entry._template != template) || ((now - entry._lastAccess) <= maxIdle)) {
+					continue;
+				}
+				
+				// Compressed content is published first, lookups seeing no template always find it
+				entry._compressed = compressed;
+				entry._template = null;
+				resize(entry, compressed.length);
+			}
+		}
+	}
+	
+	private void startWatch() {
+		try {
+			final WatchService watchService = FileSystems.getDefault().newWatchService();
+			final Map<WatchKey, Path> dirs = new HashMap<>();
+			register(watchService, dirs, new File(_datapackRoot, "data/html").toPath());
+			register(watchService, dirs, _scriptRoot.toPath());
+			
+			final Thread watcher = new Thread(() -> watch(watchService, dirs), "HtmCacheWatcher");
+			watcher.setDaemon(true);
+			watcher.start();
+			LOG.info("Watching {} html directories for changes.", dirs.size());
+		} catch (IOException e) {
+			LOG.warn("Unable to watch html files!", e);
+		}
+	}
+	
+	private static void register(WatchService watchService, Map<WatchKey, Path> dirs, Path root) throws IOException {
+		if (!Files.isDirectory(root)) {
+			return;
+		}
+		
+		try (Stream<Path> paths = Files.walk(root)) {
+			for (Path dir : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+				dirs.put(dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), dir.toAbsolutePath().normalize());
+			}
+		}
+	}
+	
+	private void watch(WatchService watchService, Map<WatchKey, Path> dirs) {
+		while (true) {
+			final WatchKey key;
+			try {
+				key = watchService.take();
+			} catch (InterruptedException e) {
+				return;
+			}
+			
+			final Path dir = dirs.get(key);
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if ((dir == null) || (event.kind() == OVERFLOW)) {
+					continue;
+				}
+				
+				final Path path = dir.resolve((Path) event.context());
+				try {
+					if ((event.kind() == ENTRY_CREATE) && Files.isDirectory(path)) {
+						register(watchService, dirs, path);
+					} else {
+						onFileChanged(path, event.kind() == ENTRY_DELETE);
+					}
+				} catch (Exception e) {
+					LOG.warn("Problem reloading {}!", path, e);
+				}
+			}
+			
+			if (!key.reset()) {
+				dirs.remove(key);
+			}
+		}
+	}
+	
+	/**
+	 * Reloads or removes the cached pages of a changed file, pages not in the cache are read when requested.
+	 * @param file the changed file
+	 * @param deleted {@code true} if the file has been deleted
+	 */
+	void onFileChanged(Path file, boolean deleted) {
+		// A language page may have been added
+		_missing.clear();
+		
+		for (Map.Entry<String, HtmEntry> entry : _cache.entrySet()) {
+			if (!entry.getValue()._file.equals(file)) {
+				continue;
+			}
+			
+			if (deleted) {
+				remove(entry.getKey(), entry.getValue());
+			} else if (loadTemplate(file.toFile(), entry.getKey()) != null) {
+				LOG.info("Reloaded {}.", entry.getKey());
+			}
+		}
+	}
+	
+	/**
+	 * @param file the file
+	 * @return the path of the file relative to the datapack or script root
+	 */
+	private String getPath(File file) {
+		final Path path = file.toPath().toAbsolutePath().normalize();
+		for (File root : new File[] {
+			_datapackRoot,
+			_scriptRoot
+		}) {
+			final Path rootPath = root.toPath().toAbsolutePath().normalize();
+			if (path.startsWith(rootPath)) {
+				return rootPath.relativize(path).toString().replace('\\', '/');
+			}
+		}
+		return path.toString();
+	}
+	
+	/**
+	 * @param text the text
+	 * @return the bytes held by the characters of the text, one per character if all of them are Latin-1
+	 */
+	private static int sizeOf(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) > 0xFF) {
+				return text.length() * 2;
+			}
+		}
+		return text.length();
+	}
+	
+	private static byte[] deflate(byte[] data) {
+		final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try {
+			deflater.setInput(data);
+			deflater.finish();
+			final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+			final byte[] buffer = new byte[4096];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+	
+	private static byte[] inflate(byte[] data) throws DataFormatException {
+		final Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+			final byte[] buffer = new byte[4096];
+			while (!inflater.finished()) {
+				final int count = inflater.inflate(buffer);
+				if ((count == 0) && inflater.needsInput()) {
+					throw new DataFormatException("Truncated data");
+				}
+				out.write(buffer, 0, count);
+			}
+			return out.toByteArray();
+		} finally {
+			inflater.end();
+		}
+	}
+	
+	/**
+	 * Cached page, either as a template or compressed.
+	 */
+	private static final class HtmEntry {
+		final Path _file;
+		volatile HtmTemplate _template;
+		volatile byte[] _compressed;
+		volatile long _lastAccess;
+		int _size;
+		boolean _cached = true;
+		
+		HtmEntry(Path file, HtmTemplate template) {
+			_file = file;
+			_template = template;
+			_lastAccess = System.nanoTime();
+			_size = sizeOf(template.getText());
+		}
 	}
 	
 	public static HtmCache getInstance() {
@@ -0,0 +1,184 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HTML template.<br>
+ * Splits the HTML in literal segments and {@code %name%} placeholder slots once, so that the placeholders can be replaced in a single pass.
+ */
+public final class HtmTemplate {
+	
+	private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(8192));
+	
+	private final String _text;
+	
+	/** Placeholder of each slot. */
+	private final String[] _slots;
+	
+	/** Offset of each slot in the text, the literal segments lie in between. */
+	private final int[] _starts;
+	
+	/** Placeholders that can be replaced in the single pass with the same result as a sequential replace. */
+	private final Set<String> _replaceable;
+	
+	private HtmTemplate(String text, String[] slots, int[] starts, Set<String> replaceable) {
+		_text = text;
+		_slots = slots;
+		_starts = starts;
+		_replaceable = replaceable;
+	}
+	
+	/**
+	 * Parses an HTML into a template.
+	 * @param text the HTML
+	 * @return the template
+	 */
+	public static HtmTemplate parse(String text) {
+		final List<String> slots = new ArrayList<>();
+		final List<Integer> starts = new ArrayList<>();
+		int i = text.indexOf('%');
+		while (i >= 0) {
+			final int end = text.indexOf('%', i + 1);
+			if (end < 0) {
+				break;
+			}
+			
+			if (isName(text, i + 1, end)) {
+				slots.add(text.substring(i, end + 1).intern());
+				starts.add(i);
+				i = text.indexOf('%', end + 1);
+			} else {
+				i = end;
+			}
+		}
+		
+		final Set<String> replaceable = new HashSet<>(slots);
+		for (int slot = 0; slot < slots.size(); slot++) {
+			final String placeholder = slots.get(slot);
+			final int start = starts.get(slot);
+			final int end = start + placeholder.length();
+			// A value joined to the name characters around it could form another placeholder
+			if (isPercentBefore(text, start) && isPercentAfter(text, end)) {
+				replaceable.remove(placeholder);
+			}
+		}
+		
+		// Placeholders overlapping other slots are found at other positions by a sequential replace
+		for (String placeholder : new HashSet<>(replaceable)) {
+			boolean matches = true;
+			int index = text.indexOf(placeholder);
+			for (int slot = 0; matches && (slot < slots.size()); slot++) {
+				if (slots.get(slot).equals(placeholder)) {
+					matches = index == starts.get(slot);
+					index = text.indexOf(placeholder, index + placeholder.length());
+				}
+			}
+			
+			if (!matches || (index >= 0)) {
+				replaceable.remove(placeholder);
+			}
+		}
+		return new HtmTemplate(text, slots.toArray(new String[0]), starts.stream().mapToInt(Integer::intValue).toArray(), replaceable);
+	}
+	
+	private static boolean isName(String text, int start, int end) {
+		if (start == end) {
+			return false;
+		}
+		
+		for (int i = start; i < end; i++) {
+			if (!isNameChar(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private static boolean isNameChar(char c) {
+		return Character.isLetterOrDigit(c) || (c == '_');
+	}
+	
+	private static boolean isPercentBefore(String text, int start) {
+		int i = start - 1;
+		while ((i >= 0) && isNameChar(text.charAt(i))) {
+			i--;
+		}
+		return (i >= 0) && (text.charAt(i) == '%');
+	}
+	
+	private static boolean isPercentAfter(String text, int end) {
+		int i = end;
+		while ((i < text.length()) && isNameChar(text.charAt(i))) {
+			i++;
+		}
+		return (i < text.length()) && (text.charAt(i) == '%');
+	}
+	
+	/**
+	 * @return the HTML of this template
+	 */
+	public String getText() {
+		return _text;
+	}
+	
+	/**
+	 * @return the number of placeholder slots
+	 */
+	public int getSlotCount() {
+		return _slots.length;
+	}
+	
+	/**
+	 * @param placeholder the placeholder, including the percent signs
+	 * @return {@code true} if the placeholder can be replaced when rendering, {@code false} if it must be replaced in the HTML
+	 */
+	public boolean isReplaceable(String placeholder) {
+		return _replaceable.contains(placeholder);
+	}
+	
+	/**
+	 * Renders this template in a single pass.<br>
+	 * Placeholders without a value are kept as they are.
+	 * @param values the values by placeholder, may be {@code null}
+	 * @return the rendered HTML
+	 */
+	public String render(Map<String, String> values) {
+		if ((values == null) || values.isEmpty()) {
+			return _text;
+		}
+		
+		final StringBuilder sb = BUILDER.get();
+		sb.setLength(0);
+		int segmentStart = 0;
+		for (int i = 0; i < _slots.length; i++) {
+			sb.append(_text, segmentStart, _starts[i]);
+			final String value = values.get(_slots[i]);
+			sb.append(value != null ? value : _slots[i]);
+			segmentStart = _starts[i] + _slots[i].length();
+		}
+		sb.append(_text, segmentStart, _text.length());
+		return sb.toString();
+	}
+}
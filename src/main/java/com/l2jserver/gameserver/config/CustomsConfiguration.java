@@ -183,6 +183,9 @@ public interface CustomsConfiguration extends Reloadable {
 	@Key("OfflineMaxDays")
 	Integer getOfflineMaxDays();
 	
+	@Key("OfflineRestoreThreads")
+	Integer getOfflineRestoreThreads();
+	
 	@Key("OfflineDisconnectFinished")
 	Boolean offlineDisconnectFinished();
 	
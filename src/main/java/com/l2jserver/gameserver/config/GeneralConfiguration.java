@@ -167,6 +167,9 @@ public interface GeneralConfiguration extends Mutable, Reloadable {
 	@Key("EventsMaxThread")
 	Integer getEventsMaxThread();
 	
+	@Key("CharacterLoadThreads")
+	Integer getCharacterLoadThreads();
+	
 	@Key("DeadLockDetector")
 	Boolean deadLockDetector();
 	
@@ -267,6 +270,15 @@ public interface GeneralConfiguration extends Mutable, Reloadable {
 	@Key("LazyCache")
 	Boolean lazyCache();
 	
+	@Key("HtmCacheSize")
+	Integer getHtmCacheSize();
+	
+	@Key("HtmCacheCompressAfter")
+	Integer getHtmCacheCompressAfter();
+	
+	@Key("HtmCacheWatch")
+	Boolean htmCacheWatch();
+	
 	@Key("CacheCharNames")
 	Boolean cacheCharNames();
 	
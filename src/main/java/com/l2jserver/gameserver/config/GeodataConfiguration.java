@@ -31,6 +31,8 @@ import org.aeonbits.owner.Config.Sources;
 import org.aeonbits.owner.Mutable;
 import org.aeonbits.owner.Reloadable;
 
+import com.l2jserver.gameserver.enums.GeoDataLoadMode;
+
 /**
  * Geodata Configuration.
  * @author Zoey76
@@ -103,4 +105,17 @@ public interface GeodataConfiguration extends Mutable, Reloadable {
 	@Separator(";")
 	@Key("ExcludedRegions")
 	List<String> getExcludedRegions();
+	
+	@Key("GeoDataLoadMode")
+	GeoDataLoadMode getGeoDataLoadMode();
+	
+	@Key("GeoDataLoadThreads")
+	Integer getGeoDataLoadThreads();
+	
+	@Separator(";")
+	@Key("WarmUpRegions")
+	List<String> getWarmUpRegions();
+	
+	@Key("LosCacheSize")
+	Integer getLosCacheSize();
 }
\ No newline at end of file
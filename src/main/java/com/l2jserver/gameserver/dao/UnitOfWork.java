@@ -0,0 +1,315 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.dao;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.l2jserver.commons.database.ConnectionFactory;
+
+/**
+ * Unit of work.<br>
+ * Binds one connection and transaction to the current thread for the duration of a logical operation, like storing a player.<br>
+ * While it is open, {@link #getConnection()} returns its connection instead of taking one from the pool, closing or committing that connection does nothing, the unit of work does it once for the whole operation.<br>
+ * Rolling back that connection marks the whole unit of work rollback-only, its commit fails and it is rolled back when closed.<br>
+ * Statements queued with {@link #batch(String)} are executed on commit, in the order they were first queued.
+ * 
+ * <pre>
+ * try (var uow = UnitOfWork.begin()) {
+ * 	...
+ * 	uow.commit();
+ * }
+ * </pre>
+ * 
+ * A unit of work begun while another one is open on the same thread joins it, only the outermost one commits.
+ */
+public final class UnitOfWork implements AutoCloseable {
+	
+	private static final Logger LOG = LoggerFactory.getLogger(UnitOfWork.class);
+	
+	private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+	
+	private static final LongAdder OPERATIONS = new LongAdder();
+	
+	private static final LongAdder CONNECTION_REQUESTS = new LongAdder();
+	
+	private static final LongAdder CONNECTIONS_ACQUIRED = new LongAdder();
+	
+	private static final LongAdder POOL_WAIT_TIME = new LongAdder();
+	
+	private static final LongAdder BATCHED_STATEMENTS = new LongAdder();
+	
+	private final Connection _connection;
+	
+	private final Connection _shared;
+	
+	private final Map<String, PreparedStatement> _batches = new LinkedHashMap<>();
+	
+	private final List<Runnable> _rollbackActions = new ArrayList<>();
+	
+	private int _depth = 1;
+	
+	private boolean _committed = false;
+	
+	private boolean _rollbackOnly = false;
+	
+	private UnitOfWork(Connection connection) {
+		_connection = connection;
+		_shared = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {
+			Connection.class
+		}, this::invokeShared);
+	}
+	
+	/**
+	 * Begins a unit of work on the current thread, or joins the one already open.
+	 * @return the unit of work
+	 * @throws SQLException if the connection could not be acquired
+	 */
+	public static UnitOfWork begin() throws SQLException {
+		return begin(UnitOfWork::acquire);
+	}
+	
+	static UnitOfWork begin(ConnectionSource source) throws SQLException {
+		final UnitOfWork current = CURRENT.get();
+		if (current != null) {
+			current._depth++;
+			return current;
+		}
+		
+		final Connection con = source.get();
+		try {
+			con.setAutoCommit(false);
+		} catch (SQLException ex) {
+			con.close();
+			throw ex;
+		}
+		
+		final UnitOfWork uow = new UnitOfWork(con);
+		CURRENT.set(uow);
+		OPERATIONS.increment();
+		return uow;
+	}
+	
+	/**
+	 * Gets a connection.<br>
+	 * Returns the connection of the unit of work open on the current thread, if any, otherwise a connection from the pool.
+	 * @return the connection
+	 * @throws SQLException if the connection could not be acquired
+	 */
+	public static Connection getConnection() throws SQLException {
+		CONNECTION_REQUESTS.increment();
+		final UnitOfWork current = CURRENT.get();
+		return current != null ? current._shared : acquire();
+	}
+	
+	/**
+	 * Gets the unit of work open on the current thread.
+	 * @return the unit of work, {@code null} if there is none
+	 */
+	public static UnitOfWork current() {
+		return CURRENT.get();
+	}
+	
+	/**
+	 * Gets the batched statement for the given SQL, parameters set and added to it are executed on commit.
+	 * @param sql the SQL
+	 * @return the batched statement
+	 * @throws SQLException if the statement could not be prepared
+	 */
+	public PreparedStatement batch(String sql) throws SQLException {
+		var ps = _batches.get(sql);
+		if (ps == null) {
+			ps = _connection.prepareStatement(sql);
+			_batches.put(sql, ps);
+		}
+		return ps;
+	}
+	
+	/**
+	 * Runs the given action if the unit of work is rolled back, to give back what was taken for it.
+	 * @param action the action
+	 */
+	public void onRollback(Runnable action) {
+		_rollbackActions.add(action);
+	}
+	
+	/**
+	 * Marks the unit of work rollback-only, it can no longer be committed.
+	 */
+	public void setRollbackOnly() {
+		_rollbackOnly = true;
+	}
+	
+	/**
+	 * @return {@code true} if the unit of work can no longer be committed
+	 */
+	public boolean isRollbackOnly() {
+		return _rollbackOnly;
+	}
+	
+	/**
+	 * Executes the batched statements and commits the transaction.<br>
+	 * Does nothing for a joined unit of work, the outermost one commits.
+	 * @throws SQLException if the unit of work is rollback-only, or a statement or the commit failed
+	 */
+	public void commit() throws SQLException {
+		if (_rollbackOnly) {
+			throw new SQLException("Unit of work was rolled back!");
+		}
+		
+		if (_depth > 1) {
+			return;
+		}
+		
+		for (var ps : _batches.values()) {
+			BATCHED_STATEMENTS.add(ps.executeBatch().length);
+		}
+		_connection.commit();
+		_committed = true;
+	}
+	
+	/**
+	 * Leaves the unit of work.<br>
+	 * The outermost one rolls back if it was not committed and returns the connection to the pool.
+	 */
+	@Override
+	public void close() {
+		if (--_depth > 0) {
+			return;
+		}
+		
+		CURRENT.remove();
+		for (var ps : _batches.values()) {
+			try {
+				ps.close();
+			} catch (SQLException ex) {
+				LOG.warn("Could not close batched statement!", ex);
+			}
+		}
+		
+		try {
+			if (!_committed) {
+				_connection.rollback();
+			}
+			_connection.setAutoCommit(true);
+		} catch (SQLException ex) {
+			LOG.warn("Could not end unit of work!", ex);
+		} finally {
+			try {
+				_connection.close();
+			} catch (SQLException ex) {
+				LOG.warn("Could not close connection!", ex);
+			}
+		}
+		
+		if (!_committed) {
+			_rollbackActions.forEach(Runnable::run);
+		}
+	}
+	
+	private Object invokeShared(Object proxy, Method method, Object[] args) throws Throwable {
+		switch (method.getName()) {
+			case "close", "commit", "setAutoCommit" -> {
+				return null;
+			}
+			case "rollback" -> {
+				// Rolling back part of the operation rolls back all of it, rolling back to a savepoint only undoes that part.
+				if (args == null) {
+					setRollbackOnly();
+					return null;
+				}
+			}
+			case "isClosed" -> {
+				return _depth <= 0;
+			}
+			case "equals" -> {
+				return proxy == args[0];
+			}
+			case "hashCode" -> {
+				return System.identityHashCode(proxy);
+			}
+		}
+		
+		try {
+			return method.invoke(_connection, args);
+		} catch (InvocationTargetException ex) {
+			throw ex.getCause();
+		}
+	}
+	
+	private static Connection acquire() throws SQLException {
+		final long start = System.nanoTime();
+		final Connection con = ConnectionFactory.getInstance().getConnection();
+		POOL_WAIT_TIME.add(System.nanoTime() - start);
+		CONNECTIONS_ACQUIRED.increment();
+		return con;
+	}
+	
+	/**
+	 * @return the number of units of work begun, joined ones excluded
+	 */
+	public static long getOperationCount() {
+		return OPERATIONS.sum();
+	}
+	
+	/**
+	 * @return the number of connections requested through {@link #getConnection()}
+	 */
+	public static long getConnectionRequestCount() {
+		return CONNECTION_REQUESTS.sum();
+	}
+	
+	/**
+	 * @return the number of connections taken from the pool
+	 */
+	public static long getConnectionsAcquiredCount() {
+		return CONNECTIONS_ACQUIRED.sum();
+	}
+	
+	/**
+	 * @return the total time spent waiting for the pool, in nanoseconds
+	 */
+	public static long getPoolWaitTime() {
+		return POOL_WAIT_TIME.sum();
+	}
+	
+	/**
+	 * @return the number of batched statements executed on commit
+	 */
+	public static long getBatchedStatementCount() {
+		return BATCHED_STATEMENTS.sum();
+	}
+	
+	@FunctionalInterface
+	interface ConnectionSource {
+		Connection get() throws SQLException;
+	}
+}
@@ -24,8 +24,8 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.ClanDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 
 /**
  * Clan DAO MySQL implementation.
@@ -42,7 +42,7 @@ public class ClanDAOMySQLImpl implements ClanDAO {
 	@Override
 	public Map<Integer, Integer> getPrivileges(int clanId) {
 		final var result = new HashMap<Integer, Integer>();
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT_CLAN_PRIVILEGES)) {
 			ps.setInt(1, clanId);
 			try (var rs = ps.executeQuery()) {
@@ -62,7 +62,7 @@ public class ClanDAOMySQLImpl implements ClanDAO {
 	
 	@Override
 	public void storePrivileges(int clanId, int rank, int privileges) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(INSERT_CLAN_PRIVILEGES)) {
 			ps.setInt(1, clanId);
 			ps.setInt(2, rank);
@@ -23,8 +23,8 @@ import java.sql.ResultSet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.FriendDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 
 /**
@@ -39,7 +39,7 @@ public class FriendDAOMySQLImpl implements FriendDAO {
 	
 	@Override
 	public void load(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			ps.setInt(1, player.getObjectId());
 			try (ResultSet rs = ps.executeQuery()) {
@@ -21,8 +21,8 @@ package com.l2jserver.gameserver.dao.impl.mysql;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.HennaDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.data.xml.impl.HennaData;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.items.L2Henna;
@@ -45,7 +45,7 @@ public class HennaDAOMySQLImpl implements HennaDAO {
 	
 	@Override
 	public void load(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, player.getClassIndex());
@@ -72,7 +72,7 @@ public class HennaDAOMySQLImpl implements HennaDAO {
 	
 	@Override
 	public void insert(L2PcInstance player, L2Henna henna, int slot) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(INSERT)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, henna.getDyeId());
@@ -86,7 +86,7 @@ public class HennaDAOMySQLImpl implements HennaDAO {
 	
 	@Override
 	public void delete(L2PcInstance player, int slot) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE_ONE)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, slot);
@@ -99,7 +99,7 @@ public class HennaDAOMySQLImpl implements HennaDAO {
 	
 	@Override
 	public void deleteAll(L2PcInstance player, int classIndex) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE_ALL)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, classIndex);
@@ -21,8 +21,8 @@ package com.l2jserver.gameserver.dao.impl.mysql;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.ItemDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 
 /**
@@ -37,7 +37,7 @@ public class ItemDAOMySQLImpl implements ItemDAO {
 	
 	@Override
 	public void loadPetInventory(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			ps.setInt(1, player.getObjectId());
 			try (var rs = ps.executeQuery()) {
@@ -21,8 +21,8 @@ package com.l2jserver.gameserver.dao.impl.mysql;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.ItemReuseDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.model.TimeStamp;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
@@ -44,7 +44,7 @@ public class ItemReuseDAOMySQLImpl implements ItemReuseDAO {
 	
 	@Override
 	public void delete(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE)) {
 			ps.setInt(1, player.getObjectId());
 			ps.execute();
@@ -57,7 +57,7 @@ public class ItemReuseDAOMySQLImpl implements ItemReuseDAO {
 	public void insert(L2PcInstance player) {
 		delete(player);
 		
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(INSERT)) {
 			final var itemReuseTimeStamps = player.getItemReuseTimeStamps();
 			if (itemReuseTimeStamps != null) {
@@ -80,7 +80,7 @@ public class ItemReuseDAOMySQLImpl implements ItemReuseDAO {
 	
 	@Override
 	public void load(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			ps.setInt(1, player.getObjectId());
 			try (var rs = ps.executeQuery()) {
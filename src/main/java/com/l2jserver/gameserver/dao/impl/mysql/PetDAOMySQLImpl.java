@@ -21,8 +21,8 @@ package com.l2jserver.gameserver.dao.impl.mysql;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.PetDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.data.xml.impl.PetDataTable;
 import com.l2jserver.gameserver.model.L2PetLevelData;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
@@ -49,7 +49,7 @@ public class PetDAOMySQLImpl implements PetDAO {
 	@Override
 	public void updateFood(L2PcInstance player, int petId) {
 		if ((player.getControlItemId() != 0) && (petId != 0)) {
-			try (var con = ConnectionFactory.getInstance().getConnection();
+			try (var con = UnitOfWork.getConnection();
 				var ps = con.prepareStatement(UPDATE_FOOD)) {
 				ps.setInt(1, player.getCurrentFeed());
 				ps.setInt(2, player.getControlItemId());
@@ -63,7 +63,7 @@ public class PetDAOMySQLImpl implements PetDAO {
 	
 	@Override
 	public void delete(L2PetInstance pet) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE)) {
 			ps.setInt(1, pet.getControlObjectId());
 			ps.execute();
@@ -74,7 +74,7 @@ public class PetDAOMySQLImpl implements PetDAO {
 	
 	@Override
 	public L2PetInstance load(L2ItemInstance control, L2NpcTemplate template, L2PcInstance owner) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement("SELECT item_obj_id, name, level, curHp, curMp, exp, sp, fed FROM pets WHERE item_obj_id=?")) {
 			ps.setInt(1, control.getObjectId());
 			try (var rs = ps.executeQuery()) {
@@ -126,7 +126,7 @@ public class PetDAOMySQLImpl implements PetDAO {
 	}
 	
 	private static void insertOrUpdate(L2PetInstance pet, String query) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(query)) {
 			ps.setString(1, pet.getName());
 			ps.setInt(2, pet.getLevel());
@@ -26,8 +26,8 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.PetSkillSaveDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.data.sql.impl.SummonEffectsTable;
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.model.actor.instance.L2PetInstance;
@@ -52,7 +52,7 @@ public class PetSkillSaveDAOMySQL implements PetSkillSaveDAO {
 	
 	@Override
 	public void insert(L2PetInstance pet, boolean storeEffects) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps1 = con.prepareStatement(DELETE_SKILL_SAVE);
 			var ps2 = con.prepareStatement(ADD_SKILL_SAVE)) {
 			// Delete all current stored effects for summon to avoid dupe
@@ -108,7 +108,7 @@ public class PetSkillSaveDAOMySQL implements PetSkillSaveDAO {
 	
 	@Override
 	public void load(L2PetInstance pet) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps1 = con.prepareStatement(RESTORE_SKILL_SAVE);
 			var ps2 = con.prepareStatement(DELETE_SKILL_SAVE)) {
 			if (!SummonEffectsTable.getInstance().containsPetId(pet.getControlObjectId())) {
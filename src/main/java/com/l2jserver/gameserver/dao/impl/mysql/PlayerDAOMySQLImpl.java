@@ -25,8 +25,8 @@ import java.sql.Timestamp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.PlayerDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.dao.factory.impl.DAOFactory;
 import com.l2jserver.gameserver.data.sql.impl.ClanTable;
 import com.l2jserver.gameserver.enums.Sex;
@@ -58,7 +58,7 @@ public class PlayerDAOMySQLImpl implements PlayerDAO {
 	@Override
 	public L2PcInstance load(int objectId) {
 		L2PcInstance player = null;
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			// Retrieve the L2PcInstance from the characters table of the database
 			ps.setInt(1, objectId);
@@ -192,7 +192,7 @@ public class PlayerDAOMySQLImpl implements PlayerDAO {
 	
 	@Override
 	public void loadCharacters(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var stmt = con.prepareStatement(SELECT_CHARACTERS)) {
 			stmt.setString(1, player.getAccountName());
 			stmt.setInt(2, player.getObjectId());
@@ -208,7 +208,7 @@ public class PlayerDAOMySQLImpl implements PlayerDAO {
 	
 	@Override
 	public boolean insert(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(INSERT)) {
 			ps.setString(1, player.getAccountName());
 			ps.setInt(2, player.getObjectId());
@@ -262,7 +262,7 @@ public class PlayerDAOMySQLImpl implements PlayerDAO {
 			totalOnlineTime += MILLISECONDS.toSeconds(System.currentTimeMillis() - player.getOnlineBeginTime());
 		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(UPDATE)) {
 			ps.setInt(1, player.getBaseLevel());
 			ps.setInt(2, player.getMaxHp());
@@ -323,7 +323,7 @@ public class PlayerDAOMySQLImpl implements PlayerDAO {
 	
 	@Override
 	public void updateOnlineStatus(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(UPDATE_ONLINE)) {
 			ps.setInt(1, player.isOnlineInt());
 			ps.setLong(2, System.currentTimeMillis());
@@ -28,8 +28,8 @@ import java.util.Map.Entry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.PlayerSkillSaveDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.model.TimeStamp;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
@@ -53,7 +53,7 @@ public class PlayerSkillSaveDAOMySQLImpl implements PlayerSkillSaveDAO {
 	
 	@Override
 	public void delete(L2PcInstance player, int classIndex) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, classIndex);
@@ -70,7 +70,7 @@ public class PlayerSkillSaveDAOMySQLImpl implements PlayerSkillSaveDAO {
 	
 	@Override
 	public void insert(L2PcInstance player, boolean storeEffects) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(INSERT)) {
 			int buff_index = 0;
 			final List<Integer> storedSkills = new ArrayList<>();
@@ -153,7 +153,7 @@ public class PlayerSkillSaveDAOMySQLImpl implements PlayerSkillSaveDAO {
 	
 	@Override
 	public void load(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, player.getClassIndex());
@@ -21,8 +21,8 @@ package com.l2jserver.gameserver.dao.impl.mysql;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.PremiumItemDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.model.L2PremiumItem;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 
@@ -38,7 +38,7 @@ public class PremiumItemDAOMySQLImpl implements PremiumItemDAO {
 	
 	@Override
 	public void load(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(GET_PREMIUM_ITEMS)) {
 			ps.setInt(1, player.getObjectId());
 			try (var rs = ps.executeQuery()) {
@@ -57,7 +57,7 @@ public class PremiumItemDAOMySQLImpl implements PremiumItemDAO {
 	
 	@Override
 	public void update(L2PcInstance player, int itemNum, long newCount) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement("UPDATE character_premium_items SET itemCount=? WHERE charId=? AND itemNum=? ")) {
 			ps.setLong(1, newCount);
 			ps.setInt(2, player.getObjectId());
@@ -70,7 +70,7 @@ public class PremiumItemDAOMySQLImpl implements PremiumItemDAO {
 	
 	@Override
 	public void delete(L2PcInstance player, int itemNum) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement("DELETE FROM character_premium_items WHERE charId=? AND itemNum=? ")) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, itemNum);
@@ -21,8 +21,8 @@ package com.l2jserver.gameserver.dao.impl.mysql;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.RecipeBookDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.data.xml.impl.RecipeData;
 import com.l2jserver.gameserver.model.L2RecipeList;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
@@ -45,7 +45,7 @@ public class RecipeBookDAOMySQLImpl implements RecipeBookDAO {
 	
 	@Override
 	public void insert(L2PcInstance player, int recipeId, boolean isDwarf) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(INSERT)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, recipeId);
@@ -59,7 +59,7 @@ public class RecipeBookDAOMySQLImpl implements RecipeBookDAO {
 	
 	@Override
 	public void delete(L2PcInstance player, int recipeId, boolean isDwarf) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, recipeId);
@@ -74,7 +74,7 @@ public class RecipeBookDAOMySQLImpl implements RecipeBookDAO {
 	public void load(L2PcInstance player, boolean loadCommon) {
 		// TODO(Zoey76): Split into two methods.
 		final String sql = loadCommon ? SELECT_COMMON : SELECT;
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(sql)) {
 			ps.setInt(1, player.getObjectId());
 			if (!loadCommon) {
@@ -21,8 +21,8 @@ package com.l2jserver.gameserver.dao.impl.mysql;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.RecipeShopListDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.model.L2ManufactureItem;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 
@@ -42,7 +42,7 @@ public class RecipeShopListDAOMySQLImpl implements RecipeShopListDAO {
 	
 	@Override
 	public void load(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			player.getManufactureItems().clear();
 			
@@ -59,7 +59,7 @@ public class RecipeShopListDAOMySQLImpl implements RecipeShopListDAO {
 	
 	@Override
 	public void delete(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE)) {
 			ps.setInt(1, player.getObjectId());
 			ps.execute();
@@ -74,7 +74,7 @@ public class RecipeShopListDAOMySQLImpl implements RecipeShopListDAO {
 			return;
 		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(INSERT)) {
 			int i = 1;
 			for (L2ManufactureItem item : player.getManufactureItems().values()) {
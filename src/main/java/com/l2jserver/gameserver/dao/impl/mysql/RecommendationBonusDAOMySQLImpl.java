@@ -21,8 +21,8 @@ package com.l2jserver.gameserver.dao.impl.mysql;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.RecommendationBonusDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 
 /**
@@ -40,7 +40,7 @@ public class RecommendationBonusDAOMySQLImpl implements RecommendationBonusDAO {
 	@Override
 	public long load(L2PcInstance player) {
 		long timeLeft = 0;
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			ps.setInt(1, player.getObjectId());
 			try (var rs = ps.executeQuery()) {
@@ -60,7 +60,7 @@ public class RecommendationBonusDAOMySQLImpl implements RecommendationBonusDAO {
 	
 	@Override
 	public void insert(L2PcInstance player, long recoTaskEnd) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(INSERT)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, player.getRecomHave());
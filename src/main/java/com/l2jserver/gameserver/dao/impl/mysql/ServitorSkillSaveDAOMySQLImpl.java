@@ -26,8 +26,8 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.ServitorSkillSaveDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.data.sql.impl.SummonEffectsTable;
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.model.actor.instance.L2ServitorInstance;
@@ -52,7 +52,7 @@ public class ServitorSkillSaveDAOMySQLImpl implements ServitorSkillSaveDAO {
 	
 	@Override
 	public void insert(L2ServitorInstance servitor, boolean storeEffects) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE_SKILL_SAVE)) {
 			con.setAutoCommit(false);
 			// Delete all current stored effects for summon to avoid dupe
@@ -116,7 +116,7 @@ public class ServitorSkillSaveDAOMySQLImpl implements ServitorSkillSaveDAO {
 	
 	@Override
 	public void load(L2ServitorInstance servitor) {
-		try (var con = ConnectionFactory.getInstance().getConnection()) {
+		try (var con = UnitOfWork.getConnection()) {
 			if (!SummonEffectsTable.getInstance().containsSkill(servitor.getOwner(), servitor.getReferenceSkill())) {
 				try (var ps = con.prepareStatement(RESTORE_SKILL_SAVE)) {
 					ps.setInt(1, servitor.getOwner().getObjectId());
@@ -25,8 +25,8 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.SkillDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.data.xml.impl.ClassListData;
 import com.l2jserver.gameserver.data.xml.impl.SkillTreesData;
 import com.l2jserver.gameserver.datatables.SkillData;
@@ -58,7 +58,7 @@ public class SkillDAOMySQLImpl implements SkillDAO {
 	
 	@Override
 	public void load(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, player.getClassIndex());
@@ -96,7 +96,7 @@ public class SkillDAOMySQLImpl implements SkillDAO {
 	
 	@Override
 	public void insert(L2PcInstance player, int classIndex, Skill skill) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(INSERT)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, skill.getId());
@@ -115,7 +115,7 @@ public class SkillDAOMySQLImpl implements SkillDAO {
 		}
 		
 		final int classIndex = (newClassIndex > -1) ? newClassIndex : player.getClassIndex();
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(REPLACE)) {
 			con.setAutoCommit(false);
 			for (final Skill addSkill : newSkills) {
@@ -135,7 +135,7 @@ public class SkillDAOMySQLImpl implements SkillDAO {
 	
 	@Override
 	public void update(L2PcInstance player, int classIndex, Skill newSkill, Skill oldSkill) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(UPDATE)) {
 			ps.setInt(1, newSkill.getLevel());
 			ps.setInt(2, oldSkill.getId());
@@ -149,7 +149,7 @@ public class SkillDAOMySQLImpl implements SkillDAO {
 	
 	@Override
 	public void delete(L2PcInstance player, Skill skill) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE_ONE)) {
 			ps.setInt(1, skill.getId());
 			ps.setInt(2, player.getObjectId());
@@ -162,7 +162,7 @@ public class SkillDAOMySQLImpl implements SkillDAO {
 	
 	@Override
 	public void deleteAll(L2PcInstance player, int classIndex) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE_ALL)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, classIndex);
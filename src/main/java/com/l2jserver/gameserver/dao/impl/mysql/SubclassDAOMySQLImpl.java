@@ -21,8 +21,8 @@ package com.l2jserver.gameserver.dao.impl.mysql;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.SubclassDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.base.SubClass;
 
@@ -48,7 +48,7 @@ public class SubclassDAOMySQLImpl implements SubclassDAO {
 			return;
 		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(UPDATE)) {
 			for (SubClass subClass : player.getSubClasses().values()) {
 				ps.setLong(1, subClass.getExp());
@@ -67,7 +67,7 @@ public class SubclassDAOMySQLImpl implements SubclassDAO {
 	
 	@Override
 	public boolean insert(L2PcInstance player, SubClass newClass) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(INSERT)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, newClass.getClassId());
@@ -85,7 +85,7 @@ public class SubclassDAOMySQLImpl implements SubclassDAO {
 	
 	@Override
 	public void delete(L2PcInstance player, int classIndex) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, classIndex);
@@ -97,7 +97,7 @@ public class SubclassDAOMySQLImpl implements SubclassDAO {
 	
 	@Override
 	public void load(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			ps.setInt(1, player.getObjectId());
 			try (var rs = ps.executeQuery()) {
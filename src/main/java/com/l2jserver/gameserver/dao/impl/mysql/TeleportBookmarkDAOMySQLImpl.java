@@ -21,8 +21,8 @@ package com.l2jserver.gameserver.dao.impl.mysql;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.dao.TeleportBookmarkDAO;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.model.TeleportBookmark;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 
@@ -44,7 +44,7 @@ public class TeleportBookmarkDAOMySQLImpl implements TeleportBookmarkDAO {
 	
 	@Override
 	public void delete(L2PcInstance player, int id) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(DELETE)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, id);
@@ -56,7 +56,7 @@ public class TeleportBookmarkDAOMySQLImpl implements TeleportBookmarkDAO {
 	
 	@Override
 	public void insert(L2PcInstance player, int id, int x, int y, int z, int icon, String tag, String name) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(INSERT)) {
 			ps.setInt(1, player.getObjectId());
 			ps.setInt(2, id);
@@ -74,7 +74,7 @@ public class TeleportBookmarkDAOMySQLImpl implements TeleportBookmarkDAO {
 	
 	@Override
 	public void update(L2PcInstance player, int id, int icon, String tag, String name) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(UPDATE)) {
 			ps.setInt(1, icon);
 			ps.setString(2, tag);
@@ -89,7 +89,7 @@ public class TeleportBookmarkDAOMySQLImpl implements TeleportBookmarkDAO {
 	
 	@Override
 	public void load(L2PcInstance player) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var ps = con.prepareStatement(SELECT)) {
 			ps.setInt(1, player.getObjectId());
 			try (var rs = ps.executeQuery()) {
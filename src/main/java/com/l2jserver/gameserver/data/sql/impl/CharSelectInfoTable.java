@@ -0,0 +1,360 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.data.sql.impl;
+
+import static com.l2jserver.gameserver.config.Configuration.customs;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.l2jserver.commons.database.ConnectionFactory;
+import com.l2jserver.gameserver.model.CharSelectInfoPackage;
+import com.l2jserver.gameserver.model.L2Clan;
+import com.l2jserver.gameserver.model.itemcontainer.Inventory;
+import com.l2jserver.gameserver.network.L2GameClient;
+
+/**
+ * Character selection data of the accounts.<br>
+ * The characters of an account are kept until one of them is stored, marked for deletion, restored or deleted, so going back to the lobby doesn't query the database again.<br>
+ * On a miss the characters, their equipped items, subclasses and weapon augmentations are loaded with one query each for the whole account.
+ */
+public final class CharSelectInfoTable {
+	
+	private static final Logger LOG = LoggerFactory.getLogger(CharSelectInfoTable.class);
+	
+	/** Characters changed without going through the invalidation, like offline clan kicks, are refreshed after this time. */
+	private static final long CACHE_TIME = TimeUnit.MINUTES.toMillis(5);
+	
+	private static final String SELECT_CHARACTERS = "SELECT * FROM characters WHERE account_name=? ORDER BY createDate";
+	
+	private static final String SELECT_PAPERDOLLS = "SELECT owner_id, object_id, item_id, loc_data, enchant_level FROM items WHERE loc='PAPERDOLL' AND owner_id IN ";
+	
+	private static final String SELECT_SUBCLASSES = "SELECT charId, class_id, exp, sp, level FROM character_subclasses WHERE charId IN ";
+	
+	private static final String SELECT_AUGMENTATIONS = "SELECT itemId, augAttributes FROM item_attributes WHERE itemId IN ";
+	
+	private final Map<String, AccountCharacters> _accounts = new ConcurrentHashMap<>();
+	
+	private final LongAdder _hits = new LongAdder();
+	
+	private final LongAdder _misses = new LongAdder();
+	
+	private final LongAdder _lobbyTime = new LongAdder();
+	
+	protected CharSelectInfoTable() {
+		// Prevent external initialization.
+	}
+	
+	/**
+	 * @param account the account name
+	 * @return the characters of the account, ordered by creation date
+	 */
+	public List<CharSelectInfoPackage> getCharacters(String account) {
+		final long start = System.nanoTime();
+		AccountCharacters entry = _accounts.get(account);
+		List<CharSelectInfoPackage> characters = entry != null ? entry._characters : null;
+		if ((characters != null) && ((System.currentTimeMillis() - entry._time) < CACHE_TIME)) {
+			_hits.increment();
+		} else {
+			// The entry is registered before loading, an invalidation during the load removes it and the result is not kept.
+			entry = new AccountCharacters();
+			_accounts.put(account, entry);
+			characters = load(account);
+			entry._characters = characters;
+			_misses.increment();
+		}
+		_lobbyTime.add(System.nanoTime() - start);
+		return characters;
+	}
+	
+	/**
+	 * Drops the characters of the account, they are loaded again the next time the lobby is shown.
+	 * @param account the account name
+	 */
+	public void invalidate(String account) {
+		if (account != null) {
+			_accounts.remove(account);
+		}
+	}
+	
+	/**
+	 * Drops the accounts holding any of the characters.<br>
+	 * Accounts still loading are dropped too, they may have read the characters before the change.
+	 * @param objectIds the object Ids of the characters
+	 */
+	public void invalidateCharacters(Collection<Integer> objectIds) {
+		_accounts.values().removeIf(entry -> {
+			final List<CharSelectInfoPackage> characters = entry._characters;
+			if (characters == null) {
+				return true;
+			}
+			
+			for (CharSelectInfoPackage info : characters) {
+				if (objectIds.contains(info.getObjectId())) {
+					return true;
+				}
+			}
+			return false;
+		});
+	}
+	
+	/**
+	 * @return the number of lobby requests served from the cache
+	 */
+	public long getHits() {
+		return _hits.sum();
+	}
+	
+	/**
+	 * @return the number of lobby requests loaded from the database
+	 */
+	public long getMisses() {
+		return _misses.sum();
+	}
+	
+	/**
+	 * @return the total time spent getting the characters for the lobby, in nanoseconds
+	 */
+	public long getLobbyTime() {
+		return _lobbyTime.sum();
+	}
+	
+	private static List<CharSelectInfoPackage> load(String account) {
+		final List<CharSelectInfoPackage> characters = new ArrayList<>();
+		final Map<Integer, int[][]> paperdolls = new HashMap<>();
+		try (var con = ConnectionFactory.getInstance().getConnection()) {
+			try (var ps = con.prepareStatement(SELECT_CHARACTERS)) {
+				ps.setString(1, account);
+				try (var rs = ps.executeQuery()) {
+					while (rs.next()) {
+						final int[][] paperdoll = new int[31][3];
+						final CharSelectInfoPackage info = restoreChar(rs, paperdoll);
+						if (info != null) {
+							characters.add(info);
+							paperdolls.put(info.getObjectId(), paperdoll);
+						}
+					}
+				}
+			}
+			
+			if (!characters.isEmpty()) {
+				loadPaperdolls(con, paperdolls);
+				loadSubclasses(con, characters);
+				loadAugmentations(con, characters);
+			}
+		} catch (Exception ex) {
+			LOG.warn("Could not restore characters of account {}!", account, ex);
+		}
+		return Collections.unmodifiableList(characters);
+	}
+	
+	private static void loadPaperdolls(Connection con, Map<Integer, int[][]> paperdolls) throws SQLException {
+		try (var ps = con.prepareStatement(SELECT_PAPERDOLLS + placeholders(paperdolls.size()))) {
+			int i = 1;
+			for (int objectId : paperdolls.keySet()) {
+				ps.setInt(i++, objectId);
+			}
+			try (var rs = ps.executeQuery()) {
+				while (rs.next()) {
+					final int[][] paperdoll = paperdolls.get(rs.getInt("owner_id"));
+					final int slot = rs.getInt("loc_data");
+					paperdoll[slot][0] = rs.getInt("object_id");
+					paperdoll[slot][1] = rs.getInt("item_id");
+					paperdoll[slot][2] = rs.getInt("enchant_level");
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Loads exp, sp and level of the characters playing a subclass.
+	 * @param con the connection
+	 * @param characters the characters
+	 * @throws SQLException if the subclasses cannot be loaded
+	 */
+	private static void loadSubclasses(Connection con, List<CharSelectInfoPackage> characters) throws SQLException {
+		final Map<Integer, CharSelectInfoPackage> inSubclass = new HashMap<>();
+		for (CharSelectInfoPackage info : characters) {
+			if (info.getBaseClassId() != info.getClassId()) {
+				inSubclass.put(info.getObjectId(), info);
+			}
+		}
+		
+		if (inSubclass.isEmpty()) {
+			return;
+		}
+		
+		try (var ps = con.prepareStatement(SELECT_SUBCLASSES + placeholders(inSubclass.size()))) {
+			int i = 1;
+			for (int objectId : inSubclass.keySet()) {
+				ps.setInt(i++, objectId);
+			}
+			try (var rs = ps.executeQuery()) {
+				while (rs.next()) {
+					final CharSelectInfoPackage info = inSubclass.get(rs.getInt("charId"));
+					if (rs.getInt("class_id") == info.getClassId()) {
+						info.setExp(rs.getLong("exp"));
+						info.setSp(rs.getInt("sp"));
+						info.setLevel(rs.getInt("level"));
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Loads the augmentation of the equipped weapons.
+	 * @param con the connection
+	 * @param characters the characters
+	 * @throws SQLException if the augmentations cannot be loaded
+	 */
+	private static void loadAugmentations(Connection con, List<CharSelectInfoPackage> characters) throws SQLException {
+		final Map<Integer, CharSelectInfoPackage> weapons = new HashMap<>();
+		for (CharSelectInfoPackage info : characters) {
+			final int weaponObjId = info.getPaperdollObjectId(Inventory.PAPERDOLL_RHAND);
+			if (weaponObjId > 0) {
+				weapons.put(weaponObjId, info);
+			}
+		}
+		
+		if (weapons.isEmpty()) {
+			return;
+		}
+		
+		try (var ps = con.prepareStatement(SELECT_AUGMENTATIONS + placeholders(weapons.size()))) {
+			int i = 1;
+			for (int weaponObjId : weapons.keySet()) {
+				ps.setInt(i++, weaponObjId);
+			}
+			try (var rs = ps.executeQuery()) {
+				while (rs.next()) {
+					final int augment = rs.getInt("augAttributes");
+					weapons.get(rs.getInt("itemId")).setAugmentationId(augment == -1 ? 0 : augment);
+				}
+			}
+		}
+	}
+	
+	private static String placeholders(int count) {
+		final StringBuilder sb = new StringBuilder((count * 2) + 1);
+		sb.append('(');
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append('?');
+		}
+		return sb.append(')').toString();
+	}
+	
+	private static CharSelectInfoPackage restoreChar(ResultSet chardata, int[][] paperdoll) throws Exception {
+		int objectId = chardata.getInt("charId");
+		String name = chardata.getString("char_name");
+		
+		// See if the char must be deleted
+		long deletetime = chardata.getLong("deletetime");
+		if (deletetime > 0) {
+			if (System.currentTimeMillis() > deletetime) {
+				L2Clan clan = ClanTable.getInstance().getClan(chardata.getInt("clanid"));
+				if (clan != null) {
+					clan.removeClanMember(objectId, 0);
+				}
+				
+				L2GameClient.deleteCharByObjId(objectId);
+				return null;
+			}
+		}
+		
+		CharSelectInfoPackage charInfopackage = new CharSelectInfoPackage(objectId, name, paperdoll);
+		charInfopackage.setAccessLevel(chardata.getInt("accesslevel"));
+		charInfopackage.setLevel(chardata.getInt("level"));
+		charInfopackage.setMaxHp(chardata.getInt("maxhp"));
+		charInfopackage.setCurrentHp(chardata.getDouble("curhp"));
+		charInfopackage.setMaxMp(chardata.getInt("maxmp"));
+		charInfopackage.setCurrentMp(chardata.getDouble("curmp"));
+		charInfopackage.setKarma(chardata.getInt("karma"));
+		charInfopackage.setPkKills(chardata.getInt("pkkills"));
+		charInfopackage.setPvPKills(chardata.getInt("pvpkills"));
+		charInfopackage.setFace(chardata.getInt("face"));
+		charInfopackage.setHairStyle(chardata.getInt("hairstyle"));
+		charInfopackage.setHairColor(chardata.getInt("haircolor"));
+		charInfopackage.setSex(chardata.getInt("sex"));
+		
+		charInfopackage.setExp(chardata.getLong("exp"));
+		charInfopackage.setSp(chardata.getInt("sp"));
+		charInfopackage.setVitalityPoints(chardata.getInt("vitality_points"));
+		charInfopackage.setClanId(chardata.getInt("clanid"));
+		
+		charInfopackage.setRace(chardata.getInt("race"));
+		
+		final int baseClassId = chardata.getInt("base_class");
+		final int activeClassId = chardata.getInt("classid");
+		
+		charInfopackage.setX(chardata.getInt("x"));
+		charInfopackage.setY(chardata.getInt("y"));
+		charInfopackage.setZ(chardata.getInt("z"));
+		
+		if (customs().multiLangEnable()) {
+			String lang = chardata.getString("language");
+			if (!customs().getMultiLangAllowed().contains(lang)) {
+				lang = customs().getMultiLangDefault();
+			}
+			charInfopackage.setHtmlPrefix("data/lang/" + lang + "/");
+		}
+		
+		charInfopackage.setClassId(activeClassId);
+		
+		// Check if the base class is set to zero and also doesn't match with the current active class, otherwise send the base class ID. This prevents chars created before base class was introduced from being displayed incorrectly.
+		if ((baseClassId == 0) && (activeClassId > 0)) {
+			charInfopackage.setBaseClassId(activeClassId);
+		} else {
+			charInfopackage.setBaseClassId(baseClassId);
+		}
+		
+		charInfopackage.setDeleteTimer(deletetime);
+		charInfopackage.setLastAccess(chardata.getLong("lastAccess"));
+		return charInfopackage;
+	}
+	
+	private static final class AccountCharacters {
+		protected final long _time = System.currentTimeMillis();
+		protected volatile List<CharSelectInfoPackage> _characters;
+	}
+	
+	public static CharSelectInfoTable getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder {
+		protected static final CharSelectInfoTable INSTANCE = new CharSelectInfoTable();
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.data.sql.impl;
+
+import static com.l2jserver.gameserver.config.Configuration.general;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the stages of character loading.<br>
+ * Stages that only fill their own part of the character are submitted to a small pool and run while the items and skills are loaded on the calling thread, so a login waits for the slowest query instead of the sum of them.
+ */
+public final class CharacterLoader {
+	
+	public enum Stage {
+		CHARACTER,
+		ACCOUNT_CHARACTERS,
+		ITEMS,
+		SKILLS,
+		MACROS,
+		SHORTCUTS,
+		HENNAS,
+		BOOKMARKS,
+		RECIPES,
+		PREMIUM_ITEMS,
+		PET_ITEMS,
+		ITEM_REUSE,
+		EFFECTS,
+		FRIENDS,
+		UI_SETTINGS
+	}
+	
+	private final ThreadPoolExecutor _executor;
+	
+	private final LongAdder[] _stageCounts = new LongAdder[Stage.values().length];
+	
+	private final LongAdder[] _stageTimes = new LongAdder[Stage.values().length];
+	
+	private final LongAdder _loads = new LongAdder();
+	
+	private final LongAdder _loadTime = new LongAdder();
+	
+	protected CharacterLoader() {
+		this(general().getCharacterLoadThreads());
+	}
+	
+	/**
+	 * @param threads the number of threads loading the independent stages, if 0 every stage runs on the calling thread
+	 */
+	CharacterLoader(int threads) {
+		if (threads > 0) {
+			final AtomicInteger threadNumber = new AtomicInteger(1);
+			_executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+				final Thread t = new Thread(r, "CharacterLoader-" + threadNumber.getAndIncrement());
+				t.setDaemon(true);
+				return t;
+			});
+			_executor.allowCoreThreadTimeOut(true);
+		} else {
+			_executor = null;
+		}
+		
+		for (int i = 0; i < _stageCounts.length; i++) {
+			_stageCounts[i] = new LongAdder();
+			_stageTimes[i] = new LongAdder();
+		}
+	}
+	
+	/**
+	 * Runs a stage on the calling thread.
+	 * @param stage the stage
+	 * @param task the task loading the stage
+	 */
+	public void run(Stage stage, Runnable task) {
+		final long start = System.nanoTime();
+		task.run();
+		record(stage, start);
+	}
+	
+	/**
+	 * Runs a stage that doesn't depend on other stages, concurrently if the loader has threads.
+	 * @param stage the stage
+	 * @param task the task loading the stage
+	 * @return the future to wait for before the character is used
+	 */
+	public Future<?> submit(Stage stage, Runnable task) {
+		if (_executor == null) {
+			run(stage, task);
+			return CompletableFuture.completedFuture(null);
+		}
+		return _executor.submit(() -> run(stage, task));
+	}
+	
+	/**
+	 * Records the time spent on a stage.
+	 * @param stage the stage
+	 * @param start the {@link System#nanoTime()} the stage started at
+	 */
+	public void record(Stage stage, long start) {
+		_stageCounts[stage.ordinal()].increment();
+		_stageTimes[stage.ordinal()].add(System.nanoTime() - start);
+	}
+	
+	/**
+	 * Records a completed character load.
+	 * @param start the {@link System#nanoTime()} the load started at
+	 */
+	public void recordLoad(long start) {
+		_loads.increment();
+		_loadTime.add(System.nanoTime() - start);
+	}
+	
+	/**
+	 * @param stage the stage
+	 * @return the number of times the stage was run
+	 */
+	public long getStageCount(Stage stage) {
+		return _stageCounts[stage.ordinal()].sum();
+	}
+	
+	/**
+	 * @param stage the stage
+	 * @return the total time spent on the stage, in nanoseconds
+	 */
+	public long getStageTime(Stage stage) {
+		return _stageTimes[stage.ordinal()].sum();
+	}
+	
+	/**
+	 * @return the number of characters loaded
+	 */
+	public long getLoadCount() {
+		return _loads.sum();
+	}
+	
+	/**
+	 * @return the total time spent loading characters, in nanoseconds
+	 */
+	public long getLoadTime() {
+		return _loadTime.sum();
+	}
+	
+	public static CharacterLoader getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+	
+	private static class SingletonHolder {
+		protected static final CharacterLoader INSTANCE = new CharacterLoader();
+	}
+}
@@ -22,8 +22,10 @@ import static com.l2jserver.gameserver.config.Configuration.general;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
@@ -70,6 +72,8 @@ public class ClanTable {
 	public static final int CLAN_NAME_MAX_LENGTH = 16;
 	
 	private final Map<Integer, L2Clan> _clans = new ConcurrentHashMap<>();
+	/** Clans by alliance Id, static since clans are restored while the table is being created. */
+	private static final Map<Integer, Set<L2Clan>> ALLIANCE_CLANS = new ConcurrentHashMap<>();
 	
 	protected ClanTable() {
 		L2Clan clan;
@@ -231,6 +235,7 @@ public class ClanTable {
 		}
 		
 		_clans.remove(clanId);
+		removeClanAlly(clan, clan.getAllyId());
 		IdFactory.getInstance().releaseId(clanId);
 		
 		try (var con = ConnectionFactory.getInstance().getConnection()) {
@@ -433,15 +438,41 @@ public class ClanTable {
 	}
 	
 	public List<L2Clan> getClanAllies(int allianceId) {
-		final List<L2Clan> clanAllies = new ArrayList<>();
-		if (allianceId != 0) {
-			for (L2Clan clan : _clans.values()) {
-				if ((clan != null) && (clan.getAllyId() == allianceId)) {
-					clanAllies.add(clan);
-				}
-			}
+		return new ArrayList<>(getAllianceClans(allianceId));
+	}
+	
+	/**
+	 * Gets a live view of the clans in the given alliance, without copying them.
+	 * @param allianceId the alliance Id
+	 * @return the clans in the alliance
+	 */
+	public Collection<L2Clan> getAllianceClans(int allianceId) {
+		if (allianceId == 0) {
+			return Collections.emptySet();
+		}
+		final Set<L2Clan> clans = ALLIANCE_CLANS.get(allianceId);
+		return clans != null ? Collections.unmodifiableSet(clans) : Collections.emptySet();
+	}
+	
+	/**
+	 * Updates the alliance index after the alliance of a clan has changed.
+	 * @param clan the clan
+	 * @param oldAllyId the previous alliance Id
+	 */
+	public static void updateClanAlly(L2Clan clan, int oldAllyId) {
+		removeClanAlly(clan, oldAllyId);
+		if (clan.getAllyId() != 0) {
+			ALLIANCE_CLANS.computeIfAbsent(clan.getAllyId(), k -> ConcurrentHashMap.newKeySet()).add(clan);
+		}
+	}
+	
+	private static void removeClanAlly(L2Clan clan, int allyId) {
+		if (allyId != 0) {
+			ALLIANCE_CLANS.computeIfPresent(allyId, (k, clans) -> {
+				clans.remove(clan);
+				return clans.isEmpty() ? null : clans;
+			});
 		}
-		return clanAllies;
 	}
 	
 	public void storeClanScore() {
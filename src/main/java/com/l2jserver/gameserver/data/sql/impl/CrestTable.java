@@ -26,14 +26,18 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.l2jserver.commons.database.ConnectionFactory;
+import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.model.L2Clan;
 import com.l2jserver.gameserver.model.L2Crest;
 import com.l2jserver.gameserver.model.L2Crest.CrestType;
+import com.l2jserver.gameserver.network.L2GameClient;
+import com.l2jserver.gameserver.network.serverpackets.AbstractCrestPacket;
 
 /**
  * Loads and saves crests from database.
@@ -43,12 +47,25 @@ public final class CrestTable {
 	
 	private static final Logger LOG = LoggerFactory.getLogger(CrestTable.class);
 	
+	private static final long RATE_INTERVAL = 60000;
+	
 	private final Map<Integer, L2Crest> _crests = new ConcurrentHashMap<>();
 	
 	private final AtomicInteger _nextId = new AtomicInteger(1);
 	
+	private final LongAdder _sent = new LongAdder();
+	
+	private final LongAdder _suppressed = new LongAdder();
+	
+	private final LongAdder _bytesSent = new LongAdder();
+	
+	private long _lastBytesSent = 0;
+	
+	private volatile long _bytesPerMinute = 0;
+	
 	protected CrestTable() {
 		load();
+		ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(this::updateRate, RATE_INTERVAL, RATE_INTERVAL);
 	}
 	
 	public synchronized void load() {
@@ -135,6 +152,77 @@ public final class CrestTable {
 		return _crests.get(crestId);
 	}
 	
+	/**
+	 * Sends the requested crest to the client, unless it was already sent to it.
+	 * @param client the client requesting the crest
+	 * @param crestId the crest id
+	 * @param crestType the type of crest requested by the client
+	 */
+	public void sendCrest(L2GameClient client, int crestId, CrestType crestType) {
+		final L2Crest crest = getCrest(crestId);
+		if ((crest == null) || (crest.getType() != crestType)) {
+			// Not tracked, so the client can still get the crest once it's registered.
+			client.sendPacket(crestType.createPacket(crestId, crest != null ? crest.getData() : null));
+			return;
+		}
+		sendCrest(client, crest);
+	}
+	
+	/**
+	 * Sends the crest to the client, unless it was already sent to it.
+	 * @param client the client, may be {@code null}
+	 * @param crest the crest
+	 */
+	public void sendCrest(L2GameClient client, L2Crest crest) {
+		if (client == null) {
+			return;
+		}
+		
+		if (!client.markCrestSent(crest.getId())) {
+			_suppressed.increment();
+			return;
+		}
+		
+		final AbstractCrestPacket packet = crest.getPacket();
+		client.sendPacket(packet);
+		_sent.increment();
+		_bytesSent.add(packet.getSize());
+	}
+	
+	private void updateRate() {
+		final long bytesSent = _bytesSent.sum();
+		_bytesPerMinute = bytesSent - _lastBytesSent;
+		_lastBytesSent = bytesSent;
+	}
+	
+	/**
+	 * @return the number of crests sent to clients
+	 */
+	public long getSentCount() {
+		return _sent.sum();
+	}
+	
+	/**
+	 * @return the number of crest requests not answered because the client already had the crest
+	 */
+	public long getSuppressedCount() {
+		return _suppressed.sum();
+	}
+	
+	/**
+	 * @return the total size of the crest packets sent to clients, in bytes
+	 */
+	public long getBytesSent() {
+		return _bytesSent.sum();
+	}
+	
+	/**
+	 * @return the size of the crest packets sent to clients during the last minute, in bytes
+	 */
+	public long getBytesSentPerMinute() {
+		return _bytesPerMinute;
+	}
+	
 	/**
 	 * Creates a {@code L2Crest} object and inserts it in database and cache.
 	 * @param data
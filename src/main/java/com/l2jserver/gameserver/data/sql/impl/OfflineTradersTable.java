@@ -21,7 +21,15 @@ package com.l2jserver.gameserver.data.sql.impl;
 import static com.l2jserver.gameserver.config.Configuration.customs;
 import static com.l2jserver.gameserver.enums.PrivateStoreType.NONE;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,24 +58,23 @@ public class OfflineTradersTable {
 	
 	private static final String LOAD_OFFLINE_STATUS = "SELECT * FROM character_offline_trade";
 	
-	private static final String LOAD_OFFLINE_ITEMS = "SELECT * FROM character_offline_trade_items WHERE charId = ?";
+	private static final String LOAD_OFFLINE_ITEMS = "SELECT * FROM character_offline_trade_items ORDER BY charId";
 	
 	public void storeOffliners() {
+		final long start = System.currentTimeMillis();
+		int nTraders = 0;
 		try (var con = ConnectionFactory.getInstance().getConnection();
 			var stm1 = con.prepareStatement(CLEAR_OFFLINE_TABLE);
 			var stm2 = con.prepareStatement(CLEAR_OFFLINE_TABLE_ITEMS);
 			var stm3 = con.prepareStatement(SAVE_OFFLINE_STATUS);
 			var stm_items = con.prepareStatement(SAVE_ITEMS)) {
+			con.setAutoCommit(false); // avoid halfway done
 			stm1.execute();
 			stm2.execute();
-			con.setAutoCommit(false); // avoid halfway done
 			
 			for (L2PcInstance pc : L2World.getInstance().getPlayers()) {
 				try {
 					if ((pc.getPrivateStoreType() != NONE) && pc.isInOfflineMode()) {
-						stm3.setInt(1, pc.getObjectId());
-						stm3.setLong(2, pc.getOfflineStartTime());
-						stm3.setInt(3, pc.getPrivateStoreType().getId());
 						String title = null;
 						
 						switch (pc.getPrivateStoreType()) {
@@ -81,8 +88,7 @@ public class OfflineTradersTable {
 									stm_items.setInt(2, i.getItem().getId());
 									stm_items.setLong(3, i.getCount());
 									stm_items.setLong(4, i.getPrice());
-									stm_items.executeUpdate();
-									stm_items.clearParameters();
+									stm_items.addBatch();
 								}
 							}
 							case SELL, PACKAGE_SELL -> {
@@ -95,8 +101,7 @@ public class OfflineTradersTable {
 									stm_items.setInt(2, i.getObjectId());
 									stm_items.setLong(3, i.getCount());
 									stm_items.setLong(4, i.getPrice());
-									stm_items.executeUpdate();
-									stm_items.clearParameters();
+									stm_items.addBatch();
 								}
 							}
 							case MANUFACTURE -> {
@@ -109,21 +114,25 @@ public class OfflineTradersTable {
 									stm_items.setInt(2, i.getRecipeId());
 									stm_items.setLong(3, 0);
 									stm_items.setLong(4, i.getCost());
-									stm_items.executeUpdate();
-									stm_items.clearParameters();
+									stm_items.addBatch();
 								}
 							}
 						}
+						stm3.setInt(1, pc.getObjectId());
+						stm3.setLong(2, pc.getOfflineStartTime());
+						stm3.setInt(3, pc.getPrivateStoreType().getId());
 						stm3.setString(4, title);
-						stm3.executeUpdate();
-						stm3.clearParameters();
-						con.commit(); // flush
+						stm3.addBatch();
+						nTraders++;
 					}
 				} catch (Exception ex) {
 					LOG.warn("There has been an error while saving offline trader {}!", pc, ex);
 				}
 			}
-			LOG.info("Offline traders stored.");
+			stm3.executeBatch();
+			stm_items.executeBatch();
+			con.commit();
+			LOG.info("Stored {} offline trader(s) in {} ms.", nTraders, System.currentTimeMillis() - start);
 		} catch (Exception ex) {
 			LOG.warn("There has been an error while saving offline traders!", ex);
 		}
@@ -131,94 +140,82 @@ public class OfflineTradersTable {
 	
 	public void restoreOfflineTraders() {
 		LOG.info("Loading offline traders...");
+		final long start = System.currentTimeMillis();
 		int nTraders = 0;
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var stm = con.createStatement();
-			var rs = stm.executeQuery(LOAD_OFFLINE_STATUS)) {
-			while (rs.next()) {
-				long time = rs.getLong("time");
-				if (customs().getOfflineMaxDays() > 0) {
-					Calendar cal = Calendar.getInstance();
-					cal.setTimeInMillis(time);
-					cal.add(Calendar.DAY_OF_YEAR, customs().getOfflineMaxDays());
-					if (cal.getTimeInMillis() <= System.currentTimeMillis()) {
+		try (var con = ConnectionFactory.getInstance().getConnection()) {
+			final Map<Integer, OfflineTrader> traders = new LinkedHashMap<>();
+			try (var stm = con.createStatement();
+				var rs = stm.executeQuery(LOAD_OFFLINE_STATUS)) {
+				while (rs.next()) {
+					long time = rs.getLong("time");
+					if (customs().getOfflineMaxDays() > 0) {
+						Calendar cal = Calendar.getInstance();
+						cal.setTimeInMillis(time);
+						cal.add(Calendar.DAY_OF_YEAR, customs().getOfflineMaxDays());
+						if (cal.getTimeInMillis() <= System.currentTimeMillis()) {
+							continue;
+						}
+					}
+					
+					final var type = PrivateStoreType.findById(rs.getInt("type"));
+					if (type == null) {
+						LOG.warn("PrivateStoreType with Id {} could not be found!", rs.getInt("type"));
 						continue;
 					}
+					
+					if (type == NONE) {
+						continue;
+					}
+					
+					final int charId = rs.getInt("charId");
+					traders.put(charId, new OfflineTrader(charId, time, type, rs.getString("title")));
 				}
-				
-				final var type = PrivateStoreType.findById(rs.getInt("type"));
-				if (type == null) {
-					LOG.warn("PrivateStoreType with Id {} could not be found!", rs.getInt("type"));
-					continue;
+			}
+			
+			// Items of all traders in a single pass, grouped by owner
+			try (var stm = con.createStatement();
+				var rs = stm.executeQuery(LOAD_OFFLINE_ITEMS)) {
+				OfflineTrader trader = null;
+				while (rs.next()) {
+					final int charId = rs.getInt("charId");
+					if ((trader == null) || (trader._charId != charId)) {
+						trader = traders.get(charId);
+					}
+					
+					if (trader != null) {
+						trader._items.add(new OfflineTradeItem(rs.getInt("item"), rs.getLong("count"), rs.getLong("price")));
+					}
 				}
-				
-				if (type == NONE) {
-					continue;
+			}
+			
+			final int threads = customs().getOfflineRestoreThreads() > 0 ? customs().getOfflineRestoreThreads() : Runtime.getRuntime().availableProcessors();
+			final ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				final List<Future<L2PcInstance>> futures = new ArrayList<>(traders.size());
+				for (OfflineTrader trader : traders.values()) {
+					futures.add(executor.submit(() -> loadTrader(trader)));
 				}
 				
-				L2PcInstance player = null;
-				
-				try {
-					L2GameClient client = new L2GameClient(null);
-					client.setDetached(true);
-					player = L2PcInstance.load(rs.getInt("charId"));
-					client.setActiveChar(player);
-					player.setOnlineStatus(true, false);
-					client.setAccountName(player.getAccountNamePlayer());
-					L2World.getInstance().addPlayerToWorld(player);
-					client.setState(GameClientState.IN_GAME);
-					player.setClient(client);
-					player.setOfflineStartTime(time);
-					player.spawnMe(player.getX(), player.getY(), player.getZ());
-					LoginServerThread.getInstance().addGameServerLogin(player.getAccountName(), client);
-					try (var stm_items = con.prepareStatement(LOAD_OFFLINE_ITEMS)) {
-						stm_items.setInt(1, player.getObjectId());
-						try (var items = stm_items.executeQuery()) {
-							switch (type) {
-								case BUY -> {
-									while (items.next()) {
-										if (player.getBuyList().addItemByItemId(items.getInt(2), items.getLong(3), items.getLong(4)) == null) {
-											throw new NullPointerException();
-										}
-									}
-									player.getBuyList().setTitle(rs.getString("title"));
-								}
-								case SELL, PACKAGE_SELL -> {
-									while (items.next()) {
-										if (player.getSellList().addItem(items.getInt(2), items.getLong(3), items.getLong(4)) == null) {
-											throw new NullPointerException();
-										}
-									}
-									player.getSellList().setTitle(rs.getString("title"));
-									player.getSellList().setPackaged(type == PrivateStoreType.PACKAGE_SELL);
-								}
-								case MANUFACTURE -> {
-									while (items.next()) {
-										player.getManufactureItems().put(items.getInt(2), new L2ManufactureItem(items.getInt(2), items.getLong(4)));
-									}
-									player.setStoreName(rs.getString("title"));
-								}
-							}
-						}
-					}
-					player.sitDown();
-					if (customs().offlineSetNameColor()) {
-						player.getAppearance().setNameColor(customs().getOfflineNameColor());
+				// Traders enter the world one by one, in table order
+				int i = 0;
+				for (OfflineTrader trader : traders.values()) {
+					final L2PcInstance player;
+					try {
+						player = futures.get(i++).get();
+					} catch (ExecutionException ex) {
+						LOG.warn("There has been an error loading trader {}!", trader._charId, ex.getCause());
+						continue;
 					}
-					player.setPrivateStoreType(type);
-					player.setOnlineStatus(true, true);
-					player.restoreEffects();
-					player.broadcastUserInfo();
-					nTraders++;
-				} catch (Exception ex) {
-					LOG.warn("There has been an error loading trader {}!", player, ex);
-					if (player != null) {
-						player.deleteMe();
+					
+					if ((player != null) && spawnTrader(player, trader)) {
+						nTraders++;
 					}
 				}
+			} finally {
+				executor.shutdown();
 			}
 			
-			LOG.info("Loaded  {} offline trader(s).", nTraders);
+			LOG.info("Loaded {} offline trader(s) in {} ms.", nTraders, System.currentTimeMillis() - start);
 			
 			try (var stm1 = con.createStatement()) {
 				stm1.execute(CLEAR_OFFLINE_TABLE);
@@ -229,6 +226,112 @@ public class OfflineTradersTable {
 		}
 	}
 	
+	/**
+	 * Loads the trader's character and fills its store, outside the world.
+	 * @param trader the offline trader
+	 * @return the loaded player, {@code null} if it could not be loaded
+	 */
+	private static L2PcInstance loadTrader(OfflineTrader trader) {
+		L2PcInstance player = null;
+		try {
+			player = L2PcInstance.load(trader._charId);
+			switch (trader._type) {
+				case BUY -> {
+					for (OfflineTradeItem item : trader._items) {
+						if (player.getBuyList().addItemByItemId(item._itemId, item._count, item._price) == null) {
+							throw new NullPointerException();
+						}
+					}
+					player.getBuyList().setTitle(trader._title);
+				}
+				case SELL, PACKAGE_SELL -> {
+					for (OfflineTradeItem item : trader._items) {
+						if (player.getSellList().addItem(item._itemId, item._count, item._price) == null) {
+							throw new NullPointerException();
+						}
+					}
+					player.getSellList().setTitle(trader._title);
+					player.getSellList().setPackaged(trader._type == PrivateStoreType.PACKAGE_SELL);
+				}
+				case MANUFACTURE -> {
+					for (OfflineTradeItem item : trader._items) {
+						player.getManufactureItems().put(item._itemId, new L2ManufactureItem(item._itemId, item._price));
+					}
+					player.setStoreName(trader._title);
+				}
+			}
+			return player;
+		} catch (Exception ex) {
+			LOG.warn("There has been an error loading trader {}!", player, ex);
+			if (player != null) {
+				player.deleteMe();
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Adds a loaded trader to the world with a detached client and opens its store.
+	 * @param player the loaded player
+	 * @param trader the offline trader
+	 * @return {@code true} if the trader has been restored
+	 */
+	private static boolean spawnTrader(L2PcInstance player, OfflineTrader trader) {
+		try {
+			L2GameClient client = new L2GameClient(null);
+			client.setDetached(true);
+			client.setActiveChar(player);
+			player.setOnlineStatus(true, false);
+			client.setAccountName(player.getAccountNamePlayer());
+			L2World.getInstance().addPlayerToWorld(player);
+			client.setState(GameClientState.IN_GAME);
+			player.setClient(client);
+			player.setOfflineStartTime(trader._time);
+			player.spawnMe(player.getX(), player.getY(), player.getZ());
+			LoginServerThread.getInstance().addGameServerLogin(player.getAccountName(), client);
+			player.sitDown();
+			if (customs().offlineSetNameColor()) {
+				player.getAppearance().setNameColor(customs().getOfflineNameColor());
+			}
+			player.setPrivateStoreType(trader._type);
+			player.setOnlineStatus(true, true);
+			player.restoreEffects();
+			player.broadcastUserInfo();
+			return true;
+		} catch (Exception ex) {
+			LOG.warn("There has been an error loading trader {}!", player, ex);
+			player.deleteMe();
+		}
+		return false;
+	}
+	
+	private static final class OfflineTrader {
+		final int _charId;
+		final long _time;
+		final PrivateStoreType _type;
+		final String _title;
+		final List<OfflineTradeItem> _items = new ArrayList<>();
+		
+		OfflineTrader(int charId, long time, PrivateStoreType type, String title) {
+			_charId = charId;
+			_time = time;
+			_type = type;
+			_title = title;
+		}
+	}
+	
+	private static final class OfflineTradeItem {
+		final int _itemId;
+		final long _count;
+		final long _price;
+		
+		OfflineTradeItem(int itemId, long count, long price) {
+			_itemId = itemId;
+			_count = count;
+			_price = price;
+		}
+	}
+	
 	public static OfflineTradersTable getInstance() {
 		return SingletonHolder.INSTANCE;
 	}
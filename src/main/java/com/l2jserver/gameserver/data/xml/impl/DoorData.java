@@ -58,6 +58,8 @@ public class DoorData implements IXmlReader {
 	
 	private final Map<Integer, List<L2DoorInstance>> _regions = new HashMap<>();
 	
+	private final DoorGrid _grid = new DoorGrid();
+	
 	protected DoorData() {
 		load();
 	}
@@ -67,6 +69,7 @@ public class DoorData implements IXmlReader {
 		_doors.clear();
 		GROUPS.clear();
 		_regions.clear();
+		_grid.clear();
 		parseDatapackFile("data/doors.xml");
 		LOG.info("Loaded {} door templates for {} regions.", _doors.size(), _regions.size());
 	}
@@ -135,6 +138,7 @@ public class DoorData implements IXmlReader {
 			_regions.put(region, new ArrayList<>());
 		}
 		_regions.get(region).add(door);
+		_grid.add(door, region);
 	}
 	
 	public static void addDoorGroup(String groupName, int doorId) {
@@ -170,44 +174,55 @@ public class DoorData implements IXmlReader {
 	 * @return {@code boolean}
 	 */
 	public boolean checkIfDoorsBetween(int x, int y, int z, int tx, int ty, int tz, int instanceId, boolean doubleFaceCheck) {
-		Collection<L2DoorInstance> allDoors;
 		if ((instanceId > 0) && (InstanceManager.getInstance().getInstance(instanceId) != null)) {
-			allDoors = InstanceManager.getInstance().getInstance(instanceId).getDoors();
-		} else {
-			allDoors = _regions.get(MapRegionManager.getInstance().getMapRegionLocId(x, y));
+			for (L2DoorInstance doorInst : InstanceManager.getInstance().getInstance(instanceId).getDoors()) {
+				if (isDoorBetween(doorInst, x, y, z, tx, ty, tz, doubleFaceCheck)) {
+					return true;
+				}
+			}
+			return false;
 		}
-		
-		if (allDoors == null) {
+		return _grid.checkIfDoorsBetween(MapRegionManager.getInstance().getMapRegionLocId(x, y), x, y, z, tx, ty, tz, doubleFaceCheck);
+	}
+	
+	/**
+	 * Checks if the given door is closed and the segment crosses its faces.
+	 * @param doorInst the door
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @param z the z coordinate
+	 * @param tx the target's x coordinate
+	 * @param ty the target's y coordinate
+	 * @param tz the target's z coordinate
+	 * @param doubleFaceCheck if {@code true} two faces must be crossed
+	 * @return {@code true} if the door blocks the segment, {@code false} otherwise
+	 */
+	static boolean isDoorBetween(L2DoorInstance doorInst, int x, int y, int z, int tx, int ty, int tz, boolean doubleFaceCheck) {
+		// check dead and open
+		if (doorInst.isDead() || doorInst.getOpen() || !doorInst.checkCollision() || (doorInst.getX(0) == 0)) {
 			return false;
 		}
 		
-		for (L2DoorInstance doorInst : allDoors) {
-			// check dead and open
-			if (doorInst.isDead() || doorInst.getOpen() || !doorInst.checkCollision() || (doorInst.getX(0) == 0)) {
+		boolean intersectFace = false;
+		for (int i = 0; i < 4; i++) {
+			int j = (i + 1) < 4 ? i + 1 : 0;
+			// lower part of the multiplier fraction, if it is 0 we avoid an error and also know that the lines are parallel
+			int denominator = ((ty - y) * (doorInst.getX(i) - doorInst.getX(j))) - ((tx - x) * (doorInst.getY(i) - doorInst.getY(j)));
+			if (denominator == 0) {
 				continue;
 			}
 			
-			boolean intersectFace = false;
-			for (int i = 0; i < 4; i++) {
-				int j = (i + 1) < 4 ? i + 1 : 0;
-				// lower part of the multiplier fraction, if it is 0 we avoid an error and also know that the lines are parallel
-				int denominator = ((ty - y) * (doorInst.getX(i) - doorInst.getX(j))) - ((tx - x) * (doorInst.getY(i) - doorInst.getY(j)));
-				if (denominator == 0) {
-					continue;
-				}
-				
-				// multipliers to the equations of the lines. If they are lower than 0 or bigger than 1, we know that segments don't intersect
-				float multiplier1 = (float) (((doorInst.getX(j) - doorInst.getX(i)) * (y - doorInst.getY(i))) - ((doorInst.getY(j) - doorInst.getY(i)) * (x - doorInst.getX(i)))) / denominator;
-				float multiplier2 = (float) (((tx - x) * (y - doorInst.getY(i))) - ((ty - y) * (x - doorInst.getX(i)))) / denominator;
-				if ((multiplier1 >= 0) && (multiplier1 <= 1) && (multiplier2 >= 0) && (multiplier2 <= 1)) {
-					int intersectZ = Math.round(z + (multiplier1 * (tz - z)));
-					// now checking if the resulting point is between door's min and max z
-					if ((intersectZ > doorInst.getZMin()) && (intersectZ < doorInst.getZMax())) {
-						if (!doubleFaceCheck || intersectFace) {
-							return true;
-						}
-						intersectFace = true;
+			// multipliers to the equations of the lines. If they are lower than 0 or bigger than 1, we know that segments don't intersect
+			float multiplier1 = (float) (((doorInst.getX(j) - doorInst.getX(i)) * (y - doorInst.getY(i))) - ((doorInst.getY(j) - doorInst.getY(i)) * (x - doorInst.getX(i)))) / denominator;
+			float multiplier2 = (float) (((tx - x) * (y - doorInst.getY(i))) - ((ty - y) * (x - doorInst.getX(i)))) / denominator;
+			if ((multiplier1 >= 0) && (multiplier1 <= 1) && (multiplier2 >= 0) && (multiplier2 <= 1)) {
+				int intersectZ = Math.round(z + (multiplier1 * (tz - z)));
+				// now checking if the resulting point is between door's min and max z
+				if ((intersectZ > doorInst.getZMin()) && (intersectZ < doorInst.getZMax())) {
+					if (!doubleFaceCheck || intersectFace) {
+						return true;
 					}
+					intersectFace = true;
 				}
 			}
 		}
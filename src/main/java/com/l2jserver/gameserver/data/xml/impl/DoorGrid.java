@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.data.xml.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.l2jserver.gameserver.model.L2World;
+import com.l2jserver.gameserver.model.actor.instance.L2DoorInstance;
+
+/**
+ * Uniform grid of world doors.<br>
+ * Each door is registered in every cell its bounding box overlaps, a segment check only visits the cells of the segment's bounding box and rejects doors whose bounding box it cannot cross before running the face intersection.
+ */
+final class DoorGrid {
+	
+	private static final int CELL_SHIFT = 11;
+	
+	private static final int CELLS_X = ((L2World.MAP_MAX_X - L2World.MAP_MIN_X) >> CELL_SHIFT) + 1;
+	
+	private static final int CELLS_Y = ((L2World.MAP_MAX_Y - L2World.MAP_MIN_Y) >> CELL_SHIFT) + 1;
+	
+	/** Segments spanning more cells than this scan the region list instead. */
+	private static final int MAX_QUERY_CELLS = 36;
+	
+	private static final Entry[] EMPTY = new Entry[0];
+	
+	private final Entry[][] _cells = new Entry[CELLS_X * CELLS_Y][];
+	
+	private final Map<Integer, Entry[]> _regions = new HashMap<>();
+	
+	void clear() {
+		Arrays.fill(_cells, null);
+		_regions.clear();
+	}
+	
+	void add(L2DoorInstance door, int region) {
+		final Entry entry = new Entry(door, region);
+		_regions.merge(region, new Entry[] {
+			entry
+		}, DoorGrid::concat);
+		
+		for (int cx = cellX(entry._minX); cx <= cellX(entry._maxX); cx++) {
+			for (int cy = cellY(entry._minY); cy <= cellY(entry._maxY); cy++) {
+				final int index = (cx * CELLS_Y) + cy;
+				_cells[index] = _cells[index] == null ? new Entry[] {
+					entry
+				} : concat(_cells[index], new Entry[] {
+					entry
+				});
+			}
+		}
+	}
+	
+	/**
+	 * Checks if there are closed doors of the given region between two points.
+	 * @param region the map region the check originates from
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @param z the z coordinate
+	 * @param tx the target's x coordinate
+	 * @param ty the target's y coordinate
+	 * @param tz the target's z coordinate
+	 * @param doubleFaceCheck if {@code true} two faces of the same door must be crossed
+	 * @return {@code true} if a door blocks the segment, {@code false} otherwise
+	 */
+	boolean checkIfDoorsBetween(int region, int x, int y, int z, int tx, int ty, int tz, boolean doubleFaceCheck) {
+		final int minX = Math.min(x, tx);
+		final int maxX = Math.max(x, tx);
+		final int minY = Math.min(y, ty);
+		final int maxY = Math.max(y, ty);
+		final int minZ = Math.min(z, tz);
+		final int maxZ = Math.max(z, tz);
+		
+		final int minCellX = cellX(minX);
+		final int maxCellX = cellX(maxX);
+		final int minCellY = cellY(minY);
+		final int maxCellY = cellY(maxY);
+		if ((((maxCellX - minCellX) + 1) * ((maxCellY - minCellY) + 1)) > MAX_QUERY_CELLS) {
+			for (Entry entry : _regions.getOrDefault(region, EMPTY)) {
+				if (entry.isCrossedBy(minX, maxX, minY, maxY, minZ, maxZ) && DoorData.isDoorBetween(entry._door, x, y, z, tx, ty, tz, doubleFaceCheck)) {
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		for (int cx = minCellX; cx <= maxCellX; cx++) {
+			for (int cy = minCellY; cy <= maxCellY; cy++) {
+				final Entry[] entries = _cells[(cx * CELLS_Y) + cy];
+				if (entries == null) {
+					continue;
+				}
+				
+				for (Entry entry : entries) {
+					// a door spanning several visited cells is only checked in the first of them
+					if ((entry._region != region) || (cx != Math.max(minCellX, cellX(entry._minX))) || (cy != Math.max(minCellY, cellY(entry._minY)))) {
+						continue;
+					}
+					
+					if (entry.isCrossedBy(minX, maxX, minY, maxY, minZ, maxZ) && DoorData.isDoorBetween(entry._door, x, y, z, tx, ty, tz, doubleFaceCheck)) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+	
+	private static int cellX(int x) {
+		return Math.min(Math.max((x - L2World.MAP_MIN_X) >> CELL_SHIFT, 0), CELLS_X - 1);
+	}
+	
+	private static int cellY(int y) {
+		return Math.min(Math.max((y - L2World.MAP_MIN_Y) >> CELL_SHIFT, 0), CELLS_Y - 1);
+	}
+	
+	private static Entry[] concat(Entry[] a, Entry[] b) {
+		final Entry[] result = Arrays.copyOf(a, a.length + b.length);
+		System.arraycopy(b, 0, result, a.length, b.length);
+		return result;
+	}
+	
+	private static final class Entry {
+		final L2DoorInstance _door;
+		final int _region;
+		final int _minX;
+		final int _maxX;
+		final int _minY;
+		final int _maxY;
+		final int _minZ;
+		final int _maxZ;
+		
+		Entry(L2DoorInstance door, int region) {
+			_door = door;
+			_region = region;
+			int minX = Integer.MAX_VALUE;
+			int maxX = Integer.MIN_VALUE;
+			int minY = Integer.MAX_VALUE;
+			int maxY = Integer.MIN_VALUE;
+			for (int i = 0; i < 4; i++) {
+				minX = Math.min(minX, door.getX(i));
+				maxX = Math.max(maxX, door.getX(i));
+				minY = Math.min(minY, door.getY(i));
+				maxY = Math.max(maxY, door.getY(i));
+			}
+			_minX = minX;
+			_maxX = maxX;
+			_minY = minY;
+			_maxY = maxY;
+			_minZ = door.getZMin();
+			_maxZ = door.getZMax();
+		}
+		
+		/**
+		 * Rejects doors that no segment within the given bounds can cross.<br>
+		 * An intersection point lies inside both boxes and its height strictly between the door's minimum and maximum Z.
+		 */
+		boolean isCrossedBy(int minX, int maxX, int minY, int maxY, int minZ, int maxZ) {
+			return (maxX >= _minX) && (minX <= _maxX) && (maxY >= _minY) && (minY <= _maxY) && (maxZ > _minZ) && (minZ < _maxZ);
+		}
+	}
+}
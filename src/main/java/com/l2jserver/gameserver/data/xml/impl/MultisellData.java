@@ -24,6 +24,8 @@ import java.io.File;
 import java.io.FileFilter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +64,15 @@ public final class MultisellData implements IXmlReader {
 	
 	private final Map<Integer, ListContainer> _entries = new HashMap<>();
 	
+	/** Lists that don't depend on the player, prepared and encoded once for each tax and multipliers. */
+	private final Map<PreparedKey, PreparedList> _prepared = new ConcurrentHashMap<>();
+	
+	private final LongAdder _opens = new LongAdder();
+	
+	private final LongAdder _preparedHits = new LongAdder();
+	
+	private final LongAdder _openTime = new LongAdder();
+	
 	protected MultisellData() {
 		load();
 	}
@@ -69,6 +80,7 @@ public final class MultisellData implements IXmlReader {
 	@Override
 	public void load() {
 		_entries.clear();
+		_prepared.clear();
 		parseDatapackDirectory("data/multisell", false);
 		if (general().customMultisellLoad()) {
 			parseDatapackDirectory("data/multisell/custom", false);
@@ -190,6 +202,7 @@ public final class MultisellData implements IXmlReader {
 	 * <li>
 	 * <li>Additional product and ingredient multipliers.</li>
 	 * </ol>
+	 * Lists that aren't inventory only are prepared and encoded once for each tax rate and multipliers, then shared by all players.
 	 * @param listId
 	 * @param player
 	 * @param npc
@@ -209,8 +222,40 @@ public final class MultisellData implements IXmlReader {
 			return;
 		}
 		
-		final PreparedListContainer list = new PreparedListContainer(template, inventoryOnly, player, npc);
+		final long start = System.nanoTime();
+		final PreparedListContainer list;
+		if (inventoryOnly) {
+			list = new PreparedListContainer(template, true, player, npc);
+			applyMultipliers(list, productMultiplier, ingredientMultiplier);
+			for (MultiSellList page : paginate(list)) {
+				player.sendPacket(page);
+			}
+		} else {
+			final boolean applyTaxes = PreparedListContainer.isTaxed(template, npc);
+			final PreparedKey key = new PreparedKey(listId, applyTaxes ? npc.getCastle().getTaxRate() : 0, productMultiplier, ingredientMultiplier, applyTaxes);
+			PreparedList prepared = _prepared.get(key);
+			if (prepared != null) {
+				_preparedHits.increment();
+			} else {
+				prepared = _prepared.computeIfAbsent(key, k -> {
+					final PreparedListContainer preparedList = new PreparedListContainer(template, k._applyTaxes, k._taxRate);
+					applyMultipliers(preparedList, k._productMultiplier, k._ingredientMultiplier);
+					return new PreparedList(preparedList, paginate(preparedList));
+				});
+			}
+			
+			for (MultiSellList page : prepared._pages) {
+				player.sendPacket(page);
+			}
+			list = new PreparedListContainer(prepared._list, npc);
+		}
 		
+		player.setMultiSell(list);
+		_opens.increment();
+		_openTime.add(System.nanoTime() - start);
+	}
+	
+	private static void applyMultipliers(PreparedListContainer list, double productMultiplier, double ingredientMultiplier) {
 		// Pass through this only when multipliers are different from 1
 		if ((productMultiplier != 1) || (ingredientMultiplier != 1)) {
 			list.getEntries().forEach(entry -> {
@@ -221,15 +266,43 @@ public final class MultisellData implements IXmlReader {
 				entry.getIngredients().forEach(ingredient -> ingredient.setItemCount((long) Math.max(ingredient.getItemCount() * ingredientMultiplier, 1)));
 			});
 		}
-		int index = 0;
-		do {
-			// send list at least once even if size = 0
-			player.sendPacket(new MultiSellList(list, index));
-			index += PAGE_SIZE;
+	}
+	
+	private static MultiSellList[] paginate(PreparedListContainer list) {
+		// send list at least once even if size = 0
+		final MultiSellList[] pages = new MultiSellList[Math.max((list.getEntries().size() + PAGE_SIZE - 1) / PAGE_SIZE, 1)];
+		for (int i = 0; i < pages.length; i++) {
+			pages[i] = new MultiSellList(list, i * PAGE_SIZE);
 		}
-		while (index < list.getEntries().size());
-		
-		player.setMultiSell(list);
+		return pages;
+	}
+	
+	/**
+	 * Drops the prepared lists, they are prepared again with the current taxes when opened.
+	 */
+	public void clearPreparedLists() {
+		_prepared.clear();
+	}
+	
+	/**
+	 * @return the number of multisell lists opened
+	 */
+	public long getOpenCount() {
+		return _opens.sum();
+	}
+	
+	/**
+	 * @return the number of multisell lists opened from an already prepared list
+	 */
+	public long getPreparedHits() {
+		return _preparedHits.sum();
+	}
+	
+	/**
+	 * @return the total time spent preparing and sending multisell lists, in nanoseconds
+	 */
+	public long getOpenTime() {
+		return _openTime.sum();
 	}
 	
 	public void separateAndSend(int listId, L2PcInstance player, L2Npc npc, boolean inventoryOnly) {
@@ -318,6 +391,53 @@ public final class MultisellData implements IXmlReader {
 		};
 	}
 	
+	private static final class PreparedKey {
+		protected final int _listId;
+		protected final double _taxRate;
+		protected final double _productMultiplier;
+		protected final double _ingredientMultiplier;
+		protected final boolean _applyTaxes;
+		
+		protected PreparedKey(int listId, double taxRate, double productMultiplier, double ingredientMultiplier, boolean applyTaxes) {
+			_listId = listId;
+			_taxRate = taxRate;
+			_productMultiplier = productMultiplier;
+			_ingredientMultiplier = ingredientMultiplier;
+			_applyTaxes = applyTaxes;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof PreparedKey)) {
+				return false;
+			}
+			final PreparedKey key = (PreparedKey) obj;
+			return (_listId == key._listId) && (_applyTaxes == key._applyTaxes) && (Double.compare(_taxRate, key._taxRate) == 0) && (Double.compare(_productMultiplier, key._productMultiplier) == 0) && (Double.compare(_ingredientMultiplier, key._ingredientMultiplier) == 0);
+		}
+		
+		@Override
+		public int hashCode() {
+			int result = _listId;
+			result = (31 * result) + Double.hashCode(_taxRate);
+			result = (31 * result) + Double.hashCode(_productMultiplier);
+			result = (31 * result) + Double.hashCode(_ingredientMultiplier);
+			return (31 * result) + Boolean.hashCode(_applyTaxes);
+		}
+	}
+	
+	private static final class PreparedList {
+		protected final PreparedListContainer _list;
+		protected final MultiSellList[] _pages;
+		
+		protected PreparedList(PreparedListContainer list, MultiSellList[] pages) {
+			_list = list;
+			_pages = pages;
+		}
+	}
+	
 	public static MultisellData getInstance() {
 		return SingletonHolder._instance;
 	}
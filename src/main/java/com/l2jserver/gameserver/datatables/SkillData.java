@@ -21,9 +21,7 @@ package com.l2jserver.gameserver.datatables;
 import static com.l2jserver.gameserver.config.Configuration.general;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,9 +37,7 @@ public final class SkillData {
 	
 	private static final Logger LOG = LoggerFactory.getLogger(SkillData.class);
 	
-	private final Map<Integer, Skill> _skills = new HashMap<>();
-	private final Map<Integer, Integer> _skillMaxLevel = new HashMap<>();
-	private final Set<Integer> _enchantable = new HashSet<>();
+	private volatile SkillRegistry _skills;
 	
 	protected SkillData() {
 		load();
@@ -57,25 +53,8 @@ public final class SkillData {
 		final Map<Integer, Skill> _temp = new HashMap<>();
 		DocumentEngine.getInstance().loadAllSkills(_temp);
 		
-		_skills.clear();
-		_skills.putAll(_temp);
-		
-		_skillMaxLevel.clear();
-		_enchantable.clear();
-		for (Skill skill : _skills.values()) {
-			final int skillId = skill.getId();
-			final int skillLvl = skill.getLevel();
-			if (skillLvl > 99) {
-				_enchantable.add(skillId);
-				continue;
-			}
-			
-			// only non-enchanted skills
-			final int maxLvl = getMaxLevel(skillId);
-			if (skillLvl > maxLvl) {
-				_skillMaxLevel.put(skillId, skillLvl);
-			}
-		}
+		// Swap the whole registry at once, so lookups during reload see either the old or the new skills.
+		_skills = new SkillRegistry(_temp.values());
 	}
 	
 	/**
@@ -98,19 +77,20 @@ public final class SkillData {
 	}
 	
 	public Skill getSkill(int skillId, int level) {
-		final Skill result = _skills.get(getSkillHashCode(skillId, level));
+		final SkillRegistry skills = _skills;
+		final Skill result = skills.get(skillId, level);
 		if (result != null) {
 			return result;
 		}
 		
 		// skill/level not found, fix for transformation scripts
-		final int maxLvl = getMaxLevel(skillId);
+		final int maxLvl = skills.getMaxLevel(skillId);
 		// requested level too high
 		if ((maxLvl > 0) && (level > maxLvl)) {
 			if (general().debug()) {
 				LOG.warn("Call to unexisting skill level Id {} requested level {} max level {}!", skillId, level, maxLvl);
 			}
-			return _skills.get(getSkillHashCode(skillId, maxLvl));
+			return skills.get(skillId, maxLvl);
 		}
 		
 		LOG.warn("No skill info found for skill Id {} and skill level {}!", skillId, level);
@@ -118,8 +98,7 @@ public final class SkillData {
 	}
 	
 	public int getMaxLevel(int skillId) {
-		final Integer maxLevel = _skillMaxLevel.get(skillId);
-		return maxLevel != null ? maxLevel : 0;
+		return _skills.getMaxLevel(skillId);
 	}
 	
 	/**
@@ -128,7 +107,7 @@ public final class SkillData {
 	 * @return {@code true} if the skill is enchantable, {@code false} otherwise
 	 */
 	public boolean isEnchantable(int skillId) {
-		return _enchantable.contains(skillId);
+		return _skills.isEnchantable(skillId);
 	}
 	
 	/**
@@ -137,17 +116,18 @@ public final class SkillData {
 	 * @return an array with siege skills. If addNoble == true, will add also Advanced headquarters.
 	 */
 	public Skill[] getSiegeSkills(boolean addNoble, boolean hasCastle) {
+		final SkillRegistry skills = _skills;
 		Skill[] temp = new Skill[2 + (addNoble ? 1 : 0) + (hasCastle ? 2 : 0)];
 		int i = 0;
-		temp[i++] = _skills.get(SkillData.getSkillHashCode(246, 1));
-		temp[i++] = _skills.get(SkillData.getSkillHashCode(247, 1));
+		temp[i++] = skills.get(246, 1);
+		temp[i++] = skills.get(247, 1);
 		
 		if (addNoble) {
-			temp[i++] = _skills.get(SkillData.getSkillHashCode(326, 1));
+			temp[i++] = skills.get(326, 1);
 		}
 		if (hasCastle) {
-			temp[i++] = _skills.get(SkillData.getSkillHashCode(844, 1));
-			temp[i] = _skills.get(SkillData.getSkillHashCode(845, 1));
+			temp[i++] = skills.get(844, 1);
+			temp[i] = skills.get(845, 1);
 		}
 		return temp;
 	}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.datatables;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+import com.l2jserver.gameserver.model.skills.Skill;
+
+/**
+ * Immutable skill registry.<br>
+ * Skills are stored in an open-addressing table keyed by skill ID and level packed in a primitive long, avoiding boxing on lookups.
+ */
+final class SkillRegistry {
+	
+	private final long[] _keys;
+	private final Skill[] _values;
+	private final int _mask;
+	private final int _size;
+	private final int[] _maxLevels;
+	private final BitSet _enchantable = new BitSet();
+	
+	SkillRegistry(Collection<Skill> skills) {
+		int capacity = 16;
+		while (capacity < (skills.size() * 2)) {
+			capacity <<= 1;
+		}
+		
+		_keys = new long[capacity];
+		_values = new Skill[capacity];
+		_mask = capacity - 1;
+		
+		int maxId = 0;
+		for (Skill skill : skills) {
+			maxId = Math.max(maxId, skill.getId());
+		}
+		_maxLevels = new int[maxId + 1];
+		
+		int size = 0;
+		for (Skill skill : skills) {
+			final int skillId = skill.getId();
+			final int skillLvl = skill.getLevel();
+			final long key = key(skillId, skillLvl);
+			int index = index(key);
+			while ((_values[index] != null) && (_keys[index] != key)) {
+				index = (index + 1) & _mask;
+			}
+			
+			if (_values[index] == null) {
+				size++;
+			}
+			_keys[index] = key;
+			_values[index] = skill;
+			
+			if (skillLvl > 99) {
+				_enchantable.set(skillId);
+				continue;
+			}
+			
+			// only non-enchanted skills
+			if (skillLvl > _maxLevels[skillId]) {
+				_maxLevels[skillId] = skillLvl;
+			}
+		}
+		_size = size;
+	}
+	
+	/**
+	 * Gets the skill for the given ID and level.
+	 * @param skillId the skill ID
+	 * @param skillLvl the skill level
+	 * @return the skill, {@code null} if it doesn't exist
+	 */
+	Skill get(int skillId, int skillLvl) {
+		final long key = key(skillId, skillLvl);
+		int index = index(key);
+		Skill skill;
+		while ((skill = _values[index]) != null) {
+			if (_keys[index] == key) {
+				return skill;
+			}
+			index = (index + 1) & _mask;
+		}
+		return null;
+	}
+	
+	/**
+	 * Gets the max non-enchanted level of the given skill.
+	 * @param skillId the skill ID
+	 * @return the max level, {@code 0} if the skill doesn't exist
+	 */
+	int getMaxLevel(int skillId) {
+		return (skillId >= 0) && (skillId < _maxLevels.length) ? _maxLevels[skillId] : 0;
+	}
+	
+	boolean isEnchantable(int skillId) {
+		return (skillId >= 0) && _enchantable.get(skillId);
+	}
+	
+	int size() {
+		return _size;
+	}
+	
+	private static long key(int skillId, int skillLvl) {
+		return ((long) skillId << 32) | (skillLvl & 0xFFFFFFFFL);
+	}
+	
+	private int index(long key) {
+		final long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & _mask;
+	}
+}
@@ -16,28 +16,16 @@
  * You should have received a copy of the GNU General Public License
  * along with this program. If not, see <http://www.gnu.org/licenses/>.
  */
-package com.l2jserver.gameserver.instancemanager.tasks;
-
-import com.l2jserver.gameserver.instancemanager.WalkingManager;
-import com.l2jserver.gameserver.model.actor.L2Npc;
+package com.l2jserver.gameserver.enums;
 
 /**
- * Task which starts npc movement.
- * @author xban1x
+ * Geodata region load mode.
  */
-public final class StartMovingTask implements Runnable {
-	private final L2Npc _npc;
-	private final String _routeName;
-	
-	public StartMovingTask(L2Npc npc, String routeName) {
-		_npc = npc;
-		_routeName = routeName;
-	}
-	
-	@Override
-	public void run() {
-		if (_npc != null) {
-			WalkingManager.getInstance().startMoving(_npc, _routeName);
-		}
-	}
+public enum GeoDataLoadMode {
+	/** Regions are loaded one after another during startup. */
+	SEQUENTIAL,
+	/** Regions are loaded concurrently during startup. */
+	PARALLEL,
+	/** Only warm-up regions are loaded at startup, the rest on first query. */
+	LAZY
 }
@@ -21,6 +21,7 @@ package com.l2jserver.gameserver.handler;
 import com.l2jserver.gameserver.model.L2Object;
 import com.l2jserver.gameserver.model.actor.L2Character;
 import com.l2jserver.gameserver.model.skills.Skill;
+import com.l2jserver.gameserver.model.skills.targets.TargetBuffer;
 import com.l2jserver.gameserver.model.skills.targets.TargetType;
 
 /**
@@ -31,5 +32,20 @@ public interface ITargetTypeHandler {
 	
 	L2Object[] getTargetList(Skill skill, L2Character activeChar, boolean onlyFirst, L2Character target);
 	
+	/**
+	 * Adds the targets to the given buffer.<br>
+	 * Handlers of area skills should override it to skip the target array.
+	 * @param skill the skill
+	 * @param activeChar the caster
+	 * @param onlyFirst if {@code true} only the first target is needed
+	 * @param target the selected target
+	 * @param targets the target buffer
+	 */
+	default void getTargetList(Skill skill, L2Character activeChar, boolean onlyFirst, L2Character target, TargetBuffer targets) {
+		for (L2Object object : getTargetList(skill, activeChar, onlyFirst, target)) {
+			targets.add(object);
+		}
+	}
+	
 	Enum<TargetType> getTargetType();
 }
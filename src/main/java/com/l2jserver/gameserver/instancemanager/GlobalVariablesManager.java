@@ -18,7 +18,7 @@
  */
 package com.l2jserver.gameserver.instancemanager;
 
-import java.util.Map.Entry;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,7 +36,7 @@ public final class GlobalVariablesManager extends AbstractVariables {
 	
 	private static final String SELECT_QUERY = "SELECT * FROM global_variables";
 	
-	private static final String DELETE_QUERY = "DELETE FROM global_variables";
+	private static final String DELETE_QUERY = "DELETE FROM global_variables WHERE var = ?";
 	
 	private static final String INSERT_QUERY = "INSERT INTO global_variables (var, value) VALUES (?, ?)";
 	
@@ -70,26 +70,41 @@ public final class GlobalVariablesManager extends AbstractVariables {
 			return false;
 		}
 		
+		final Set<String> changes = takeChanges();
 		try (var con = ConnectionFactory.getInstance().getConnection();
-			var del = con.createStatement();
+			var del = con.prepareStatement(DELETE_QUERY);
 			var st = con.prepareStatement(INSERT_QUERY)) {
-			// Clear previous entries.
-			del.execute(DELETE_QUERY);
-			
-			// Insert all variables.
-			for (Entry<String, Object> entry : getSet().entrySet()) {
-				st.setString(1, entry.getKey());
-				st.setString(2, String.valueOf(entry.getValue()));
-				st.addBatch();
+			// The deletes and inserts of a store are committed together.
+			con.setAutoCommit(false);
+			try {
+				// Only the changed variables are rewritten, removed ones are just deleted.
+				int unchanged = getSet().size();
+				for (String name : changes) {
+					del.setString(1, name);
+					del.addBatch();
+					
+					final Object value = getSet().get(name);
+					if (value != null) {
+						st.setString(1, name);
+						st.setString(2, String.valueOf(value));
+						st.addBatch();
+						unchanged--;
+					}
+				}
+				del.executeBatch();
+				st.executeBatch();
+				con.commit();
+				countRows(changes.size(), Math.max(unchanged, 0));
+				LOG.info("Stored {} changed variables, {} unchanged.", changes.size(), Math.max(unchanged, 0));
+			} catch (Exception e) {
+				con.rollback();
+				throw e;
 			}
-			st.executeBatch();
 		} catch (Exception ex) {
+			restoreChanges(changes);
 			LOG.warn("Couldn't save global variables to database!", ex);
 			return false;
-		} finally {
-			compareAndSetChanges(true, false);
 		}
-		LOG.info("Stored {} variables.", getSet().size());
 		return true;
 	}
 	
@@ -18,9 +18,16 @@
  */
 package com.l2jserver.gameserver.instancemanager;
 
+import static com.l2jserver.gameserver.config.Configuration.server;
+
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.xml.parsers.DocumentBuilderFactory;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +38,7 @@ import org.w3c.dom.Node;
 import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.entity.Instance;
+import com.l2jserver.gameserver.model.instancezone.InstanceTemplate;
 import com.l2jserver.gameserver.model.instancezone.InstanceWorld;
 import com.l2jserver.gameserver.util.IXmlReader;
 
@@ -51,6 +59,16 @@ public final class InstanceManager implements IXmlReader {
 	
 	private static final Map<Integer, String> _instanceIdNames = new HashMap<>();
 	
+	private final Map<String, InstanceTemplate> _templates = new ConcurrentHashMap<>();
+	
+	private final LongAdder _createCount = new LongAdder();
+	
+	private final LongAdder _createTime = new LongAdder();
+	
+	private final LongAdder _destroyCount = new LongAdder();
+	
+	private final LongAdder _destroyTime = new LongAdder();
+	
 	private final Map<Integer, Map<Integer, Long>> _playerInstanceTimes = new ConcurrentHashMap<>();
 	
 	private static final String ADD_INSTANCE_TIME = "INSERT INTO character_instance_time (charId,instanceId,time) values (?,?,?) ON DUPLICATE KEY UPDATE time=?";
@@ -72,10 +90,43 @@ public final class InstanceManager implements IXmlReader {
 	@Override
 	public void load() {
 		_instanceIdNames.clear();
+		_templates.clear();
 		parseDatapackFile("data/instancenames.xml");
 		LOG.info("Loaded {} instance names.", _instanceIdNames.size());
 	}
 	
+	/**
+	 * Gets an instance template, parsing it the first time it is requested.<br>
+	 * Templates are dropped on {@link #load()}, so a reload picks up datapack changes.
+	 * @param filename the template file name in {@code data/instances}
+	 * @return the instance template, {@code null} if it could not be parsed
+	 */
+	public InstanceTemplate getInstanceTemplate(String filename) {
+		return _templates.computeIfAbsent(filename, InstanceManager::parseInstanceTemplate);
+	}
+	
+	private static InstanceTemplate parseInstanceTemplate(String filename) {
+		final File xml = new File(server().getDatapackRoot(), "data/instances/" + filename);
+		final long start = System.nanoTime();
+		try {
+			final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setValidating(false);
+			factory.setIgnoringComments(true);
+			final var doc = factory.newDocumentBuilder().parse(xml);
+			for (Node n = doc.getFirstChild(); n != null; n = n.getNextSibling()) {
+				if ("instance".equalsIgnoreCase(n.getNodeName())) {
+					final InstanceTemplate template = InstanceTemplate.parse(n);
+					LOG.info("Parsed instance template {} in {} ms.", filename, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+					return template;
+				}
+			}
+			LOG.warn("Instance template {} has no instance definition!", xml.getAbsolutePath());
+		} catch (Exception ex) {
+			LOG.warn("Error while loading instance template {}!", xml.getAbsolutePath(), ex);
+		}
+		return null;
+	}
+	
 	public long getInstanceTime(int playerObjId, int id) {
 		if (!_playerInstanceTimes.containsKey(playerObjId)) {
 			restoreInstanceTimes(playerObjId);
@@ -197,12 +248,15 @@ public final class InstanceManager implements IXmlReader {
 		}
 		final Instance temp = INSTANCES.get(instanceid);
 		if (temp != null) {
+			final long start = System.nanoTime();
 			temp.removeNpcs();
 			temp.removePlayers();
 			temp.removeDoors();
 			temp.cancelTimer();
 			INSTANCES.remove(instanceid);
 			_instanceWorlds.remove(instanceid);
+			_destroyCount.increment();
+			_destroyTime.add(System.nanoTime() - start);
 		}
 	}
 	
@@ -243,9 +297,12 @@ public final class InstanceManager implements IXmlReader {
 			return false;
 		}
 		
+		final long start = System.nanoTime();
 		final Instance instance = new Instance(id);
 		INSTANCES.put(id, instance);
 		instance.loadInstanceTemplate(template);
+		_createCount.increment();
+		_createTime.add(System.nanoTime() - start);
 		return true;
 	}
 	
@@ -262,14 +319,45 @@ public final class InstanceManager implements IXmlReader {
 				_dynamic = 300000;
 			}
 		}
+		final long start = System.nanoTime();
 		final Instance instance = new Instance(_dynamic);
 		INSTANCES.put(_dynamic, instance);
 		if (template != null) {
 			instance.loadInstanceTemplate(template);
 		}
+		_createCount.increment();
+		_createTime.add(System.nanoTime() - start);
 		return _dynamic;
 	}
 	
+	/**
+	 * @return the number of instances created from {@link #createInstanceFromTemplate(int, String)} and {@link #createDynamicInstance(String)}
+	 */
+	public long getCreateCount() {
+		return _createCount.sum();
+	}
+	
+	/**
+	 * @return the total time spent creating instances, in nanoseconds
+	 */
+	public long getCreateTime() {
+		return _createTime.sum();
+	}
+	
+	/**
+	 * @return the number of destroyed instances
+	 */
+	public long getDestroyCount() {
+		return _destroyCount.sum();
+	}
+	
+	/**
+	 * @return the total time spent destroying instances, in nanoseconds
+	 */
+	public long getDestroyTime() {
+		return _destroyTime.sum();
+	}
+	
 	public static InstanceManager getInstance() {
 		return SingletonHolder._instance;
 	}
@@ -18,11 +18,15 @@
  */
 package com.l2jserver.gameserver.instancemanager;
 
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,31 +49,36 @@ public final class MailManager {
 	
 	private static final Logger LOG = LoggerFactory.getLogger(MailManager.class);
 	
+	/** Rows fetched per round trip while loading messages. */
+	private static final int LOAD_FETCH_SIZE = 1000;
+	
+	/** Interval between expired messages checks in milliseconds. */
+	private static final long DELETION_INTERVAL = 10000;
+	
+	/** Maximum messages deleted per expired messages check. */
+	public static final int DELETION_BATCH_SIZE = 500;
+	
 	private final Map<Integer, Message> _messages = new ConcurrentHashMap<>();
 	
+	/** Messages ordered by expiration, the earliest expiring first. */
+	private final NavigableSet<Message> _expirations = new ConcurrentSkipListSet<>(Comparator.comparingLong(Message::getExpiration).thenComparingInt(Message::getId));
+	
 	protected MailManager() {
 		load();
+		ThreadPoolManager.getInstance().scheduleGeneralAtFixedRate(new MessageDeletionTask(), DELETION_INTERVAL, DELETION_INTERVAL);
 	}
 	
 	private void load() {
 		int count = 0;
 		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.createStatement();
-			var rs = ps.executeQuery("SELECT * FROM messages ORDER BY expiration")) {
-			while (rs.next()) {
-				final Message msg = new Message(rs);
-				
-				int msgId = msg.getId();
-				_messages.put(msgId, msg);
-				
-				count++;
-				
-				long expiration = msg.getExpiration();
-				
-				if (expiration < System.currentTimeMillis()) {
-					ThreadPoolManager.getInstance().scheduleGeneral(new MessageDeletionTask(msgId), 10000);
-				} else {
-					ThreadPoolManager.getInstance().scheduleGeneral(new MessageDeletionTask(msgId), expiration - System.currentTimeMillis());
+			var ps = con.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+			ps.setFetchSize(LOAD_FETCH_SIZE);
+			try (var rs = ps.executeQuery("SELECT * FROM messages")) {
+				while (rs.next()) {
+					final Message msg = new Message(rs);
+					_messages.put(msg.getId(), msg);
+					_expirations.add(msg);
+					count++;
 				}
 			}
 		} catch (Exception ex) {
@@ -150,7 +159,29 @@ public final class MailManager {
 			receiver.sendPacket(ExNoticePostArrived.valueOf(true));
 		}
 		
-		ThreadPoolManager.getInstance().scheduleGeneral(new MessageDeletionTask(msg.getId()), msg.getExpiration() - System.currentTimeMillis());
+		_expirations.add(msg);
+	}
+	
+	/**
+	 * Removes from the expiration index up to {@code limit} messages expired at the given time.
+	 * @param time the time in milliseconds
+	 * @param limit the maximum amount of messages to return
+	 * @return the expired messages, the earliest expired first
+	 */
+	public List<Message> pollExpired(long time, int limit) {
+		final List<Message> expired = new ArrayList<>();
+		Message msg;
+		while ((expired.size() < limit) && ((msg = _expirations.pollFirst()) != null)) {
+			if (msg.getExpiration() > time) {
+				_expirations.add(msg);
+				break;
+			}
+			
+			if (_messages.containsKey(msg.getId())) {
+				expired.add(msg);
+			}
+		}
+		return expired;
 	}
 	
 	public void markAsReadInDb(int msgId) {
@@ -202,10 +233,42 @@ public final class MailManager {
 			LOG.warn("There has been an error deleting message Id {}!", msgId, ex);
 		}
 		
-		_messages.remove(msgId);
+		final Message msg = _messages.remove(msgId);
+		if (msg != null) {
+			_expirations.remove(msg);
+		}
 		IdFactory.getInstance().releaseId(msgId);
 	}
 	
+	/**
+	 * Deletes the given messages using a single batch.
+	 * @param messages the messages to delete
+	 */
+	public void deleteMessagesInDb(List<Message> messages) {
+		if (messages.isEmpty()) {
+			return;
+		}
+		
+		try (var con = ConnectionFactory.getInstance().getConnection();
+			var ps = con.prepareStatement("DELETE FROM messages WHERE messageId = ?")) {
+			con.setAutoCommit(false);
+			for (Message msg : messages) {
+				ps.setInt(1, msg.getId());
+				ps.addBatch();
+			}
+			ps.executeBatch();
+			con.commit();
+		} catch (Exception ex) {
+			LOG.warn("There has been an error deleting {} messages!", messages.size(), ex);
+		}
+		
+		for (Message msg : messages) {
+			_messages.remove(msg.getId());
+			_expirations.remove(msg);
+			IdFactory.getInstance().releaseId(msg.getId());
+		}
+	}
+	
 	public static MailManager getInstance() {
 		return SingletonHolder.INSTANCE;
 	}
@@ -0,0 +1,302 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.instancemanager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.l2jserver.gameserver.enums.PrivateStoreType;
+import com.l2jserver.gameserver.model.L2World;
+import com.l2jserver.gameserver.model.TradeItem;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+
+/**
+ * Private store manager.<br>
+ * Indexes the items offered by the open private stores, offline shops included, by item Id, with the sellers sorted by lowest price and the buyers by highest price.<br>
+ * A store is re-indexed when it is opened, closed or traded with, so finding who sells or buys an item does not walk the online players and their stores.
+ */
+public final class PrivateStoreManager {
+	
+	private static final Comparator<Offer> LOWEST_PRICE = Comparator.comparingLong(Offer::getPrice).thenComparingLong(Offer::getSequence);
+	
+	private static final Comparator<Offer> HIGHEST_PRICE = Comparator.comparingLong(Offer::getPrice).reversed().thenComparingLong(Offer::getSequence);
+	
+	/** The selling offers by item Id. */
+	private final Map<Integer, NavigableSet<Offer>> _sellers = new ConcurrentHashMap<>();
+	/** The buying offers by item Id. */
+	private final Map<Integer, NavigableSet<Offer>> _buyers = new ConcurrentHashMap<>();
+	/** The indexed offers by store owner object Id. */
+	private final Map<Integer, List<Offer>> _stores = new ConcurrentHashMap<>();
+	
+	private final AtomicLong _sequence = new AtomicLong();
+	
+	private final LongAdder _updateCount = new LongAdder();
+	
+	private final LongAdder _queryCount = new LongAdder();
+	
+	private final LongAdder _queryTime = new LongAdder();
+	
+	protected PrivateStoreManager() {
+		// Do nothing.
+	}
+	
+	/**
+	 * Re-indexes the private store of the given player.<br>
+	 * Stores that are not open, being managed or crafting ones, are removed from the index.
+	 * @param player the store owner
+	 */
+	public void update(L2PcInstance player) {
+		final List<Offer> offers = createOffers(player);
+		_stores.compute(player.getObjectId(), (objectId, previous) -> {
+			if (previous != null) {
+				unindex(previous);
+			}
+			index(offers);
+			return offers.isEmpty() ? null : offers;
+		});
+		_updateCount.increment();
+	}
+	
+	/**
+	 * Removes the private store of the given player from the index.
+	 * @param player the store owner
+	 */
+	public void remove(L2PcInstance player) {
+		_stores.computeIfPresent(player.getObjectId(), (objectId, previous) -> {
+			unindex(previous);
+			return null;
+		});
+	}
+	
+	/**
+	 * Gets the stores selling the given item, lowest price first.
+	 * @param itemId the item Id
+	 * @param limit the maximum number of offers to return
+	 * @return the selling offers
+	 */
+	public List<Offer> getSellers(int itemId, int limit) {
+		return query(_sellers, itemId, limit);
+	}
+	
+	/**
+	 * Gets the stores buying the given item, highest price first.
+	 * @param itemId the item Id
+	 * @param limit the maximum number of offers to return
+	 * @return the buying offers
+	 */
+	public List<Offer> getBuyers(int itemId, int limit) {
+		return query(_buyers, itemId, limit);
+	}
+	
+	/**
+	 * @return the Ids of the items sold in private stores
+	 */
+	public Set<Integer> getSoldItemIds() {
+		return Collections.unmodifiableSet(_sellers.keySet());
+	}
+	
+	/**
+	 * @return the Ids of the items bought in private stores
+	 */
+	public Set<Integer> getBoughtItemIds() {
+		return Collections.unmodifiableSet(_buyers.keySet());
+	}
+	
+	/**
+	 * Gets the indexed offers of the given store owner.
+	 * @param objectId the store owner object Id
+	 * @return the offers, empty if the player has no open store
+	 */
+	public List<Offer> getOffers(int objectId) {
+		return _stores.getOrDefault(objectId, List.of());
+	}
+	
+	/**
+	 * @return the number of indexed private stores
+	 */
+	public int getStoreCount() {
+		return _stores.size();
+	}
+	
+	private List<Offer> createOffers(L2PcInstance player) {
+		final PrivateStoreType type = player.getPrivateStoreType();
+		final TradeItem[] items = switch (type) {
+			case SELL, PACKAGE_SELL -> player.getSellList().getItems();
+			case BUY -> player.getBuyList().getItems();
+			default -> null;
+		};
+		
+		if ((items == null) || (items.length == 0)) {
+			return List.of();
+		}
+		
+		final List<Offer> offers = new ArrayList<>(items.length);
+		for (TradeItem item : items) {
+			offers.add(new Offer(_sequence.incrementAndGet(), player, type, item));
+		}
+		return offers;
+	}
+	
+	private void index(List<Offer> offers) {
+		for (Offer offer : offers) {
+			final boolean buy = offer.getType() == PrivateStoreType.BUY;
+			(buy ? _buyers : _sellers).compute(offer.getItemId(), (itemId, set) -> {
+				if (set == null) {
+					set = new ConcurrentSkipListSet<>(buy ? HIGHEST_PRICE : LOWEST_PRICE);
+				}
+				set.add(offer);
+				return set;
+			});
+		}
+	}
+	
+	private void unindex(List<Offer> offers) {
+		for (Offer offer : offers) {
+			(offer.getType() == PrivateStoreType.BUY ? _buyers : _sellers).computeIfPresent(offer.getItemId(), (itemId, set) -> {
+				set.remove(offer);
+				return set.isEmpty() ? null : set;
+			});
+		}
+	}
+	
+	private List<Offer> query(Map<Integer, NavigableSet<Offer>> index, int itemId, int limit) {
+		final long start = System.nanoTime();
+		final NavigableSet<Offer> set = index.get(itemId);
+		final List<Offer> offers = new ArrayList<>();
+		if (set != null) {
+			for (Offer offer : set) {
+				if (offers.size() >= limit) {
+					break;
+				}
+				offers.add(offer);
+			}
+		}
+		_queryCount.increment();
+		_queryTime.add(System.nanoTime() - start);
+		return offers;
+	}
+	
+	/**
+	 * @return the number of private store updates
+	 */
+	public long getUpdateCount() {
+		return _updateCount.sum();
+	}
+	
+	/**
+	 * @return the number of sellers and buyers queries
+	 */
+	public long getQueryCount() {
+		return _queryCount.sum();
+	}
+	
+	/**
+	 * @return the total time spent answering sellers and buyers queries, in nanoseconds
+	 */
+	public long getQueryTime() {
+		return _queryTime.sum();
+	}
+	
+	/**
+	 * An item offered by a private store, a snapshot taken when the store was indexed.
+	 */
+	public static final class Offer {
+		private final long _sequence;
+		private final int _ownerId;
+		private final String _ownerName;
+		private final String _title;
+		private final PrivateStoreType _type;
+		private final int _itemId;
+		private final int _enchant;
+		private final long _count;
+		private final long _price;
+		
+		protected Offer(long sequence, L2PcInstance owner, PrivateStoreType type, TradeItem item) {
+			_sequence = sequence;
+			_ownerId = owner.getObjectId();
+			_ownerName = owner.getName();
+			_title = type == PrivateStoreType.BUY ? owner.getBuyList().getTitle() : owner.getSellList().getTitle();
+			_type = type;
+			_itemId = item.getItem().getId();
+			_enchant = item.getEnchant();
+			_count = item.getCount();
+			_price = item.getPrice();
+		}
+		
+		protected long getSequence() {
+			return _sequence;
+		}
+		
+		public int getOwnerId() {
+			return _ownerId;
+		}
+		
+		public String getOwnerName() {
+			return _ownerName;
+		}
+		
+		/**
+		 * @return the store owner, {@code null} if it is no longer in the world
+		 */
+		public L2PcInstance getOwner() {
+			return L2World.getInstance().getPlayer(_ownerId);
+		}
+		
+		public String getTitle() {
+			return _title;
+		}
+		
+		public PrivateStoreType getType() {
+			return _type;
+		}
+		
+		public int getItemId() {
+			return _itemId;
+		}
+		
+		public int getEnchant() {
+			return _enchant;
+		}
+		
+		public long getCount() {
+			return _count;
+		}
+		
+		public long getPrice() {
+			return _price;
+		}
+	}
+	
+	public static PrivateStoreManager getInstance() {
+		return SingletonHolder._instance;
+	}
+	
+	private static class SingletonHolder {
+		protected static final PrivateStoreManager _instance = new PrivateStoreManager();
+	}
+}
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,14 +32,12 @@ import org.w3c.dom.Node;
 
 import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.ai.CtrlIntention;
-import com.l2jserver.gameserver.instancemanager.tasks.StartMovingTask;
 import com.l2jserver.gameserver.model.L2NpcWalkerNode;
 import com.l2jserver.gameserver.model.L2WalkRoute;
 import com.l2jserver.gameserver.model.Location;
 import com.l2jserver.gameserver.model.WalkInfo;
 import com.l2jserver.gameserver.model.actor.L2Npc;
 import com.l2jserver.gameserver.model.actor.instance.L2MonsterInstance;
-import com.l2jserver.gameserver.model.actor.tasks.npc.walker.ArrivedTask;
 import com.l2jserver.gameserver.model.events.EventDispatcher;
 import com.l2jserver.gameserver.model.events.impl.character.npc.OnNpcMoveNodeArrived;
 import com.l2jserver.gameserver.model.holders.NpcRoutesHolder;
@@ -68,12 +67,22 @@ public final class WalkingManager implements IXmlReader {
 	public static final byte REPEAT_TELE_FIRST = 2;
 	public static final byte REPEAT_RANDOM = 3;
 	
+	/** Interval between walker engine ticks, in milliseconds. */
+	private static final long WALKER_TICK = 250;
+	/** Delay between walk checks, for resuming walk after fight, in milliseconds. */
+	private static final long WALK_CHECK_DELAY = 60000;
+	
 	private final Map<String, L2WalkRoute> _routes = new HashMap<>(); // all available routes
-	private final Map<Integer, WalkInfo> _activeRoutes = new HashMap<>(); // each record represents NPC, moving by predefined route from _routes, and moving progress
+	private final Map<Integer, WalkInfo> _activeRoutes = new ConcurrentHashMap<>(); // each record represents NPC, moving by predefined route from _routes, and moving progress
+	private final Map<Integer, WalkInfo> _pendingRoutes = new ConcurrentHashMap<>(); // each record represents NPC, waiting to start moving by predefined route from _routes
 	private final Map<Integer, NpcRoutesHolder> _routesToAttach = new HashMap<>(); // each record represents NPC and all available routes for it
 	
+	private volatile int _activeWalkers;
+	private volatile int _suspendedWalkers;
+	
 	protected WalkingManager() {
 		load();
+		ThreadPoolManager.getInstance().scheduleAiAtFixedRate(this::onWalkerTick, WALKER_TICK, WALKER_TICK);
 	}
 	
 	@Override
@@ -174,7 +183,7 @@ public final class WalkingManager implements IXmlReader {
 		}
 		
 		final WalkInfo walk = monster != null ? _activeRoutes.get(monster.getObjectId()) : _activeRoutes.get(npc.getObjectId());
-		return !walk.isStoppedByAttack() && !walk.isSuspended();
+		return (walk != null) && !walk.isStoppedByAttack() && !walk.isSuspended();
 	}
 	
 	public L2WalkRoute getRoute(String route) {
@@ -194,7 +203,8 @@ public final class WalkingManager implements IXmlReader {
 	 * @return name of route
 	 */
 	public String getRouteName(L2Npc npc) {
-		return _activeRoutes.containsKey(npc.getObjectId()) ? _activeRoutes.get(npc.getObjectId()).getRoute().getName() : "";
+		final WalkInfo walk = _activeRoutes.get(npc.getObjectId());
+		return walk != null ? walk.getRoute().getName() : "";
 	}
 	
 	/**
@@ -209,7 +219,7 @@ public final class WalkingManager implements IXmlReader {
 			{
 				// only if not already moved / not engaged in battle... should not happens if called on spawn
 				if ((npc.getAI().getIntention() == CtrlIntention.AI_INTENTION_ACTIVE) || (npc.getAI().getIntention() == CtrlIntention.AI_INTENTION_IDLE)) {
-					final WalkInfo walk = new WalkInfo(routeName);
+					final WalkInfo walk = new WalkInfo(npc, routeName);
 					
 					if (npc.isDebug()) {
 						walk.setLastAction(System.currentTimeMillis());
@@ -232,22 +242,28 @@ public final class WalkingManager implements IXmlReader {
 						return;
 					}
 					
+					walk.setNextCheckTime(System.currentTimeMillis() + WALK_CHECK_DELAY); // walk check, for resuming walk after fight
+					if (_activeRoutes.putIfAbsent(npc.getObjectId(), walk) != null) // register route
+					{
+						return;
+					}
+					_pendingRoutes.remove(npc.getObjectId());
+					
 					npc.sendDebugMessage("Starting to move at route '" + routeName + "'");
 					npc.setIsRunning(node.runToLocation());
 					npc.getAI().setIntention(CtrlIntention.AI_INTENTION_MOVE_TO, node);
-					walk.setWalkCheckTask(ThreadPoolManager.getInstance().scheduleAiAtFixedRate(new StartMovingTask(npc, routeName), 60000, 60000)); // start walk check task, for resuming walk after fight
 					
 					npc.getKnownList().startTrackingTask();
-					
-					_activeRoutes.put(npc.getObjectId(), walk); // register route
 				} else {
 					npc.sendDebugMessage("Failed to start moving along route '" + routeName + "', scheduled");
-					ThreadPoolManager.getInstance().scheduleGeneral(new StartMovingTask(npc, routeName), 60000);
+					final WalkInfo pending = new WalkInfo(npc, routeName);
+					pending.setNextCheckTime(System.currentTimeMillis() + WALK_CHECK_DELAY);
+					_pendingRoutes.put(npc.getObjectId(), pending);
 				}
 			} else
 			// walk was stopped due to some reason (arrived to node, script action, fight or something else), resume it
 			{
-				if (_activeRoutes.containsKey(npc.getObjectId()) && ((npc.getAI().getIntention() == CtrlIntention.AI_INTENTION_ACTIVE) || (npc.getAI().getIntention() == CtrlIntention.AI_INTENTION_IDLE))) {
+				if ((npc.getAI().getIntention() == CtrlIntention.AI_INTENTION_ACTIVE) || (npc.getAI().getIntention() == CtrlIntention.AI_INTENTION_IDLE)) {
 					final WalkInfo walk = _activeRoutes.get(npc.getObjectId());
 					if (walk == null) {
 						return;
@@ -278,9 +294,9 @@ public final class WalkingManager implements IXmlReader {
 	 * @param npc NPC to cancel
 	 */
 	public synchronized void cancelMoving(L2Npc npc) {
+		_pendingRoutes.remove(npc.getObjectId());
 		final WalkInfo walk = _activeRoutes.remove(npc.getObjectId());
 		if (walk != null) {
-			walk.getWalkCheckTask().cancel(true);
 			npc.getKnownList().stopTrackingTask();
 		}
 	}
@@ -320,6 +336,9 @@ public final class WalkingManager implements IXmlReader {
 		}
 		
 		final WalkInfo walk = monster != null ? _activeRoutes.get(monster.getObjectId()) : _activeRoutes.get(npc.getObjectId());
+		if (walk == null) {
+			return;
+		}
 		
 		walk.setSuspended(suspend);
 		walk.setStoppedByAttack(stoppedByAttack);
@@ -338,12 +357,11 @@ public final class WalkingManager implements IXmlReader {
 	 * @param npc NPC to manage
 	 */
 	public void onArrived(final L2Npc npc) {
-		if (_activeRoutes.containsKey(npc.getObjectId())) {
+		final WalkInfo walk = _activeRoutes.get(npc.getObjectId());
+		if (walk != null) {
 			// Notify quest
 			EventDispatcher.getInstance().notifyEventAsync(new OnNpcMoveNodeArrived(npc), npc);
 			
-			final WalkInfo walk = _activeRoutes.get(npc.getObjectId());
-			
 			// Opposite should not happen... but happens sometime
 			if ((walk.getCurrentNodeId() >= 0) && (walk.getCurrentNodeId() < walk.getRoute().getNodesCount())) {
 				final L2NpcWalkerNode node = walk.getRoute().getNodeList().get(walk.getCurrentNodeId());
@@ -362,7 +380,7 @@ public final class WalkingManager implements IXmlReader {
 					if (npc.isDebug()) {
 						walk.setLastAction(System.currentTimeMillis());
 					}
-					ThreadPoolManager.getInstance().scheduleGeneral(new ArrivedTask(npc, walk), 100 + (node.getDelay() * 1000L));
+					walk.setResumeTime(System.currentTimeMillis() + 100 + (node.getDelay() * 1000L));
 				}
 			}
 		}
@@ -389,6 +407,66 @@ public final class WalkingManager implements IXmlReader {
 		}
 	}
 	
+	/**
+	 * Advances all route walkers: continues moving after node delays, runs the walk checks and retries the pending starts.<br>
+	 * Walkers in inactive regions are left untouched until their region becomes active again.
+	 */
+	private void onWalkerTick() {
+		final long now = System.currentTimeMillis();
+		final List<WalkInfo> toMove = new ArrayList<>();
+		int active = 0;
+		int suspended = 0;
+		for (WalkInfo walk : _activeRoutes.values()) {
+			if (!walk.getNpc().isInActiveRegion()) {
+				suspended++;
+				continue;
+			}
+			
+			active++;
+			if (walk.getResumeTime() > 0) {
+				if (now >= walk.getResumeTime()) {
+					walk.setResumeTime(0);
+					walk.setBlocked(false);
+					toMove.add(walk);
+				}
+			} else if (now >= walk.getNextCheckTime()) {
+				walk.setNextCheckTime(now + WALK_CHECK_DELAY);
+				toMove.add(walk);
+			}
+		}
+		
+		for (WalkInfo walk : _pendingRoutes.values()) {
+			if ((now >= walk.getNextCheckTime()) && _pendingRoutes.remove(walk.getNpc().getObjectId(), walk)) {
+				toMove.add(walk);
+			}
+		}
+		
+		_activeWalkers = active;
+		_suspendedWalkers = suspended;
+		
+		for (WalkInfo walk : toMove) {
+			try {
+				startMoving(walk.getNpc(), walk.getRoute().getName());
+			} catch (Exception e) {
+				LOG.warn("Error moving NPC {} along route {}!", walk.getNpc(), walk.getRoute().getName(), e);
+			}
+		}
+	}
+	
+	/**
+	 * @return the number of walkers in active regions, as of the last walker tick
+	 */
+	public int getActiveWalkerCount() {
+		return _activeWalkers;
+	}
+	
+	/**
+	 * @return the number of walkers suspended in inactive regions, as of the last walker tick
+	 */
+	public int getSuspendedWalkerCount() {
+		return _suspendedWalkers;
+	}
+	
 	public static WalkingManager getInstance() {
 		return SingletonHolder.INSTANCE;
 	}
@@ -18,6 +18,7 @@
  */
 package com.l2jserver.gameserver.instancemanager.tasks;
 
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,48 +30,51 @@ import com.l2jserver.gameserver.network.SystemMessageId;
 import com.l2jserver.gameserver.network.serverpackets.SystemMessage;
 
 /**
- * Message deletion task.
+ * Message deletion task.<br>
+ * Deletes in batches the messages whose expiration has been reached, returning their attachments.
  * @author xban1x
  */
 public final class MessageDeletionTask implements Runnable {
 	private static final Logger _log = Logger.getLogger(MessageDeletionTask.class.getName());
 	
-	final int _msgId;
-	
-	public MessageDeletionTask(int msgId) {
-		_msgId = msgId;
-	}
-	
 	@Override
 	public void run() {
-		final Message msg = MailManager.getInstance().getMessage(_msgId);
-		if (msg == null) {
+		List<Message> expired;
+		do {
+			expired = MailManager.getInstance().pollExpired(System.currentTimeMillis(), MailManager.DELETION_BATCH_SIZE);
+			for (Message msg : expired) {
+				returnAttachments(msg);
+			}
+			MailManager.getInstance().deleteMessagesInDb(expired);
+		}
+		while (expired.size() == MailManager.DELETION_BATCH_SIZE);
+	}
+	
+	private void returnAttachments(Message msg) {
+		if (!msg.hasAttachments()) {
 			return;
 		}
 		
-		if (msg.hasAttachments()) {
-			try {
-				final L2PcInstance sender = L2World.getInstance().getPlayer(msg.getSenderId());
-				if (sender != null) {
-					msg.getAttachments().returnToWh(sender.getWarehouse());
-					sender.sendPacket(SystemMessageId.MAIL_RETURNED);
-				} else {
-					msg.getAttachments().returnToWh(null);
-				}
-				
-				msg.getAttachments().deleteMe();
-				msg.removeAttachments();
-				
-				final L2PcInstance receiver = L2World.getInstance().getPlayer(msg.getReceiverId());
-				if (receiver != null) {
-					SystemMessage sm = SystemMessage.getSystemMessage(SystemMessageId.MAIL_RETURNED);
-					// sm.addString(msg.getReceiverName());
-					receiver.sendPacket(sm);
-				}
-			} catch (Exception e) {
-				_log.log(Level.WARNING, getClass().getSimpleName() + ": Error returning items:" + e.getMessage(), e);
+		try {
+			final L2PcInstance sender = L2World.getInstance().getPlayer(msg.getSenderId());
+			if (sender != null) {
+				msg.getAttachments().returnToWh(sender.getWarehouse());
+				sender.sendPacket(SystemMessageId.MAIL_RETURNED);
+			} else {
+				msg.getAttachments().returnToWh(null);
+			}
+			
+			msg.getAttachments().deleteMe();
+			msg.removeAttachments();
+			
+			final L2PcInstance receiver = L2World.getInstance().getPlayer(msg.getReceiverId());
+			if (receiver != null) {
+				SystemMessage sm = SystemMessage.getSystemMessage(SystemMessageId.MAIL_RETURNED);
+				// sm.addString(msg.getReceiverName());
+				receiver.sendPacket(sm);
 			}
+		} catch (Exception e) {
+			_log.log(Level.WARNING, getClass().getSimpleName() + ": Error returning items:" + e.getMessage(), e);
 		}
-		MailManager.getInstance().deleteMessageInDb(msg.getId());
 	}
 }
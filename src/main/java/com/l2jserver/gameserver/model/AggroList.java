@@ -0,0 +1,296 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+
+/**
+ * Aggro list.<br>
+ * Holds the hate and damage of the attackers, and tracks the most hated attackers as hate changes, so the AI does not scan the whole list on every think.<br>
+ * The tracked attackers are ordered by hate, and no other attacker has more hate than the last of them.<br>
+ * When a tracked attacker loses hate or leaves the list, it is dropped along with the attackers tracked after it; when too few are left, the list is scanned once to track them again.<br>
+ * Hate must be changed through this list, changes racing a scan are picked up with the attacker's next hate change.
+ */
+public final class AggroList {
+	
+	private static final int TRACKED = 4;
+	
+	private static final AggroInfo[] EMPTY = new AggroInfo[0];
+	
+	private final Map<L2Character, AggroInfo> _entries = new ConcurrentHashMap<>();
+	
+	private final AtomicReference<AggroInfo[]> _tracked = new AtomicReference<>(EMPTY);
+	
+	private final AtomicLong _modifications = new AtomicLong();
+	
+	private final LongAdder _lookups = new LongAdder();
+	
+	private final LongAdder _scans = new LongAdder();
+	
+	/**
+	 * @return the attackers and their aggro info, for reading and removal
+	 */
+	public Map<L2Character, AggroInfo> getEntries() {
+		return _entries;
+	}
+	
+	public AggroInfo get(L2Character attacker) {
+		return _entries.get(attacker);
+	}
+	
+	/**
+	 * @param attacker the attacker
+	 * @return the aggro info of the attacker, created if missing
+	 */
+	public AggroInfo getOrCreate(L2Character attacker) {
+		return _entries.computeIfAbsent(attacker, AggroInfo::new);
+	}
+	
+	public boolean contains(L2Character attacker) {
+		return _entries.containsKey(attacker);
+	}
+	
+	public boolean isEmpty() {
+		return _entries.isEmpty();
+	}
+	
+	public int size() {
+		return _entries.size();
+	}
+	
+	/**
+	 * Adds hate to an attacker, negative values reduce it.
+	 * @param info the aggro info of the attacker
+	 * @param value the hate
+	 */
+	public void addHate(AggroInfo info, long value) {
+		info.addHate(value);
+		_modifications.incrementAndGet();
+		if (value > 0) {
+			promote(info);
+		} else if (value < 0) {
+			drop(info);
+		}
+	}
+	
+	/**
+	 * Adds the same hate to every attacker, the most hated attackers are tracked again on the next lookup.
+	 * @param value the hate
+	 */
+	public void addHateToAll(long value) {
+		for (AggroInfo info : _entries.values()) {
+			info.addHate(value);
+		}
+		_modifications.incrementAndGet();
+		_tracked.set(EMPTY);
+	}
+	
+	/**
+	 * Clears the hate of an attacker without removing it.
+	 * @param info the aggro info of the attacker
+	 */
+	public void stopHate(AggroInfo info) {
+		info.stopHate();
+		_modifications.incrementAndGet();
+		drop(info);
+	}
+	
+	/**
+	 * Checks the hate of an attacker, clearing it if the attacker can no longer be hated.
+	 * @param owner the owner of this list
+	 * @param info the aggro info of the attacker
+	 * @return the hate
+	 */
+	public long checkHate(L2Character owner, AggroInfo info) {
+		final long hate = info.getHate();
+		final long checked = info.checkHate(owner);
+		if (checked != hate) {
+			_modifications.incrementAndGet();
+			drop(info);
+		}
+		return checked;
+	}
+	
+	public AggroInfo remove(L2Character attacker) {
+		final AggroInfo info = _entries.remove(attacker);
+		if (info != null) {
+			_modifications.incrementAndGet();
+			drop(info);
+		}
+		return info;
+	}
+	
+	public void clear() {
+		_entries.clear();
+		_modifications.incrementAndGet();
+		_tracked.set(EMPTY);
+	}
+	
+	/**
+	 * @param owner the owner of this list
+	 * @return the most hated attacker, {@code null} if none has hate
+	 */
+	public L2Character getMostHated(L2Character owner) {
+		return lookup(owner, 0);
+	}
+	
+	/**
+	 * @param owner the owner of this list
+	 * @return the second most hated attacker, {@code null} if none has hate
+	 */
+	public L2Character getSecondMostHated(L2Character owner) {
+		return lookup(owner, 1);
+	}
+	
+	/**
+	 * @return the number of most hated lookups
+	 */
+	public long getLookups() {
+		return _lookups.sum();
+	}
+	
+	/**
+	 * @return the number of lookups that had to scan the whole list
+	 */
+	public long getScans() {
+		return _scans.sum();
+	}
+	
+	private L2Character lookup(L2Character owner, int rank) {
+		_lookups.increment();
+		AggroInfo[] tracked = validate(owner, rank);
+		if ((tracked.length <= rank) && (_entries.size() > tracked.length)) {
+			tracked = scan(owner);
+		}
+		
+		if (tracked.length <= rank) {
+			return null;
+		}
+		
+		final AggroInfo info = tracked[rank];
+		return info.getHate() > 0 ? info.getAttacker() : null;
+	}
+	
+	/**
+	 * Checks the hate of the tracked attackers up to the given rank, dropping the first one no longer valid.
+	 * @param owner the owner of this list
+	 * @param rank the rank
+	 * @return the tracked attackers
+	 */
+	private AggroInfo[] validate(L2Character owner, int rank) {
+		final AggroInfo[] tracked = _tracked.get();
+		for (int i = 0; (i <= rank) && (i < tracked.length); i++) {
+			final AggroInfo info = tracked[i];
+			final long hate = info.getHate();
+			if ((_entries.get(info.getAttacker()) != info) || (checkHate(owner, info) != hate)) {
+				drop(info);
+				return Arrays.copyOf(tracked, i);
+			}
+		}
+		return tracked;
+	}
+	
+	private AggroInfo[] scan(L2Character owner) {
+		_scans.increment();
+		final AggroInfo[] current = _tracked.get();
+		final long modifications = _modifications.get();
+		
+		final AggroInfo[] best = new AggroInfo[TRACKED];
+		int size = 0;
+		for (AggroInfo info : _entries.values()) {
+			final long hate = info.checkHate(owner);
+			if ((size == TRACKED) && (hate <= best[size - 1].getHate())) {
+				continue;
+			}
+			
+			int i = size < TRACKED ? size++ : size - 1;
+			while ((i > 0) && (best[i - 1].getHate() < hate)) {
+				best[i] = best[i - 1];
+				i--;
+			}
+			best[i] = info;
+		}
+		
+		final AggroInfo[] tracked = Arrays.copyOf(best, size);
+		if (_modifications.get() == modifications) {
+			_tracked.compareAndSet(current, tracked);
+		}
+		return tracked;
+	}
+	
+	private void promote(AggroInfo info) {
+		while (true) {
+			final AggroInfo[] current = _tracked.get();
+			if (current.length == 0) {
+				return;
+			}
+			
+			final long hate = info.getHate();
+			int index = indexOf(current, info);
+			final AggroInfo[] next;
+			if (index < 0) {
+				if (hate <= current[current.length - 1].getHate()) {
+					return;
+				}
+				next = Arrays.copyOf(current, Math.min(current.length + 1, TRACKED));
+				index = next.length - 1;
+			} else if ((index == 0) || (current[index - 1].getHate() >= hate)) {
+				return;
+			} else {
+				next = current.clone();
+			}
+			
+			while ((index > 0) && (next[index - 1].getHate() < hate)) {
+				next[index] = next[index - 1];
+				index--;
+			}
+			next[index] = info;
+			
+			if (_tracked.compareAndSet(current, next)) {
+				return;
+			}
+		}
+	}
+	
+	private void drop(AggroInfo info) {
+		while (true) {
+			final AggroInfo[] current = _tracked.get();
+			final int index = indexOf(current, info);
+			if ((index < 0) || _tracked.compareAndSet(current, Arrays.copyOf(current, index))) {
+				return;
+			}
+		}
+	}
+	
+	private static int indexOf(AggroInfo[] tracked, AggroInfo info) {
+		for (int i = 0; i < tracked.length; i++) {
+			if (tracked[i] == info) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
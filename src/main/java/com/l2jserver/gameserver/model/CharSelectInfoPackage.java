@@ -64,9 +64,19 @@ public class CharSelectInfoPackage {
 	 * @param name the character's name.
 	 */
 	public CharSelectInfoPackage(int objectId, String name) {
+		this(objectId, name, PcInventory.restoreVisibleInventory(objectId));
+	}
+	
+	/**
+	 * Constructor for CharSelectInfoPackage.
+	 * @param objectId character object Id.
+	 * @param name the character's name.
+	 * @param paperdoll the object Id, item Id and enchant level of the equipped items, by paperdoll slot.
+	 */
+	public CharSelectInfoPackage(int objectId, String name, int[][] paperdoll) {
 		setObjectId(objectId);
 		_name = name;
-		_paperdoll = PcInventory.restoreVisibleInventory(objectId);
+		_paperdoll = paperdoll;
 	}
 	
 	/**
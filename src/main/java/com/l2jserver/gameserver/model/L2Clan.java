@@ -33,6 +33,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -117,6 +119,12 @@ public class L2Clan implements IIdentifiable, INamable {
 	private int _clanId;
 	private L2ClanMember _leader;
 	private final Map<Integer, L2ClanMember> _members = new ConcurrentHashMap<>();
+	/** Members with a player instance attached, broadcasts only iterate these. */
+	private final Set<L2ClanMember> _onlineMembers = ConcurrentHashMap.newKeySet();
+	
+	private static final LongAdder BROADCAST_COUNT = new LongAdder();
+	private static final LongAdder BROADCAST_RECIPIENTS = new LongAdder();
+	private static final LongAdder BROADCAST_TIME = new LongAdder();
 	
 	private String _allyName;
 	private int _allyId;
@@ -198,7 +206,7 @@ public class L2Clan implements IIdentifiable, INamable {
 	
 	public void setLeader(L2ClanMember leader) {
 		_leader = leader;
-		_members.put(leader.getObjectId(), leader);
+		addClanMember(leader);
 	}
 	
 	public void setNewLeader(L2ClanMember member) {
@@ -290,7 +298,23 @@ public class L2Clan implements IIdentifiable, INamable {
 	 * @param member the clan member.
 	 */
 	private void addClanMember(L2ClanMember member) {
-		_members.put(member.getObjectId(), member);
+		final L2ClanMember oldMember = _members.put(member.getObjectId(), member);
+		if ((oldMember != null) && (oldMember != member)) {
+			_onlineMembers.remove(oldMember);
+		}
+		updateOnlineMember(member);
+	}
+	
+	/**
+	 * Updates the online members index after the player instance of a clan member has changed.
+	 * @param member the clan member
+	 */
+	void updateOnlineMember(L2ClanMember member) {
+		if ((member.getPlayerInstance() != null) && (_members.get(member.getObjectId()) == member)) {
+			_onlineMembers.add(member);
+		} else {
+			_onlineMembers.remove(member);
+		}
 	}
 	
 	/**
@@ -358,6 +382,7 @@ public class L2Clan implements IIdentifiable, INamable {
 			_log.warning("Member Object ID: " + objectId + " not found in clan while trying to remove");
 			return;
 		}
+		_onlineMembers.remove(exMember);
 		final int subPledgeLeader = getLeaderSubPledge(objectId);
 		if (subPledgeLeader != 0) {
 			// Sub-unit leader withdraws, position becomes vacant and leader should appoint new via NPC
@@ -503,22 +528,36 @@ public class L2Clan implements IIdentifiable, INamable {
 	 * @return all online members excluding the one with object id {code exclude}.
 	 */
 	public List<L2PcInstance> getOnlineMembers(int exclude) {
-		final List<L2PcInstance> onlineMembers = new ArrayList<>();
-		for (L2ClanMember temp : _members.values()) {
-			if ((temp != null) && temp.isOnline() && (temp.getObjectId() != exclude)) {
-				onlineMembers.add(temp.getPlayerInstance());
+		final List<L2PcInstance> onlineMembers = new ArrayList<>(_onlineMembers.size());
+		for (L2ClanMember temp : _onlineMembers) {
+			final L2PcInstance player = temp.getPlayerInstance();
+			if ((player != null) && temp.isOnline() && (temp.getObjectId() != exclude)) {
+				onlineMembers.add(player);
 			}
 		}
 		return onlineMembers;
 	}
 	
+	/**
+	 * Performs the given action for each online member, without building a list.
+	 * @param action the action to perform
+	 */
+	public void forEachOnlineMember(Consumer<L2PcInstance> action) {
+		for (L2ClanMember temp : _onlineMembers) {
+			final L2PcInstance player = temp.getPlayerInstance();
+			if ((player != null) && temp.isOnline()) {
+				action.accept(player);
+			}
+		}
+	}
+	
 	/**
 	 * @return the online clan member count.
 	 */
 	public int getOnlineMembersCount() {
 		int count = 0;
-		for (L2ClanMember temp : _members.values()) {
-			if ((temp == null) || !temp.isOnline()) {
+		for (L2ClanMember temp : _onlineMembers) {
+			if (!temp.isOnline()) {
 				continue;
 			}
 			count++;
@@ -623,7 +662,11 @@ public class L2Clan implements IIdentifiable, INamable {
 	 * @param allyId The allyId to set.
 	 */
 	public void setAllyId(int allyId) {
+		final int oldAllyId = _allyId;
 		_allyId = allyId;
+		if (oldAllyId != allyId) {
+			ClanTable.updateClanAlly(this, oldAllyId);
+		}
 	}
 	
 	/**
@@ -1097,8 +1140,8 @@ public class L2Clan implements IIdentifiable, INamable {
 			SystemMessage sm = SystemMessage.getSystemMessage(SystemMessageId.CLAN_SKILL_S1_ADDED);
 			sm.addSkillName(newSkill.getId());
 			
-			for (L2ClanMember temp : _members.values()) {
-				if ((temp != null) && (temp.getPlayerInstance() != null) && temp.isOnline()) {
+			for (L2ClanMember temp : _onlineMembers) {
+				if ((temp.getPlayerInstance() != null) && temp.isOnline()) {
 					if (subType == -2) {
 						if (newSkill.getMinPledgeClass() <= temp.getPlayerInstance().getPledgeClass()) {
 							temp.getPlayerInstance().addSkill(newSkill, false); // Skill is not saved to player DB
@@ -1123,9 +1166,9 @@ public class L2Clan implements IIdentifiable, INamable {
 	
 	public void addSkillEffects() {
 		for (Skill skill : _skills.values()) {
-			for (L2ClanMember temp : _members.values()) {
+			for (L2ClanMember temp : _onlineMembers) {
 				try {
-					if ((temp != null) && temp.isOnline()) {
+					if (temp.isOnline()) {
 						if (skill.getMinPledgeClass() <= temp.getPlayerInstance().getPledgeClass()) {
 							temp.getPlayerInstance().addSkill(skill, false); // Skill is not saved to player DB
 						}
@@ -1227,33 +1270,79 @@ public class L2Clan implements IIdentifiable, INamable {
 	}
 	
 	public void broadcastToOnlineAllyMembers(L2GameServerPacket packet) {
-		for (L2Clan clan : ClanTable.getInstance().getClanAllies(getAllyId())) {
-			clan.broadcastToOnlineMembers(packet);
+		final long start = System.nanoTime();
+		int recipients = 0;
+		for (L2Clan clan : ClanTable.getInstance().getAllianceClans(getAllyId())) {
+			recipients += clan.sendToOnlineMembers(packet, null, null);
 		}
+		updateBroadcastStats(start, recipients);
 	}
 	
 	public void broadcastToOnlineMembers(L2GameServerPacket packet) {
-		for (L2ClanMember member : _members.values()) {
-			if ((member != null) && member.isOnline()) {
-				member.getPlayerInstance().sendPacket(packet);
-			}
-		}
+		final long start = System.nanoTime();
+		updateBroadcastStats(start, sendToOnlineMembers(packet, null, null));
 	}
 	
 	public void broadcastCSToOnlineMembers(CreatureSay packet, L2PcInstance broadcaster) {
-		for (L2ClanMember member : _members.values()) {
-			if ((member != null) && member.isOnline() && !BlockList.isBlocked(member.getPlayerInstance(), broadcaster)) {
-				member.getPlayerInstance().sendPacket(packet);
-			}
-		}
+		final long start = System.nanoTime();
+		updateBroadcastStats(start, sendToOnlineMembers(packet, null, broadcaster));
 	}
 	
 	public void broadcastToOtherOnlineMembers(L2GameServerPacket packet, L2PcInstance player) {
-		for (L2ClanMember member : _members.values()) {
-			if ((member != null) && member.isOnline() && (member.getPlayerInstance() != player)) {
-				member.getPlayerInstance().sendPacket(packet);
+		final long start = System.nanoTime();
+		updateBroadcastStats(start, sendToOnlineMembers(packet, player, null));
+	}
+	
+	/**
+	 * Sends the packet to the online members.
+	 * @param packet the packet
+	 * @param exclude the player to skip, can be {@code null}
+	 * @param broadcaster if not {@code null}, members blocking this player are skipped
+	 * @return the amount of members the packet was sent to
+	 */
+	private int sendToOnlineMembers(L2GameServerPacket packet, L2PcInstance exclude, L2PcInstance broadcaster) {
+		int recipients = 0;
+		for (L2ClanMember member : _onlineMembers) {
+			final L2PcInstance player = member.getPlayerInstance();
+			if ((player == null) || (player == exclude) || !member.isOnline()) {
+				continue;
 			}
+			
+			if ((broadcaster != null) && BlockList.isBlocked(player, broadcaster)) {
+				continue;
+			}
+			
+			player.sendPacket(packet);
+			recipients++;
 		}
+		return recipients;
+	}
+	
+	private static void updateBroadcastStats(long start, int recipients) {
+		BROADCAST_COUNT.increment();
+		BROADCAST_RECIPIENTS.add(recipients);
+		BROADCAST_TIME.add(System.nanoTime() - start);
+	}
+	
+	/**
+	 * @return the amount of clan and alliance broadcasts since server start
+	 */
+	public static long getBroadcastCount() {
+		return BROADCAST_COUNT.sum();
+	}
+	
+	/**
+	 * @return the amount of packets sent by clan and alliance broadcasts since server start
+	 */
+	public static long getBroadcastRecipients() {
+		return BROADCAST_RECIPIENTS.sum();
+	}
+	
+	/**
+	 * @return the time spent in clan and alliance broadcasts since server start, in nanoseconds
+	 */
+	public static long getBroadcastTime() {
+		return BROADCAST_TIME.sum();
 	}
 	
 	@Override
@@ -1569,7 +1658,7 @@ public class L2Clan implements IIdentifiable, INamable {
 			
 			DAOFactory.getInstance().getClanDAO().storePrivileges(getId(), rank, privs);
 			
-			for (var cm : getMembers()) {
+			for (var cm : _onlineMembers) {
 				if (cm.isOnline() && (cm.getPlayerInstance() != null) && (cm.getPowerGrade() == rank)) {
 					cm.getPlayerInstance().getClanPrivileges().setBitmask(privs);
 					cm.getPlayerInstance().sendPacket(new UserInfo(cm.getPlayerInstance()));
@@ -1612,14 +1701,14 @@ public class L2Clan implements IIdentifiable, INamable {
 	private void setReputationScore(int value, boolean save) {
 		if ((_reputationScore >= 0) && (value < 0)) {
 			broadcastToOnlineMembers(SystemMessage.getSystemMessage(SystemMessageId.REPUTATION_POINTS_0_OR_LOWER_CLAN_SKILLS_DEACTIVATED));
-			for (L2ClanMember member : _members.values()) {
+			for (L2ClanMember member : _onlineMembers) {
 				if (member.isOnline() && (member.getPlayerInstance() != null)) {
 					skillsStatus(member.getPlayerInstance(), true);
 				}
 			}
 		} else if ((_reputationScore < 0) && (value >= 0)) {
 			broadcastToOnlineMembers(SystemMessage.getSystemMessage(SystemMessageId.CLAN_SKILLS_WILL_BE_ACTIVATED_SINCE_REPUTATION_IS_0_OR_HIGHER));
-			for (L2ClanMember member : _members.values()) {
+			for (L2ClanMember member : _onlineMembers) {
 				if (member.isOnline() && (member.getPlayerInstance() != null)) {
 					skillsStatus(member.getPlayerInstance(), false);
 				}
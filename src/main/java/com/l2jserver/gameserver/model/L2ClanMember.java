@@ -126,6 +126,7 @@ public class L2ClanMember {
 			}
 		}
 		_player = player;
+		_clan.updateOnlineMember(this);
 	}
 	
 	/**
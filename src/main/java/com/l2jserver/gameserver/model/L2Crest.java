@@ -20,8 +20,10 @@ package com.l2jserver.gameserver.model;
 
 import static com.l2jserver.gameserver.config.Configuration.hexId;
 
+import com.l2jserver.gameserver.data.sql.impl.CrestTable;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.interfaces.IIdentifiable;
+import com.l2jserver.gameserver.network.serverpackets.AbstractCrestPacket;
 import com.l2jserver.gameserver.network.serverpackets.AllyCrest;
 import com.l2jserver.gameserver.network.serverpackets.ExPledgeCrestLarge;
 import com.l2jserver.gameserver.network.serverpackets.PledgeCrest;
@@ -45,6 +47,19 @@ public final class L2Crest implements IIdentifiable {
 			return _id;
 		}
 		
+		/**
+		 * @param crestId the crest id
+		 * @param data the crest image, {@code null} if the crest was not found
+		 * @return a new packet sending the crest image
+		 */
+		public AbstractCrestPacket createPacket(int crestId, byte[] data) {
+			return switch (this) {
+				case PLEDGE -> new PledgeCrest(crestId, data);
+				case PLEDGE_LARGE -> new ExPledgeCrestLarge(crestId, data);
+				case ALLY -> new AllyCrest(crestId, data);
+			};
+		}
+		
 		public static CrestType getById(int id) {
 			for (CrestType crestType : values()) {
 				if (crestType.getId() == id) {
@@ -58,11 +73,13 @@ public final class L2Crest implements IIdentifiable {
 	private final int _id;
 	private final byte[] _data;
 	private final CrestType _type;
+	private final AbstractCrestPacket _packet;
 	
 	public L2Crest(int id, byte[] data, CrestType type) {
 		_id = id;
 		_data = data;
 		_type = type;
+		_packet = type.createPacket(id, data);
 	}
 	
 	@Override
@@ -78,27 +95,23 @@ public final class L2Crest implements IIdentifiable {
 		return _type;
 	}
 	
+	/**
+	 * @return the encoded packet sending this crest, shared by all clients
+	 */
+	public AbstractCrestPacket getPacket() {
+		return _packet;
+	}
+	
 	/**
 	 * Gets the client path to crest for use in html and sends the crest to {@code L2PcInstance}
 	 * @param activeChar the @{code L2PcInstance} where html is send to.
 	 * @return the client path to crest
 	 */
 	public String getClientPath(L2PcInstance activeChar) {
-		String path = null;
-		switch (getType()) {
-			case PLEDGE -> {
-				activeChar.sendPacket(new PledgeCrest(getId(), getData()));
-				path = "Crest.crest_" + hexId().getServerID() + "_" + getId();
-			}
-			case PLEDGE_LARGE -> {
-				activeChar.sendPacket(new ExPledgeCrestLarge(getId(), getData()));
-				path = "Crest.crest_" + hexId().getServerID() + "_" + getId() + "_l";
-			}
-			case ALLY -> {
-				activeChar.sendPacket(new AllyCrest(getId(), getData()));
-				path = "Crest.crest_" + hexId().getServerID() + "_" + getId();
-			}
-		}
-		return path;
+		CrestTable.getInstance().sendCrest(activeChar.getClient(), this);
+		return switch (getType()) {
+			case PLEDGE_LARGE -> "Crest.crest_" + hexId().getServerID() + "_" + getId() + "_l";
+			default -> "Crest.crest_" + hexId().getServerID() + "_" + getId();
+		};
 	}
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.l2jserver.commons.database.ConnectionFactory;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.data.xml.impl.UIData;
 
 /**
@@ -93,7 +94,7 @@ public class UIKeysSettings {
 			}
 		}
 		query = new StringBuilder(query.substring(0, query.length() - 1) + "; ");
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var statement = con.prepareStatement(query.toString())) {
 			statement.execute();
 		} catch (Exception e) {
@@ -109,7 +110,7 @@ public class UIKeysSettings {
 		}
 		query = new StringBuilder(query.substring(0, query.length() - 1) + ";");
 		
-		try (var con = ConnectionFactory.getInstance().getConnection();
+		try (var con = UnitOfWork.getConnection();
 			var statement = con.prepareStatement(query.toString())) {
 			statement.execute();
 		} catch (Exception e) {
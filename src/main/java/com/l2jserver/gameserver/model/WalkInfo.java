@@ -18,8 +18,6 @@
  */
 package com.l2jserver.gameserver.model;
 
-import java.util.concurrent.ScheduledFuture;
-
 import com.l2jserver.commons.util.Rnd;
 import com.l2jserver.gameserver.instancemanager.WalkingManager;
 import com.l2jserver.gameserver.model.actor.L2Npc;
@@ -32,19 +30,29 @@ import com.l2jserver.gameserver.model.events.impl.character.npc.OnNpcMoveRouteFi
  * @author UnAfraid
  */
 public class WalkInfo {
+	private final L2Npc _npc;
 	private final String _routeName;
-	private ScheduledFuture<?> _walkCheckTask;
-	private boolean _blocked = false;
-	private boolean _suspended = false;
-	private boolean _stoppedByAttack = false;
+	private volatile long _nextCheckTime;
+	private volatile long _resumeTime;
+	private volatile boolean _blocked = false;
+	private volatile boolean _suspended = false;
+	private volatile boolean _stoppedByAttack = false;
 	private int _currentNode = 0;
 	private boolean _forward = true; // Determines first --> last or first <-- last direction
 	private long _lastActionTime; // Debug field
 	
-	public WalkInfo(String routeName) {
+	public WalkInfo(L2Npc npc, String routeName) {
+		_npc = npc;
 		_routeName = routeName;
 	}
 	
+	/**
+	 * @return the NPC moving by this WalkInfo.
+	 */
+	public L2Npc getNpc() {
+		return _npc;
+	}
+	
 	/**
 	 * @return name of route of this WalkInfo.
 	 */
@@ -163,22 +171,30 @@ public class WalkInfo {
 	}
 	
 	/**
-	 * @return walking check task.
+	 * @return the time of the next walk check, for resuming walk after fight.
 	 */
-	public ScheduledFuture<?> getWalkCheckTask() {
-		return _walkCheckTask;
+	public long getNextCheckTime() {
+		return _nextCheckTime;
+	}
+	
+	public void setNextCheckTime(long val) {
+		_nextCheckTime = val;
 	}
 	
 	/**
-	 * @param val walking check task.
+	 * @return the time to continue moving after a node delay, {@code 0} if not waiting at a node.
 	 */
-	public void setWalkCheckTask(ScheduledFuture<?> val) {
-		_walkCheckTask = val;
+	public long getResumeTime() {
+		return _resumeTime;
+	}
+	
+	public void setResumeTime(long val) {
+		_resumeTime = val;
 	}
 	
 	@Override
 	public String toString() {
-		return "WalkInfo [_routeName=" + _routeName + ", _walkCheckTask=" + _walkCheckTask + ", _blocked=" + _blocked + ", _suspended=" + _suspended + ", _stoppedByAttack=" + _stoppedByAttack + ", _currentNode=" + _currentNode + ", _forward=" + _forward + ", _lastActionTime=" + _lastActionTime
+		return "WalkInfo [_routeName=" + _routeName + ", _nextCheckTime=" + _nextCheckTime + ", _resumeTime=" + _resumeTime + ", _blocked=" + _blocked + ", _suspended=" + _suspended + ", _stoppedByAttack=" + _stoppedByAttack + ", _currentNode=" + _currentNode + ", _forward=" + _forward + ", _lastActionTime=" + _lastActionTime
 			+ "]";
 	}
 }
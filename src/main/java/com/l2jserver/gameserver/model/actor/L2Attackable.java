@@ -26,11 +26,13 @@ import static com.l2jserver.gameserver.config.Configuration.rates;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +53,7 @@ import com.l2jserver.gameserver.instancemanager.CursedWeaponsManager;
 import com.l2jserver.gameserver.instancemanager.WalkingManager;
 import com.l2jserver.gameserver.model.AbsorberInfo;
 import com.l2jserver.gameserver.model.AggroInfo;
+import com.l2jserver.gameserver.model.AggroList;
 import com.l2jserver.gameserver.model.DamageDoneInfo;
 import com.l2jserver.gameserver.model.L2CommandChannel;
 import com.l2jserver.gameserver.model.L2Object;
@@ -82,12 +85,20 @@ import com.l2jserver.gameserver.util.Util;
 
 public class L2Attackable extends L2Npc {
 	private static final Logger LOG = LoggerFactory.getLogger(L2Attackable.class);
+	
+	/** Reward scratch collections, reused by the kills of each thread. */
+	private static final ThreadLocal<RewardScratch> REWARD_SCRATCH = ThreadLocal.withInitial(RewardScratch::new);
+	
+	private static final LongAdder REWARD_COUNT = new LongAdder();
+	
+	private static final LongAdder REWARD_TIME = new LongAdder();
+	
 	// Raid
 	private boolean _isRaid = false;
 	private boolean _isRaidMinion = false;
 	//
 	private boolean _champion = false;
-	private final Map<L2Character, AggroInfo> _aggroList = new ConcurrentHashMap<>();
+	private final AggroList _aggroList = new AggroList();
 	private boolean _isReturningToSpawnPoint = false;
 	private boolean _canReturnToSpawnPoint = true;
 	private boolean _seeThroughSilentMove = false;
@@ -151,6 +162,13 @@ public class L2Attackable extends L2Npc {
 	}
 	
 	public final Map<L2Character, AggroInfo> getAggroList() {
+		return _aggroList.getEntries();
+	}
+	
+	/**
+	 * @return the aggro list, hate must be changed through it
+	 */
+	public final AggroList getAggro() {
 		return _aggroList;
 	}
 	
@@ -331,175 +349,118 @@ public class L2Attackable extends L2Npc {
 	 */
 	@Override
 	protected void calculateRewards(L2Character lastAttacker) {
+		if (_aggroList.isEmpty()) {
+			return;
+		}
+		
+		final long start = System.nanoTime();
+		RewardScratch scratch = REWARD_SCRATCH.get();
+		if (scratch.inUse) {
+			// A kill caused while rewarding another one
+			scratch = new RewardScratch();
+		}
+		scratch.inUse = true;
 		try {
-			if (_aggroList.isEmpty()) {
-				return;
+			calculateRewards(lastAttacker, scratch.rewards, scratch.dealers);
+		} catch (Exception ex) {
+			LOG.error("Error calculating rewards!", ex);
+		} finally {
+			scratch.clear();
+			REWARD_COUNT.increment();
+			REWARD_TIME.add(System.nanoTime() - start);
+		}
+	}
+	
+	/**
+	 * Distributes the drops, Exp and SP rewards.
+	 * @param lastAttacker the character that has killed this attackable
+	 * @param rewards the damage done by each player, entries are removed once rewarded with their party
+	 * @param dealers the damage done by each player, in reward order
+	 */
+	private void calculateRewards(L2Character lastAttacker, Map<L2PcInstance, DamageDoneInfo> rewards, List<DamageDoneInfo> dealers) {
+		L2PcInstance maxDealer = null;
+		int maxDamage = 0;
+		long totalDamage = 0;
+		// While Iterating over This Map Removing Object is Not Allowed
+		// Go through the _aggroList of the L2Attackable
+		for (AggroInfo info : _aggroList.getEntries().values()) {
+			if (info == null) {
+				continue;
 			}
 			
-			// NOTE: Concurrent-safe map is used because while iterating to verify all conditions sometimes an entry must be removed.
-			final Map<L2PcInstance, DamageDoneInfo> rewards = new ConcurrentHashMap<>();
-			
-			L2PcInstance maxDealer = null;
-			int maxDamage = 0;
-			long totalDamage = 0;
-			// While Iterating over This Map Removing Object is Not Allowed
-			// Go through the _aggroList of the L2Attackable
-			for (AggroInfo info : _aggroList.values()) {
-				if (info == null) {
-					continue;
-				}
+			// Get the L2Character corresponding to this attacker
+			final L2PcInstance attacker = info.getAttacker().getActingPlayer();
+			if (attacker != null) {
+				// Get damages done by this attacker
+				final int damage = info.getDamage();
 				
-				// Get the L2Character corresponding to this attacker
-				final L2PcInstance attacker = info.getAttacker().getActingPlayer();
-				if (attacker != null) {
-					// Get damages done by this attacker
-					final int damage = info.getDamage();
-					
-					// Prevent unwanted behavior
-					if (damage > 1) {
-						// Check if damage dealer isn't too far from this (killed monster)
-						if (!Util.checkIfInRange(character().getPartyRange(), this, attacker, true)) {
-							continue;
-						}
-						
-						totalDamage += damage;
-						
-						// Calculate real damages (Summoners should get own damage plus summon's damage)
-						final DamageDoneInfo reward = rewards.computeIfAbsent(attacker, DamageDoneInfo::new);
-						reward.addDamage(damage);
-						
-						if (reward.getDamage() > maxDamage) {
-							maxDealer = attacker;
-							maxDamage = reward.getDamage();
-						}
-					}
-				}
-			}
-			
-			// Manage Base, Quests and Sweep drops of the L2Attackable
-			doItemDrop((maxDealer != null) && maxDealer.isOnline() ? maxDealer : lastAttacker);
-			
-			// Manage drop of Special Events created by GM for a defined period
-			doEventDrop(lastAttacker);
-			
-			if (!getMustRewardExpSP()) {
-				return;
-			}
-			
-			if (!rewards.isEmpty()) {
-				for (DamageDoneInfo reward : rewards.values()) {
-					if (reward == null) {
+				// Prevent unwanted behavior
+				if (damage > 1) {
+					// Check if damage dealer isn't too far from this (killed monster)
+					if (!Util.checkIfInRange(character().getPartyRange(), this, attacker, true)) {
 						continue;
 					}
 					
-					// Attacker to be rewarded
-					final L2PcInstance attacker = reward.getAttacker();
-					
-					// Total amount of damage done
-					final int damage = reward.getDamage();
+					totalDamage += damage;
 					
-					// Get party
-					final L2Party attackerParty = attacker.getParty();
-					
-					// Penalty applied to the attacker's XP
-					// If this attacker have servitor, get Exp Penalty applied for the servitor.
-					final float penalty = attacker.hasServitor() ? ((L2ServitorInstance) attacker.getSummon()).getExpMultiplier() : 1;
+					// Calculate real damages (Summoners should get own damage plus summon's damage)
+					DamageDoneInfo reward = rewards.get(attacker);
+					if (reward == null) {
+						reward = new DamageDoneInfo(attacker);
+						rewards.put(attacker, reward);
+						dealers.add(reward);
+					}
+					reward.addDamage(damage);
 					
-					// If there's NO party in progress
-					if (attackerParty == null) {
-						// Calculate Exp and SP rewards
-						if (attacker.getKnownList().knowsObject(this)) {
-							// Calculate the difference of level between this attacker (player or servitor owner) and the L2Attackable
-							// mob = 24, atk = 10, diff = -14 (full xp)
-							// mob = 24, atk = 28, diff = 4 (some xp)
-							// mob = 24, atk = 50, diff = 26 (no xp)
-							final int levelDiff = attacker.getLevel() - getLevel();
-							
-							final int[] expSp = calculateExpAndSp(levelDiff, damage, totalDamage);
-							long exp = expSp[0];
-							int sp = expSp[1];
-							
-							if (customs().championEnable() && isChampion()) {
-								exp *= customs().getChampionRewardsExpSp();
-								sp *= customs().getChampionRewardsExpSp();
-							}
-							
-							exp *= penalty;
-							
-							// Check for an over-hit enabled strike
-							L2Character overhitAttacker = getOverhitAttacker();
-							if (isOverhit() && (overhitAttacker != null) && (overhitAttacker.getActingPlayer() != null) && (attacker == overhitAttacker.getActingPlayer())) {
-								attacker.sendPacket(SystemMessageId.OVER_HIT);
-								exp += calculateOverhitExp(exp);
-							}
-							
-							// Distribute the Exp and SP between the L2PcInstance and its L2Summon
-							if (!attacker.isDead()) {
-								attacker.addExpAndSp(exp, sp, useVitalityRate());
-								if (exp > 0) {
-									attacker.updateVitalityPoints(getVitalityPoints(damage), true, false);
-								}
-							}
-						}
-					} else {
-						// share with party members
-						int partyDmg = 0;
-						float partyMul = 1;
-						int partyLvl = 0;
-						
-						// Get all L2Character that can be rewarded in the party
-						final List<L2PcInstance> rewardedMembers = new ArrayList<>();
-						// Go through all L2PcInstance in the party
-						final List<L2PcInstance> groupMembers = attackerParty.isInCommandChannel() ? attackerParty.getCommandChannel().getMembers() : attackerParty.getMembers();
-						for (L2PcInstance partyPlayer : groupMembers) {
-							if ((partyPlayer == null) || partyPlayer.isDead()) {
-								continue;
-							}
-							
-							// Get the RewardInfo of this L2PcInstance from L2Attackable rewards
-							final DamageDoneInfo reward2 = rewards.get(partyPlayer);
-							
-							// If the L2PcInstance is in the L2Attackable rewards add its damages to party damages
-							if (reward2 != null) {
-								if (Util.checkIfInRange(character().getPartyRange(), this, partyPlayer, true)) {
-									partyDmg += reward2.getDamage(); // Add L2PcInstance damages to party damages
-									rewardedMembers.add(partyPlayer);
-									
-									if (partyPlayer.getLevel() > partyLvl) {
-										if (attackerParty.isInCommandChannel()) {
-											partyLvl = attackerParty.getCommandChannel().getLevel();
-										} else {
-											partyLvl = partyPlayer.getLevel();
-										}
-									}
-								}
-								rewards.remove(partyPlayer); // Remove the L2PcInstance from the L2Attackable rewards
-							} else {
-								// Add L2PcInstance of the party (that have attacked or not) to members that can be rewarded
-								// and in range of the monster.
-								if (Util.checkIfInRange(character().getPartyRange(), this, partyPlayer, true)) {
-									rewardedMembers.add(partyPlayer);
-									if (partyPlayer.getLevel() > partyLvl) {
-										if (attackerParty.isInCommandChannel()) {
-											partyLvl = attackerParty.getCommandChannel().getLevel();
-										} else {
-											partyLvl = partyPlayer.getLevel();
-										}
-									}
-								}
-							}
-						}
-						
-						// If the party didn't killed this L2Attackable alone
-						if (partyDmg < totalDamage) {
-							partyMul = ((float) partyDmg / totalDamage);
-						}
-						
-						// Calculate the level difference between Party and L2Attackable
-						final int levelDiff = partyLvl - getLevel();
+					if (reward.getDamage() > maxDamage) {
+						maxDealer = attacker;
+						maxDamage = reward.getDamage();
+					}
+				}
+			}
+		}
+		
+		// Manage Base, Quests and Sweep drops of the L2Attackable
+		doItemDrop((maxDealer != null) && maxDealer.isOnline() ? maxDealer : lastAttacker);
+		
+		// Manage drop of Special Events created by GM for a defined period
+		doEventDrop(lastAttacker);
+		
+		if (!getMustRewardExpSP()) {
+			return;
+		}
+		
+		if (!rewards.isEmpty()) {
+			for (DamageDoneInfo reward : dealers) {
+				// Already rewarded with its party
+				if (rewards.get(reward.getAttacker()) != reward) {
+					continue;
+				}
+				
+				// Attacker to be rewarded
+				final L2PcInstance attacker = reward.getAttacker();
+				
+				// Total amount of damage done
+				final int damage = reward.getDamage();
+				
+				// Get party
+				final L2Party attackerParty = attacker.getParty();
+				
+				// Penalty applied to the attacker's XP
+				// If this attacker have servitor, get Exp Penalty applied for the servitor.
+				final float penalty = attacker.hasServitor() ? ((L2ServitorInstance) attacker.getSummon()).getExpMultiplier() : 1;
+				
+				// If there's NO party in progress
+				if (attackerParty == null) {
+					// Calculate Exp and SP rewards
+					if (attacker.getKnownList().knowsObject(this)) {
+						// Calculate the difference of level between this attacker (player or servitor owner) and the L2Attackable
+						// mob = 24, atk = 10, diff = -14 (full xp)
+						// mob = 24, atk = 28, diff = 4 (some xp)
+						// mob = 24, atk = 50, diff = 26 (no xp)
+						final int levelDiff = attacker.getLevel() - getLevel();
 						
-						// Calculate Exp and SP rewards
-						final int[] expSp = calculateExpAndSp(levelDiff, partyDmg, totalDamage);
+						final int[] expSp = calculateExpAndSp(levelDiff, damage, totalDamage);
 						long exp = expSp[0];
 						int sp = expSp[1];
 						
@@ -508,29 +469,124 @@ public class L2Attackable extends L2Npc {
 							sp *= customs().getChampionRewardsExpSp();
 						}
 						
-						exp *= partyMul;
-						sp *= partyMul;
+						exp *= penalty;
 						
 						// Check for an over-hit enabled strike
-						// (When in party, the over-hit exp bonus is given to the whole party and split proportionally through the party members)
 						L2Character overhitAttacker = getOverhitAttacker();
 						if (isOverhit() && (overhitAttacker != null) && (overhitAttacker.getActingPlayer() != null) && (attacker == overhitAttacker.getActingPlayer())) {
 							attacker.sendPacket(SystemMessageId.OVER_HIT);
 							exp += calculateOverhitExp(exp);
 						}
 						
-						// Distribute Experience and SP rewards to L2PcInstance Party members in the known area of the last attacker
-						if (partyDmg > 0) {
-							attackerParty.distributeXpAndSp(exp, sp, rewardedMembers, partyLvl, partyDmg, this);
+						// Distribute the Exp and SP between the L2PcInstance and its L2Summon
+						if (!attacker.isDead()) {
+							attacker.addExpAndSp(exp, sp, useVitalityRate());
+							if (exp > 0) {
+								attacker.updateVitalityPoints(getVitalityPoints(damage), true, false);
+							}
 						}
 					}
+				} else {
+					// share with party members
+					int partyDmg = 0;
+					float partyMul = 1;
+					int partyLvl = 0;
+					
+					// Get all L2Character that can be rewarded in the party
+					final List<L2PcInstance> rewardedMembers = new ArrayList<>();
+					// Go through all L2PcInstance in the party
+					final List<L2PcInstance> groupMembers = attackerParty.isInCommandChannel() ? attackerParty.getCommandChannel().getMembers() : attackerParty.getMembers();
+					for (L2PcInstance partyPlayer : groupMembers) {
+						if ((partyPlayer == null) || partyPlayer.isDead()) {
+							continue;
+						}
+						
+						// Get the RewardInfo of this L2PcInstance from L2Attackable rewards
+						final DamageDoneInfo reward2 = rewards.get(partyPlayer);
+						
+						// If the L2PcInstance is in the L2Attackable rewards add its damages to party damages
+						if (reward2 != null) {
+							if (Util.checkIfInRange(character().getPartyRange(), this, partyPlayer, true)) {
+								partyDmg += reward2.getDamage(); // Add L2PcInstance damages to party damages
+								rewardedMembers.add(partyPlayer);
+								
+								if (partyPlayer.getLevel() > partyLvl) {
+									if (attackerParty.isInCommandChannel()) {
+										partyLvl = attackerParty.getCommandChannel().getLevel();
+									} else {
+										partyLvl = partyPlayer.getLevel();
+									}
+								}
+							}
+							rewards.remove(partyPlayer); // Remove the L2PcInstance from the L2Attackable rewards
+						} else {
+							// Add L2PcInstance of the party (that have attacked or not) to members that can be rewarded
+							// and in range of the monster.
+							if (Util.checkIfInRange(character().getPartyRange(), this, partyPlayer, true)) {
+								rewardedMembers.add(partyPlayer);
+								if (partyPlayer.getLevel() > partyLvl) {
+									if (attackerParty.isInCommandChannel()) {
+										partyLvl = attackerParty.getCommandChannel().getLevel();
+									} else {
+										partyLvl = partyPlayer.getLevel();
+									}
+								}
+							}
+						}
+					}
+					
+					// If the party didn't killed this L2Attackable alone
+					if (partyDmg < totalDamage) {
+						partyMul = ((float) partyDmg / totalDamage);
+					}
+					
+					// Calculate the level difference between Party and L2Attackable
+					final int levelDiff = partyLvl - getLevel();
+					
+					// Calculate Exp and SP rewards
+					final int[] expSp = calculateExpAndSp(levelDiff, partyDmg, totalDamage);
+					long exp = expSp[0];
+					int sp = expSp[1];
+					
+					if (customs().championEnable() && isChampion()) {
+						exp *= customs().getChampionRewardsExpSp();
+						sp *= customs().getChampionRewardsExpSp();
+					}
+					
+					exp *= partyMul;
+					sp *= partyMul;
+					
+					// Check for an over-hit enabled strike
+					// (When in party, the over-hit exp bonus is given to the whole party and split proportionally through the party members)
+					L2Character overhitAttacker = getOverhitAttacker();
+					if (isOverhit() && (overhitAttacker != null) && (overhitAttacker.getActingPlayer() != null) && (attacker == overhitAttacker.getActingPlayer())) {
+						attacker.sendPacket(SystemMessageId.OVER_HIT);
+						exp += calculateOverhitExp(exp);
+					}
+					
+					// Distribute Experience and SP rewards to L2PcInstance Party members in the known area of the last attacker
+					if (partyDmg > 0) {
+						attackerParty.distributeXpAndSp(exp, sp, rewardedMembers, partyLvl, partyDmg, this);
+					}
 				}
 			}
-		} catch (Exception ex) {
-			LOG.error("Error calculating rewards!", ex);
 		}
 	}
 	
+	/**
+	 * @return the number of kills rewarded
+	 */
+	public static long getRewardCount() {
+		return REWARD_COUNT.sum();
+	}
+	
+	/**
+	 * @return the total time spent rewarding kills, in nanoseconds
+	 */
+	public static long getRewardTime() {
+		return REWARD_TIME.sum();
+	}
+	
 	@Override
 	public void addAttackerToAttackByList(L2Character player) {
 		if ((player == null) || (player == this) || getAttackByList().contains(player)) {
@@ -583,7 +639,7 @@ public class L2Attackable extends L2Npc {
 		}
 		
 		// Get the AggroInfo of the attacker L2Character from the _aggroList of the L2Attackable
-		final AggroInfo ai = _aggroList.computeIfAbsent(attacker, AggroInfo::new);
+		final AggroInfo ai = _aggroList.getOrCreate(attacker);
 		ai.addDamage(damage);
 		
 		// Traps does not cause aggro
@@ -591,7 +647,7 @@ public class L2Attackable extends L2Npc {
 		// so just check for triggered trap here
 		final L2PcInstance targetPlayer = attacker.getActingPlayer();
 		if ((targetPlayer == null) || (targetPlayer.getTrap() == null) || !targetPlayer.getTrap().isTriggered()) {
-			ai.addHate(aggro);
+			_aggroList.addHate(ai, aggro);
 		}
 		
 		if ((targetPlayer != null) && (aggro == 0)) {
@@ -606,7 +662,7 @@ public class L2Attackable extends L2Npc {
 			EventDispatcher.getInstance().notifyEventAsync(new OnAttackableAggroRangeEnter(this, targetPlayer, attacker.isSummon()), this);
 		} else if ((targetPlayer == null) && (aggro == 0)) {
 			aggro = 1;
-			ai.addHate(1);
+			_aggroList.addHate(ai, 1);
 		}
 		
 		// Set the intention to the L2Attackable to AI_INTENTION_ACTIVE
@@ -633,9 +689,7 @@ public class L2Attackable extends L2Npc {
 				return;
 			}
 			
-			for (AggroInfo ai : _aggroList.values()) {
-				ai.addHate(amount);
-			}
+			_aggroList.addHateToAll(amount);
 			
 			amount = getHating(mostHated);
 			if (amount >= 0) {
@@ -653,7 +707,7 @@ public class L2Attackable extends L2Npc {
 			return;
 		}
 		
-		ai.addHate(amount);
+		_aggroList.addHate(ai, amount);
 		if ((ai.getHate() >= 0) && (getMostHated() == null)) {
 			((L2AttackableAI) getAI()).setGlobalAggro(-25);
 			clearAggroList();
@@ -672,7 +726,7 @@ public class L2Attackable extends L2Npc {
 		}
 		AggroInfo ai = _aggroList.get(target);
 		if (ai != null) {
-			ai.stopHate();
+			_aggroList.stopHate(ai);
 		}
 	}
 	
@@ -683,24 +737,7 @@ public class L2Attackable extends L2Npc {
 		if (_aggroList.isEmpty() || isAlikeDead()) {
 			return null;
 		}
-		
-		L2Character mostHated = null;
-		long maxHate = 0;
-		
-		// While Interacting over This Map Removing Object is Not Allowed
-		// Go through the aggroList of the L2Attackable
-		for (AggroInfo ai : _aggroList.values()) {
-			if (ai == null) {
-				continue;
-			}
-			
-			if (ai.checkHate(this) > maxHate) {
-				mostHated = ai.getAttacker();
-				maxHate = ai.getHate();
-			}
-		}
-		
-		return mostHated;
+		return _aggroList.getMostHated(this);
 	}
 	
 	/**
@@ -711,26 +748,9 @@ public class L2Attackable extends L2Npc {
 			return null;
 		}
 		
-		L2Character mostHated = null;
-		L2Character secondMostHated = null;
-		long maxHate = 0;
-		List<L2Character> result = new ArrayList<>();
-		
-		// While iterating over this map removing objects is not allowed
-		// Go through the aggroList of the L2Attackable
-		for (AggroInfo ai : _aggroList.values()) {
-			if (ai == null) {
-				continue;
-			}
-			
-			if (ai.checkHate(this) > maxHate) {
-				secondMostHated = mostHated;
-				mostHated = ai.getAttacker();
-				maxHate = ai.getHate();
-			}
-		}
-		
-		result.add(mostHated);
+		final L2Character secondMostHated = _aggroList.getSecondMostHated(this);
+		final List<L2Character> result = new ArrayList<>(2);
+		result.add(_aggroList.getMostHated(this));
 		
 		if (getAttackByList().contains(secondMostHated)) {
 			result.add(secondMostHated);
@@ -746,11 +766,11 @@ public class L2Attackable extends L2Npc {
 		}
 		
 		List<L2Character> result = new ArrayList<>();
-		for (AggroInfo ai : _aggroList.values()) {
+		for (AggroInfo ai : _aggroList.getEntries().values()) {
 			if (ai == null) {
 				continue;
 			}
-			ai.checkHate(this);
+			_aggroList.checkHate(this, ai);
 			
 			result.add(ai.getAttacker());
 		}
@@ -786,7 +806,7 @@ public class L2Attackable extends L2Npc {
 		}
 		
 		if (ai.getAttacker().isAlikeDead()) {
-			ai.stopHate();
+			_aggroList.stopHate(ai);
 			return 0;
 		}
 		return ai.getHate();
@@ -943,7 +963,7 @@ public class L2Attackable extends L2Npc {
 	 * @return {@code true} if the creature is in the aggro list, {@code false} otherwise
 	 */
 	public boolean isInAggroList(L2Character creature) {
-		return _aggroList.containsKey(creature);
+		return _aggroList.contains(creature);
 	}
 	
 	/**
@@ -1439,4 +1459,19 @@ public class L2Attackable extends L2Npc {
 	public boolean isAttackable() {
 		return true;
 	}
+	
+	/**
+	 * Per thread collections used while rewarding a kill.
+	 */
+	private static final class RewardScratch {
+		final Map<L2PcInstance, DamageDoneInfo> rewards = new HashMap<>();
+		final List<DamageDoneInfo> dealers = new ArrayList<>();
+		boolean inUse;
+		
+		void clear() {
+			rewards.clear();
+			dealers.clear();
+			inUse = false;
+		}
+	}
 }
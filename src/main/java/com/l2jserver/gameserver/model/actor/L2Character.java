@@ -5116,17 +5116,20 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 	/**
 	 * @return a multiplier based on weapon random damage
 	 */
-	public final double getRandomDamageMultiplier() {
-		L2Weapon activeWeapon = getActiveWeaponItem();
-		int random;
-		
+	public double getRandomDamageMultiplier() {
+		final int random = getRandomDamage();
+		return (1 + ((double) Rnd.get(0 - random, random) / 100));
+	}
+	
+	/**
+	 * @return the weapon random damage, in percent
+	 */
+	public int getRandomDamage() {
+		final L2Weapon activeWeapon = getActiveWeaponItem();
 		if (activeWeapon != null) {
-			random = activeWeapon.getRandomDamage();
-		} else {
-			random = 5 + (int) Math.sqrt(getLevel());
+			return activeWeapon.getRandomDamage();
 		}
-		
-		return (1 + ((double) Rnd.get(0 - random, random) / 100));
+		return 5 + (int) Math.sqrt(getLevel());
 	}
 	
 	public final long getAttackEndTime() {
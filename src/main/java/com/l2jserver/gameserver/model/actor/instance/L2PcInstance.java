@@ -37,6 +37,7 @@ import static com.l2jserver.gameserver.network.SystemMessageId.S1_EQUIPPED;
 import static com.l2jserver.gameserver.network.SystemMessageId.S1_S2_EQUIPPED;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -80,9 +81,13 @@ import com.l2jserver.gameserver.ai.L2SummonAI;
 import com.l2jserver.gameserver.bbs.model.Forum;
 import com.l2jserver.gameserver.bbs.service.ForumsBBSManager;
 import com.l2jserver.gameserver.cache.WarehouseCacheManager;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.dao.factory.impl.DAOFactory;
 import com.l2jserver.gameserver.data.sql.impl.CharNameTable;
+import com.l2jserver.gameserver.data.sql.impl.CharSelectInfoTable;
 import com.l2jserver.gameserver.data.sql.impl.CharSummonTable;
+import com.l2jserver.gameserver.data.sql.impl.CharacterLoader;
+import com.l2jserver.gameserver.data.sql.impl.CharacterLoader.Stage;
 import com.l2jserver.gameserver.data.xml.impl.AdminData;
 import com.l2jserver.gameserver.data.xml.impl.EnchantSkillGroupsData;
 import com.l2jserver.gameserver.data.xml.impl.FishData;
@@ -120,6 +125,7 @@ import com.l2jserver.gameserver.instancemanager.GrandBossManager;
 import com.l2jserver.gameserver.instancemanager.HandysBlockCheckerManager;
 import com.l2jserver.gameserver.instancemanager.InstanceManager;
 import com.l2jserver.gameserver.instancemanager.ItemsOnGroundManager;
+import com.l2jserver.gameserver.instancemanager.PrivateStoreManager;
 import com.l2jserver.gameserver.instancemanager.PunishmentManager;
 import com.l2jserver.gameserver.instancemanager.QuestManager;
 import com.l2jserver.gameserver.instancemanager.SiegeManager;
@@ -743,57 +749,69 @@ public final class L2PcInstance extends L2Playable {
 	}
 	
 	/**
-	 * Restores a player from the database.
+	 * Restores a player from the database.<br>
+	 * Parts of the player that don't depend on each other are loaded concurrently by the {@link CharacterLoader}.
 	 * @param objectId the player's object ID
 	 * @return the player
 	 */
 	public static L2PcInstance load(int objectId) {
+		final CharacterLoader loader = CharacterLoader.getInstance();
+		final long start = System.nanoTime();
 		try {
 			final L2PcInstance player = DAOFactory.getInstance().getPlayerDAO().load(objectId);
+			loader.record(Stage.CHARACTER, start);
 			if (player == null) {
 				return null;
 			}
 			
-			DAOFactory.getInstance().getPlayerDAO().loadCharacters(player);
+			// These parts only fill their own collections, they are loaded while items and skills are loaded here.
+			final List<Future<?>> parts = new ArrayList<>();
+			parts.add(loader.submit(Stage.ACCOUNT_CHARACTERS, () -> DAOFactory.getInstance().getPlayerDAO().loadCharacters(player)));
+			parts.add(loader.submit(Stage.MACROS, player._macros::restoreMe));
+			parts.add(loader.submit(Stage.HENNAS, () -> DAOFactory.getInstance().getHennaDAO().load(player)));
+			parts.add(loader.submit(Stage.BOOKMARKS, () -> DAOFactory.getInstance().getTeleportBookmarkDAO().load(player)));
+			parts.add(loader.submit(Stage.RECIPES, () -> {
+				DAOFactory.getInstance().getRecipeBookDAO().load(player, true);
+				if (character().storeRecipeShopList()) {
+					DAOFactory.getInstance().getRecipeShopListDAO().load(player);
+				}
+			}));
+			parts.add(loader.submit(Stage.PREMIUM_ITEMS, () -> DAOFactory.getInstance().getPremiumItemDAO().load(player)));
+			parts.add(loader.submit(Stage.PET_ITEMS, () -> DAOFactory.getInstance().getItemDAO().loadPetInventory(player)));
+			parts.add(loader.submit(Stage.FRIENDS, () -> DAOFactory.getInstance().getFriendDAO().load(player)));
+			if (character().storeUISettings()) {
+				parts.add(loader.submit(Stage.UI_SETTINGS, player::restoreUISettings));
+			}
 			
 			// Retrieve from the database all items of this L2PcInstance and add them to _inventory
-			player.getInventory().restore();
-			player.getFreight().restore();
-			if (!general().warehouseCache()) {
-				player.getWarehouse();
-			}
+			loader.run(Stage.ITEMS, () -> {
+				player.getInventory().restore();
+				player.getFreight().restore();
+				if (!general().warehouseCache()) {
+					player.getWarehouse();
+				}
+			});
 			
 			// Retrieve from the database all secondary data of this L2PcInstance
 			// Note that Clan, Noblesse and Hero skills are given separately and not here.
 			// Retrieve from the database all skills of this L2PcInstance and add them to _skills
-			DAOFactory.getInstance().getSkillDAO().load(player);
-			
-			player._macros.restoreMe();
-			
-			player._shortCuts.restoreMe();
-			
-			DAOFactory.getInstance().getHennaDAO().load(player);
-			
-			DAOFactory.getInstance().getTeleportBookmarkDAO().load(player);
-			
-			DAOFactory.getInstance().getRecipeBookDAO().load(player, true);
-			
-			if (character().storeRecipeShopList()) {
-				DAOFactory.getInstance().getRecipeShopListDAO().load(player);
-			}
-			
-			DAOFactory.getInstance().getPremiumItemDAO().load(player);
+			loader.run(Stage.SKILLS, () -> DAOFactory.getInstance().getSkillDAO().load(player));
 			
-			DAOFactory.getInstance().getItemDAO().loadPetInventory(player);
+			// Shortcuts are verified against the inventory.
+			loader.run(Stage.SHORTCUTS, player._shortCuts::restoreMe);
 			
 			// Reward auto-get skills and all available skills if auto-learn skills is true.
 			player.rewardSkills();
 			
-			DAOFactory.getInstance().getItemReuseDAO().load(player);
+			loader.run(Stage.ITEM_REUSE, () -> DAOFactory.getInstance().getItemReuseDAO().load(player));
 			
 			// Buff and status icons
 			if (character().storeSkillCooltime()) {
-				player.restoreEffects();
+				loader.run(Stage.EFFECTS, player::restoreEffects);
+			}
+			
+			for (Future<?> part : parts) {
+				part.get();
 			}
 			
 			// Restore current CP, HP and MP values
@@ -813,16 +831,11 @@ public final class L2PcInstance extends L2Playable {
 			// Update the expertise status of the L2PcInstance
 			player.refreshExpertisePenalty();
 			
-			DAOFactory.getInstance().getFriendDAO().load(player);
-			
-			if (character().storeUISettings()) {
-				player.restoreUISettings();
-			}
-			
 			if (player.isGM()) {
 				final long masks = player.getVariables().getLong(COND_OVERRIDE_KEY, PcCondOverride.getAllExceptionsMask());
 				player.setOverrideCond(masks);
 			}
+			loader.recordLoad(start);
 			return player;
 		} catch (Exception e) {
 			LOG.error("Failed loading character.", e);
@@ -5261,6 +5274,7 @@ public final class L2PcInstance extends L2Playable {
 	 */
 	public void setPrivateStoreType(PrivateStoreType privateStoreType) {
 		_privateStoreType = privateStoreType;
+		PrivateStoreManager.getInstance().update(this);
 		
 		if (customs().offlineDisconnectFinished() && (privateStoreType == PrivateStoreType.NONE) && ((getClient() == null) || getClient().isDetached())) {
 			deleteMe();
@@ -5851,34 +5865,43 @@ public final class L2PcInstance extends L2Playable {
 	 * @param storeActiveEffects
 	 */
 	public synchronized void store(boolean storeActiveEffects) {
-		DAOFactory.getInstance().getPlayerDAO().storeCharBase(this);
-		
-		DAOFactory.getInstance().getSubclassDAO().update(this);
-		
-		storeEffect(storeActiveEffects);
-		
-		DAOFactory.getInstance().getItemReuseDAO().insert(this);
-		
-		if (character().storeRecipeShopList()) {
-			DAOFactory.getInstance().getRecipeShopListDAO().delete(this);
-			DAOFactory.getInstance().getRecipeShopListDAO().insert(this);
-		}
-		
-		if (character().storeUISettings()) {
-			storeUISettings();
-		}
-		
-		SevenSigns.getInstance().saveSevenSignsData(getObjectId());
-		
-		final PlayerVariables vars = getScript(PlayerVariables.class);
-		if (vars != null) {
-			vars.storeMe();
+		// All the parts of the player are stored on one connection and committed together, a part rolling back its work rolls back the whole store.
+		try (var uow = UnitOfWork.begin()) {
+			DAOFactory.getInstance().getPlayerDAO().storeCharBase(this);
+			
+			DAOFactory.getInstance().getSubclassDAO().update(this);
+			
+			storeEffect(storeActiveEffects);
+			
+			DAOFactory.getInstance().getItemReuseDAO().insert(this);
+			
+			if (character().storeRecipeShopList()) {
+				DAOFactory.getInstance().getRecipeShopListDAO().delete(this);
+				DAOFactory.getInstance().getRecipeShopListDAO().insert(this);
+			}
+			
+			if (character().storeUISettings()) {
+				storeUISettings();
+			}
+			
+			SevenSigns.getInstance().saveSevenSignsData(getObjectId());
+			
+			final PlayerVariables vars = getScript(PlayerVariables.class);
+			if (vars != null) {
+				vars.storeMe();
+			}
+			
+			final AccountVariables aVars = getScript(AccountVariables.class);
+			if (aVars != null) {
+				aVars.storeMe();
+			}
+			
+			uow.commit();
+		} catch (SQLException ex) {
+			LOG.error("Could not store player {}!", this, ex);
 		}
 		
-		final AccountVariables aVars = getScript(AccountVariables.class);
-		if (aVars != null) {
-			aVars.storeMe();
-		}
+		CharSelectInfoTable.getInstance().invalidate(getAccountNamePlayer());
 	}
 	
 	@Override
@@ -8491,6 +8514,8 @@ public final class L2PcInstance extends L2Playable {
 	private synchronized void cleanup() {
 		EventDispatcher.getInstance().notifyEventAsync(new OnPlayerLogout(this), this);
 		
+		PrivateStoreManager.getInstance().remove(this);
+		
 		try {
 			for (L2ZoneType zone : ZoneManager.getInstance().getZones(this)) {
 				zone.onPlayerLogoutInside(this);
@@ -39,7 +39,7 @@ public class AttackableKnownList extends NpcKnownList {
 		
 		// Remove the L2Object from the _aggrolist of the L2Attackable
 		if (object instanceof L2Character) {
-			getActiveChar().getAggroList().remove(object);
+			getActiveChar().getAggro().remove((L2Character) object);
 		}
 		// Set the L2Attackable Intention to AI_INTENTION_IDLE
 		final Collection<L2PcInstance> known = getKnownPlayers().values();
@@ -23,7 +23,6 @@ import static com.l2jserver.gameserver.config.Configuration.npc;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -92,6 +91,8 @@ public final class L2NpcTemplate extends L2CharTemplate implements IIdentifiable
 	private Set<Integer> _clans;
 	private Set<Integer> _ignoreClanNpcIds;
 	private Map<DropListScope, List<IDropItem>> _dropLists;
+	/** Drop lists indexed by scope ordinal, for the drop calculation. */
+	private IDropItem[][] _dropTables;
 	private double _collisionRadiusGrown;
 	private double _collisionHeightGrown;
 	
@@ -431,6 +432,17 @@ public final class L2NpcTemplate extends L2CharTemplate implements IIdentifiable
 	
 	public void setDropLists(Map<DropListScope, List<IDropItem>> dropLists) {
 		_dropLists = dropLists != null ? Collections.unmodifiableMap(dropLists) : null;
+		
+		IDropItem[][] dropTables = null;
+		if (dropLists != null) {
+			dropTables = new IDropItem[DropListScope.values().length][];
+			for (Map.Entry<DropListScope, List<IDropItem>> entry : dropLists.entrySet()) {
+				if ((entry.getValue() != null) && !entry.getValue().isEmpty()) {
+					dropTables[entry.getKey().ordinal()] = entry.getValue().toArray(new IDropItem[0]);
+				}
+			}
+		}
+		_dropTables = dropTables;
 	}
 	
 	public List<IDropItem> getDropList(DropListScope dropListScope) {
@@ -439,20 +451,21 @@ public final class L2NpcTemplate extends L2CharTemplate implements IIdentifiable
 	}
 	
 	public Collection<ItemHolder> calculateDrops(DropListScope dropListScope, L2Character victim, L2Character killer) {
-		List<IDropItem> dropList = getDropList(dropListScope);
-		if (dropList == null) {
+		final IDropItem[][] dropTables = _dropTables;
+		final IDropItem[] dropTable = dropTables != null ? dropTables[dropListScope.ordinal()] : null;
+		if (dropTable == null) {
 			return null;
 		}
 		
-		Collection<ItemHolder> calculatedDrops = null;
-		for (IDropItem dropItem : dropList) {
+		List<ItemHolder> calculatedDrops = null;
+		for (IDropItem dropItem : dropTable) {
 			final Collection<ItemHolder> drops = dropItem.calculateDrops(victim, killer);
 			if ((drops == null) || drops.isEmpty()) {
 				continue;
 			}
 			
 			if (calculatedDrops == null) {
-				calculatedDrops = new LinkedList<>();
+				calculatedDrops = new ArrayList<>(drops.size());
 			}
 			
 			calculatedDrops.addAll(drops);
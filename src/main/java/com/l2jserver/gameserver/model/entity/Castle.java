@@ -33,6 +33,7 @@ import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.data.sql.impl.ClanTable;
 import com.l2jserver.gameserver.data.xml.impl.DoorData;
+import com.l2jserver.gameserver.data.xml.impl.MultisellData;
 import com.l2jserver.gameserver.data.xml.impl.SkillTreesData;
 import com.l2jserver.gameserver.datatables.SkillData;
 import com.l2jserver.gameserver.enums.MountType;
@@ -478,6 +479,7 @@ public final class Castle extends AbstractResidence {
 	public void setTaxPercent(int taxPercent) {
 		_taxPercent = taxPercent;
 		_taxRate = _taxPercent / 100.0;
+		MultisellData.getInstance().clearPreparedLists();
 		
 		try (var con = ConnectionFactory.getInstance().getConnection();
 			var ps = con.prepareStatement("UPDATE castle SET taxPercent = ? WHERE id = ?")) {
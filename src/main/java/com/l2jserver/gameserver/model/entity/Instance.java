@@ -19,11 +19,7 @@
 package com.l2jserver.gameserver.model.entity;
 
 import static com.l2jserver.gameserver.config.Configuration.general;
-import static com.l2jserver.gameserver.config.Configuration.server;
 
-import java.io.File;
-import java.io.IOException;
-import java.time.DayOfWeek;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -35,11 +31,6 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.xml.parsers.DocumentBuilderFactory;
-
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-
 import com.l2jserver.gameserver.ThreadPoolManager;
 import com.l2jserver.gameserver.data.xml.impl.DoorData;
 import com.l2jserver.gameserver.enums.InstanceReenterType;
@@ -58,6 +49,10 @@ import com.l2jserver.gameserver.model.actor.instance.L2DoorInstance;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.model.actor.templates.L2DoorTemplate;
 import com.l2jserver.gameserver.model.holders.InstanceReenterTimeHolder;
+import com.l2jserver.gameserver.model.instancezone.InstanceTemplate;
+import com.l2jserver.gameserver.model.instancezone.InstanceTemplate.DoorDefinition;
+import com.l2jserver.gameserver.model.instancezone.InstanceTemplate.SpawnDefinition;
+import com.l2jserver.gameserver.model.instancezone.InstanceTemplate.SpawnGroup;
 import com.l2jserver.gameserver.model.instancezone.InstanceWorld;
 import com.l2jserver.gameserver.network.SystemMessageId;
 import com.l2jserver.gameserver.network.clientpackets.Say2;
@@ -390,255 +385,110 @@ public final class Instance {
 	}
 	
 	public void loadInstanceTemplate(String filename) {
-		File xml = new File(server().getDatapackRoot(), "data/instances/" + filename);
+		final InstanceTemplate template = InstanceManager.getInstance().getInstanceTemplate(filename);
+		if (template != null) {
+			applyTemplate(template);
+		}
+	}
+	
+	/**
+	 * Applies the settings of a template, then spawns its doors and general spawn group.
+	 * @param template the instance template
+	 */
+	public void applyTemplate(InstanceTemplate template) {
+		_name = template.getName();
+		if (template.getEjectTime() != null) {
+			_ejectTime = template.getEjectTime();
+		}
+		if (template.getAllowRandomWalk() != null) {
+			_allowRandomWalk = template.getAllowRandomWalk();
+		}
+		if (template.getActivityTime() != null) {
+			_checkTimeUpTask = ThreadPoolManager.getInstance().scheduleGeneral(new CheckTimeUp(template.getActivityTime() * 60000), 15000);
+			_instanceEndTime = System.currentTimeMillis() + (template.getActivityTime() * 60000L) + 15000;
+		}
+		if (template.getAllowSummon() != null) {
+			setAllowSummon(template.getAllowSummon());
+		}
+		if (template.getEmptyDestroyTime() != null) {
+			_emptyDestroyTime = template.getEmptyDestroyTime();
+		}
+		if (template.getShowTimer() != null) {
+			_showTimer = template.getShowTimer();
+		}
+		if (template.getTimerIncrease() != null) {
+			_isTimerIncrease = template.getTimerIncrease();
+		}
+		if (template.getTimerText() != null) {
+			_timerText = template.getTimerText();
+		}
+		if (template.getPvPInstance() != null) {
+			setPvPInstance(template.getPvPInstance());
+		}
+		if (template.getExitLocation() != null) {
+			_exitLocation = template.getExitLocation();
+		}
+		if (template.getEnterLocations() != null) {
+			_enterLocations = new ArrayList<>(template.getEnterLocations());
+		}
+		if (template.getReenterType() != null) {
+			_type = template.getReenterType();
+		}
+		_resetData.addAll(template.getResetData());
+		if (template.getRemoveBuffType() != null) {
+			_removeBuffType = template.getRemoveBuffType();
+		}
+		_exceptionList.addAll(template.getBuffExceptions());
 		
-		try {
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			factory.setValidating(false);
-			factory.setIgnoringComments(true);
-			var doc = factory.newDocumentBuilder().parse(xml);
-			
-			for (Node n = doc.getFirstChild(); n != null; n = n.getNextSibling()) {
-				if ("instance".equalsIgnoreCase(n.getNodeName())) {
-					parseInstance(n);
-				}
-			}
-		} catch (IOException e) {
-			_log.log(Level.WARNING, "Instance: can not find " + xml.getAbsolutePath() + " ! " + e.getMessage(), e);
-		} catch (Exception e) {
-			_log.log(Level.WARNING, "Instance: error while loading " + xml.getAbsolutePath() + " ! " + e.getMessage(), e);
-		}
-	}
-	
-	private void parseInstance(Node n) throws Exception {
-		_name = n.getAttributes().getNamedItem("name").getNodeValue();
-		Node a = n.getAttributes().getNamedItem("ejectTime");
-		if (a != null) {
-			_ejectTime = 1000 * Integer.parseInt(a.getNodeValue());
-		}
-		a = n.getAttributes().getNamedItem("allowRandomWalk");
-		if (a != null) {
-			_allowRandomWalk = Boolean.parseBoolean(a.getNodeValue());
-		}
-		Node first = n.getFirstChild();
-		for (n = first; n != null; n = n.getNextSibling()) {
-			switch (n.getNodeName().toLowerCase()) {
-				case "activitytime" -> {
-					a = n.getAttributes().getNamedItem("val");
-					if (a != null) {
-						_checkTimeUpTask = ThreadPoolManager.getInstance().scheduleGeneral(new CheckTimeUp(Integer.parseInt(a.getNodeValue()) * 60000), 15000);
-						_instanceEndTime = System.currentTimeMillis() + (Long.parseLong(a.getNodeValue()) * 60000) + 15000;
-					}
-				}
-				case "allowsummon" -> {
-					a = n.getAttributes().getNamedItem("val");
-					if (a != null) {
-						setAllowSummon(Boolean.parseBoolean(a.getNodeValue()));
-					}
-				}
-				case "emptydestroytime" -> {
-					a = n.getAttributes().getNamedItem("val");
-					if (a != null) {
-						_emptyDestroyTime = Long.parseLong(a.getNodeValue()) * 1000;
-					}
-				}
-				case "showtimer" -> {
-					a = n.getAttributes().getNamedItem("val");
-					if (a != null) {
-						_showTimer = Boolean.parseBoolean(a.getNodeValue());
-					}
-					a = n.getAttributes().getNamedItem("increase");
-					if (a != null) {
-						_isTimerIncrease = Boolean.parseBoolean(a.getNodeValue());
-					}
-					a = n.getAttributes().getNamedItem("text");
-					if (a != null) {
-						_timerText = a.getNodeValue();
-					}
-				}
-				case "pvpinstance" -> {
-					a = n.getAttributes().getNamedItem("val");
-					if (a != null) {
-						setPvPInstance(Boolean.parseBoolean(a.getNodeValue()));
-					}
-				}
-				case "doorlist" -> {
-					for (Node d = n.getFirstChild(); d != null; d = d.getNextSibling()) {
-						if ("door".equalsIgnoreCase(d.getNodeName())) {
-							int doorId = Integer.parseInt(d.getAttributes().getNamedItem("doorId").getNodeValue());
-							StatsSet set = new StatsSet();
-							set.add(DoorData.getInstance().getDoorTemplate(doorId));
-							for (Node bean = d.getFirstChild(); bean != null; bean = bean.getNextSibling()) {
-								if ("set".equalsIgnoreCase(bean.getNodeName())) {
-									NamedNodeMap attrs = bean.getAttributes();
-									String setname = attrs.getNamedItem("name").getNodeValue();
-									String value = attrs.getNamedItem("val").getNodeValue();
-									set.set(setname, value);
-								}
-							}
-							addDoor(doorId, set);
-						}
-					}
-				}
-				case "spawnlist" -> {
-					for (Node group = n.getFirstChild(); group != null; group = group.getNextSibling()) {
-						if ("group".equalsIgnoreCase(group.getNodeName())) {
-							String spawnGroup = group.getAttributes().getNamedItem("name").getNodeValue();
-							List<L2Spawn> manualSpawn = new ArrayList<>();
-							for (Node d = group.getFirstChild(); d != null; d = d.getNextSibling()) {
-								int respawnRandom = 0, delay = -1;
-								Boolean allowRandomWalk = null;
-								String areaName = null;
-								int globalMapId = 0;
-								
-								if ("spawn".equalsIgnoreCase(d.getNodeName())) {
-									int npcId = Integer.parseInt(d.getAttributes().getNamedItem("npcId").getNodeValue());
-									int x = Integer.parseInt(d.getAttributes().getNamedItem("x").getNodeValue());
-									int y = Integer.parseInt(d.getAttributes().getNamedItem("y").getNodeValue());
-									int z = Integer.parseInt(d.getAttributes().getNamedItem("z").getNodeValue());
-									int heading = Integer.parseInt(d.getAttributes().getNamedItem("heading").getNodeValue());
-									int respawn = Integer.parseInt(d.getAttributes().getNamedItem("respawn").getNodeValue());
-									
-									Node node = d.getAttributes().getNamedItem("onKillDelay");
-									if (node != null) {
-										delay = Integer.parseInt(node.getNodeValue());
-									}
-									
-									node = d.getAttributes().getNamedItem("respawnRandom");
-									if (node != null) {
-										respawnRandom = Integer.parseInt(node.getNodeValue());
-									}
-									
-									node = d.getAttributes().getNamedItem("allowRandomWalk");
-									if (d.getAttributes().getNamedItem("allowRandomWalk") != null) {
-										allowRandomWalk = Boolean.valueOf(node.getNodeValue());
-									}
-									
-									node = d.getAttributes().getNamedItem("areaName");
-									if (d.getAttributes().getNamedItem("areaName") != null) {
-										areaName = node.getNodeValue();
-									}
-									
-									node = d.getAttributes().getNamedItem("globalMapId");
-									if (node != null) {
-										globalMapId = Integer.parseInt(node.getNodeValue());
-									}
-									
-									final L2Spawn spawnDat = new L2Spawn(npcId);
-									spawnDat.setX(x);
-									spawnDat.setY(y);
-									spawnDat.setZ(z);
-									spawnDat.setAmount(1);
-									spawnDat.setHeading(heading);
-									spawnDat.setRespawnDelay(respawn, respawnRandom);
-									if (respawn == 0) {
-										spawnDat.stopRespawn();
-									} else {
-										spawnDat.startRespawn();
-									}
-									spawnDat.setInstanceId(getId());
-									if (allowRandomWalk == null) {
-										spawnDat.setIsNoRndWalk(!_allowRandomWalk);
-									} else {
-										spawnDat.setIsNoRndWalk(!allowRandomWalk);
-									}
-									
-									spawnDat.setAreaName(areaName);
-									spawnDat.setGlobalMapId(globalMapId);
-									
-									if (spawnGroup.equals("general")) {
-										final L2Npc spawned = spawnDat.doSpawn();
-										if ((delay >= 0) && (spawned instanceof L2Attackable)) {
-											((L2Attackable) spawned).setOnKillDelay(delay);
-										}
-									} else {
-										manualSpawn.add(spawnDat);
-									}
-								}
-							}
-							
-							if (!manualSpawn.isEmpty()) {
-								_manualSpawn.put(spawnGroup, manualSpawn);
-							}
-						}
-					}
-				}
-				case "exitpoint" -> {
-					int x = Integer.parseInt(n.getAttributes().getNamedItem("x").getNodeValue());
-					int y = Integer.parseInt(n.getAttributes().getNamedItem("y").getNodeValue());
-					int z = Integer.parseInt(n.getAttributes().getNamedItem("z").getNodeValue());
-					_exitLocation = new Location(x, y, z);
-				}
-				case "spawnpoints" -> {
-					_enterLocations = new ArrayList<>();
-					for (Node loc = n.getFirstChild(); loc != null; loc = loc.getNextSibling()) {
-						if (loc.getNodeName().equals("Location")) {
-							try {
-								int x = Integer.parseInt(loc.getAttributes().getNamedItem("x").getNodeValue());
-								int y = Integer.parseInt(loc.getAttributes().getNamedItem("y").getNodeValue());
-								int z = Integer.parseInt(loc.getAttributes().getNamedItem("z").getNodeValue());
-								_enterLocations.add(new Location(x, y, z));
-							} catch (Exception e) {
-								_log.log(Level.WARNING, "Error parsing instance xml: " + e.getMessage(), e);
-							}
-						}
+		for (DoorDefinition door : template.getDoors()) {
+			final StatsSet set = new StatsSet();
+			set.add(DoorData.getInstance().getDoorTemplate(door.getDoorId()));
+			door.getParameters().forEach(set::set);
+			addDoor(door.getDoorId(), set);
+		}
+		
+		for (SpawnGroup group : template.getSpawnGroups()) {
+			final List<L2Spawn> manualSpawn = new ArrayList<>();
+			for (SpawnDefinition spawn : group.getSpawns()) {
+				try {
+					final L2Spawn spawnDat = new L2Spawn(spawn.getNpcId());
+					spawnDat.setX(spawn.getX());
+					spawnDat.setY(spawn.getY());
+					spawnDat.setZ(spawn.getZ());
+					spawnDat.setAmount(1);
+					spawnDat.setHeading(spawn.getHeading());
+					spawnDat.setRespawnDelay(spawn.getRespawn(), spawn.getRespawnRandom());
+					if (spawn.getRespawn() == 0) {
+						spawnDat.stopRespawn();
+					} else {
+						spawnDat.startRespawn();
 					}
-				}
-				case "reenter" -> {
-					a = n.getAttributes().getNamedItem("additionStyle");
-					if (a != null) {
-						_type = InstanceReenterType.valueOf(a.getNodeValue());
+					spawnDat.setInstanceId(getId());
+					if (spawn.getAllowRandomWalk() == null) {
+						spawnDat.setIsNoRndWalk(!_allowRandomWalk);
+					} else {
+						spawnDat.setIsNoRndWalk(!spawn.getAllowRandomWalk());
 					}
 					
-					for (Node d = n.getFirstChild(); d != null; d = d.getNextSibling()) {
-						DayOfWeek day = null;
-						int hour = -1;
-						int minute = -1;
-						
-						if ("reset".equalsIgnoreCase(d.getNodeName())) {
-							a = d.getAttributes().getNamedItem("time");
-							if (a != null) {
-								long time = Long.parseLong(a.getNodeValue());
-								if (time > 0) {
-									_resetData.add(new InstanceReenterTimeHolder(time));
-									break;
-								}
-							} else {
-								a = d.getAttributes().getNamedItem("day");
-								if (a != null) {
-									day = DayOfWeek.valueOf(a.getNodeValue().toUpperCase());
-								}
-								
-								a = d.getAttributes().getNamedItem("hour");
-								if (a != null) {
-									hour = Integer.parseInt(a.getNodeValue());
-								}
-								
-								a = d.getAttributes().getNamedItem("minute");
-								if (a != null) {
-									minute = Integer.parseInt(a.getNodeValue());
-								}
-								_resetData.add(new InstanceReenterTimeHolder(day, hour, minute));
-							}
-						}
-					}
-				}
-				case "removebuffs" -> {
-					a = n.getAttributes().getNamedItem("type");
-					if (a != null) {
-						_removeBuffType = InstanceRemoveBuffType.valueOf(a.getNodeValue().toUpperCase());
-					}
+					spawnDat.setAreaName(spawn.getAreaName());
+					spawnDat.setGlobalMapId(spawn.getGlobalMapId());
 					
-					for (Node d = n.getFirstChild(); d != null; d = d.getNextSibling()) {
-						if ("skill".equalsIgnoreCase(d.getNodeName())) {
-							a = d.getAttributes().getNamedItem("id");
-							if (a != null) {
-								_exceptionList.add(Integer.parseInt(a.getNodeValue()));
-							}
+					if (group.getName().equals("general")) {
+						final L2Npc spawned = spawnDat.doSpawn();
+						if ((spawn.getOnKillDelay() >= 0) && (spawned instanceof L2Attackable)) {
+							((L2Attackable) spawned).setOnKillDelay(spawn.getOnKillDelay());
 						}
+					} else {
+						manualSpawn.add(spawnDat);
 					}
+				} catch (Exception e) {
+					_log.log(Level.WARNING, getName() + " instance: error while spawning NPC " + spawn.getNpcId() + "! " + e.getMessage(), e);
 				}
 			}
+			
+			if (!manualSpawn.isEmpty()) {
+				_manualSpawn.put(group.getName(), manualSpawn);
+			}
 		}
 	}
 	
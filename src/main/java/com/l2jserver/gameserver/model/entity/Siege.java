@@ -23,9 +23,12 @@ import static com.l2jserver.gameserver.config.Configuration.character;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,6 +53,7 @@ import com.l2jserver.gameserver.model.SiegeScheduleDate;
 import com.l2jserver.gameserver.model.TeleportWhereType;
 import com.l2jserver.gameserver.model.TowerSpawn;
 import com.l2jserver.gameserver.model.actor.L2Npc;
+import com.l2jserver.gameserver.model.actor.L2Summon;
 import com.l2jserver.gameserver.model.actor.instance.L2ControlTowerInstance;
 import com.l2jserver.gameserver.model.actor.instance.L2FlameTowerInstance;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
@@ -185,6 +189,10 @@ public class Siege implements Siegable {
 	protected ScheduledFuture<?> _scheduledStartSiegeTask = null;
 	protected int _firstOwnerClanId = -1;
 	
+	private final LongAdder _relationPackets = new LongAdder();
+	
+	private final LongAdder _relationUpdates = new LongAdder();
+	
 	public Siege(Castle castle) {
 		_castle = castle;
 		_siegeGuardManager = new SiegeGuardManager(getCastle());
@@ -432,98 +440,108 @@ public class Siege implements Siegable {
 	 */
 	public void announceToPlayer(SystemMessage message, boolean bothSides) {
 		for (L2SiegeClan siegeClans : getDefenderClans()) {
-			L2Clan clan = ClanTable.getInstance().getClan(siegeClans.getClanId());
-			for (L2PcInstance member : clan.getOnlineMembers(0)) {
-				member.sendPacket(message);
-			}
+			ClanTable.getInstance().getClan(siegeClans.getClanId()).forEachOnlineMember(member -> member.sendPacket(message));
 		}
 		
 		if (bothSides) {
 			for (L2SiegeClan siegeClans : getAttackerClans()) {
-				L2Clan clan = ClanTable.getInstance().getClan(siegeClans.getClanId());
-				for (L2PcInstance member : clan.getOnlineMembers(0)) {
-					if (member != null) {
-						member.sendPacket(message);
-					}
-				}
+				ClanTable.getInstance().getClan(siegeClans.getClanId()).forEachOnlineMember(member -> member.sendPacket(message));
 			}
 		}
 	}
 	
 	public void updatePlayerSiegeStateFlags(boolean clear) {
-		L2Clan clan;
+		// The state of every participant is updated before any relation is computed, a relation depends on both sides.
+		final List<L2PcInstance> participants = new ArrayList<>();
 		for (L2SiegeClan siegeclan : getAttackerClans()) {
-			if (siegeclan == null) {
-				continue;
-			}
-			
-			clan = ClanTable.getInstance().getClan(siegeclan.getClanId());
-			for (L2PcInstance member : clan.getOnlineMembers(0)) {
-				if (clear) {
-					member.setSiegeState((byte) 0);
-					member.setSiegeSide(0);
-					member.setIsInSiege(false);
-					member.stopFameTask();
-				} else {
-					member.setSiegeState((byte) 1);
-					member.setSiegeSide(getCastle().getResidenceId());
-					if (checkIfInZone(member)) {
-						member.setIsInSiege(true);
-						member.startFameTask(character().getCastleZoneFameTaskFrequency(), character().getCastleZoneFameAcquirePoints());
-					}
-				}
-				member.sendPacket(new UserInfo(member));
-				member.sendPacket(new ExBrExtraUserInfo(member));
-				for (L2PcInstance player : member.getKnownList().getKnownPlayers().values()) {
-					if (player == null) {
-						continue;
-					}
-					
-					player.sendPacket(new RelationChanged(member, member.getRelation(player), member.isAutoAttackable(player)));
-					if (member.hasSummon()) {
-						player.sendPacket(new RelationChanged(member.getSummon(), member.getRelation(player), member.isAutoAttackable(player)));
-					}
-				}
-			}
+			updateSiegeState(siegeclan, (byte) 1, clear, participants);
 		}
 		for (L2SiegeClan siegeclan : getDefenderClans()) {
-			if (siegeclan == null) {
-				continue;
+			updateSiegeState(siegeclan, (byte) 2, clear, participants);
+		}
+		broadcastRelations(participants);
+	}
+	
+	private void updateSiegeState(L2SiegeClan siegeclan, byte siegeState, boolean clear, List<L2PcInstance> participants) {
+		if (siegeclan == null) {
+			return;
+		}
+		
+		ClanTable.getInstance().getClan(siegeclan.getClanId()).forEachOnlineMember(member -> {
+			if (clear) {
+				member.setSiegeState((byte) 0);
+				member.setSiegeSide(0);
+				member.setIsInSiege(false);
+				member.stopFameTask();
+			} else {
+				member.setSiegeState(siegeState);
+				member.setSiegeSide(getCastle().getResidenceId());
+				if (checkIfInZone(member)) {
+					member.setIsInSiege(true);
+					member.startFameTask(character().getCastleZoneFameTaskFrequency(), character().getCastleZoneFameAcquirePoints());
+				}
 			}
-			
-			clan = ClanTable.getInstance().getClan(siegeclan.getClanId());
-			for (L2PcInstance member : clan.getOnlineMembers(0)) {
-				if (member == null) {
+			member.sendPacket(new UserInfo(member));
+			member.sendPacket(new ExBrExtraUserInfo(member));
+			participants.add(member);
+		});
+	}
+	
+	/**
+	 * Sends the relations of the given participants to the players that know them.<br>
+	 * Each relation is computed once and every player gets a single packet with all the changed relations it has to see.
+	 * @param participants the participants
+	 */
+	private void broadcastRelations(List<L2PcInstance> participants) {
+		final Map<L2PcInstance, RelationChanged> packets = new HashMap<>();
+		int relations = 0;
+		for (L2PcInstance member : participants) {
+			final L2Summon summon = member.getSummon();
+			final boolean invisible = member.isInvisible() || ((summon != null) && summon.isInvisible());
+			for (L2PcInstance player : member.getKnownList().getKnownPlayers().values()) {
+				if (player == null) {
 					continue;
 				}
 				
-				if (clear) {
-					member.setSiegeState((byte) 0);
-					member.setSiegeSide(0);
-					member.setIsInSiege(false);
-					member.stopFameTask();
-				} else {
-					member.setSiegeState((byte) 2);
-					member.setSiegeSide(getCastle().getResidenceId());
-					if (checkIfInZone(member)) {
-						member.setIsInSiege(true);
-						member.startFameTask(character().getCastleZoneFameTaskFrequency(), character().getCastleZoneFameAcquirePoints());
+				final int relation = member.getRelation(player);
+				final boolean autoAttackable = member.isAutoAttackable(player);
+				if (invisible) {
+					// Invisible characters cannot be batched, their packet is filtered per receiver.
+					player.sendPacket(new RelationChanged(member, relation, autoAttackable));
+					_relationPackets.increment();
+					if (summon != null) {
+						player.sendPacket(new RelationChanged(summon, relation, autoAttackable));
+						_relationPackets.increment();
 					}
-				}
-				member.sendPacket(new UserInfo(member));
-				member.sendPacket(new ExBrExtraUserInfo(member));
-				
-				for (L2PcInstance player : member.getKnownList().getKnownPlayers().values()) {
-					if (player == null) {
-						continue;
-					}
-					player.sendPacket(new RelationChanged(member, member.getRelation(player), member.isAutoAttackable(player)));
-					if (member.hasSummon()) {
-						player.sendPacket(new RelationChanged(member.getSummon(), member.getRelation(player), member.isAutoAttackable(player)));
+				} else {
+					final RelationChanged packet = packets.computeIfAbsent(player, k -> new RelationChanged());
+					packet.addRelation(member, relation, autoAttackable);
+					if (summon != null) {
+						packet.addRelation(summon, relation, autoAttackable);
 					}
 				}
+				relations += (summon != null) ? 2 : 1;
 			}
 		}
+		
+		packets.forEach(L2PcInstance::sendPacket);
+		_relationPackets.add(packets.size());
+		_relationUpdates.add(relations);
+		LOG.debug("{}: Sent {} relations to {} players for {} participants.", getCastle().getName(), relations, packets.size(), participants.size());
+	}
+	
+	/**
+	 * @return the number of relation packets sent when the siege state of the participants changed
+	 */
+	public long getRelationPacketCount() {
+		return _relationPackets.sum();
+	}
+	
+	/**
+	 * @return the number of relations sent when the siege state of the participants changed
+	 */
+	public long getRelationUpdateCount() {
+		return _relationUpdates.sum();
 	}
 	
 	/**
@@ -0,0 +1,489 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.instancezone;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import com.l2jserver.gameserver.enums.InstanceReenterType;
+import com.l2jserver.gameserver.enums.InstanceRemoveBuffType;
+import com.l2jserver.gameserver.model.Location;
+import com.l2jserver.gameserver.model.holders.InstanceReenterTimeHolder;
+
+/**
+ * Immutable instance template, parsed once from {@code data/instances}.<br>
+ * Settings that are not present in the XML are {@code null}, so the instance keeps its defaults.
+ */
+public final class InstanceTemplate {
+	
+	private static final Logger LOG = LoggerFactory.getLogger(InstanceTemplate.class);
+	
+	private final String _name;
+	private final Integer _ejectTime;
+	private final Boolean _allowRandomWalk;
+	private final Integer _activityTime;
+	private final Boolean _allowSummon;
+	private final Long _emptyDestroyTime;
+	private final Boolean _showTimer;
+	private final Boolean _timerIncrease;
+	private final String _timerText;
+	private final Boolean _pvpInstance;
+	private final List<DoorDefinition> _doors;
+	private final List<SpawnGroup> _spawnGroups;
+	private final Location _exitLocation;
+	private final List<Location> _enterLocations;
+	private final InstanceReenterType _reenterType;
+	private final List<InstanceReenterTimeHolder> _resetData;
+	private final InstanceRemoveBuffType _removeBuffType;
+	private final List<Integer> _buffExceptions;
+	
+	private InstanceTemplate(Builder builder) {
+		_name = builder._name;
+		_ejectTime = builder._ejectTime;
+		_allowRandomWalk = builder._allowRandomWalk;
+		_activityTime = builder._activityTime;
+		_allowSummon = builder._allowSummon;
+		_emptyDestroyTime = builder._emptyDestroyTime;
+		_showTimer = builder._showTimer;
+		_timerIncrease = builder._timerIncrease;
+		_timerText = builder._timerText;
+		_pvpInstance = builder._pvpInstance;
+		_doors = List.copyOf(builder._doors);
+		_spawnGroups = List.copyOf(builder._spawnGroups);
+		_exitLocation = builder._exitLocation;
+		_enterLocations = builder._enterLocations != null ? List.copyOf(builder._enterLocations) : null;
+		_reenterType = builder._reenterType;
+		_resetData = List.copyOf(builder._resetData);
+		_removeBuffType = builder._removeBuffType;
+		_buffExceptions = List.copyOf(builder._buffExceptions);
+	}
+	
+	public String getName() {
+		return _name;
+	}
+	
+	/**
+	 * @return the eject time in milliseconds, {@code null} if not set
+	 */
+	public Integer getEjectTime() {
+		return _ejectTime;
+	}
+	
+	public Boolean getAllowRandomWalk() {
+		return _allowRandomWalk;
+	}
+	
+	/**
+	 * @return the activity time in minutes, {@code null} if not set
+	 */
+	public Integer getActivityTime() {
+		return _activityTime;
+	}
+	
+	public Boolean getAllowSummon() {
+		return _allowSummon;
+	}
+	
+	/**
+	 * @return the empty destroy time in milliseconds, {@code null} if not set
+	 */
+	public Long getEmptyDestroyTime() {
+		return _emptyDestroyTime;
+	}
+	
+	public Boolean getShowTimer() {
+		return _showTimer;
+	}
+	
+	public Boolean getTimerIncrease() {
+		return _timerIncrease;
+	}
+	
+	public String getTimerText() {
+		return _timerText;
+	}
+	
+	public Boolean getPvPInstance() {
+		return _pvpInstance;
+	}
+	
+	public List<DoorDefinition> getDoors() {
+		return _doors;
+	}
+	
+	public List<SpawnGroup> getSpawnGroups() {
+		return _spawnGroups;
+	}
+	
+	public Location getExitLocation() {
+		return _exitLocation;
+	}
+	
+	/**
+	 * @return the enter locations, {@code null} if the template has no spawn points
+	 */
+	public List<Location> getEnterLocations() {
+		return _enterLocations;
+	}
+	
+	public InstanceReenterType getReenterType() {
+		return _reenterType;
+	}
+	
+	public List<InstanceReenterTimeHolder> getResetData() {
+		return _resetData;
+	}
+	
+	public InstanceRemoveBuffType getRemoveBuffType() {
+		return _removeBuffType;
+	}
+	
+	public List<Integer> getBuffExceptions() {
+		return _buffExceptions;
+	}
+	
+	/**
+	 * Parses an {@code instance} node.
+	 * @param n the instance node
+	 * @return the instance template
+	 */
+	public static InstanceTemplate parse(Node n) {
+		final Builder builder = new Builder();
+		builder._name = n.getAttributes().getNamedItem("name").getNodeValue();
+		Node a = n.getAttributes().getNamedItem("ejectTime");
+		if (a != null) {
+			builder._ejectTime = 1000 * Integer.parseInt(a.getNodeValue());
+		}
+		a = n.getAttributes().getNamedItem("allowRandomWalk");
+		if (a != null) {
+			builder._allowRandomWalk = Boolean.parseBoolean(a.getNodeValue());
+		}
+		Node first = n.getFirstChild();
+		for (n = first; n != null; n = n.getNextSibling()) {
+			switch (n.getNodeName().toLowerCase()) {
+				case "activitytime" -> {
+					a = n.getAttributes().getNamedItem("val");
+					if (a != null) {
+						builder._activityTime = Integer.parseInt(a.getNodeValue());
+					}
+				}
+				case "allowsummon" -> {
+					a = n.getAttributes().getNamedItem("val");
+					if (a != null) {
+						builder._allowSummon = Boolean.parseBoolean(a.getNodeValue());
+					}
+				}
+				case "emptydestroytime" -> {
+					a = n.getAttributes().getNamedItem("val");
+					if (a != null) {
+						builder._emptyDestroyTime = Long.parseLong(a.getNodeValue()) * 1000;
+					}
+				}
+				case "showtimer" -> {
+					a = n.getAttributes().getNamedItem("val");
+					if (a != null) {
+						builder._showTimer = Boolean.parseBoolean(a.getNodeValue());
+					}
+					a = n.getAttributes().getNamedItem("increase");
+					if (a != null) {
+						builder._timerIncrease = Boolean.parseBoolean(a.getNodeValue());
+					}
+					a = n.getAttributes().getNamedItem("text");
+					if (a != null) {
+						builder._timerText = a.getNodeValue();
+					}
+				}
+				case "pvpinstance" -> {
+					a = n.getAttributes().getNamedItem("val");
+					if (a != null) {
+						builder._pvpInstance = Boolean.parseBoolean(a.getNodeValue());
+					}
+				}
+				case "doorlist" -> {
+					for (Node d = n.getFirstChild(); d != null; d = d.getNextSibling()) {
+						if ("door".equalsIgnoreCase(d.getNodeName())) {
+							int doorId = Integer.parseInt(d.getAttributes().getNamedItem("doorId").getNodeValue());
+							final Map<String, String> set = new LinkedHashMap<>();
+							for (Node bean = d.getFirstChild(); bean != null; bean = bean.getNextSibling()) {
+								if ("set".equalsIgnoreCase(bean.getNodeName())) {
+									NamedNodeMap attrs = bean.getAttributes();
+									set.put(attrs.getNamedItem("name").getNodeValue(), attrs.getNamedItem("val").getNodeValue());
+								}
+							}
+							builder._doors.add(new DoorDefinition(doorId, set));
+						}
+					}
+				}
+				case "spawnlist" -> {
+					for (Node group = n.getFirstChild(); group != null; group = group.getNextSibling()) {
+						if ("group".equalsIgnoreCase(group.getNodeName())) {
+							String spawnGroup = group.getAttributes().getNamedItem("name").getNodeValue();
+							List<SpawnDefinition> spawns = new ArrayList<>();
+							for (Node d = group.getFirstChild(); d != null; d = d.getNextSibling()) {
+								if ("spawn".equalsIgnoreCase(d.getNodeName())) {
+									spawns.add(new SpawnDefinition(d));
+								}
+							}
+							builder._spawnGroups.add(new SpawnGroup(spawnGroup, spawns));
+						}
+					}
+				}
+				case "exitpoint" -> {
+					int x = Integer.parseInt(n.getAttributes().getNamedItem("x").getNodeValue());
+					int y = Integer.parseInt(n.getAttributes().getNamedItem("y").getNodeValue());
+					int z = Integer.parseInt(n.getAttributes().getNamedItem("z").getNodeValue());
+					builder._exitLocation = new Location(x, y, z);
+				}
+				case "spawnpoints" -> {
+					builder._enterLocations = new ArrayList<>();
+					for (Node loc = n.getFirstChild(); loc != null; loc = loc.getNextSibling()) {
+						if (loc.getNodeName().equals("Location")) {
+							try {
+								int x = Integer.parseInt(loc.getAttributes().getNamedItem("x").getNodeValue());
+								int y = Integer.parseInt(loc.getAttributes().getNamedItem("y").getNodeValue());
+								int z = Integer.parseInt(loc.getAttributes().getNamedItem("z").getNodeValue());
+								builder._enterLocations.add(new Location(x, y, z));
+							} catch (Exception ex) {
+								LOG.warn("Error parsing instance {} spawn points!", builder._name, ex);
+							}
+						}
+					}
+				}
+				case "reenter" -> {
+					a = n.getAttributes().getNamedItem("additionStyle");
+					if (a != null) {
+						builder._reenterType = InstanceReenterType.valueOf(a.getNodeValue());
+					}
+					
+					for (Node d = n.getFirstChild(); d != null; d = d.getNextSibling()) {
+						DayOfWeek day = null;
+						int hour = -1;
+						int minute = -1;
+						
+						if ("reset".equalsIgnoreCase(d.getNodeName())) {
+							a = d.getAttributes().getNamedItem("time");
+							if (a != null) {
+								long time = Long.parseLong(a.getNodeValue());
+								if (time > 0) {
+									builder._resetData.add(new InstanceReenterTimeHolder(time));
+									break;
+								}
+							} else {
+								a = d.getAttributes().getNamedItem("day");
+								if (a != null) {
+									day = DayOfWeek.valueOf(a.getNodeValue().toUpperCase());
+								}
+								
+								a = d.getAttributes().getNamedItem("hour");
+								if (a != null) {
+									hour = Integer.parseInt(a.getNodeValue());
+								}
+								
+								a = d.getAttributes().getNamedItem("minute");
+								if (a != null) {
+									minute = Integer.parseInt(a.getNodeValue());
+								}
+								builder._resetData.add(new InstanceReenterTimeHolder(day, hour, minute));
+							}
+						}
+					}
+				}
+				case "removebuffs" -> {
+					a = n.getAttributes().getNamedItem("type");
+					if (a != null) {
+						builder._removeBuffType = InstanceRemoveBuffType.valueOf(a.getNodeValue().toUpperCase());
+					}
+					
+					for (Node d = n.getFirstChild(); d != null; d = d.getNextSibling()) {
+						if ("skill".equalsIgnoreCase(d.getNodeName())) {
+							a = d.getAttributes().getNamedItem("id");
+							if (a != null) {
+								builder._buffExceptions.add(Integer.parseInt(a.getNodeValue()));
+							}
+						}
+					}
+				}
+			}
+		}
+		return new InstanceTemplate(builder);
+	}
+	
+	private static final class Builder {
+		String _name;
+		Integer _ejectTime;
+		Boolean _allowRandomWalk;
+		Integer _activityTime;
+		Boolean _allowSummon;
+		Long _emptyDestroyTime;
+		Boolean _showTimer;
+		Boolean _timerIncrease;
+		String _timerText;
+		Boolean _pvpInstance;
+		final List<DoorDefinition> _doors = new ArrayList<>();
+		final List<SpawnGroup> _spawnGroups = new ArrayList<>();
+		Location _exitLocation;
+		List<Location> _enterLocations;
+		InstanceReenterType _reenterType;
+		final List<InstanceReenterTimeHolder> _resetData = new ArrayList<>();
+		InstanceRemoveBuffType _removeBuffType;
+		final List<Integer> _buffExceptions = new ArrayList<>();
+	}
+	
+	/**
+	 * Instance door, the door template from {@code doors.xml} overridden by the given parameters.
+	 */
+	public static final class DoorDefinition {
+		private final int _doorId;
+		private final Map<String, String> _parameters;
+		
+		DoorDefinition(int doorId, Map<String, String> parameters) {
+			_doorId = doorId;
+			_parameters = Collections.unmodifiableMap(parameters);
+		}
+		
+		public int getDoorId() {
+			return _doorId;
+		}
+		
+		public Map<String, String> getParameters() {
+			return _parameters;
+		}
+	}
+	
+	/**
+	 * Named spawn group, the {@code general} group is spawned with the instance.
+	 */
+	public static final class SpawnGroup {
+		private final String _name;
+		private final List<SpawnDefinition> _spawns;
+		
+		SpawnGroup(String name, List<SpawnDefinition> spawns) {
+			_name = name;
+			_spawns = List.copyOf(spawns);
+		}
+		
+		public String getName() {
+			return _name;
+		}
+		
+		public List<SpawnDefinition> getSpawns() {
+			return _spawns;
+		}
+	}
+	
+	/**
+	 * Instance spawn.
+	 */
+	public static final class SpawnDefinition {
+		private final int _npcId;
+		private final int _x;
+		private final int _y;
+		private final int _z;
+		private final int _heading;
+		private final int _respawn;
+		private final int _respawnRandom;
+		private final int _onKillDelay;
+		private final Boolean _allowRandomWalk;
+		private final String _areaName;
+		private final int _globalMapId;
+		
+		private SpawnDefinition(Node d) {
+			_npcId = Integer.parseInt(d.getAttributes().getNamedItem("npcId").getNodeValue());
+			_x = Integer.parseInt(d.getAttributes().getNamedItem("x").getNodeValue());
+			_y = Integer.parseInt(d.getAttributes().getNamedItem("y").getNodeValue());
+			_z = Integer.parseInt(d.getAttributes().getNamedItem("z").getNodeValue());
+			_heading = Integer.parseInt(d.getAttributes().getNamedItem("heading").getNodeValue());
+			_respawn = Integer.parseInt(d.getAttributes().getNamedItem("respawn").getNodeValue());
+			
+			Node node = d.getAttributes().getNamedItem("onKillDelay");
+			_onKillDelay = node != null ? Integer.parseInt(node.getNodeValue()) : -1;
+			
+			node = d.getAttributes().getNamedItem("respawnRandom");
+			_respawnRandom = node != null ? Integer.parseInt(node.getNodeValue()) : 0;
+			
+			node = d.getAttributes().getNamedItem("allowRandomWalk");
+			_allowRandomWalk = node != null ? Boolean.valueOf(node.getNodeValue()) : null;
+			
+			node = d.getAttributes().getNamedItem("areaName");
+			_areaName = node != null ? node.getNodeValue() : null;
+			
+			node = d.getAttributes().getNamedItem("globalMapId");
+			_globalMapId = node != null ? Integer.parseInt(node.getNodeValue()) : 0;
+		}
+		
+		public int getNpcId() {
+			return _npcId;
+		}
+		
+		public int getX() {
+			return _x;
+		}
+		
+		public int getY() {
+			return _y;
+		}
+		
+		public int getZ() {
+			return _z;
+		}
+		
+		public int getHeading() {
+			return _heading;
+		}
+		
+		public int getRespawn() {
+			return _respawn;
+		}
+		
+		public int getRespawnRandom() {
+			return _respawnRandom;
+		}
+		
+		/**
+		 * @return the on kill delay, negative if not set
+		 */
+		public int getOnKillDelay() {
+			return _onKillDelay;
+		}
+		
+		/**
+		 * @return the random walk setting, {@code null} to use the instance setting
+		 */
+		public Boolean getAllowRandomWalk() {
+			return _allowRandomWalk;
+		}
+		
+		public String getAreaName() {
+			return _areaName;
+		}
+		
+		public int getGlobalMapId() {
+			return _globalMapId;
+		}
+	}
+}
@@ -37,7 +37,7 @@ public class PreparedListContainer extends ListContainer {
 		double taxRate = 0;
 		if (npc != null) {
 			_npcObjectId = npc.getObjectId();
-			if (template.getApplyTaxes() && npc.getIsInTown() && (npc.getCastle().getOwnerId() > 0)) {
+			if (isTaxed(template, npc)) {
 				setApplyTaxes(true);
 				taxRate = npc.getCastle().getTaxRate();
 			}
@@ -80,6 +80,44 @@ public class PreparedListContainer extends ListContainer {
 		}
 	}
 	
+	/**
+	 * Prepares the whole list, without binding it to any npc.
+	 * @param template the list template
+	 * @param applyTaxes if {@code true} taxes are added to the ingredients
+	 * @param taxRate the tax rate
+	 */
+	public PreparedListContainer(ListContainer template, boolean applyTaxes, double taxRate) {
+		super(template.getListId());
+		setMaintainEnchantment(template.getMaintainEnchantment());
+		setApplyTaxes(applyTaxes);
+		_entries = new ArrayList<>(template.getEntries().size());
+		for (Entry ent : template.getEntries()) {
+			_entries.add(new PreparedEntry(ent, null, applyTaxes, false, taxRate));
+		}
+	}
+	
+	/**
+	 * Binds a shared prepared list to the npc it's opened from, the entries are shared and must not be modified.
+	 * @param prepared the prepared list
+	 * @param npc the npc, may be {@code null}
+	 */
+	public PreparedListContainer(PreparedListContainer prepared, L2Npc npc) {
+		super(prepared.getListId());
+		setMaintainEnchantment(prepared.getMaintainEnchantment());
+		setApplyTaxes(prepared.getApplyTaxes());
+		_entries = prepared.getEntries();
+		_npcObjectId = npc != null ? npc.getObjectId() : 0;
+	}
+	
+	/**
+	 * @param template the list template
+	 * @param npc the npc the list is opened from, may be {@code null}
+	 * @return {@code true} if the castle taxes are added to the ingredients of the list, {@code false} otherwise
+	 */
+	public static boolean isTaxed(ListContainer template, L2Npc npc) {
+		return (npc != null) && template.getApplyTaxes() && npc.getIsInTown() && (npc.getCastle().getOwnerId() > 0);
+	}
+	
 	public final boolean checkNpcObjectId(int npcObjectId) {
 		return _npcObjectId == 0 || _npcObjectId == npcObjectId;
 	}
@@ -22,10 +22,13 @@ import static com.l2jserver.gameserver.config.Configuration.olympiad;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.logging.Level;
@@ -61,23 +64,22 @@ public class Olympiad extends ListenersContainer {
 	
 	private static final Map<Integer, Integer> NOBLES_RANK = new HashMap<>();
 	
+	/** Noble object Ids by class Id. */
+	private static final Map<Integer, Set<Integer>> NOBLES_BY_CLASS = new ConcurrentHashMap<>();
+	
+	/** End of month snapshot of the nobles, by object Id. */
+	private static volatile Map<Integer, StatsSet> MONTHLY_NOBLES = Collections.emptyMap();
+	
+	/** End of month classified nobles by class Id, sorted by rank. */
+	private static volatile Map<Integer, List<StatsSet>> MONTHLY_RANKING = Collections.emptyMap();
+	
 	public static final String OLYMPIAD_HTML_PATH = "data/html/olympiad/";
 	private static final String OLYMPIAD_LOAD_DATA = "SELECT current_cycle, period, olympiad_end, validation_end, next_weekly_change FROM olympiad_data WHERE id = 0";
 	private static final String OLYMPIAD_SAVE_DATA = "INSERT INTO olympiad_data (id, current_cycle, period, olympiad_end, validation_end, next_weekly_change) VALUES (0,?,?,?,?,?) ON DUPLICATE KEY UPDATE current_cycle=?, period=?, olympiad_end=?, validation_end=?, next_weekly_change=?";
 	private static final String OLYMPIAD_LOAD_NOBLES = "SELECT olympiad_nobles.charId, olympiad_nobles.class_id, characters.char_name, olympiad_nobles.olympiad_points, olympiad_nobles.competitions_done, olympiad_nobles.competitions_won, olympiad_nobles.competitions_lost, olympiad_nobles.competitions_drawn, olympiad_nobles.competitions_done_week, olympiad_nobles.competitions_done_week_classed, olympiad_nobles.competitions_done_week_non_classed, olympiad_nobles.competitions_done_week_team FROM olympiad_nobles, characters WHERE characters.charId = olympiad_nobles.charId";
 	private static final String OLYMPIAD_SAVE_NOBLES = "INSERT INTO olympiad_nobles (`charId`, `class_id`, `olympiad_points`, `competitions_done`, `competitions_won`, `competitions_lost`, `competitions_drawn`, `competitions_done_week`, `competitions_done_week_classed`, `competitions_done_week_non_classed`, `competitions_done_week_team`) VALUES (?,?,?,?,?,?,?,?,?,?,?)";
 	private static final String OLYMPIAD_UPDATE_NOBLES = "UPDATE olympiad_nobles SET olympiad_points = ?, competitions_done = ?, competitions_won = ?, competitions_lost = ?, competitions_drawn = ?, competitions_done_week = ?, competitions_done_week_classed = ?, competitions_done_week_non_classed = ?, competitions_done_week_team = ? WHERE charId = ?";
-	private static final String OLYMPIAD_GET_HEROES = "SELECT olympiad_nobles.charId, characters.char_name FROM olympiad_nobles, characters WHERE characters.charId = olympiad_nobles.charId AND olympiad_nobles.class_id = ? AND olympiad_nobles.competitions_done >= "
-		+ olympiad().getMinMatchesForPoints() + " AND olympiad_nobles.competitions_won > 0 ORDER BY olympiad_nobles.olympiad_points DESC, olympiad_nobles.competitions_done DESC, olympiad_nobles.competitions_won DESC";
-	private static final String GET_ALL_CLASSIFIED_NOBLESS = "SELECT charId from olympiad_nobles_eom WHERE competitions_done >= " + olympiad().getMinMatchesForPoints() + " ORDER BY olympiad_points DESC, competitions_done DESC, competitions_won DESC";
-	private static final String GET_EACH_CLASS_LEADER = "SELECT characters.char_name from olympiad_nobles_eom, characters WHERE characters.charId = olympiad_nobles_eom.charId AND olympiad_nobles_eom.class_id = ? AND olympiad_nobles_eom.competitions_done >= " + olympiad().getMinMatchesForPoints()
-		+ " ORDER BY olympiad_nobles_eom.olympiad_points DESC, olympiad_nobles_eom.competitions_done DESC, olympiad_nobles_eom.competitions_won DESC LIMIT 10";
-	private static final String GET_EACH_CLASS_LEADER_CURRENT = "SELECT characters.char_name from olympiad_nobles, characters WHERE characters.charId = olympiad_nobles.charId AND olympiad_nobles.class_id = ? AND olympiad_nobles.competitions_done >= " + olympiad().getMinMatchesForPoints()
-		+ " ORDER BY olympiad_nobles.olympiad_points DESC, olympiad_nobles.competitions_done DESC, olympiad_nobles.competitions_won DESC LIMIT 10";
-	private static final String GET_EACH_CLASS_LEADER_SOULHOUND = "SELECT characters.char_name from olympiad_nobles_eom, characters WHERE characters.charId = olympiad_nobles_eom.charId AND (olympiad_nobles_eom.class_id = ? OR olympiad_nobles_eom.class_id = 133) AND olympiad_nobles_eom.competitions_done >= "
-		+ olympiad().getMinMatchesForPoints() + " ORDER BY olympiad_nobles_eom.olympiad_points DESC, olympiad_nobles_eom.competitions_done DESC, olympiad_nobles_eom.competitions_won DESC LIMIT 10";
-	private static final String GET_EACH_CLASS_LEADER_CURRENT_SOULHOUND = "SELECT characters.char_name from olympiad_nobles, characters WHERE characters.charId = olympiad_nobles.charId AND (olympiad_nobles.class_id = ? OR olympiad_nobles.class_id = 133) AND olympiad_nobles.competitions_done >= "
-		+ olympiad().getMinMatchesForPoints() + " ORDER BY olympiad_nobles.olympiad_points DESC, olympiad_nobles.competitions_done DESC, olympiad_nobles.competitions_won DESC LIMIT 10";
+	private static final String OLYMPIAD_LOAD_MONTHLY_NOBLES = "SELECT olympiad_nobles_eom.charId, olympiad_nobles_eom.class_id, characters.char_name, olympiad_nobles_eom.olympiad_points, olympiad_nobles_eom.competitions_done, olympiad_nobles_eom.competitions_won FROM olympiad_nobles_eom, characters WHERE characters.charId = olympiad_nobles_eom.charId";
 	
 	private static final String OLYMPIAD_DELETE_ALL = "TRUNCATE olympiad_nobles";
 	private static final String OLYMPIAD_MONTH_CLEAR = "TRUNCATE olympiad_nobles_eom";
@@ -142,6 +144,11 @@ public class Olympiad extends ListenersContainer {
 	public static final String COMP_DONE_WEEK_NON_CLASSED = "competitions_done_week_non_classed";
 	public static final String COMP_DONE_WEEK_TEAM = "competitions_done_week_team";
 	
+	/** Olympiad ranking order: points, then competitions done, then competitions won, all descending. */
+	private static final Comparator<StatsSet> RANKING_ORDER = Comparator.<StatsSet> comparingInt(s -> s.getInt(POINTS)).thenComparingInt(s -> s.getInt(COMP_DONE)).thenComparingInt(s -> s.getInt(COMP_WON)).reversed();
+	
+	private static final int CLASS_LEADERS_LIMIT = 10;
+	
 	protected long _olympiadEnd;
 	protected long _validationEnd;
 	
@@ -176,6 +183,7 @@ public class Olympiad extends ListenersContainer {
 	
 	private void load() {
 		NOBLES.clear();
+		NOBLES_BY_CLASS.clear();
 		boolean loaded = false;
 		try (var con = ConnectionFactory.getInstance().getConnection();
 			var s = con.createStatement();
@@ -204,6 +212,8 @@ public class Olympiad extends ListenersContainer {
 			}
 		}
 		
+		loadMonthlyData();
+		
 		switch (_period) {
 			case 0:
 				if ((_olympiadEnd == 0) || (_olympiadEnd < Calendar.getInstance().getTimeInMillis())) {
@@ -281,18 +291,57 @@ public class Olympiad extends ListenersContainer {
 		
 	}
 	
-	public void loadNoblesRank() {
-		NOBLES_RANK.clear();
-		Map<Integer, Integer> tmpPlace = new HashMap<>();
+	/**
+	 * Loads the end of month nobles snapshot from the database.
+	 */
+	private void loadMonthlyData() {
+		final Map<Integer, StatsSet> monthlyNobles = new HashMap<>();
 		try (var con = ConnectionFactory.getInstance().getConnection();
 			var s = con.createStatement();
-			var rs = s.executeQuery(GET_ALL_CLASSIFIED_NOBLESS)) {
-			int place = 1;
+			var rs = s.executeQuery(OLYMPIAD_LOAD_MONTHLY_NOBLES)) {
 			while (rs.next()) {
-				tmpPlace.put(rs.getInt(CHAR_ID), place++);
+				final StatsSet statData = new StatsSet();
+				statData.set(CHAR_ID, rs.getInt(CHAR_ID));
+				statData.set(CLASS_ID, rs.getInt(CLASS_ID));
+				statData.set(CHAR_NAME, rs.getString(CHAR_NAME));
+				statData.set(POINTS, rs.getInt(POINTS));
+				statData.set(COMP_DONE, rs.getInt(COMP_DONE));
+				statData.set(COMP_WON, rs.getInt(COMP_WON));
+				monthlyNobles.put(statData.getInt(CHAR_ID), statData);
 			}
 		} catch (Exception e) {
-			_log.log(Level.WARNING, "Error loading noblesse data from database for Ranking: ", e);
+			_log.log(Level.WARNING, "Error loading monthly noblesse data from database: ", e);
+		}
+		setMonthlyData(monthlyNobles);
+	}
+	
+	/**
+	 * Replaces the end of month nobles snapshot and its per class ranking.
+	 * @param monthlyNobles the end of month nobles, by object Id
+	 */
+	private static void setMonthlyData(Map<Integer, StatsSet> monthlyNobles) {
+		final Map<Integer, List<StatsSet>> monthlyRanking = new HashMap<>();
+		for (StatsSet noble : monthlyNobles.values()) {
+			if (noble.getInt(COMP_DONE) >= olympiad().getMinMatchesForPoints()) {
+				monthlyRanking.computeIfAbsent(noble.getInt(CLASS_ID), k -> new ArrayList<>()).add(noble);
+			}
+		}
+		monthlyRanking.values().forEach(ranking -> ranking.sort(RANKING_ORDER));
+		
+		MONTHLY_NOBLES = monthlyNobles;
+		MONTHLY_RANKING = monthlyRanking;
+	}
+	
+	public void loadNoblesRank() {
+		NOBLES_RANK.clear();
+		final List<StatsSet> classified = new ArrayList<>();
+		MONTHLY_RANKING.values().forEach(classified::addAll);
+		classified.sort(RANKING_ORDER);
+		
+		Map<Integer, Integer> tmpPlace = new HashMap<>();
+		int place = 1;
+		for (StatsSet noble : classified) {
+			tmpPlace.put(noble.getInt(CHAR_ID), place++);
 		}
 		
 		int rank1 = (int) Math.round(tmpPlace.size() * 0.01);
@@ -348,6 +397,7 @@ public class Olympiad extends ListenersContainer {
 		
 		@Override
 		public void run() {
+			final long start = System.currentTimeMillis();
 			SystemMessage sm = SystemMessage.getSystemMessage(SystemMessageId.OLYMPIAD_PERIOD_S1_HAS_ENDED);
 			sm.addInt(_currentCycle);
 			
@@ -373,6 +423,7 @@ public class Olympiad extends ListenersContainer {
 			
 			loadNoblesRank();
 			_scheduledValidationTask = ThreadPoolManager.getInstance().scheduleGeneral(new ValidationEndTask(), getMillisToValidationEnd());
+			_log.info("Olympiad period " + _currentCycle + " end processed in " + (System.currentTimeMillis() - start) + " ms.");
 		}
 	}
 	
@@ -725,6 +776,19 @@ public class Olympiad extends ListenersContainer {
 		} catch (Exception e) {
 			_log.log(Level.SEVERE, "Failed to update monthly noblesse data: ", e);
 		}
+		
+		final Map<Integer, StatsSet> monthlyNobles = new HashMap<>();
+		for (StatsSet nobleInfo : NOBLES.values()) {
+			final StatsSet statData = new StatsSet();
+			statData.set(CHAR_ID, nobleInfo.getInt(CHAR_ID));
+			statData.set(CLASS_ID, nobleInfo.getInt(CLASS_ID));
+			statData.set(CHAR_NAME, nobleInfo.getString(CHAR_NAME));
+			statData.set(POINTS, nobleInfo.getInt(POINTS));
+			statData.set(COMP_DONE, nobleInfo.getInt(COMP_DONE));
+			statData.set(COMP_WON, nobleInfo.getInt(COMP_WON));
+			monthlyNobles.put(statData.getInt(CHAR_ID), statData);
+		}
+		setMonthlyData(monthlyNobles);
 	}
 	
 	protected void sortHeroesToBe() {
@@ -741,30 +805,24 @@ public class Olympiad extends ListenersContainer {
 			LOG_OLYMPIAD.info("{}, {}, {}, {}, {}", nobleInfo.getString(CHAR_NAME), entry.getKey(), nobleInfo.getInt(CLASS_ID), nobleInfo.getInt(COMP_DONE), nobleInfo.getInt(POINTS));
 		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement(OLYMPIAD_GET_HEROES)) {
+		try {
 			StatsSet hero;
 			List<StatsSet> soulHounds = new ArrayList<>();
 			for (int element : HERO_IDS) {
-				ps.setInt(1, element);
-				
-				try (var rs = ps.executeQuery()) {
-					if (rs.next()) {
-						hero = new StatsSet();
-						hero.set(CLASS_ID, element);
-						hero.set(CHAR_ID, rs.getInt(CHAR_ID));
-						hero.set(CHAR_NAME, rs.getString(CHAR_NAME));
+				final StatsSet leader = getClassLeader(element);
+				if (leader != null) {
+					hero = new StatsSet();
+					hero.set(CLASS_ID, element);
+					hero.set(CHAR_ID, leader.getInt(CHAR_ID));
+					hero.set(CHAR_NAME, leader.getString(CHAR_NAME));
+					
+					if ((element == 132) || (element == 133)) // Male & Female Soulhounds rank as one hero class
+					{
+						soulHounds.add(leader);
+					} else {
+						LOG_OLYMPIAD.info("Hero {} {} {}", hero.getString(CHAR_NAME), hero.getInt(CHAR_ID), hero.getInt(CLASS_ID));
 						
-						if ((element == 132) || (element == 133)) // Male & Female Soulhounds rank as one hero class
-						{
-							hero = NOBLES.get(hero.getInt(CHAR_ID));
-							hero.set(CHAR_ID, rs.getInt(CHAR_ID));
-							soulHounds.add(hero);
-						} else {
-							LOG_OLYMPIAD.info("Hero {} {} {}", hero.getString(CHAR_NAME), hero.getInt(CHAR_ID), hero.getInt(CLASS_ID));
-							
-							HEROES_TO_BE.add(hero);
-						}
+						HEROES_TO_BE.add(hero);
 					}
 				}
 			}
@@ -821,23 +879,77 @@ public class Olympiad extends ListenersContainer {
 				}
 			}
 		} catch (Exception e) {
-			_log.warning("Couldn't load heroes from DB");
+			_log.log(Level.WARNING, "Couldn't compute heroes!", e);
+		}
+	}
+	
+	/**
+	 * Gets the best ranked noble of the given class that can become hero.
+	 * @param classId the class Id
+	 * @return the noble stats, {@code null} if no noble qualifies
+	 */
+	private static StatsSet getClassLeader(int classId) {
+		StatsSet leader = null;
+		for (StatsSet noble : getNobles(classId)) {
+			if ((noble.getInt(COMP_DONE) >= olympiad().getMinMatchesForPoints()) && (noble.getInt(COMP_WON) > 0)) {
+				if ((leader == null) || (RANKING_ORDER.compare(noble, leader) < 0)) {
+					leader = noble;
+				}
+			}
+		}
+		return leader;
+	}
+	
+	/**
+	 * @param classId the class Id
+	 * @return the current stats of the nobles of the given class
+	 */
+	private static List<StatsSet> getNobles(int classId) {
+		final Set<Integer> charIds = NOBLES_BY_CLASS.get(classId);
+		if (charIds == null) {
+			return Collections.emptyList();
+		}
+		
+		final List<StatsSet> nobles = new ArrayList<>(charIds.size());
+		for (int charId : charIds) {
+			final StatsSet noble = NOBLES.get(charId);
+			if (noble != null) {
+				nobles.add(noble);
+			}
 		}
+		return nobles;
 	}
 	
 	public List<String> getClassLeaderBoard(int classId) {
-		final List<String> names = new ArrayList<>();
-		String query = olympiad().showMonthlyWinners() ? ((classId == 132) ? GET_EACH_CLASS_LEADER_SOULHOUND : GET_EACH_CLASS_LEADER) : ((classId == 132) ? GET_EACH_CLASS_LEADER_CURRENT_SOULHOUND : GET_EACH_CLASS_LEADER_CURRENT);
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement(query)) {
-			ps.setInt(1, classId);
-			try (var rs = ps.executeQuery()) {
-				while (rs.next()) {
-					names.add(rs.getString(CHAR_NAME));
+		final List<StatsSet> ranking = new ArrayList<>();
+		if (olympiad().showMonthlyWinners()) {
+			final Map<Integer, List<StatsSet>> monthlyRanking = MONTHLY_RANKING;
+			ranking.addAll(monthlyRanking.getOrDefault(classId, Collections.emptyList()));
+			if (classId == 132) {
+				ranking.addAll(monthlyRanking.getOrDefault(133, Collections.emptyList()));
+			}
+		} else {
+			for (StatsSet noble : getNobles(classId)) {
+				if (noble.getInt(COMP_DONE) >= olympiad().getMinMatchesForPoints()) {
+					ranking.add(noble);
 				}
 			}
-		} catch (Exception e) {
-			_log.warning("Couldn't load olympiad leaders from DB!");
+			if (classId == 132) {
+				for (StatsSet noble : getNobles(133)) {
+					if (noble.getInt(COMP_DONE) >= olympiad().getMinMatchesForPoints()) {
+						ranking.add(noble);
+					}
+				}
+			}
+		}
+		ranking.sort(RANKING_ORDER);
+		
+		final List<String> names = new ArrayList<>(Math.min(ranking.size(), CLASS_LEADERS_LIMIT));
+		for (StatsSet noble : ranking) {
+			if (names.size() >= CLASS_LEADERS_LIMIT) {
+				break;
+			}
+			names.add(noble.getString(CHAR_NAME));
 		}
 		return names;
 	}
@@ -882,19 +994,8 @@ public class Olympiad extends ListenersContainer {
 	}
 	
 	public int getLastNobleOlympiadPoints(int objId) {
-		int result = 0;
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var ps = con.prepareStatement("SELECT olympiad_points FROM olympiad_nobles_eom WHERE charId = ?")) {
-			ps.setInt(1, objId);
-			try (var rs = ps.executeQuery()) {
-				if (rs.next()) {
-					result = rs.getInt(1);
-				}
-			}
-		} catch (Exception e) {
-			_log.log(Level.WARNING, "Could not load last olympiad points:", e);
-		}
-		return result;
+		final StatsSet noble = MONTHLY_NOBLES.get(objId);
+		return noble != null ? noble.getInt(POINTS) : 0;
 	}
 	
 	public int getCompetitionDone(int objId) {
@@ -1010,6 +1111,7 @@ public class Olympiad extends ListenersContainer {
 			_log.warning("Couldn't delete nobles from DB!");
 		}
 		NOBLES.clear();
+		NOBLES_BY_CLASS.clear();
 	}
 	
 	/**
@@ -1018,7 +1120,16 @@ public class Olympiad extends ListenersContainer {
 	 * @return the old stats set if the noble is already present, null otherwise.
 	 */
 	protected static StatsSet addNobleStats(int charId, StatsSet data) {
-		return NOBLES.put(charId, data);
+		data.set(CHAR_ID, charId);
+		final StatsSet oldData = NOBLES.put(charId, data);
+		if ((oldData != null) && (oldData.getInt(CLASS_ID) != data.getInt(CLASS_ID))) {
+			final Set<Integer> charIds = NOBLES_BY_CLASS.get(oldData.getInt(CLASS_ID));
+			if (charIds != null) {
+				charIds.remove(charId);
+			}
+		}
+		NOBLES_BY_CLASS.computeIfAbsent(data.getInt(CLASS_ID), k -> ConcurrentHashMap.newKeySet()).add(charId);
+		return oldData;
 	}
 	
 	public static Olympiad getInstance() {
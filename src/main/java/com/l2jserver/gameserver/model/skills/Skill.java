@@ -61,6 +61,7 @@ import com.l2jserver.gameserver.model.holders.ItemHolder;
 import com.l2jserver.gameserver.model.interfaces.IIdentifiable;
 import com.l2jserver.gameserver.model.skills.targets.AffectObject;
 import com.l2jserver.gameserver.model.skills.targets.AffectScope;
+import com.l2jserver.gameserver.model.skills.targets.TargetBuffer;
 import com.l2jserver.gameserver.model.skills.targets.TargetType;
 import com.l2jserver.gameserver.model.stats.BaseStats;
 import com.l2jserver.gameserver.model.stats.Formulas;
@@ -855,6 +856,38 @@ public final class Skill implements IIdentifiable {
 		return getTargetList(activeChar, false);
 	}
 	
+	/**
+	 * Gets the targets of this skill in the calling thread's {@link TargetBuffer}.<br>
+	 * The buffer is reused by the next call on the same thread.
+	 * @param activeChar the caster
+	 * @param onlyFirst if {@code true} only the first target is needed
+	 * @param target the selected target
+	 * @return the target buffer
+	 */
+	public TargetBuffer getTargetBuffer(L2Character activeChar, boolean onlyFirst, L2Character target) {
+		final ITargetTypeHandler handler = TargetHandler.getInstance().getHandler(getTargetType());
+		if (handler != null) {
+			try {
+				return TargetBuffer.collect(targets -> handler.getTargetList(this, activeChar, onlyFirst, target, targets));
+			} catch (Exception e) {
+				_log.log(Level.WARNING, "Exception in L2Skill.getTargetBuffer(): " + e.getMessage(), e);
+			}
+		}
+		activeChar.sendMessage("Target type of skill is not currently handled.");
+		return TargetBuffer.get();
+	}
+	
+	/**
+	 * Gets the targets affected by this skill's affect scope in the calling thread's {@link TargetBuffer}.<br>
+	 * The buffer is reused by the next call on the same thread.
+	 * @param caster the caster
+	 * @param target the selected target
+	 * @return the target buffer
+	 */
+	public TargetBuffer getAffectTargets(L2Character caster, L2Character target) {
+		return TargetBuffer.collect(targets -> getAffectScope().affectTargets(caster, target, this, targets));
+	}
+	
 	public L2Object getFirstOfTargetList(L2Character activeChar) {
 		L2Object[] targets = getTargetList(activeChar, true);
 		if (targets.length == 0) {
@@ -21,6 +21,7 @@ package com.l2jserver.gameserver.model.skills.targets;
 import static java.util.Comparator.comparingDouble;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -31,6 +32,7 @@ import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.actor.L2Character;
 import com.l2jserver.gameserver.model.actor.L2Npc;
 import com.l2jserver.gameserver.model.skills.Skill;
+import com.l2jserver.gameserver.util.Util;
 
 /**
  * Affect Scope.
@@ -89,6 +91,48 @@ public enum AffectScope {
 			}
 			return targets;
 		}
+		
+		@Override
+		public void affectTargets(L2Character caster, L2Character target, Skill skill, TargetBuffer targets) {
+			if (!caster.isPlayable()) {
+				return;
+			}
+			
+			final var clanId = caster.getActingPlayer().getClanId();
+			if ((clanId == 0) || (target == null) || !target.isVisible()) {
+				return;
+			}
+			
+			final var affectLimit = skill.getAffectLimit();
+			final var affectObject = skill.getAffectObject();
+			final var sqRadius = skill.getAffectRange() * skill.getAffectRange();
+			for (var region : target.getWorldRegion().getSurroundingRegions()) {
+				for (var object : region.getVisibleObjects().values()) {
+					if (targets.isFull(affectLimit)) {
+						return;
+					}
+					
+					if ((object == null) || !object.isPlayable() || object.equals(target)) {
+						continue;
+					}
+					
+					final var targetPlayer = object.getActingPlayer();
+					if ((targetPlayer == null) || (clanId != targetPlayer.getClanId())) {
+						continue;
+					}
+					
+					if (sqRadius <= target.calculateDistance(object, false, true)) {
+						continue;
+					}
+					
+					if (!affectObject.affectObject(caster, targetPlayer)) {
+						continue;
+					}
+					
+					targets.add(targetPlayer);
+				}
+			}
+		}
 	},
 	/** Affects fan area. */
 	FAN {
@@ -104,6 +148,11 @@ public enum AffectScope {
 		public List<L2Object> affectTargets(L2Character caster, L2Character target, Skill skill) {
 			return List.of();
 		}
+		
+		@Override
+		public void affectTargets(L2Character caster, L2Character target, Skill skill, TargetBuffer targets) {
+			// Affects nothing.
+		}
 	},
 	/** Affects party members. */
 	PARTY {
@@ -226,6 +275,29 @@ public enum AffectScope {
 				.limit(affectLimit > 0 ? affectLimit : Integer.MAX_VALUE) //
 				.collect(Collectors.toList());
 		}
+		
+		@Override
+		public void affectTargets(L2Character caster, L2Character target, Skill skill, TargetBuffer targets) {
+			final var affectLimit = skill.getAffectLimit();
+			final var affectObject = skill.getAffectObject();
+			final var affectRange = skill.getAffectRange();
+			for (var object : caster.getKnownList().getKnownObjects().values()) {
+				if (targets.isFull(affectLimit)) {
+					return;
+				}
+				
+				if (!object.isCharacter()) {
+					continue;
+				}
+				
+				final var creature = (L2Character) object;
+				if (!Util.checkIfInRange(affectRange, caster, creature, true) || !affectObject.affectObject(caster, creature)) {
+					continue;
+				}
+				
+				targets.add(creature);
+			}
+		}
 	},
 	/** Affects ranged targets, using selected target as point of origin. */
 	RANGE {
@@ -240,6 +312,31 @@ public enum AffectScope {
 				.limit(affectLimit > 0 ? affectLimit : Integer.MAX_VALUE) //
 				.collect(Collectors.toList());
 		}
+		
+		@Override
+		public void affectTargets(L2Character caster, L2Character target, Skill skill, TargetBuffer targets) {
+			if ((target == null) || !target.isVisible()) {
+				return;
+			}
+			
+			final var affectLimit = skill.getAffectLimit();
+			final var sqRadius = skill.getAffectRange() * skill.getAffectRange();
+			for (var region : target.getWorldRegion().getSurroundingRegions()) {
+				for (var object : region.getVisibleObjects().values()) {
+					if (targets.isFull(affectLimit)) {
+						return;
+					}
+					
+					if ((object == null) || !object.isCharacter() || object.equals(target) || ((L2Character) object).isDead()) {
+						continue;
+					}
+					
+					if (sqRadius > target.calculateDistance(object, false, true)) {
+						targets.add(object);
+					}
+				}
+			}
+		}
 	},
 	/** Affects ranged targets sorted by HP, using selected target as point of origin. */
 	RANGE_SORT_BY_HP {
@@ -255,6 +352,34 @@ public enum AffectScope {
 				.limit(affectLimit > 0 ? affectLimit : Integer.MAX_VALUE) //
 				.collect(Collectors.toList());
 		}
+		
+		@Override
+		public void affectTargets(L2Character caster, L2Character target, Skill skill, TargetBuffer targets) {
+			final var affectLimit = skill.getAffectLimit();
+			if (targets.isFull(affectLimit)) {
+				return;
+			}
+			
+			final var sqRadius = skill.getAffectRange() * skill.getAffectRange();
+			final var start = targets.size();
+			for (var region : target.getWorldRegion().getSurroundingRegions()) {
+				for (var object : region.getVisibleObjects().values()) {
+					if ((object == null) || !object.isCharacter() || object.equals(caster) || ((L2Character) object).isDead()) {
+						continue;
+					}
+					
+					if (sqRadius > target.calculateDistance(object, false, true)) {
+						targets.add(object);
+					}
+				}
+			}
+			
+			// Only the added targets are sorted, the limit keeps the ones already in the buffer.
+			targets.sort(start, HP_RATIO);
+			if (affectLimit > 0) {
+				targets.truncate(affectLimit);
+			}
+		}
 	},
 	/** Affects ranged targets, using selected target as point of origin. */
 	RING_RANGE {
@@ -273,6 +398,13 @@ public enum AffectScope {
 			}
 			return List.of(target);
 		}
+		
+		@Override
+		public void affectTargets(L2Character caster, L2Character target, Skill skill, TargetBuffer targets) {
+			if (skill.getAffectObject().affectObject(caster, target)) {
+				targets.add(target);
+			}
+		}
 	},
 	/** Affects targets inside an square area, using selected target as point of origin. */
 	SQUARE {
@@ -307,5 +439,26 @@ public enum AffectScope {
 		}
 	};
 	
+	private static final Comparator<L2Character> HP_RATIO = comparingDouble(c -> c.getCurrentHp() / c.getMaxHp());
+	
 	public abstract List<L2Object> affectTargets(L2Character caster, L2Character target, Skill skill);
+	
+	/**
+	 * Adds the affected targets to a buffer, without building intermediate collections.<br>
+	 * The affect limit counts the targets already in the buffer.<br>
+	 * Scopes without a dedicated implementation add the result of {@link #affectTargets(L2Character, L2Character, Skill)}.
+	 * @param caster the caster
+	 * @param target the target
+	 * @param skill the skill
+	 * @param targets the target buffer
+	 */
+	public void affectTargets(L2Character caster, L2Character target, Skill skill, TargetBuffer targets) {
+		final var affectLimit = skill.getAffectLimit();
+		for (var object : affectTargets(caster, target, skill)) {
+			if (targets.isFull(affectLimit)) {
+				return;
+			}
+			targets.add(object);
+		}
+	}
 }
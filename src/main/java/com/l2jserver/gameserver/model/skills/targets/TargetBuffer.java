@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.skills.targets;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Consumer;
+
+import com.l2jserver.gameserver.model.L2Object;
+
+/**
+ * Reusable, thread-confined target buffer.<br>
+ * {@link #get()} hands out the calling thread's buffer emptied, so it must be fully consumed before the same thread asks for it again.<br>
+ * While targets are collected with {@link #collect(Consumer)}, nested calls get a new buffer instead, so they do not overwrite the targets collected so far.<br>
+ * Use {@link #toArray()} to keep the targets beyond that point.
+ */
+public final class TargetBuffer {
+	
+	private static final int INITIAL_CAPACITY = 32;
+	
+	private static final ThreadLocal<TargetBuffer> BUFFERS = ThreadLocal.withInitial(TargetBuffer::new);
+	
+	private L2Object[] _targets = new L2Object[INITIAL_CAPACITY];
+	
+	private int _size;
+	
+	private boolean _collecting;
+	
+	/**
+	 * Gets the calling thread's buffer, emptied.<br>
+	 * Gets a new buffer if the calling thread's buffer is being collected.
+	 * @return the target buffer
+	 */
+	public static TargetBuffer get() {
+		final TargetBuffer buffer = BUFFERS.get();
+		if (buffer._collecting) {
+			return new TargetBuffer();
+		}
+		buffer.clear();
+		return buffer;
+	}
+	
+	/**
+	 * Gets the calling thread's buffer, emptied, and collects the targets in it.
+	 * @param collector the collector adding the targets
+	 * @return the target buffer
+	 */
+	public static TargetBuffer collect(Consumer<TargetBuffer> collector) {
+		final TargetBuffer buffer = get();
+		buffer._collecting = true;
+		try {
+			collector.accept(buffer);
+		} finally {
+			buffer._collecting = false;
+		}
+		return buffer;
+	}
+	
+	public void add(L2Object target) {
+		if (_size == _targets.length) {
+			_targets = Arrays.copyOf(_targets, _size * 2);
+		}
+		_targets[_size++] = target;
+	}
+	
+	public L2Object get(int index) {
+		if (index >= _size) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		return _targets[index];
+	}
+	
+	public int size() {
+		return _size;
+	}
+	
+	public boolean isEmpty() {
+		return _size == 0;
+	}
+	
+	/**
+	 * Checks if the buffer reached an affect limit.
+	 * @param affectLimit the affect limit, zero or less means no limit
+	 * @return {@code true} if no more targets should be added, {@code false} otherwise
+	 */
+	public boolean isFull(int affectLimit) {
+		return (affectLimit > 0) && (_size >= affectLimit);
+	}
+	
+	public boolean contains(L2Object target) {
+		for (int i = 0; i < _size; i++) {
+			if (_targets[i] == target) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Sorts the targets added from the given index on.
+	 * @param from the first index to sort
+	 * @param comparator the comparator
+	 */
+	@SuppressWarnings("unchecked")
+	<T extends L2Object> void sort(int from, Comparator<? super T> comparator) {
+		Arrays.sort((T[]) _targets, from, _size, comparator);
+	}
+	
+	/**
+	 * Drops the targets after the given size.
+	 * @param size the size to keep
+	 */
+	void truncate(int size) {
+		if (size < _size) {
+			Arrays.fill(_targets, size, _size, null);
+			_size = size;
+		}
+	}
+	
+	/**
+	 * Removes all targets, releasing their references.
+	 */
+	public void clear() {
+		Arrays.fill(_targets, 0, _size, null);
+		_size = 0;
+	}
+	
+	/**
+	 * @return a copy of the targets
+	 */
+	public L2Object[] toArray() {
+		return Arrays.copyOf(_targets, _size);
+	}
+}
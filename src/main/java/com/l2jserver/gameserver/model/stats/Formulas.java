@@ -809,6 +809,24 @@ public final class Formulas {
 	}
 	
 	public static double calcMagicDam(L2Character attacker, L2Character target, Skill skill, byte shld, double shieldDefensePercentage, boolean sps, boolean bss, boolean mcrit, double power) {
+		return calcMagicDam(attacker, target, skill, shld, shieldDefensePercentage, sps, bss, mcrit, power, character().magicFailures() && !calcMagicSuccess(attacker, target, skill));
+	}
+	
+	/**
+	 * Calculates magic damage with the magic failure already decided, so callers can roll it from their own generator.
+	 * @param attacker the attacker
+	 * @param target the target
+	 * @param skill the skill
+	 * @param shld the shield defense result
+	 * @param shieldDefensePercentage the shield defense percentage
+	 * @param sps if {@code true} a spiritshot is used
+	 * @param bss if {@code true} a blessed spiritshot is used
+	 * @param mcrit if {@code true} the attack is a magic critical hit
+	 * @param power the skill power
+	 * @param failed if {@code true} the magic failed
+	 * @return the damage
+	 */
+	static double calcMagicDam(L2Character attacker, L2Character target, Skill skill, byte shld, double shieldDefensePercentage, boolean sps, boolean bss, boolean mcrit, double power, boolean failed) {
 		double mDef = target.getMDef(attacker, skill);
 		switch (shld) {
 			case SHIELD_DEFENSE_SUCCEED -> {
@@ -841,7 +859,7 @@ public final class Formulas {
 		double damage = ((91 * Math.sqrt(mAtk)) / mDef) * power;
 		
 		// Failure calculation
-		if (character().magicFailures() && !calcMagicSuccess(attacker, target, skill)) {
+		if (failed) {
 			if (attacker.isPlayer()) {
 				if (calcMagicSuccess(attacker, target, skill) && ((target.getLevel() - attacker.getLevel()) <= 9)) {
 					if (skill.hasEffectType(L2EffectType.HP_DRAIN)) {
@@ -961,8 +979,18 @@ public final class Formulas {
 	 * @return
 	 */
 	public static boolean calcCrit(L2Character attacker, L2Character target) {
+		return calcCritRate(attacker, target) > Rnd.get(1000);
+	}
+	
+	/**
+	 * Calculates the critical hit rate of a normal attack.
+	 * @param attacker the attacker
+	 * @param target the target
+	 * @return the critical hit rate, out of 1000
+	 */
+	public static double calcCritRate(L2Character attacker, L2Character target) {
 		double rate = attacker.getStat().calcStat(Stats.CRITICAL_RATE_POS, attacker.getStat().getCriticalHit(target, null));
-		return (target.getStat().calcStat(Stats.DEFENCE_CRITICAL_RATE, rate, null, null) + target.getStat().calcStat(Stats.DEFENCE_CRITICAL_RATE_ADD, 0, null, null)) > Rnd.get(1000);
+		return target.getStat().calcStat(Stats.DEFENCE_CRITICAL_RATE, rate, null, null) + target.getStat().calcStat(Stats.DEFENCE_CRITICAL_RATE_ADD, 0, null, null);
 	}
 	
 	/**
@@ -973,7 +1001,17 @@ public final class Formulas {
 	 * @return
 	 */
 	public static boolean calcSkillCrit(L2Character attacker, L2Character target, int criticalChance) {
-		return (BaseStats.STR.calcBonus(attacker) * criticalChance) > (Rnd.nextDouble() * 100);
+		return calcSkillCritRate(attacker, criticalChance) > (Rnd.nextDouble() * 100);
+	}
+	
+	/**
+	 * Calculates the critical hit rate of a physical skill.
+	 * @param attacker the attacker
+	 * @param criticalChance the skill critical chance
+	 * @return the critical hit rate, out of 100
+	 */
+	public static double calcSkillCritRate(L2Character attacker, int criticalChance) {
+		return BaseStats.STR.calcBonus(attacker) * criticalChance;
 	}
 	
 	public static boolean calcMCrit(double mRate) {
@@ -1048,15 +1086,24 @@ public final class Formulas {
 	 * @return {@code true} if hit missed (target evaded), {@code false} otherwise.
 	 */
 	public static boolean calcHitMiss(L2Character attacker, L2Character target) {
-		int chance = (80 + (2 * (attacker.getAccuracy() - target.getEvasionRate(attacker)))) * 10;
-		
 		// Get additional bonus from the conditions when you are attacking
-		chance *= HitConditionBonusData.getInstance().getConditionBonus(attacker, target);
-		
+		final double conditionBonus = HitConditionBonusData.getInstance().getConditionBonus(attacker, target);
+		return calcHitChance(attacker.getAccuracy(), target.getEvasionRate(attacker), conditionBonus) < Rnd.get(1000);
+	}
+	
+	/**
+	 * Calculates the chance of a normal attack to hit.
+	 * @param accuracy the attacker accuracy
+	 * @param evasion the target evasion
+	 * @param conditionBonus the hit condition bonus
+	 * @return the hit chance, out of 1000
+	 */
+	public static int calcHitChance(int accuracy, int evasion, double conditionBonus) {
+		int chance = (80 + (2 * (accuracy - evasion))) * 10;
+		chance *= conditionBonus;
 		chance = Math.max(chance, 200);
 		chance = Math.min(chance, 980);
-		
-		return chance < Rnd.get(1000);
+		return chance;
 	}
 	
 	/**
@@ -1280,6 +1327,17 @@ public final class Formulas {
 	}
 	
 	public static boolean calcMagicSuccess(L2Character attacker, L2Character target, Skill skill) {
+		return Rnd.get(100) < calcMagicSuccessRate(attacker, target, skill);
+	}
+	
+	/**
+	 * Calculates the magic success rate.
+	 * @param attacker the attacker
+	 * @param target the target
+	 * @param skill the skill
+	 * @return the magic success rate, out of 100
+	 */
+	public static int calcMagicSuccessRate(L2Character attacker, L2Character target, Skill skill) {
 		// FIXME: Fix this LevelMod Formula.
 		int lvlDifference = (target.getLevel() - (skill.getMagicLevel() > 0 ? skill.getMagicLevel() : attacker.getLevel()));
 		double lvlModifier = Math.pow(1.3, lvlDifference);
@@ -1306,7 +1364,7 @@ public final class Formulas {
 			Debug.sendSkillDebug(attacker, target, skill, set);
 		}
 		
-		return (Rnd.get(100) < rate);
+		return rate;
 	}
 	
 	public static double calcManaDam(L2Character attacker, L2Character target, Skill skill, byte shld, boolean sps, boolean bss, boolean mcrit, double power) {
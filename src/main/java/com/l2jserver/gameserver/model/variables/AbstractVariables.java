@@ -18,8 +18,15 @@
  */
 package com.l2jserver.gameserver.model.variables;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.model.StatsSet;
 import com.l2jserver.gameserver.model.interfaces.IRestorable;
 import com.l2jserver.gameserver.model.interfaces.IStorable;
@@ -28,46 +35,83 @@ import com.l2jserver.gameserver.model.interfaces.IStorable;
  * @author UnAfraid
  */
 public abstract class AbstractVariables extends StatsSet implements IRestorable, IStorable {
+	private static final LongAdder ROWS_WRITTEN = new LongAdder();
+	private static final LongAdder ROWS_UNCHANGED = new LongAdder();
+	
 	private final AtomicBoolean _hasChanges = new AtomicBoolean(false);
+	/** Variables set to a different value or removed since last load/save. */
+	private final Set<String> _changedKeys = ConcurrentHashMap.newKeySet();
 	
 	/**
-	 * Overriding following methods to prevent from doing useless database operations if there is no changes since player's login.
+	 * Overriding every setter, so each changed variable is recorded, to prevent from doing useless database operations if there is no changes since player's login.
 	 */
 	
 	@Override
 	public final void set(String name, boolean value) {
-		_hasChanges.compareAndSet(false, true);
-		super.set(name, value);
+		setVariable(name, value);
+	}
+	
+	@Override
+	public final void set(String name, byte value) {
+		setVariable(name, value);
 	}
 	
 	@Override
 	public final void set(String name, double value) {
-		_hasChanges.compareAndSet(false, true);
-		super.set(name, value);
+		setVariable(name, value);
 	}
 	
 	@Override
 	public final void set(String name, Enum<?> value) {
-		_hasChanges.compareAndSet(false, true);
-		super.set(name, value);
+		setVariable(name, value);
+	}
+	
+	@Override
+	public final void set(String name, float value) {
+		setVariable(name, value);
 	}
 	
 	@Override
 	public final void set(String name, int value) {
-		_hasChanges.compareAndSet(false, true);
-		super.set(name, value);
+		setVariable(name, value);
 	}
 	
 	@Override
 	public final void set(String name, long value) {
-		_hasChanges.compareAndSet(false, true);
-		super.set(name, value);
+		setVariable(name, value);
+	}
+	
+	@Override
+	public final void set(String name, Object value) {
+		setVariable(name, value);
+	}
+	
+	@Override
+	public final void set(String name, short value) {
+		setVariable(name, value);
 	}
 	
 	@Override
 	public final void set(String name, String value) {
+		setVariable(name, value);
+	}
+	
+	@Override
+	public final void add(StatsSet newSet) {
+		newSet.getSet().forEach(this::setVariable);
+	}
+	
+	private void setVariable(String name, Object value) {
+		final Object oldValue = getSet().put(name, value);
+		// Variables are stored as strings
+		if ((oldValue == null) || !String.valueOf(oldValue).equals(String.valueOf(value))) {
+			setChanged(name);
+		}
+	}
+	
+	private void setChanged(String name) {
+		_changedKeys.add(name);
 		_hasChanges.compareAndSet(false, true);
-		super.set(name, value);
 	}
 	
 	/**
@@ -87,13 +131,75 @@ public abstract class AbstractVariables extends StatsSet implements IRestorable,
 	}
 	
 	/**
-	 * Atomically sets the value to the given updated value if the current value {@code ==} the expected value.
+	 * Atomically sets the value to the given updated value if the current value {@code ==} the expected value.<br>
+	 * Clearing the changes also forgets the changed variables.
 	 * @param expect
 	 * @param update
 	 * @return {@code true} if successful. {@code false} return indicates that the actual value was not equal to the expected value.
 	 */
 	public final boolean compareAndSetChanges(boolean expect, boolean update) {
-		return _hasChanges.compareAndSet(expect, update);
+		final boolean result = _hasChanges.compareAndSet(expect, update);
+		if (result && !update) {
+			_changedKeys.clear();
+		}
+		return result;
+	}
+	
+	/**
+	 * Takes the variables changed since last load/save, to be stored.
+	 * @return the names of the changed variables, removed variables included
+	 */
+	protected final Set<String> takeChanges() {
+		_hasChanges.set(false);
+		final Set<String> changes = new HashSet<>();
+		for (Iterator<String> it = _changedKeys.iterator(); it.hasNext();) {
+			changes.add(it.next());
+			it.remove();
+		}
+		return changes;
+	}
+	
+	/**
+	 * Gives back variables that could not be stored, to be stored on next save.
+	 * @param changes the names of the changed variables
+	 */
+	protected final void restoreChanges(Collection<String> changes) {
+		changes.forEach(this::setChanged);
+	}
+	
+	/**
+	 * Gives back stored variables if the unit of work they were stored in is rolled back later on.
+	 * @param changes the names of the changed variables
+	 */
+	protected final void restoreChangesOnRollback(Collection<String> changes) {
+		final UnitOfWork uow = UnitOfWork.current();
+		if (uow != null) {
+			uow.onRollback(() -> restoreChanges(changes));
+		}
+	}
+	
+	/**
+	 * Counts the rows of a store.
+	 * @param written the rows written or deleted
+	 * @param unchanged the rows left as they were
+	 */
+	protected static void countRows(int written, int unchanged) {
+		ROWS_WRITTEN.add(written);
+		ROWS_UNCHANGED.add(unchanged);
+	}
+	
+	/**
+	 * @return the number of variable rows written or deleted by stores
+	 */
+	public static long getRowsWritten() {
+		return ROWS_WRITTEN.sum();
+	}
+	
+	/**
+	 * @return the number of variable rows left unchanged by stores
+	 */
+	public static long getRowsUnchanged() {
+		return ROWS_UNCHANGED.sum();
 	}
 	
 	/**
@@ -101,7 +207,8 @@ public abstract class AbstractVariables extends StatsSet implements IRestorable,
 	 * @param name
 	 */
 	public final void remove(String name) {
-		_hasChanges.compareAndSet(false, true);
-		getSet().remove(name);
+		if (getSet().remove(name) != null) {
+			setChanged(name);
+		}
 	}
 }
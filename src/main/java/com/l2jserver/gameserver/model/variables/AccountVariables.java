@@ -18,11 +18,12 @@
  */
 package com.l2jserver.gameserver.model.variables;
 
-import java.util.Map.Entry;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.l2jserver.commons.database.ConnectionFactory;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 
 /**
  * @author UnAfraid
@@ -34,7 +35,7 @@ public class AccountVariables extends AbstractVariables {
 	// SQL Queries.
 	private static final String SELECT_QUERY = "SELECT * FROM account_gsdata WHERE account_name = ?";
 	
-	private static final String DELETE_QUERY = "DELETE FROM account_gsdata WHERE account_name = ?";
+	private static final String DELETE_QUERY = "DELETE FROM account_gsdata WHERE account_name = ? AND var = ?";
 	
 	private static final String INSERT_QUERY = "INSERT INTO account_gsdata (account_name, var, value) VALUES (?, ?, ?)";
 	
@@ -72,28 +73,42 @@ public class AccountVariables extends AbstractVariables {
 			return false;
 		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection()) {
-			// Clear previous entries.
-			try (var st = con.prepareStatement(DELETE_QUERY)) {
-				st.setString(1, _accountName);
-				st.execute();
-			}
-			
-			// Insert all variables.
-			try (var st = con.prepareStatement(INSERT_QUERY)) {
-				st.setString(1, _accountName);
-				for (Entry<String, Object> entry : getSet().entrySet()) {
-					st.setString(2, entry.getKey());
-					st.setString(3, String.valueOf(entry.getValue()));
-					st.addBatch();
+		final Set<String> changes = takeChanges();
+		try (var con = UnitOfWork.getConnection();
+			var del = con.prepareStatement(DELETE_QUERY);
+			var st = con.prepareStatement(INSERT_QUERY)) {
+			// The deletes and inserts of a store are committed together.
+			con.setAutoCommit(false);
+			try {
+				// Only the changed variables are rewritten, removed ones are just deleted.
+				int unchanged = getSet().size();
+				for (String name : changes) {
+					del.setString(1, _accountName);
+					del.setString(2, name);
+					del.addBatch();
+					
+					final Object value = getSet().get(name);
+					if (value != null) {
+						st.setString(1, _accountName);
+						st.setString(2, name);
+						st.setString(3, String.valueOf(value));
+						st.addBatch();
+						unchanged--;
+					}
 				}
+				del.executeBatch();
 				st.executeBatch();
+				con.commit();
+				restoreChangesOnRollback(changes);
+				countRows(changes.size(), Math.max(unchanged, 0));
+			} catch (Exception e) {
+				con.rollback();
+				throw e;
 			}
 		} catch (Exception e) {
+			restoreChanges(changes);
 			_log.log(Level.WARNING, getClass().getSimpleName() + ": Couldn't update variables for: " + _accountName, e);
 			return false;
-		} finally {
-			compareAndSetChanges(true, false);
 		}
 		return true;
 	}
@@ -18,11 +18,12 @@
  */
 package com.l2jserver.gameserver.model.variables;
 
-import java.util.Map.Entry;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.l2jserver.commons.database.ConnectionFactory;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 
@@ -36,7 +37,7 @@ public class PlayerVariables extends AbstractVariables {
 	// SQL Queries.
 	private static final String SELECT_QUERY = "SELECT * FROM character_variables WHERE charId = ?";
 	
-	private static final String DELETE_QUERY = "DELETE FROM character_variables WHERE charId = ?";
+	private static final String DELETE_QUERY = "DELETE FROM character_variables WHERE charId = ? AND var = ?";
 	
 	private static final String INSERT_QUERY = "INSERT INTO character_variables (charId, var, val) VALUES (?, ?, ?)";
 	
@@ -73,28 +74,42 @@ public class PlayerVariables extends AbstractVariables {
 			return false;
 		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection()) {
-			// Clear previous entries.
-			try (var st = con.prepareStatement(DELETE_QUERY)) {
-				st.setInt(1, _objectId);
-				st.execute();
-			}
-			
-			// Insert all variables.
-			try (var st = con.prepareStatement(INSERT_QUERY)) {
-				st.setInt(1, _objectId);
-				for (Entry<String, Object> entry : getSet().entrySet()) {
-					st.setString(2, entry.getKey());
-					st.setString(3, String.valueOf(entry.getValue()));
-					st.addBatch();
+		final Set<String> changes = takeChanges();
+		try (var con = UnitOfWork.getConnection();
+			var del = con.prepareStatement(DELETE_QUERY);
+			var st = con.prepareStatement(INSERT_QUERY)) {
+			// The deletes and inserts of a store are committed together.
+			con.setAutoCommit(false);
+			try {
+				// Only the changed variables are rewritten, removed ones are just deleted.
+				int unchanged = getSet().size();
+				for (String name : changes) {
+					del.setInt(1, _objectId);
+					del.setString(2, name);
+					del.addBatch();
+					
+					final Object value = getSet().get(name);
+					if (value != null) {
+						st.setInt(1, _objectId);
+						st.setString(2, name);
+						st.setString(3, String.valueOf(value));
+						st.addBatch();
+						unchanged--;
+					}
 				}
+				del.executeBatch();
 				st.executeBatch();
+				con.commit();
+				restoreChangesOnRollback(changes);
+				countRows(changes.size(), Math.max(unchanged, 0));
+			} catch (Exception e) {
+				con.rollback();
+				throw e;
 			}
 		} catch (Exception e) {
+			restoreChanges(changes);
 			_log.log(Level.WARNING, getClass().getSimpleName() + ": Couldn't update variables for: " + getPlayer(), e);
 			return false;
-		} finally {
-			compareAndSetChanges(true, false);
 		}
 		return true;
 	}
@@ -28,8 +28,12 @@ import static java.util.concurrent.TimeUnit.DAYS;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
@@ -42,7 +46,9 @@ import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.LoginServerThread;
 import com.l2jserver.gameserver.LoginServerThread.SessionKey;
 import com.l2jserver.gameserver.ThreadPoolManager;
+import com.l2jserver.gameserver.dao.UnitOfWork;
 import com.l2jserver.gameserver.data.sql.impl.CharNameTable;
+import com.l2jserver.gameserver.data.sql.impl.CharSelectInfoTable;
 import com.l2jserver.gameserver.data.sql.impl.ClanTable;
 import com.l2jserver.gameserver.data.xml.impl.SecondaryAuthData;
 import com.l2jserver.gameserver.instancemanager.AntiFeedManager;
@@ -75,6 +81,33 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 	
 	private static final Logger LOG_AUDIT = LoggerFactory.getLogger("audit");
 	
+	/** Statements deleting a character, every parameter is the character object Id. */
+	private static final String[] DELETE_CHAR_QUERIES = {
+		"DELETE FROM character_contacts WHERE charId=? OR contactId=?",
+		"DELETE FROM character_friends WHERE charId=? OR friendId=?",
+		"DELETE FROM character_hennas WHERE charId=?",
+		"DELETE FROM character_macroses WHERE charId=?",
+		"DELETE FROM character_quests WHERE charId=?",
+		"DELETE FROM character_quest_global_data WHERE charId=?",
+		"DELETE FROM character_recipebook WHERE charId=?",
+		"DELETE FROM character_shortcuts WHERE charId=?",
+		"DELETE FROM character_skills WHERE charId=?",
+		"DELETE FROM character_skills_save WHERE charId=?",
+		"DELETE FROM character_subclasses WHERE charId=?",
+		"DELETE FROM heroes WHERE charId=?",
+		"DELETE FROM olympiad_nobles WHERE charId=?",
+		"DELETE FROM seven_signs WHERE charId=?",
+		"DELETE FROM pets WHERE item_obj_id IN (SELECT object_id FROM items WHERE items.owner_id=?)",
+		"DELETE FROM item_attributes WHERE itemId IN (SELECT object_id FROM items WHERE items.owner_id=?)",
+		"DELETE FROM items WHERE owner_id=?",
+		"DELETE FROM merchant_lease WHERE player_id=?",
+		"DELETE FROM character_raid_points WHERE charId=?",
+		"DELETE FROM character_reco_bonus WHERE charId=?",
+		"DELETE FROM character_instance_time WHERE charId=?",
+		"DELETE FROM character_variables WHERE charId=?",
+		"DELETE FROM characters WHERE charId=?"
+	};
+	
 	/**
 	 * @author KenM
 	 */
@@ -125,6 +158,8 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 	
 	private final ReentrantLock _queueLock = new ReentrantLock();
 	
+	private final Set<Integer> _sentCrests = ConcurrentHashMap.newKeySet();
+	
 	private int[][] trace;
 	
 	public L2GameClient(MMOConnection<L2GameClient> con) {
@@ -254,6 +289,15 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 		gsp.runImpl();
 	}
 	
+	/**
+	 * Marks a crest as sent, the client keeps the crests it received until it disconnects.
+	 * @param crestId the crest id
+	 * @return {@code true} if the crest was not sent to this client yet, {@code false} otherwise
+	 */
+	public boolean markCrestSent(int crestId) {
+		return _sentCrests.add(crestId);
+	}
+	
 	public boolean isDetached() {
 		return _isDetached;
 	}
@@ -307,6 +351,7 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 							ps2.execute();
 						}
 					}
+					CharSelectInfoTable.getInstance().invalidate(getAccountName());
 					LOG_ACCOUNTING.info("Deleted character Id {} and client {}.", objid, this);
 				}
 			}
@@ -348,6 +393,7 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 		} catch (Exception ex) {
 			LOG.error("There has been an error restoring character!", ex);
 		}
+		CharSelectInfoTable.getInstance().invalidate(getAccountName());
 		
 		LOG_ACCOUNTING.info("Restoring Character Id {}, client {}.", objid, this);
 	}
@@ -357,135 +403,54 @@ public final class L2GameClient extends MMOClient<MMOConnection<L2GameClient>> i
 			return;
 		}
 		
-		CharNameTable.getInstance().removeName(objid);
+		deleteCharsByObjId(List.of(objid));
+	}
+	
+	/**
+	 * Deletes the given characters and all their related data.<br>
+	 * Every statement is prepared once and batched for all characters, and the whole purge runs in a single transaction.
+	 * @param objIds the object Ids of the characters to delete
+	 * @return {@code true} if the characters were deleted, {@code false} otherwise
+	 */
+	public static boolean deleteCharsByObjId(Collection<Integer> objIds) {
+		if (objIds.isEmpty()) {
+			return true;
+		}
 		
-		try (var con = ConnectionFactory.getInstance().getConnection()) {
-			try (var ps = con.prepareStatement("DELETE FROM character_contacts WHERE charId=? OR contactId=?")) {
-				ps.setInt(1, objid);
-				ps.setInt(2, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_friends WHERE charId=? OR friendId=?")) {
-				ps.setInt(1, objid);
-				ps.setInt(2, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_hennas WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_macroses WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_quests WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_quest_global_data WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.executeUpdate();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_recipebook WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_shortcuts WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_skills WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_skills_save WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_subclasses WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM heroes WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM olympiad_nobles WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM seven_signs WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM pets WHERE item_obj_id IN (SELECT object_id FROM items WHERE items.owner_id=?)")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM item_attributes WHERE itemId IN (SELECT object_id FROM items WHERE items.owner_id=?)")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM items WHERE owner_id=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM merchant_lease WHERE player_id=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_raid_points WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_reco_bonus WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_instance_time WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM character_variables WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
-			}
-			
-			try (var ps = con.prepareStatement("DELETE FROM characters WHERE charId=?")) {
-				ps.setInt(1, objid);
-				ps.execute();
+		final long start = System.currentTimeMillis();
+		for (int objid : objIds) {
+			CharNameTable.getInstance().removeName(objid);
+		}
+		
+		try (var uow = UnitOfWork.begin()) {
+			for (String query : DELETE_CHAR_QUERIES) {
+				deleteCharsBatch(uow, query, objIds);
 			}
 			
 			if (customs().allowWedding()) {
-				try (var ps = con.prepareStatement("DELETE FROM mods_wedding WHERE player1Id = ? OR player2Id = ?")) {
-					ps.setInt(1, objid);
-					ps.setInt(2, objid);
-					ps.execute();
-				}
+				deleteCharsBatch(uow, "DELETE FROM mods_wedding WHERE player1Id = ? OR player2Id = ?", objIds);
 			}
+			uow.commit();
 		} catch (Exception ex) {
-			LOG.warn("There has been an error deleting character Id {}!", objid, ex);
+			LOG.warn("There has been an error deleting character Ids {}!", objIds, ex);
+			return false;
+		}
+		CharSelectInfoTable.getInstance().invalidateCharacters(objIds);
+		
+		if (objIds.size() > 1) {
+			LOG.info("Deleted {} characters in {} ms.", objIds.size(), System.currentTimeMillis() - start);
+		}
+		return true;
+	}
+	
+	private static void deleteCharsBatch(UnitOfWork uow, String query, Collection<Integer> objIds) throws SQLException {
+		final long parameters = query.chars().filter(c -> c == '?').count();
+		final var ps = uow.batch(query);
+		for (int objid : objIds) {
+			for (int i = 1; i <= parameters; i++) {
+				ps.setInt(i, objid);
+			}
+			ps.addBatch();
 		}
 	}
 	
@@ -18,7 +18,8 @@
  */
 package com.l2jserver.gameserver.network.clientpackets;
 
-import com.l2jserver.gameserver.network.serverpackets.ExPledgeCrestLarge;
+import com.l2jserver.gameserver.data.sql.impl.CrestTable;
+import com.l2jserver.gameserver.model.L2Crest.CrestType;
 
 /**
  * Format : chd c: (id) 0xD0 h: (subid) 0x10 d: the crest id This is a trigger
@@ -36,7 +37,7 @@ public final class RequestExPledgeCrestLarge extends L2GameClientPacket {
 	
 	@Override
 	protected void runImpl() {
-		sendPacket(new ExPledgeCrestLarge(_crestId));
+		CrestTable.getInstance().sendCrest(getClient(), _crestId, CrestType.PLEDGE_LARGE);
 	}
 	
 	@Override
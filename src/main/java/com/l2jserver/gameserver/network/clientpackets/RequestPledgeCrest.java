@@ -18,7 +18,8 @@
  */
 package com.l2jserver.gameserver.network.clientpackets;
 
-import com.l2jserver.gameserver.network.serverpackets.PledgeCrest;
+import com.l2jserver.gameserver.data.sql.impl.CrestTable;
+import com.l2jserver.gameserver.model.L2Crest.CrestType;
 
 /**
  * @since 2005/03/27 15:29:30
@@ -35,7 +36,7 @@ public final class RequestPledgeCrest extends L2GameClientPacket {
 	
 	@Override
 	protected void runImpl() {
-		sendPacket(new PledgeCrest(_crestId));
+		CrestTable.getInstance().sendCrest(getClient(), _crestId, CrestType.PLEDGE);
 	}
 	
 	@Override
@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import com.l2jserver.gameserver.enums.PrivateStoreType;
+import com.l2jserver.gameserver.instancemanager.PrivateStoreManager;
 import com.l2jserver.gameserver.model.ItemRequest;
 import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.TradeList;
@@ -131,6 +132,8 @@ public final class RequestPrivateStoreBuy extends L2GameClientPacket {
 		if (storeList.getItemCount() == 0) {
 			storePlayer.setPrivateStoreType(PrivateStoreType.NONE);
 			storePlayer.broadcastUserInfo();
+		} else {
+			PrivateStoreManager.getInstance().update(storePlayer);
 		}
 	}
 	
@@ -21,6 +21,7 @@ package com.l2jserver.gameserver.network.clientpackets;
 import static com.l2jserver.gameserver.model.actor.L2Npc.INTERACTION_DISTANCE;
 
 import com.l2jserver.gameserver.enums.PrivateStoreType;
+import com.l2jserver.gameserver.instancemanager.PrivateStoreManager;
 import com.l2jserver.gameserver.model.ItemRequest;
 import com.l2jserver.gameserver.model.L2World;
 import com.l2jserver.gameserver.model.TradeList;
@@ -121,6 +122,8 @@ public final class RequestPrivateStoreSell extends L2GameClientPacket {
 		if (storeList.getItemCount() == 0) {
 			storePlayer.setPrivateStoreType(PrivateStoreType.NONE);
 			storePlayer.broadcastUserInfo();
+		} else {
+			PrivateStoreManager.getInstance().update(storePlayer);
 		}
 	}
 	
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network.serverpackets;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.l2jserver.gameserver.data.sql.impl.CrestTable;
+import com.l2jserver.gameserver.model.L2Crest;
+
+/**
+ * Crest packets are encoded once when created, so the same instance can be sent to any number of clients with a single bulk copy.
+ */
+public abstract class AbstractCrestPacket extends L2GameServerPacket {
+	private final int _crestId;
+	private final byte[] _payload;
+	
+	/**
+	 * @param header the opcode bytes written before the crest id
+	 * @param crestId the crest id
+	 * @param data the crest image, {@code null} if the crest was not found
+	 */
+	protected AbstractCrestPacket(byte[] header, int crestId, byte[] data) {
+		_crestId = crestId;
+		final int length = data != null ? data.length : 0;
+		final ByteBuffer buf = ByteBuffer.allocate(header.length + 8 + length).order(ByteOrder.LITTLE_ENDIAN);
+		buf.put(header);
+		buf.putInt(crestId);
+		buf.putInt(length);
+		if (data != null) {
+			buf.put(data);
+		}
+		_payload = buf.array();
+	}
+	
+	public int getCrestId() {
+		return _crestId;
+	}
+	
+	/**
+	 * @return the size of the encoded packet body, in bytes
+	 */
+	public int getSize() {
+		return _payload.length;
+	}
+	
+	/**
+	 * @param crestId the crest id
+	 * @return the image of the crest, {@code null} if the crest was not found
+	 */
+	protected static byte[] getCrestData(int crestId) {
+		final L2Crest crest = CrestTable.getInstance().getCrest(crestId);
+		return crest != null ? crest.getData() : null;
+	}
+	
+	@Override
+	protected final void writeImpl() {
+		writeB(_payload);
+	}
+}
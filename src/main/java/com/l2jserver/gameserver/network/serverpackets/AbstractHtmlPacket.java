@@ -18,9 +18,12 @@
  */
 package com.l2jserver.gameserver.network.serverpackets;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Level;
 
 import com.l2jserver.gameserver.cache.HtmCache;
+import com.l2jserver.gameserver.cache.HtmTemplate;
 import com.l2jserver.gameserver.enums.HtmlActionScope;
 import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jserver.gameserver.util.Util;
@@ -33,6 +36,8 @@ public abstract class AbstractHtmlPacket extends L2GameServerPacket {
 	
 	private final int _npcObjId;
 	private String _html = null;
+	private HtmTemplate _template = null;
+	private Map<String, String> _values = null;
 	private boolean _disabledValidation = false;
 	
 	protected AbstractHtmlPacket() {
@@ -66,6 +71,8 @@ public abstract class AbstractHtmlPacket extends L2GameServerPacket {
 	}
 	
 	public final void setHtml(String html) {
+		_template = null;
+		_values = null;
 		if (html.length() > 17200) {
 			_log.log(Level.WARNING, "Html is too long! this will crash the client!", new Throwable());
 			_html = html.substring(0, 17200);
@@ -78,20 +85,65 @@ public abstract class AbstractHtmlPacket extends L2GameServerPacket {
 		_html = html;
 	}
 	
+	/**
+	 * Sets the HTML from a template, its placeholders are replaced in a single pass when the HTML is written.
+	 * @param template the template
+	 */
+	public final void setHtml(HtmTemplate template) {
+		final String html = template.getText();
+		if ((html.length() > 17200) || !html.contains("<html")) {
+			setHtml(html);
+			return;
+		}
+		
+		_html = null;
+		_template = template;
+		_values = null;
+	}
+	
 	public final boolean setFile(String prefix, String path) {
-		String content = HtmCache.getInstance().getHtm(prefix, path);
-		if (content == null) {
+		HtmTemplate template = HtmCache.getInstance().getTemplate(prefix, path);
+		if (template == null) {
 			setHtml("<html><body>My Text is missing:<br>" + path + "</body></html>");
 			_log.warning("missing html page " + path);
 			return false;
 		}
 		
-		setHtml(content);
+		setHtml(template);
 		return true;
 	}
 	
+	/**
+	 * Replaces all matches of the given regular expression with the given value.<br>
+	 * Placeholders of the template are only recorded, other patterns are replaced in the HTML right away.
+	 * @param pattern the regular expression
+	 * @param value the value, taken literally
+	 */
 	public final void replace(String pattern, String value) {
-		_html = _html.replaceAll(pattern, value.replaceAll("\\$", "\\\\\\$"));
+		// Values with percent signs could form placeholders replaced later on
+		if ((_template != null) && _template.isReplaceable(pattern) && (value.indexOf('%') < 0) && (value.indexOf('\\') < 0)) {
+			if (_values == null) {
+				_values = new HashMap<>();
+			}
+			_values.putIfAbsent(pattern, value);
+			return;
+		}
+		
+		final String html = getHtml();
+		if (isLiteral(pattern) && (value.indexOf('\\') < 0)) {
+			_html = html.replace(pattern, value);
+		} else {
+			_html = html.replaceAll(pattern, value.replaceAll("\\$", "\\\\\\$"));
+		}
+	}
+	
+	private static boolean isLiteral(String pattern) {
+		for (int i = 0; i < pattern.length(); i++) {
+			if ("\\^$.|?*+()[]{}".indexOf(pattern.charAt(i)) >= 0) {
+				return false;
+			}
+		}
+		return true;
 	}
 	
 	public final void replace(String pattern, boolean val) {
@@ -123,7 +175,7 @@ public abstract class AbstractHtmlPacket extends L2GameServerPacket {
 			return;
 		}
 		
-		Util.buildHtmlActionCache(player, getScope(), _npcObjId, _html);
+		Util.buildHtmlActionCache(player, getScope(), _npcObjId, getHtml());
 	}
 	
 	public final int getNpcObjId() {
@@ -131,6 +183,11 @@ public abstract class AbstractHtmlPacket extends L2GameServerPacket {
 	}
 	
 	public final String getHtml() {
+		if (_template != null) {
+			_html = _template.render(_values);
+			_template = null;
+			_values = null;
+		}
 		return _html;
 	}
 	
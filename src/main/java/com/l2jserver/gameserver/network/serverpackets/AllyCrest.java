@@ -18,33 +18,16 @@
  */
 package com.l2jserver.gameserver.network.serverpackets;
 
-import com.l2jserver.gameserver.data.sql.impl.CrestTable;
-import com.l2jserver.gameserver.model.L2Crest;
-
-public class AllyCrest extends L2GameServerPacket {
-	private final int _crestId;
-	private final byte[] _data;
+public class AllyCrest extends AbstractCrestPacket {
+	private static final byte[] HEADER = {
+		(byte) 0xAF
+	};
 	
 	public AllyCrest(int crestId) {
-		_crestId = crestId;
-		final L2Crest crest = CrestTable.getInstance().getCrest(crestId);
-		_data = crest != null ? crest.getData() : null;
+		this(crestId, getCrestData(crestId));
 	}
 	
 	public AllyCrest(int crestId, byte[] data) {
-		_crestId = crestId;
-		_data = data;
-	}
-	
-	@Override
-	protected final void writeImpl() {
-		writeC(0xAF);
-		writeD(_crestId);
-		if (_data != null) {
-			writeD(_data.length);
-			writeB(_data);
-		} else {
-			writeD(0);
-		}
+		super(HEADER, crestId, data);
 	}
 }
@@ -19,26 +19,15 @@
 package com.l2jserver.gameserver.network.serverpackets;
 
 import static com.l2jserver.gameserver.config.Configuration.character;
-import static com.l2jserver.gameserver.config.Configuration.customs;
 
-import java.sql.ResultSet;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
-import com.l2jserver.commons.database.ConnectionFactory;
 import com.l2jserver.gameserver.data.json.ExperienceData;
-import com.l2jserver.gameserver.data.sql.impl.ClanTable;
+import com.l2jserver.gameserver.data.sql.impl.CharSelectInfoTable;
 import com.l2jserver.gameserver.model.CharSelectInfoPackage;
-import com.l2jserver.gameserver.model.L2Clan;
-import com.l2jserver.gameserver.model.itemcontainer.Inventory;
-import com.l2jserver.gameserver.network.L2GameClient;
 
 public class CharSelectionInfo extends L2GameServerPacket {
 	
-	private static final Logger _log = Logger.getLogger(CharSelectionInfo.class.getName());
-	
 	private final String _loginName;
 	
 	private final int _sessionId;
@@ -50,14 +39,14 @@ public class CharSelectionInfo extends L2GameServerPacket {
 	public CharSelectionInfo(String loginName, int sessionId) {
 		_sessionId = sessionId;
 		_loginName = loginName;
-		_characterPackages = loadCharacterSelectInfo(_loginName);
+		_characterPackages = CharSelectInfoTable.getInstance().getCharacters(_loginName);
 		_activeId = -1;
 	}
 	
 	public CharSelectionInfo(String loginName, int sessionId, int activeId) {
 		_sessionId = sessionId;
 		_loginName = loginName;
-		_characterPackages = loadCharacterSelectInfo(_loginName);
+		_characterPackages = CharSelectInfoTable.getInstance().getCharacters(_loginName);
 		_activeId = activeId;
 	}
 	
@@ -162,136 +151,4 @@ public class CharSelectionInfo extends L2GameServerPacket {
 			writeD(charInfoPackage.getVitalityPoints()); // H5 Vitality
 		}
 	}
-	
-	private static List<CharSelectInfoPackage> loadCharacterSelectInfo(String loginName) {
-		final List<CharSelectInfoPackage> characterList = new ArrayList<>();
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var statement = con.prepareStatement("SELECT * FROM characters WHERE account_name=? ORDER BY createDate")) {
-			statement.setString(1, loginName);
-			try (var charList = statement.executeQuery()) {
-				while (charList.next())// fills the package
-				{
-					CharSelectInfoPackage charInfopackage = restoreChar(charList);
-					if (charInfopackage != null) {
-						characterList.add(charInfopackage);
-					}
-				}
-			}
-		} catch (Exception e) {
-			_log.log(Level.WARNING, "Could not restore char info: " + e.getMessage(), e);
-		}
-		return characterList;
-	}
-	
-	private static void loadCharacterSubclassInfo(CharSelectInfoPackage charInfopackage, int ObjectId, int activeClassId) {
-		try (var con = ConnectionFactory.getInstance().getConnection();
-			var statement = con.prepareStatement("SELECT exp, sp, level FROM character_subclasses WHERE charId=? && class_id=? ORDER BY charId")) {
-			statement.setInt(1, ObjectId);
-			statement.setInt(2, activeClassId);
-			try (var charList = statement.executeQuery()) {
-				if (charList.next()) {
-					charInfopackage.setExp(charList.getLong("exp"));
-					charInfopackage.setSp(charList.getInt("sp"));
-					charInfopackage.setLevel(charList.getInt("level"));
-				}
-			}
-		} catch (Exception e) {
-			_log.log(Level.WARNING, "Could not restore char subclass info: " + e.getMessage(), e);
-		}
-	}
-	
-	private static CharSelectInfoPackage restoreChar(ResultSet chardata) throws Exception {
-		int objectId = chardata.getInt("charId");
-		String name = chardata.getString("char_name");
-		
-		// See if the char must be deleted
-		long deletetime = chardata.getLong("deletetime");
-		if (deletetime > 0) {
-			if (System.currentTimeMillis() > deletetime) {
-				L2Clan clan = ClanTable.getInstance().getClan(chardata.getInt("clanid"));
-				if (clan != null) {
-					clan.removeClanMember(objectId, 0);
-				}
-				
-				L2GameClient.deleteCharByObjId(objectId);
-				return null;
-			}
-		}
-		
-		CharSelectInfoPackage charInfopackage = new CharSelectInfoPackage(objectId, name);
-		charInfopackage.setAccessLevel(chardata.getInt("accesslevel"));
-		charInfopackage.setLevel(chardata.getInt("level"));
-		charInfopackage.setMaxHp(chardata.getInt("maxhp"));
-		charInfopackage.setCurrentHp(chardata.getDouble("curhp"));
-		charInfopackage.setMaxMp(chardata.getInt("maxmp"));
-		charInfopackage.setCurrentMp(chardata.getDouble("curmp"));
-		charInfopackage.setKarma(chardata.getInt("karma"));
-		charInfopackage.setPkKills(chardata.getInt("pkkills"));
-		charInfopackage.setPvPKills(chardata.getInt("pvpkills"));
-		charInfopackage.setFace(chardata.getInt("face"));
-		charInfopackage.setHairStyle(chardata.getInt("hairstyle"));
-		charInfopackage.setHairColor(chardata.getInt("haircolor"));
-		charInfopackage.setSex(chardata.getInt("sex"));
-		
-		charInfopackage.setExp(chardata.getLong("exp"));
-		charInfopackage.setSp(chardata.getInt("sp"));
-		charInfopackage.setVitalityPoints(chardata.getInt("vitality_points"));
-		charInfopackage.setClanId(chardata.getInt("clanid"));
-		
-		charInfopackage.setRace(chardata.getInt("race"));
-		
-		final int baseClassId = chardata.getInt("base_class");
-		final int activeClassId = chardata.getInt("classid");
-		
-		charInfopackage.setX(chardata.getInt("x"));
-		charInfopackage.setY(chardata.getInt("y"));
-		charInfopackage.setZ(chardata.getInt("z"));
-		
-		if (customs().multiLangEnable()) {
-			String lang = chardata.getString("language");
-			if (!customs().getMultiLangAllowed().contains(lang)) {
-				lang = customs().getMultiLangDefault();
-			}
-			charInfopackage.setHtmlPrefix("data/lang/" + lang + "/");
-		}
-		
-		// if is in subclass, load subclass exp, sp, lvl info
-		if (baseClassId != activeClassId) {
-			loadCharacterSubclassInfo(charInfopackage, objectId, activeClassId);
-		}
-		
-		charInfopackage.setClassId(activeClassId);
-		
-		// Get the augmentation id for equipped weapon
-		int weaponObjId = charInfopackage.getPaperdollObjectId(Inventory.PAPERDOLL_RHAND);
-		if (weaponObjId < 1) {
-			weaponObjId = charInfopackage.getPaperdollObjectId(Inventory.PAPERDOLL_RHAND);
-		}
-		
-		if (weaponObjId > 0) {
-			try (var con = ConnectionFactory.getInstance().getConnection();
-				var statement = con.prepareStatement("SELECT augAttributes FROM item_attributes WHERE itemId=?")) {
-				statement.setInt(1, weaponObjId);
-				try (var result = statement.executeQuery()) {
-					if (result.next()) {
-						int augment = result.getInt("augAttributes");
-						charInfopackage.setAugmentationId(augment == -1 ? 0 : augment);
-					}
-				}
-			} catch (Exception e) {
-				_log.log(Level.WARNING, "Could not restore augmentation info: " + e.getMessage(), e);
-			}
-		}
-		
-		// Check if the base class is set to zero and also doesn't match with the current active class, otherwise send the base class ID. This prevents chars created before base class was introduced from being displayed incorrectly.
-		if ((baseClassId == 0) && (activeClassId > 0)) {
-			charInfopackage.setBaseClassId(activeClassId);
-		} else {
-			charInfopackage.setBaseClassId(baseClassId);
-		}
-		
-		charInfopackage.setDeleteTimer(deletetime);
-		charInfopackage.setLastAccess(chardata.getLong("lastAccess"));
-		return charInfopackage;
-	}
 }
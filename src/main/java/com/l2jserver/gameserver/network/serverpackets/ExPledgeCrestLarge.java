@@ -18,38 +18,25 @@
  */
 package com.l2jserver.gameserver.network.serverpackets;
 
-import com.l2jserver.gameserver.data.sql.impl.CrestTable;
-import com.l2jserver.gameserver.model.L2Crest;
-
 /**
  * @author -Wooden-
  */
-public class ExPledgeCrestLarge extends L2GameServerPacket {
-	private final int _crestId;
-	private final byte[] _data;
+public class ExPledgeCrestLarge extends AbstractCrestPacket {
+	private static final byte[] HEADER = {
+		(byte) 0xFE,
+		0x1B,
+		0x00,
+		0x00,
+		0x00,
+		0x00,
+		0x00
+	};
 	
 	public ExPledgeCrestLarge(int crestId) {
-		_crestId = crestId;
-		final L2Crest crest = CrestTable.getInstance().getCrest(crestId);
-		_data = crest != null ? crest.getData() : null;
+		this(crestId, getCrestData(crestId));
 	}
 	
 	public ExPledgeCrestLarge(int crestId, byte[] data) {
-		_crestId = crestId;
-		_data = data;
-	}
-	
-	@Override
-	protected void writeImpl() {
-		writeC(0xFE);
-		writeH(0x1B);
-		writeD(0x00);
-		writeD(_crestId);
-		if (_data != null) {
-			writeD(_data.length);
-			writeB(_data);
-		} else {
-			writeD(0);
-		}
+		super(HEADER, crestId, data);
 	}
 }
\ No newline at end of file
@@ -20,123 +20,131 @@ package com.l2jserver.gameserver.network.serverpackets;
 
 import static com.l2jserver.gameserver.data.xml.impl.MultisellData.PAGE_SIZE;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
 import com.l2jserver.gameserver.model.multisell.Entry;
 import com.l2jserver.gameserver.model.multisell.Ingredient;
+import com.l2jserver.gameserver.model.multisell.ItemInfo;
 import com.l2jserver.gameserver.model.multisell.ListContainer;
 
+/**
+ * A page of a multisell list.<br>
+ * The page is encoded when created, so pages of lists that don't depend on the player can be cached and sent again.
+ */
 public final class MultiSellList extends L2GameServerPacket {
-	private int _size, _index;
-	private final ListContainer _list;
-	private final boolean _finished;
+	private static final int HEADER_SIZE = 21;
+	private static final int ENTRY_SIZE = 35;
+	private static final int PRODUCT_SIZE = 44;
+	private static final int INGREDIENT_SIZE = 40;
+	
+	private final byte[] _payload;
 	
 	public MultiSellList(ListContainer list, int index) {
-		_list = list;
-		_index = index;
-		_size = list.getEntries().size() - index;
-		if (_size > PAGE_SIZE) {
-			_finished = false;
-			_size = PAGE_SIZE;
+		final List<Entry> entries = list.getEntries();
+		int size = entries.size() - index;
+		final boolean finished;
+		if (size > PAGE_SIZE) {
+			finished = false;
+			size = PAGE_SIZE;
 		} else {
-			_finished = true;
+			finished = true;
+		}
+		
+		int length = HEADER_SIZE;
+		for (int i = index; i < (index + size); i++) {
+			final Entry ent = entries.get(i);
+			length += ENTRY_SIZE + (ent.getProducts().size() * PRODUCT_SIZE) + (ent.getIngredients().size() * INGREDIENT_SIZE);
 		}
-	}
-	
-	@Override
-	protected void writeImpl() {
-		writeC(0xd0);
-		writeD(_list.getListId()); // list id
-		writeD(1 + (_index / PAGE_SIZE)); // page started from 1
-		writeD(_finished ? 1 : 0); // finished
-		writeD(PAGE_SIZE); // size of pages
-		writeD(_size); // list length
 		
-		Entry ent;
-		while (_size-- > 0) {
-			ent = _list.getEntries().get(_index++);
-			writeD(ent.getEntryId());
-			writeC(ent.isStackable() ? 1 : 0);
-			writeH(0x00); // C6
-			writeD(0x00); // C6
-			writeD(0x00); // T1
-			writeH(65534); // T1
-			writeH(0x00); // T1
-			writeH(0x00); // T1
-			writeH(0x00); // T1
-			writeH(0x00); // T1
-			writeH(0x00); // T1
-			writeH(0x00); // T1
-			writeH(0x00); // T1
+		final ByteBuffer buf = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		buf.put((byte) 0xd0);
+		buf.putInt(list.getListId()); // list id
+		buf.putInt(1 + (index / PAGE_SIZE)); // page started from 1
+		buf.putInt(finished ? 1 : 0); // finished
+		buf.putInt(PAGE_SIZE); // size of pages
+		buf.putInt(size); // list length
+		
+		for (int i = index; i < (index + size); i++) {
+			final Entry ent = entries.get(i);
+			buf.putInt(ent.getEntryId());
+			buf.put((byte) (ent.isStackable() ? 1 : 0));
+			buf.putShort((short) 0x00); // C6
+			buf.putInt(0x00); // C6
+			buf.putInt(0x00); // T1
+			buf.putShort((short) 65534); // T1
+			buf.putShort((short) 0x00); // T1
+			buf.putShort((short) 0x00); // T1
+			buf.putShort((short) 0x00); // T1
+			buf.putShort((short) 0x00); // T1
+			buf.putShort((short) 0x00); // T1
+			buf.putShort((short) 0x00); // T1
+			buf.putShort((short) 0x00); // T1
 			
-			writeH(ent.getProducts().size());
-			writeH(ent.getIngredients().size());
+			buf.putShort((short) ent.getProducts().size());
+			buf.putShort((short) ent.getIngredients().size());
 			
 			for (Ingredient ing : ent.getProducts()) {
-				writeD(ing.getItemId());
+				buf.putInt(ing.getItemId());
 				if (ing.getTemplate() != null) {
-					writeD(ing.getTemplate().getBodyPart());
-					writeH(ing.getTemplate().getType2().getId());
-				} else {
-					writeD(0);
-					writeH(65535);
-				}
-				writeQ(ing.getItemCount());
-				if (ing.getItemInfo() != null) {
-					writeH(ing.getItemInfo().getEnchantLevel()); // enchant level
-					writeD(ing.getItemInfo().getAugmentId()); // augment id
-					writeD(0x00); // mana
-					writeH(ing.getItemInfo().getElementId()); // attack element
-					writeH(ing.getItemInfo().getElementPower()); // element power
-					writeH(ing.getItemInfo().getElementals()[0]); // fire
-					writeH(ing.getItemInfo().getElementals()[1]); // water
-					writeH(ing.getItemInfo().getElementals()[2]); // wind
-					writeH(ing.getItemInfo().getElementals()[3]); // earth
-					writeH(ing.getItemInfo().getElementals()[4]); // holy
-					writeH(ing.getItemInfo().getElementals()[5]); // dark
+					buf.putInt(ing.getTemplate().getBodyPart());
+					buf.putShort((short) ing.getTemplate().getType2().getId());
 				} else {
-					writeH(0x00); // enchant level
-					writeD(0x00); // augment id
-					writeD(0x00); // mana
-					writeH(0x00); // attack element
-					writeH(0x00); // element power
-					writeH(0x00); // fire
-					writeH(0x00); // water
-					writeH(0x00); // wind
-					writeH(0x00); // earth
-					writeH(0x00); // holy
-					writeH(0x00); // dark
+					buf.putInt(0);
+					buf.putShort((short) 65535);
 				}
+				buf.putLong(ing.getItemCount());
+				putItemInfo(buf, ing.getItemInfo());
 			}
 			
 			for (Ingredient ing : ent.getIngredients()) {
-				writeD(ing.getItemId());
-				writeH(ing.getTemplate() != null ? ing.getTemplate().getType2().getId() : 65535);
-				writeQ(ing.getItemCount());
-				if (ing.getItemInfo() != null) {
-					writeH(ing.getItemInfo().getEnchantLevel()); // enchant level
-					writeD(ing.getItemInfo().getAugmentId()); // augment id
-					writeD(0x00); // mana
-					writeH(ing.getItemInfo().getElementId()); // attack element
-					writeH(ing.getItemInfo().getElementPower()); // element power
-					writeH(ing.getItemInfo().getElementals()[0]); // fire
-					writeH(ing.getItemInfo().getElementals()[1]); // water
-					writeH(ing.getItemInfo().getElementals()[2]); // wind
-					writeH(ing.getItemInfo().getElementals()[3]); // earth
-					writeH(ing.getItemInfo().getElementals()[4]); // holy
-					writeH(ing.getItemInfo().getElementals()[5]); // dark
-				} else {
-					writeH(0x00); // enchant level
-					writeD(0x00); // augment id
-					writeD(0x00); // mana
-					writeH(0x00); // attack element
-					writeH(0x00); // element power
-					writeH(0x00); // fire
-					writeH(0x00); // water
-					writeH(0x00); // wind
-					writeH(0x00); // earth
-					writeH(0x00); // holy
-					writeH(0x00); // dark
-				}
+				buf.putInt(ing.getItemId());
+				buf.putShort((short) (ing.getTemplate() != null ? ing.getTemplate().getType2().getId() : 65535));
+				buf.putLong(ing.getItemCount());
+				putItemInfo(buf, ing.getItemInfo());
 			}
 		}
+		_payload = buf.array();
+	}
+	
+	private static void putItemInfo(ByteBuffer buf, ItemInfo info) {
+		if (info != null) {
+			buf.putShort((short) info.getEnchantLevel()); // enchant level
+			buf.putInt(info.getAugmentId()); // augment id
+			buf.putInt(0x00); // mana
+			buf.putShort(info.getElementId()); // attack element
+			buf.putShort((short) info.getElementPower()); // element power
+			buf.putShort((short) info.getElementals()[0]); // fire
+			buf.putShort((short) info.getElementals()[1]); // water
+			buf.putShort((short) info.getElementals()[2]); // wind
+			buf.putShort((short) info.getElementals()[3]); // earth
+			buf.putShort((short) info.getElementals()[4]); // holy
+			buf.putShort((short) info.getElementals()[5]); // dark
+		} else {
+			buf.putShort((short) 0x00); // enchant level
+			buf.putInt(0x00); // augment id
+			buf.putInt(0x00); // mana
+			buf.putShort((short) 0x00); // attack element
+			buf.putShort((short) 0x00); // element power
+			buf.putShort((short) 0x00); // fire
+			buf.putShort((short) 0x00); // water
+			buf.putShort((short) 0x00); // wind
+			buf.putShort((short) 0x00); // earth
+			buf.putShort((short) 0x00); // holy
+			buf.putShort((short) 0x00); // dark
+		}
+	}
+	
+	/**
+	 * @return the size of the encoded page, in bytes
+	 */
+	public int getSize() {
+		return _payload.length;
+	}
+	
+	@Override
+	protected void writeImpl() {
+		writeB(_payload);
 	}
 }
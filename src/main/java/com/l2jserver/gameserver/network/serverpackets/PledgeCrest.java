@@ -18,33 +18,16 @@
  */
 package com.l2jserver.gameserver.network.serverpackets;
 
-import com.l2jserver.gameserver.data.sql.impl.CrestTable;
-import com.l2jserver.gameserver.model.L2Crest;
-
-public final class PledgeCrest extends L2GameServerPacket {
-	private final int _crestId;
-	private final byte[] _data;
+public final class PledgeCrest extends AbstractCrestPacket {
+	private static final byte[] HEADER = {
+		0x6A
+	};
 	
 	public PledgeCrest(int crestId) {
-		_crestId = crestId;
-		final L2Crest crest = CrestTable.getInstance().getCrest(crestId);
-		_data = crest != null ? crest.getData() : null;
+		this(crestId, getCrestData(crestId));
 	}
 	
 	public PledgeCrest(int crestId, byte[] data) {
-		_crestId = crestId;
-		_data = data;
-	}
-	
-	@Override
-	protected void writeImpl() {
-		writeC(0x6A);
-		writeD(_crestId);
-		if (_data != null) {
-			writeD(_data.length);
-			writeB(_data);
-		} else {
-			writeD(0);
-		}
+		super(HEADER, crestId, data);
 	}
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.taskmanager.tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.l2jserver.commons.database.ConnectionFactory;
+import com.l2jserver.gameserver.LoginServerThread;
+import com.l2jserver.gameserver.data.sql.impl.ClanTable;
+import com.l2jserver.gameserver.model.L2Clan;
+import com.l2jserver.gameserver.model.L2World;
+import com.l2jserver.gameserver.network.L2GameClient;
+import com.l2jserver.gameserver.taskmanager.Task;
+import com.l2jserver.gameserver.taskmanager.TaskManager;
+import com.l2jserver.gameserver.taskmanager.TaskManager.ExecutedTask;
+import com.l2jserver.gameserver.taskmanager.TaskTypes;
+
+/**
+ * Deletes in bulk the characters whose deletion time has expired.<br>
+ * Runs daily during off-peak hours, so expired characters don't have to wait for their owner to return to the lobby.<br>
+ * Characters of accounts logged in, in game or in the lobby, are left to the lobby, which deletes them when it loads them.
+ */
+public class TaskCharacterPurge extends Task {
+	
+	private static final Logger LOG = LoggerFactory.getLogger(TaskCharacterPurge.class);
+	
+	public static final String NAME = "character_purge";
+	
+	private static final String SELECT_EXPIRED = "SELECT charId, clanid, account_name FROM characters WHERE deletetime > 0 AND deletetime <= ? AND charId > ? ORDER BY charId LIMIT ?";
+	
+	private static final int BATCH_SIZE = 100;
+	
+	@Override
+	public String getName() {
+		return NAME;
+	}
+	
+	@Override
+	public void onTimeElapsed(ExecutedTask task) {
+		final long start = System.currentTimeMillis();
+		int deleted = 0;
+		int lastObjId = 0;
+		boolean hasMore = true;
+		while (hasMore) {
+			final List<Integer> objIds = new ArrayList<>(BATCH_SIZE);
+			final List<Integer> clanIds = new ArrayList<>(BATCH_SIZE);
+			int selected = 0;
+			try (var con = ConnectionFactory.getInstance().getConnection();
+				var ps = con.prepareStatement(SELECT_EXPIRED)) {
+				ps.setLong(1, start);
+				ps.setInt(2, lastObjId);
+				ps.setInt(3, BATCH_SIZE);
+				try (var rs = ps.executeQuery()) {
+					while (rs.next()) {
+						selected++;
+						lastObjId = rs.getInt("charId");
+						// Skip characters somehow in game or shown in a lobby, they will be purged on the next run.
+						if ((L2World.getInstance().getPlayer(lastObjId) != null) || (LoginServerThread.getInstance().getClient(rs.getString("account_name")) != null)) {
+							continue;
+						}
+						objIds.add(lastObjId);
+						clanIds.add(rs.getInt("clanid"));
+					}
+				}
+			} catch (Exception ex) {
+				LOG.warn("There has been an error selecting expired characters!", ex);
+				break;
+			}
+			
+			for (int i = 0; i < objIds.size(); i++) {
+				final L2Clan clan = ClanTable.getInstance().getClan(clanIds.get(i));
+				if ((clan != null) && (clan.getClanMember(objIds.get(i)) != null)) {
+					clan.removeClanMember(objIds.get(i), 0);
+				}
+			}
+			
+			if (!L2GameClient.deleteCharsByObjId(objIds)) {
+				break;
+			}
+			
+			deleted += objIds.size();
+			hasMore = selected == BATCH_SIZE;
+			if (hasMore) {
+				LOG.info("Purged {} expired characters so far.", deleted);
+			}
+		}
+		
+		LOG.info("Purged {} expired characters in {} ms.", deleted, System.currentTimeMillis() - start);
+	}
+	
+	@Override
+	public void initializate() {
+		TaskManager.addUniqueTask(NAME, TaskTypes.TYPE_GLOBAL_TASK, "1", "05:00:00", "");
+	}
+}
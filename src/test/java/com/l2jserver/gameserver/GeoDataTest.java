@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * Geodata region mapping test.
+ * @version 2.6.2.0
+ */
+public class GeoDataTest {
+	
+	// Geodata cells are 16 world units, starting at world (-655360, -589824), which is tile (0, 0).
+	private static int geoX(int worldX) {
+		return (worldX + 655360) / 16;
+	}
+	
+	private static int geoY(int worldY) {
+		return (worldY + 589824) / 16;
+	}
+	
+	@Test
+	public void test_giran_maps_to_its_region_file() {
+		final int regionX = GeoData.getRegionX(geoX(83400));
+		final int regionY = GeoData.getRegionY(geoY(147900));
+		assertTrue(GeoData.isWorldRegion(regionX, regionY));
+		assertEquals(GeoData.getRegionFileName(regionX, regionY), "22_22.l2j");
+	}
+	
+	@Test
+	public void test_talking_island_maps_to_its_region_file() {
+		final int regionX = GeoData.getRegionX(geoX(-84318));
+		final int regionY = GeoData.getRegionY(geoY(244579));
+		assertTrue(GeoData.isWorldRegion(regionX, regionY));
+		assertEquals(GeoData.getRegionFileName(regionX, regionY), "17_25.l2j");
+	}
+	
+	@Test
+	public void test_world_corners_are_world_regions() {
+		assertTrue(GeoData.isWorldRegion(GeoData.getRegionX(11 * 2048), GeoData.getRegionY(10 * 2048)));
+		assertTrue(GeoData.isWorldRegion(GeoData.getRegionX((27 * 2048) - 1), GeoData.getRegionY((27 * 2048) - 1)));
+	}
+	
+	@Test
+	public void test_outside_tiles_are_not_world_regions() {
+		assertFalse(GeoData.isWorldRegion(GeoData.getRegionX((11 * 2048) - 1), GeoData.getRegionY(10 * 2048)));
+		assertFalse(GeoData.isWorldRegion(GeoData.getRegionX(11 * 2048), GeoData.getRegionY((10 * 2048) - 1)));
+		assertFalse(GeoData.isWorldRegion(GeoData.getRegionX(27 * 2048), GeoData.getRegionY(10 * 2048)));
+		assertFalse(GeoData.isWorldRegion(GeoData.getRegionX(-1), GeoData.getRegionY(-1)));
+	}
+}
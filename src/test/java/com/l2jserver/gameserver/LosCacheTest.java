@@ -0,0 +1,290 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver;
+
+import static org.easymock.EasyMock.anyBoolean;
+import static org.easymock.EasyMock.anyInt;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.powermock.api.easymock.PowerMock.mockStatic;
+import static org.powermock.api.easymock.PowerMock.replayAll;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.powermock.api.easymock.annotation.Mock;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.annotations.Test;
+
+import com.l2jserver.gameserver.data.xml.impl.DoorData;
+import com.l2jserver.gameserver.test.AbstractTest;
+import com.l2jserver.geodriver.GeoDriver;
+
+/**
+ * Line of sight cache test.
+ * @version 2.6.2.0
+ */
+@PrepareForTest(DoorData.class)
+public class LosCacheTest extends AbstractTest {
+	
+	private static final int REGION = 22;
+	
+	private static final int REGION_BLOCKS = 256;
+	
+	private static final int BLOCK_CELLS = 8;
+	
+	private static final byte TYPE_FLAT = 0;
+	
+	private static final byte TYPE_COMPLEX = 1;
+	
+	private static final int NSWE_ALL = 0x0F;
+	
+	// the complex blocks of the synthetic region, the rest of it is flat
+	private static final int PATCH_BLOCK = 100;
+	
+	private static final int PATCH_BLOCKS = 4;
+	
+	private static final int PATCH_CELLS = PATCH_BLOCKS * BLOCK_CELLS;
+	
+	// geodata coordinates of the first patch cell
+	private static final int PATCH_GEO_X = (REGION * REGION_BLOCKS * BLOCK_CELLS) + (PATCH_BLOCK * BLOCK_CELLS);
+	
+	private static final int PATCH_GEO_Y = PATCH_GEO_X;
+	
+	private static final int WALL_HEIGHT = 200;
+	
+	// patch row kept free of walls
+	private static final int CLEAR_ROW = 3;
+	
+	// patch column of the door, which crosses the whole patch
+	private static final int DOOR_COLUMN = PATCH_CELLS / 2;
+	
+	@Mock
+	private DoorData doorData;
+	
+	private boolean _doorClosed;
+	
+	@Test
+	public void test_cached_results_match_uncached() throws IOException {
+		final Random random = new Random(7);
+		final boolean[][] walls = createWalls(random);
+		final GeoDriver driver = createDriver(walls);
+		mockDoor();
+		replayAll();
+		
+		// small cache so that entries collide and get replaced
+		final GeoData cached = new GeoData(driver, 64);
+		final GeoData uncached = new GeoData(driver, 0);
+		
+		final List<int[]> points = new ArrayList<>();
+		while (points.size() < 48) {
+			final int x = random.nextInt(PATCH_CELLS);
+			final int y = random.nextInt(PATCH_CELLS);
+			if (!walls[x][y]) {
+				points.add(new int[] {
+					worldX(x),
+					worldY(y)
+				});
+			}
+		}
+		
+		final Set<Long> pairs = new HashSet<>();
+		final int[][] recent = new int[16][];
+		int visible = 0;
+		int blocked = 0;
+		for (int i = 0; i < 200_000; i++) {
+			if ((i % 5_000) == 0) {
+				_doorClosed = !_doorClosed;
+			}
+			
+			// revisit a recent pair half of the time, so that the cache gets hits between evictions
+			int[] pair = recent[random.nextInt(recent.length)];
+			if ((pair == null) || random.nextBoolean()) {
+				pair = new int[] {
+					random.nextInt(points.size()),
+					random.nextInt(points.size())
+				};
+				recent[random.nextInt(recent.length)] = pair;
+			}
+			pairs.add(((long) pair[0] << 32) | pair[1]);
+			
+			final int[] from = points.get(pair[0]);
+			final int[] to = points.get(pair[1]);
+			final int z = random.nextInt(32);
+			final int tz = random.nextInt(32);
+			final boolean expected = uncached.canSeeTarget(from[0], from[1], z, 0, to[0], to[1], tz);
+			assertEquals(cached.canSeeTarget(from[0], from[1], z, 0, to[0], to[1], tz), expected);
+			if (expected) {
+				visible++;
+			} else {
+				blocked++;
+			}
+		}
+		
+		assertTrue(visible > 0);
+		assertTrue(blocked > 0);
+		assertTrue(cached.getLosCacheHits() > 0);
+		// every pair missed more than once on average, so entries were evicted and recomputed
+		assertTrue(cached.getLosCacheMisses() > pairs.size());
+		assertEquals(uncached.getLosCacheHits() + uncached.getLosCacheMisses(), 0);
+	}
+	
+	@Test
+	public void test_door_state_change_is_not_cached() throws IOException {
+		final GeoDriver driver = createDriver(createWalls(new Random(11)));
+		mockDoor();
+		replayAll();
+		
+		final GeoData cached = new GeoData(driver, 64);
+		final int x = worldX(2);
+		final int y = worldY(CLEAR_ROW);
+		final int tx = worldX(PATCH_CELLS - 3);
+		
+		assertTrue(cached.canSeeTarget(x, y, 0, 0, tx, y, 0));
+		assertTrue(cached.canSeeTarget(x, y, 0, 0, tx, y, 0));
+		assertEquals(cached.getLosCacheHits(), 1);
+		
+		_doorClosed = true;
+		assertFalse(cached.canSeeTarget(x, y, 0, 0, tx, y, 0));
+		assertFalse(cached.canSeeTarget(tx, y, 0, 0, x, y, 0));
+		
+		_doorClosed = false;
+		assertTrue(cached.canSeeTarget(x, y, 0, 0, tx, y, 0));
+		assertEquals(cached.getLosCacheHits(), 2);
+	}
+	
+	@Test
+	public void test_direction_and_height_are_part_of_the_key() {
+		final LosCache cache = new LosCache(1024);
+		cache.put(10, 20, -100, 30, 40, -200, true);
+		
+		assertTrue(cache.get(10, 20, -100, 30, 40, -200));
+		assertNull(cache.get(30, 40, -200, 10, 20, -100));
+		assertNull(cache.get(10, 20, -116, 30, 40, -200));
+		assertNull(cache.get(10, 20, -100, 30, 41, -200));
+	}
+	
+	@Test
+	public void test_clear() {
+		final LosCache cache = new LosCache(1024);
+		cache.put(1, 2, 3, 4, 5, 6, false);
+		assertFalse(cache.get(1, 2, 3, 4, 5, 6));
+		
+		cache.clear();
+		
+		assertNull(cache.get(1, 2, 3, 4, 5, 6));
+	}
+	
+	@Test
+	public void test_is_cacheable() {
+		assertTrue(LosCache.isCacheable(-16384, 16384));
+		assertFalse(LosCache.isCacheable(Short.MAX_VALUE + 1, 0));
+		assertFalse(LosCache.isCacheable(0, Short.MIN_VALUE - 1));
+	}
+	
+	/**
+	 * Mocks a door along the patch column {@link #DOOR_COLUMN}, which blocks every line crossing it while {@link #_doorClosed}.
+	 */
+	private void mockDoor() {
+		final int doorX = worldX(DOOR_COLUMN);
+		mockStatic(DoorData.class);
+		expect(DoorData.getInstance()).andReturn(doorData).anyTimes();
+		expect(doorData.checkIfDoorsBetween(anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt(), anyBoolean())).andAnswer(() -> {
+			final Object[] args = getCurrentArguments();
+			final int x = (Integer) args[0];
+			final int tx = (Integer) args[3];
+			return _doorClosed && (Math.min(x, tx) < doorX) && (Math.max(x, tx) > doorX);
+		}).anyTimes();
+	}
+	
+	/**
+	 * Places walls on about a sixth of the patch cells, except on {@link #CLEAR_ROW}.
+	 * @param random the random
+	 * @return the walls, indexed by patch cell
+	 */
+	private static boolean[][] createWalls(Random random) {
+		final boolean[][] walls = new boolean[PATCH_CELLS][PATCH_CELLS];
+		for (int x = 0; x < PATCH_CELLS; x++) {
+			for (int y = 0; y < PATCH_CELLS; y++) {
+				walls[x][y] = (y != CLEAR_ROW) && (random.nextInt(6) == 0);
+			}
+		}
+		return walls;
+	}
+	
+	/**
+	 * Writes a synthetic {@code 22_22.l2j} region, flat at height 0 except for the patch, and loads it.
+	 * @param walls the walls, indexed by patch cell
+	 * @return the driver holding the region
+	 * @throws IOException if the region cannot be written
+	 */
+	private static GeoDriver createDriver(boolean[][] walls) throws IOException {
+		final int blocks = REGION_BLOCKS * REGION_BLOCKS;
+		final int complexBlocks = PATCH_BLOCKS * PATCH_BLOCKS;
+		final ByteBuffer buffer = ByteBuffer.allocate(((blocks - complexBlocks) * 3) + (complexBlocks * (1 + (BLOCK_CELLS * BLOCK_CELLS * 2)))).order(ByteOrder.LITTLE_ENDIAN);
+		for (int blockX = 0; blockX < REGION_BLOCKS; blockX++) {
+			for (int blockY = 0; blockY < REGION_BLOCKS; blockY++) {
+				final int patchBlockX = blockX - PATCH_BLOCK;
+				final int patchBlockY = blockY - PATCH_BLOCK;
+				if ((patchBlockX < 0) || (patchBlockX >= PATCH_BLOCKS) || (patchBlockY < 0) || (patchBlockY >= PATCH_BLOCKS)) {
+					buffer.put(TYPE_FLAT);
+					buffer.putShort((short) 0);
+					continue;
+				}
+				
+				buffer.put(TYPE_COMPLEX);
+				for (int cellX = 0; cellX < BLOCK_CELLS; cellX++) {
+					for (int cellY = 0; cellY < BLOCK_CELLS; cellY++) {
+						final int height = walls[(patchBlockX * BLOCK_CELLS) + cellX][(patchBlockY * BLOCK_CELLS) + cellY] ? WALL_HEIGHT : 0;
+						buffer.putShort((short) ((height << 1) | NSWE_ALL));
+					}
+				}
+			}
+		}
+		
+		final Path file = Files.createTempDirectory("geodata").resolve(GeoData.getRegionFileName(REGION, REGION));
+		Files.write(file, buffer.array());
+		file.toFile().deleteOnExit();
+		file.getParent().toFile().deleteOnExit();
+		
+		final GeoDriver driver = new GeoDriver();
+		driver.loadRegion(file, REGION, REGION);
+		return driver;
+	}
+	
+	private static int worldX(int patchX) {
+		return ((PATCH_GEO_X + patchX) * 16) - 655360 + 8;
+	}
+	
+	private static int worldY(int patchY) {
+		return ((PATCH_GEO_Y + patchY) * 16) - 589824 + 8;
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * HTML cache test.
+ * @version 2.6.2.0
+ */
+public class HtmCacheTest {
+	
+	private static final String PAGE = "data/html/page.htm";
+	
+	private File _datapack;
+	
+	private File _scripts;
+	
+	@BeforeMethod
+	public void setUp() throws IOException {
+		_datapack = Files.createTempDirectory("datapack").toFile();
+		_scripts = Files.createTempDirectory("scripts").toFile();
+	}
+	
+	private Path write(String path, String content) throws IOException {
+		final Path file = _datapack.toPath().resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(UTF_8));
+		return file.toAbsolutePath().normalize();
+	}
+	
+	@Test
+	public void test_hits_and_misses() throws IOException {
+		write(PAGE, "<html>%name%</html>");
+		final HtmCache cache = new HtmCache(_datapack, _scripts, true, 0);
+		
+		assertEquals(cache.getHtm(null, PAGE), "<html>%name%</html>");
+		assertEquals(cache.getHtm(null, PAGE), "<html>%name%</html>");
+		assertNull(cache.getHtm(null, "data/html/missing.htm"));
+		
+		assertEquals(cache.getHits(), 1);
+		assertEquals(cache.getMisses(), 2);
+	}
+	
+	@Test
+	public void test_localized_page_read_after_default_is_cached() throws IOException {
+		write(PAGE, "default");
+		write("ru/" + PAGE, "localized");
+		final HtmCache cache = new HtmCache(_datapack, _scripts, true, 0);
+		
+		assertEquals(cache.getHtm(null, PAGE), "default");
+		assertEquals(cache.getHtm("ru/", PAGE), "localized");
+		assertEquals(cache.getHtm("en/", PAGE), "default");
+		// The missing language page is remembered, the default page is served from the cache
+		assertEquals(cache.getHtm("en/", PAGE), "default");
+		assertEquals(cache.getHits(), 1);
+	}
+	
+	@Test
+	public void test_added_localized_page_is_read() throws IOException {
+		write(PAGE, "default");
+		final HtmCache cache = new HtmCache(_datapack, _scripts, true, 0);
+		assertEquals(cache.getHtm("ru/", PAGE), "default");
+		
+		final Path file = write("ru/" + PAGE, "localized");
+		cache.onFileChanged(file, false);
+		
+		assertEquals(cache.getHtm("ru/", PAGE), "localized");
+	}
+	
+	@Test
+	public void test_least_recently_used_pages_are_evicted() throws IOException {
+		final String content = "x".repeat(60);
+		write("data/html/a.htm", content);
+		write("data/html/b.htm", content);
+		write("data/html/c.htm", content);
+		final HtmCache cache = new HtmCache(_datapack, _scripts, true, 150);
+		
+		cache.getHtm(null, "data/html/a.htm");
+		cache.getHtm(null, "data/html/b.htm");
+		cache.getHtm(null, "data/html/a.htm");
+		cache.getHtm(null, "data/html/c.htm");
+		
+		assertTrue(cache.contains("data/html/a.htm"));
+		assertFalse(cache.contains("data/html/b.htm"));
+		assertTrue(cache.contains("data/html/c.htm"));
+		assertEquals(cache.getUsedBytes(), 120);
+	}
+	
+	@Test
+	public void test_compressed_pages_are_restored() throws IOException {
+		final String content = "<html><body>" + "Hello %name%! ".repeat(100) + "</body></html>";
+		write(PAGE, content);
+		final HtmCache cache = new HtmCache(_datapack, _scripts, false, 0);
+		assertEquals(cache.getUsedBytes(), content.length());
+		
+		cache.compress(-1);
+		assertTrue(cache.getUsedBytes() < content.length());
+		
+		assertEquals(cache.getHtm(null, PAGE), content);
+		assertEquals(cache.getUsedBytes(), content.length());
+		assertTrue(cache.getTemplate(null, PAGE).isReplaceable("%name%"));
+	}
+	
+	@Test
+	public void test_changed_file_is_reloaded() throws IOException {
+		final Path file = write(PAGE, "old");
+		final HtmCache cache = new HtmCache(_datapack, _scripts, false, 0);
+		assertEquals(cache.getHtm(null, PAGE), "old");
+		
+		write(PAGE, "new");
+		cache.onFileChanged(file, false);
+		assertEquals(cache.getHtm(null, PAGE), "new");
+		
+		Files.delete(file);
+		cache.onFileChanged(file, true);
+		assertFalse(cache.contains(PAGE));
+		assertEquals(cache.getUsedBytes(), 0);
+	}
+}
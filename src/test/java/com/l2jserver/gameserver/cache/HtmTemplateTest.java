@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.cache;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+/**
+ * HTML template test.
+ * @version 2.6.2.0
+ */
+public class HtmTemplateTest {
+	
+	@Test
+	public void test_parse() {
+		final HtmTemplate template = HtmTemplate.parse("<a action=\"bypass -h npc_%objectId%_Chat\">%count%% 100%</a> %objectId%");
+		
+		assertEquals(template.getSlotCount(), 3);
+		assertTrue(template.isReplaceable("%objectId%"));
+		assertTrue(template.isReplaceable("%count%"));
+		assertFalse(template.isReplaceable("% 100%"));
+		assertFalse(template.isReplaceable("%name%"));
+	}
+	
+	@Test
+	public void test_placeholders_that_could_be_formed_are_not_replaceable() {
+		// A value for %a% would be joined with "%x" and "c%"
+		final HtmTemplate template = HtmTemplate.parse("%b%x%a%c%y");
+		
+		assertFalse(template.isReplaceable("%a%"));
+		assertTrue(template.isReplaceable("%b%"));
+	}
+	
+	@Test
+	public void test_render() {
+		final HtmTemplate template = HtmTemplate.parse("<td>%name%</td><td>%level%</td><td>%name%</td>");
+		
+		assertSame(template.render(null), template.getText());
+		assertEquals(template.render(Map.of("%name%", "Gremlin")), "<td>Gremlin</td><td>%level%</td><td>Gremlin</td>");
+		assertEquals(template.render(Map.of("%name%", "Gremlin", "%level%", "1")), "<td>Gremlin</td><td>1</td><td>Gremlin</td>");
+	}
+}
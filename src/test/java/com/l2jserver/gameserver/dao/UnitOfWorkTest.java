@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.dao;
+
+import static org.easymock.EasyMock.expect;
+import static org.powermock.api.easymock.PowerMock.replayAll;
+import static org.powermock.api.easymock.PowerMock.verifyAll;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.powermock.api.easymock.annotation.Mock;
+import org.testng.annotations.Test;
+
+import com.l2jserver.gameserver.test.AbstractTest;
+
+/**
+ * Unit of work test.
+ * @version 2.6.2.0
+ */
+public class UnitOfWorkTest extends AbstractTest {
+	
+	private static final String SQL = "DELETE FROM characters WHERE charId=?";
+	
+	@Mock
+	private Connection con;
+	@Mock
+	private PreparedStatement ps;
+	
+	@Test
+	public void test_joined_unit_of_work_commits_once() throws Exception {
+		con.setAutoCommit(false);
+		con.commit();
+		con.setAutoCommit(true);
+		con.close();
+		
+		replayAll();
+		
+		try (var outer = UnitOfWork.begin(() -> con)) {
+			try (var inner = UnitOfWork.begin(() -> con)) {
+				assertSame(inner, outer);
+				inner.commit();
+			}
+			outer.commit();
+		}
+		assertNull(UnitOfWork.current());
+		
+		verifyAll();
+	}
+	
+	@Test
+	public void test_shared_connection_is_not_closed() throws Exception {
+		con.setAutoCommit(false);
+		con.rollback();
+		con.setAutoCommit(true);
+		con.close();
+		
+		replayAll();
+		
+		try (var uow = UnitOfWork.begin(() -> con)) {
+			try (var shared = UnitOfWork.getConnection()) {
+				shared.commit();
+			}
+		}
+		
+		verifyAll();
+	}
+	
+	@Test
+	public void test_batch_executed_on_commit() throws Exception {
+		con.setAutoCommit(false);
+		expect(con.prepareStatement(SQL)).andReturn(ps);
+		ps.setInt(1, 1);
+		ps.addBatch();
+		ps.setInt(1, 2);
+		ps.addBatch();
+		expect(ps.executeBatch()).andReturn(new int[2]);
+		con.commit();
+		ps.close();
+		con.setAutoCommit(true);
+		con.close();
+		
+		replayAll();
+		
+		try (var uow = UnitOfWork.begin(() -> con)) {
+			for (int objectId = 1; objectId <= 2; objectId++) {
+				final var batch = uow.batch(SQL);
+				batch.setInt(1, objectId);
+				batch.addBatch();
+			}
+			uow.commit();
+		}
+		
+		verifyAll();
+	}
+	
+	@Test
+	public void test_rolled_back_shared_connection_fails_commit() throws Exception {
+		con.setAutoCommit(false);
+		con.rollback();
+		con.setAutoCommit(true);
+		con.close();
+		
+		replayAll();
+		
+		final AtomicBoolean restored = new AtomicBoolean();
+		try (var uow = UnitOfWork.begin(() -> con)) {
+			uow.onRollback(() -> restored.set(true));
+			try (var inner = UnitOfWork.begin(() -> con)) {
+				UnitOfWork.getConnection().rollback();
+				expectThrows(SQLException.class, inner::commit);
+			}
+			assertTrue(uow.isRollbackOnly());
+			expectThrows(SQLException.class, uow::commit);
+			assertFalse(restored.get());
+		}
+		assertTrue(restored.get());
+		
+		verifyAll();
+	}
+	
+	@Test
+	public void test_rollback_actions_not_run_on_commit() throws Exception {
+		con.setAutoCommit(false);
+		con.commit();
+		con.setAutoCommit(true);
+		con.close();
+		
+		replayAll();
+		
+		final AtomicBoolean restored = new AtomicBoolean();
+		try (var uow = UnitOfWork.begin(() -> con)) {
+			uow.onRollback(() -> restored.set(true));
+			uow.commit();
+		}
+		assertFalse(restored.get());
+		
+		verifyAll();
+	}
+}
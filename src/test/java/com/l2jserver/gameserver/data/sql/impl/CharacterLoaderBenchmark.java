@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.data.sql.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.data.sql.impl.CharacterLoader.Stage;
+
+/**
+ * Character Loader benchmark.<br>
+ * Simulates a login storm after a restart: many characters are loaded at once by the packet threads, every stage being a query against a database stand-in with a fixed round trip and a bounded connection pool.<br>
+ * The stages follow {@code L2PcInstance.load(int)}, with {@code 0} loader threads every stage runs on the packet thread as before.
+ * @version 2.6.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CharacterLoaderBenchmark {
+	
+	private static final int LOGINS = 64;
+	
+	private static final int PACKET_THREADS = 4;
+	
+	private static final int CONNECTIONS = 20;
+	
+	private static final Stage[] CONCURRENT_STAGES = {
+		Stage.ACCOUNT_CHARACTERS,
+		Stage.MACROS,
+		Stage.HENNAS,
+		Stage.BOOKMARKS,
+		Stage.RECIPES,
+		Stage.PREMIUM_ITEMS,
+		Stage.PET_ITEMS,
+		Stage.FRIENDS,
+		Stage.UI_SETTINGS
+	};
+	
+	private static final Stage[] ORDERED_STAGES = {
+		Stage.ITEMS,
+		Stage.SKILLS,
+		Stage.SHORTCUTS,
+		Stage.ITEM_REUSE,
+		Stage.EFFECTS
+	};
+	
+	@Param({
+		"0",
+		"4"
+	})
+	private int _loaderThreads;
+	
+	@Param({
+		"500"
+	})
+	private int _roundTripMicros;
+	
+	private final Semaphore _connections = new Semaphore(CONNECTIONS);
+	
+	private CharacterLoader _loader;
+	
+	private ExecutorService _packetThreads;
+	
+	@Setup
+	public void setUp() {
+		_loader = new CharacterLoader(_loaderThreads);
+		_packetThreads = Executors.newFixedThreadPool(PACKET_THREADS);
+	}
+	
+	@TearDown
+	public void tearDown() {
+		_packetThreads.shutdownNow();
+	}
+	
+	@Benchmark
+	public void loginStorm() throws Exception {
+		final List<Future<?>> logins = new ArrayList<>(LOGINS);
+		for (int i = 0; i < LOGINS; i++) {
+			logins.add(_packetThreads.submit(() -> {
+				load();
+				return null;
+			}));
+		}
+		
+		for (Future<?> login : logins) {
+			login.get();
+		}
+	}
+	
+	private void load() throws Exception {
+		final long start = System.nanoTime();
+		query();
+		_loader.record(Stage.CHARACTER, start);
+		
+		final List<Future<?>> parts = new ArrayList<>(CONCURRENT_STAGES.length);
+		for (Stage stage : CONCURRENT_STAGES) {
+			parts.add(_loader.submit(stage, this::query));
+		}
+		
+		for (Stage stage : ORDERED_STAGES) {
+			_loader.run(stage, this::query);
+		}
+		
+		for (Future<?> part : parts) {
+			part.get();
+		}
+		_loader.recordLoad(start);
+	}
+	
+	/**
+	 * Takes a connection and waits for the round trip of a query.
+	 */
+	private void query() {
+		_connections.acquireUninterruptibly();
+		try {
+			LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(_roundTripMicros));
+		} finally {
+			_connections.release();
+		}
+	}
+	
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(CharacterLoaderBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.data.xml.impl;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.objenesis.ObjenesisStd;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2DoorInstance;
+import com.l2jserver.gameserver.model.actor.templates.L2DoorTemplate;
+
+/**
+ * Door Grid benchmark.<br>
+ * Compares the region door list scan previously done by {@link DoorData#checkIfDoorsBetween(int, int, int, int, int, int, int, boolean)} against the door grid, on a castle sized area holding dozens of doors.
+ * @version 2.6.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DoorGridBenchmark {
+	
+	private static final int REGION = 1;
+	
+	/** Castle area origin, inside the world bounds. */
+	private static final int ORIGIN_X = 116000;
+	private static final int ORIGIN_Y = 145000;
+	private static final int AREA = 4000;
+	private static final int Z = -2000;
+	
+	private static final int CHECKS = 1024;
+	
+	@Param({
+		"20",
+		"60"
+	})
+	private int _doorCount;
+	
+	private final List<L2DoorInstance> _doors = new ArrayList<>();
+	private final DoorGrid _grid = new DoorGrid();
+	private final int[] _segments = new int[CHECKS * 4];
+	
+	@Setup
+	public void setUp() throws Exception {
+		final Random rnd = new Random(_doorCount);
+		for (int i = 0; i < _doorCount; i++) {
+			final L2DoorInstance door = createDoor(ORIGIN_X + rnd.nextInt(AREA), ORIGIN_Y + rnd.nextInt(AREA), rnd.nextBoolean());
+			_doors.add(door);
+			_grid.add(door, REGION);
+		}
+		
+		for (int i = 0; i < CHECKS; i++) {
+			final int x = ORIGIN_X + rnd.nextInt(AREA);
+			final int y = ORIGIN_Y + rnd.nextInt(AREA);
+			_segments[i * 4] = x;
+			_segments[(i * 4) + 1] = y;
+			_segments[(i * 4) + 2] = (x + rnd.nextInt(1800)) - 900;
+			_segments[(i * 4) + 3] = (y + rnd.nextInt(1800)) - 900;
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(CHECKS)
+	public int list() {
+		int blocked = 0;
+		for (int i = 0; i < CHECKS; i++) {
+			final int x = _segments[i * 4];
+			final int y = _segments[(i * 4) + 1];
+			final int tx = _segments[(i * 4) + 2];
+			final int ty = _segments[(i * 4) + 3];
+			for (L2DoorInstance door : _doors) {
+				if (DoorData.isDoorBetween(door, x, y, Z, tx, ty, Z, true)) {
+					blocked++;
+					break;
+				}
+			}
+		}
+		return blocked;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(CHECKS)
+	public int grid() {
+		int blocked = 0;
+		for (int i = 0; i < CHECKS; i++) {
+			if (_grid.checkIfDoorsBetween(REGION, _segments[i * 4], _segments[(i * 4) + 1], Z, _segments[(i * 4) + 2], _segments[(i * 4) + 3], Z, true)) {
+				blocked++;
+			}
+		}
+		return blocked;
+	}
+	
+	/**
+	 * Creates a closed door, a thin box like the datapack gates.
+	 * @param x the center x
+	 * @param y the center y
+	 * @param horizontal if {@code true} the door spans the x axis, otherwise the y axis
+	 * @return the door
+	 * @throws Exception if the door fields cannot be set
+	 */
+	private static L2DoorInstance createDoor(int x, int y, boolean horizontal) throws Exception {
+		final int halfX = horizontal ? 100 : 10;
+		final int halfY = horizontal ? 10 : 100;
+		final var objenesis = new ObjenesisStd();
+		final L2DoorTemplate template = objenesis.newInstance(L2DoorTemplate.class);
+		set(L2DoorTemplate.class, template, "_nodeX", new int[] {
+			x - halfX,
+			x + halfX,
+			x + halfX,
+			x - halfX
+		});
+		set(L2DoorTemplate.class, template, "_nodeY", new int[] {
+			y - halfY,
+			y - halfY,
+			y + halfY,
+			y + halfY
+		});
+		set(L2DoorTemplate.class, template, "_nodeZ", Z - 100);
+		set(L2DoorTemplate.class, template, "_height", 400);
+		set(L2DoorTemplate.class, template, "_checkCollision", true);
+		
+		final L2DoorInstance door = objenesis.newInstance(L2DoorInstance.class);
+		set(L2Character.class, door, "_template", template);
+		return door;
+	}
+	
+	private static void set(Class<?> type, Object target, String name, Object value) throws Exception {
+		final Field field = type.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(target, value);
+	}
+	
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(DoorGridBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.datatables;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.objenesis.ObjenesisStd;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jol.info.GraphLayout;
+
+import com.l2jserver.gameserver.model.skills.Skill;
+
+/**
+ * Skill Registry benchmark.<br>
+ * Compares lookup throughput of the skill registry against the boxed map previously used by {@link SkillData}.<br>
+ * {@link #main(String[])} prints the retained size of each structure, measured with JOL, then runs the benchmarks with the GC profiler.<br>
+ * The build benchmarks report the bytes allocated while building each structure in {@code gc.alloc.rate.norm}, which includes garbage such as resized tables and is not the retained size.
+ * @version 2.6.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkillRegistryBenchmark {
+	
+	private static final int LOOKUPS = 1024;
+	
+	private List<Skill> _skills;
+	private Map<Integer, Skill> _map;
+	private SkillRegistry _registry;
+	private final int[] _ids = new int[LOOKUPS];
+	private final int[] _levels = new int[LOOKUPS];
+	
+	@Setup
+	public void setUp() throws Exception {
+		_skills = createSkills();
+		_map = createMap(_skills);
+		_registry = new SkillRegistry(_skills);
+		
+		final var rnd = ThreadLocalRandom.current();
+		for (int i = 0; i < LOOKUPS; i++) {
+			final Skill skill = _skills.get(rnd.nextInt(_skills.size()));
+			_ids[i] = skill.getId();
+			_levels[i] = skill.getLevel();
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public int map() {
+		int found = 0;
+		for (int i = 0; i < LOOKUPS; i++) {
+			if (_map.get(SkillData.getSkillHashCode(_ids[i], _levels[i])) != null) {
+				found++;
+			}
+		}
+		return found;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(LOOKUPS)
+	public int registry() {
+		int found = 0;
+		for (int i = 0; i < LOOKUPS; i++) {
+			if (_registry.get(_ids[i], _levels[i]) != null) {
+				found++;
+			}
+		}
+		return found;
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Map<Integer, Skill> buildMap() {
+		return createMap(_skills);
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public SkillRegistry buildRegistry() {
+		return new SkillRegistry(_skills);
+	}
+	
+	/**
+	 * Creates a skill set shaped like the datapack: mostly few-level skills, every fourth skill with enchant routes.
+	 * @return the skills
+	 * @throws Exception if the skill fields cannot be set
+	 */
+	static List<Skill> createSkills() throws Exception {
+		final var objenesis = new ObjenesisStd();
+		final var id = Skill.class.getDeclaredField("_id");
+		final var level = Skill.class.getDeclaredField("_level");
+		id.setAccessible(true);
+		level.setAccessible(true);
+		
+		final List<Skill> skills = new ArrayList<>();
+		for (int skillId = 1; skillId <= 8000; skillId++) {
+			final List<Integer> levels = new ArrayList<>();
+			for (int lvl = 1; lvl <= ((skillId % 10) + 1); lvl++) {
+				levels.add(lvl);
+			}
+			if ((skillId % 4) == 0) {
+				for (int route = 100; route <= 200; route += 100) {
+					for (int lvl = 1; lvl <= 30; lvl++) {
+						levels.add(route + lvl);
+					}
+				}
+			}
+			
+			for (int lvl : levels) {
+				final Skill skill = objenesis.newInstance(Skill.class);
+				id.setInt(skill, skillId);
+				level.setInt(skill, lvl);
+				skills.add(skill);
+			}
+		}
+		return skills;
+	}
+	
+	static Map<Integer, Skill> createMap(List<Skill> skills) {
+		final Map<Integer, Skill> map = new HashMap<>();
+		for (Skill skill : skills) {
+			map.put(SkillData.getSkillHashCode(skill), skill);
+		}
+		return map;
+	}
+	
+	/**
+	 * Measures the retained size of a structure with JOL, leaving out the skills, which are shared by every structure.
+	 * @param structure the structure
+	 * @param skills the skills it holds
+	 * @return the retained size, in bytes
+	 */
+	static long retainedSize(Object structure, List<Skill> skills) {
+		return GraphLayout.parseInstance(structure).subtract(GraphLayout.parseInstance(skills.toArray())).totalSize();
+	}
+	
+	public static void main(String[] args) throws Exception {
+		final List<Skill> skills = createSkills();
+		System.out.printf("Retained size of %d skills: map %d bytes, registry %d bytes%n", skills.size(), retainedSize(createMap(skills), skills), retainedSize(new SkillRegistry(skills), skills));
+		
+		new Runner(new OptionsBuilder().include(SkillRegistryBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+	}
+}
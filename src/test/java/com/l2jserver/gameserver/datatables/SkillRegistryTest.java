@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.datatables;
+
+import static org.easymock.EasyMock.expect;
+import static org.powermock.api.easymock.PowerMock.createMock;
+import static org.powermock.api.easymock.PowerMock.replayAll;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.l2jserver.gameserver.model.skills.Skill;
+import com.l2jserver.gameserver.test.AbstractTest;
+
+/**
+ * Skill Registry test.
+ * @version 2.6.2.0
+ */
+public class SkillRegistryTest extends AbstractTest {
+	
+	@Test
+	public void test_get_existing_skills() {
+		final Skill skill1 = mockSkill(1, 1);
+		final Skill skill2 = mockSkill(1, 2);
+		final Skill skill3 = mockSkill(1021, 1);
+		replayAll();
+		
+		final SkillRegistry registry = new SkillRegistry(List.of(skill1, skill2, skill3));
+		
+		assertEquals(registry.size(), 3);
+		assertSame(registry.get(1, 1), skill1);
+		assertSame(registry.get(1, 2), skill2);
+		assertSame(registry.get(1021, 1), skill3);
+	}
+	
+	@Test
+	public void test_get_missing_skill() {
+		final Skill skill = mockSkill(3, 1);
+		replayAll();
+		
+		final SkillRegistry registry = new SkillRegistry(List.of(skill));
+		
+		assertNull(registry.get(3, 2));
+		assertNull(registry.get(4, 1));
+		assertNull(registry.get(-1, 1));
+	}
+	
+	@Test
+	public void test_max_level_and_enchantable() {
+		final Skill skill1 = mockSkill(5, 1);
+		final Skill skill2 = mockSkill(5, 3);
+		final Skill skill3 = mockSkill(5, 101);
+		final Skill skill4 = mockSkill(6, 1);
+		replayAll();
+		
+		final SkillRegistry registry = new SkillRegistry(List.of(skill1, skill2, skill3, skill4));
+		
+		assertEquals(registry.getMaxLevel(5), 3);
+		assertEquals(registry.getMaxLevel(6), 1);
+		assertEquals(registry.getMaxLevel(7), 0);
+		assertTrue(registry.isEnchantable(5));
+		assertFalse(registry.isEnchantable(6));
+	}
+	
+	private static Skill mockSkill(int id, int level) {
+		final Skill skill = createMock(Skill.class);
+		expect(skill.getId()).andStubReturn(id);
+		expect(skill.getLevel()).andStubReturn(level);
+		return skill;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.instancemanager;
+
+import static org.easymock.EasyMock.expect;
+import static org.powermock.api.easymock.PowerMock.replayAll;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.powermock.api.easymock.annotation.Mock;
+import org.testng.annotations.Test;
+
+import com.l2jserver.gameserver.enums.PrivateStoreType;
+import com.l2jserver.gameserver.model.TradeItem;
+import com.l2jserver.gameserver.model.TradeList;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.test.AbstractTest;
+
+/**
+ * Private store manager test.
+ * @version 2.6.2.0
+ */
+public class PrivateStoreManagerTest extends AbstractTest {
+	
+	private static final int ITEM_ID = 1060;
+	
+	@Mock
+	private L2PcInstance cheapSeller;
+	@Mock
+	private L2PcInstance expensiveSeller;
+	@Mock
+	private TradeList cheapList;
+	@Mock
+	private TradeList expensiveList;
+	@Mock
+	private TradeItem cheapItem;
+	@Mock
+	private TradeItem expensiveItem;
+	@Mock
+	private L2Item item;
+	
+	@Test
+	public void test_sellers_sorted_by_lowest_price() {
+		final var manager = new PrivateStoreManager();
+		mockSeller(expensiveSeller, 2, expensiveList, expensiveItem, 500);
+		mockSeller(cheapSeller, 1, cheapList, cheapItem, 100);
+		expect(item.getId()).andReturn(ITEM_ID).anyTimes();
+		
+		replayAll();
+		
+		manager.update(expensiveSeller);
+		manager.update(cheapSeller);
+		
+		final var sellers = manager.getSellers(ITEM_ID, 10);
+		assertEquals(sellers.size(), 2);
+		assertEquals(sellers.get(0).getOwnerId(), 1);
+		assertEquals(sellers.get(0).getPrice(), 100);
+		assertEquals(sellers.get(1).getOwnerId(), 2);
+		assertTrue(manager.getBuyers(ITEM_ID, 10).isEmpty());
+		assertEquals(manager.getSellers(ITEM_ID, 1).size(), 1);
+	}
+	
+	@Test
+	public void test_removed_store_is_not_listed() {
+		final var manager = new PrivateStoreManager();
+		mockSeller(cheapSeller, 1, cheapList, cheapItem, 100);
+		expect(item.getId()).andReturn(ITEM_ID).anyTimes();
+		
+		replayAll();
+		
+		manager.update(cheapSeller);
+		manager.remove(cheapSeller);
+		
+		assertTrue(manager.getSellers(ITEM_ID, 10).isEmpty());
+		assertTrue(manager.getSoldItemIds().isEmpty());
+		assertEquals(manager.getStoreCount(), 0);
+	}
+	
+	private void mockSeller(L2PcInstance seller, int objectId, TradeList list, TradeItem tradeItem, long price) {
+		expect(seller.getObjectId()).andReturn(objectId).anyTimes();
+		expect(seller.getName()).andReturn("Seller" + objectId).anyTimes();
+		expect(seller.getPrivateStoreType()).andReturn(PrivateStoreType.SELL).anyTimes();
+		expect(seller.getSellList()).andReturn(list).anyTimes();
+		expect(list.getItems()).andReturn(new TradeItem[] {
+			tradeItem
+		}).anyTimes();
+		expect(list.getTitle()).andReturn("Shop").anyTimes();
+		expect(tradeItem.getItem()).andReturn(item).anyTimes();
+		expect(tradeItem.getEnchant()).andReturn(0).anyTimes();
+		expect(tradeItem.getCount()).andReturn(1L).anyTimes();
+		expect(tradeItem.getPrice()).andReturn(price).anyTimes();
+	}
+}
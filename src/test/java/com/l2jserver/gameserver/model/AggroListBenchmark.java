@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.objenesis.ObjenesisStd;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2MonsterInstance;
+
+/**
+ * Aggro List benchmark.<br>
+ * Compares adding hate and looking up the most hated attacker through {@link AggroList} against scanning a plain map, with 20, 200 and 1000 attackers.
+ * @version 2.6.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggroListBenchmark {
+	
+	private static final int HITS = 4096;
+	
+	@Param({
+		"20",
+		"200",
+		"1000"
+	})
+	private int _attackers;
+	
+	private final ObjenesisStd _objenesis = new ObjenesisStd();
+	private L2MonsterInstance _owner;
+	private final Map<L2Character, AggroInfo> _map = new ConcurrentHashMap<>();
+	private final AggroList _aggroList = new AggroList();
+	private L2Character[] _hits;
+	private int _hit;
+	
+	@Setup
+	public void setUp() throws Exception {
+		_owner = _objenesis.newInstance(L2MonsterInstance.class);
+		set(L2Object.class, _owner, "_objectId", 1);
+		_owner.initKnownList();
+		
+		final L2Character[] attackers = new L2Character[_attackers];
+		for (int i = 0; i < _attackers; i++) {
+			final L2Character attacker = _objenesis.newInstance(L2MonsterInstance.class);
+			set(L2Object.class, attacker, "_objectId", 2 + i);
+			set(L2Object.class, attacker, "_isVisible", true);
+			_owner.getKnownList().getKnownObjects().put(attacker.getObjectId(), attacker);
+			attackers[i] = attacker;
+		}
+		
+		// A few attackers deal most of the hits, like tanks and damage dealers on a raid boss.
+		final Random rnd = new Random(_attackers);
+		_hits = new L2Character[HITS];
+		for (int i = 0; i < HITS; i++) {
+			_hits[i] = attackers[rnd.nextInt(4) == 0 ? rnd.nextInt(_attackers) : rnd.nextInt(Math.min(8, _attackers))];
+		}
+	}
+	
+	@Benchmark
+	public L2Character scan() {
+		final L2Character attacker = _hits[_hit++ & (HITS - 1)];
+		_map.computeIfAbsent(attacker, AggroInfo::new).addHate(100);
+		
+		L2Character mostHated = null;
+		long maxHate = 0;
+		for (AggroInfo ai : _map.values()) {
+			if (ai.checkHate(_owner) > maxHate) {
+				mostHated = ai.getAttacker();
+				maxHate = ai.getHate();
+			}
+		}
+		return mostHated;
+	}
+	
+	@Benchmark
+	public L2Character tracked() {
+		final L2Character attacker = _hits[_hit++ & (HITS - 1)];
+		_aggroList.addHate(_aggroList.getOrCreate(attacker), 100);
+		return _aggroList.getMostHated(_owner);
+	}
+	
+	private static void set(Class<?> type, Object target, String name, Object value) throws Exception {
+		final Field field = type.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(target, value);
+	}
+	
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(AggroListBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+
+import org.objenesis.ObjenesisStd;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2MonsterInstance;
+
+/**
+ * Aggro List test.
+ * @version 2.6.2.0
+ */
+public class AggroListTest {
+	
+	private static final int ATTACKERS = 8;
+	
+	private static final int OPERATIONS = 20000;
+	
+	private final ObjenesisStd _objenesis = new ObjenesisStd();
+	
+	private L2MonsterInstance _owner;
+	
+	private L2Character[] _attackers;
+	
+	@BeforeMethod
+	public void setUp() throws Exception {
+		_owner = _objenesis.newInstance(L2MonsterInstance.class);
+		set(_owner, "_objectId", 1);
+		_owner.initKnownList();
+		
+		_attackers = new L2Character[ATTACKERS];
+		for (int i = 0; i < ATTACKERS; i++) {
+			final L2Character attacker = _objenesis.newInstance(L2MonsterInstance.class);
+			set(attacker, "_objectId", 2 + i);
+			set(attacker, "_isVisible", true);
+			_owner.getKnownList().getKnownObjects().put(attacker.getObjectId(), attacker);
+			_attackers[i] = attacker;
+		}
+	}
+	
+	@Test
+	public void test_most_hated_matches_full_scan() throws Exception {
+		for (long seed = 1; seed <= 10; seed++) {
+			final AggroList aggroList = new AggroList();
+			final Random rnd = new Random(seed);
+			for (int op = 0; op < OPERATIONS; op++) {
+				final L2Character attacker = _attackers[rnd.nextInt(ATTACKERS)];
+				switch (rnd.nextInt(12)) {
+					case 0 -> aggroList.remove(attacker);
+					case 1 -> {
+						final AggroInfo info = aggroList.get(attacker);
+						if (info != null) {
+							aggroList.stopHate(info);
+						}
+					}
+					case 2 -> aggroList.addHate(aggroList.getOrCreate(attacker), -1 - rnd.nextInt(500));
+					case 3 -> set(attacker, "_isVisible", !attacker.isVisible());
+					case 4 -> aggroList.addHateToAll(rnd.nextInt(200) - 100);
+					case 5 -> aggroList.checkHate(_owner, aggroList.getOrCreate(attacker));
+					default -> aggroList.addHate(aggroList.getOrCreate(attacker), 1 + rnd.nextInt(1000));
+				}
+				
+				final String message = "seed " + seed + ", operation " + op;
+				final long[] expected = scan(aggroList);
+				final L2Character mostHated = aggroList.getMostHated(_owner);
+				final L2Character secondMostHated = aggroList.getSecondMostHated(_owner);
+				assertEquals(hate(aggroList, mostHated), expected[0], message);
+				assertEquals(hate(aggroList, secondMostHated), expected[1], message);
+				if (secondMostHated != null) {
+					assertNotSame(secondMostHated, mostHated, message);
+				}
+			}
+			
+			// Restore the attackers for the next seed.
+			for (L2Character attacker : _attackers) {
+				set(attacker, "_isVisible", true);
+			}
+		}
+	}
+	
+	@Test
+	public void test_second_most_hated_is_second_by_hate() {
+		final AggroList aggroList = new AggroList();
+		assertNull(aggroList.getMostHated(_owner));
+		assertNull(aggroList.getSecondMostHated(_owner));
+		
+		// The attacker holding the top spot before the winner is not the second most hated.
+		aggroList.addHate(aggroList.getOrCreate(_attackers[0]), 100);
+		aggroList.addHate(aggroList.getOrCreate(_attackers[1]), 300);
+		aggroList.addHate(aggroList.getOrCreate(_attackers[2]), 200);
+		assertSame(aggroList.getMostHated(_owner), _attackers[1]);
+		assertSame(aggroList.getSecondMostHated(_owner), _attackers[2]);
+		
+		aggroList.addHate(aggroList.get(_attackers[0]), 150);
+		assertSame(aggroList.getMostHated(_owner), _attackers[1]);
+		assertSame(aggroList.getSecondMostHated(_owner), _attackers[0]);
+		
+		aggroList.remove(_attackers[1]);
+		assertSame(aggroList.getMostHated(_owner), _attackers[0]);
+		assertSame(aggroList.getSecondMostHated(_owner), _attackers[2]);
+		
+		aggroList.stopHate(aggroList.get(_attackers[2]));
+		assertSame(aggroList.getMostHated(_owner), _attackers[0]);
+		assertNull(aggroList.getSecondMostHated(_owner));
+	}
+	
+	/**
+	 * Scans the whole list for the two highest hates an attacker can be hated with, without changing them.
+	 * @param aggroList the aggro list
+	 * @return the highest and second highest hate, {@code 0} if missing
+	 */
+	private long[] scan(AggroList aggroList) {
+		final long[] top = new long[2];
+		for (L2Character attacker : aggroList.getEntries().keySet()) {
+			final long hate = hate(aggroList, attacker);
+			if (hate > top[0]) {
+				top[1] = top[0];
+				top[0] = hate;
+			} else if (hate > top[1]) {
+				top[1] = hate;
+			}
+		}
+		return top;
+	}
+	
+	private long hate(AggroList aggroList, L2Character attacker) {
+		if ((attacker == null) || !attacker.isVisible()) {
+			return 0;
+		}
+		final AggroInfo info = aggroList.get(attacker);
+		return (info != null) && (info.getHate() > 0) ? info.getHate() : 0;
+	}
+	
+	private static void set(L2Object target, String name, Object value) throws Exception {
+		final Field field = L2Object.class.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(target, value);
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.skills.targets;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.objenesis.ObjenesisStd;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.model.L2Object;
+import com.l2jserver.gameserver.model.L2World;
+import com.l2jserver.gameserver.model.L2WorldRegion;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2MonsterInstance;
+import com.l2jserver.gameserver.model.skills.Skill;
+
+/**
+ * Affect Scope benchmark.<br>
+ * Compares the list and the target buffer variants of {@link AffectScope#RANGE} target selection with 50, 200 and 500 surrounding characters.<br>
+ * Run with {@code -prof gc} to compare allocation rates.
+ * @version 2.6.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AffectScopeBenchmark {
+	
+	private static final int CENTER_X = 83000;
+	private static final int CENTER_Y = 148000;
+	private static final int Z = -3400;
+	private static final int SPREAD = 700;
+	private static final int AFFECT_RANGE = 500;
+	
+	@Param({
+		"50",
+		"200",
+		"500"
+	})
+	private int _characters;
+	
+	private final ObjenesisStd _objenesis = new ObjenesisStd();
+	private L2WorldRegion _region;
+	private L2Character _caster;
+	private L2Character _target;
+	private Skill _skill;
+	
+	@Setup
+	public void setUp() throws Exception {
+		_region = L2World.getInstance().getRegion(CENTER_X, CENTER_Y);
+		
+		final Random rnd = new Random(_characters);
+		_caster = createCharacter(1, CENTER_X - 300, CENTER_Y);
+		_target = createCharacter(2, CENTER_X, CENTER_Y);
+		for (int i = 0; i < _characters; i++) {
+			createCharacter(3 + i, (CENTER_X + rnd.nextInt(SPREAD * 2)) - SPREAD, (CENTER_Y + rnd.nextInt(SPREAD * 2)) - SPREAD);
+		}
+		
+		_skill = _objenesis.newInstance(Skill.class);
+		set(Skill.class, _skill, "affectRange", AFFECT_RANGE);
+		set(Skill.class, _skill, "affectLimit", new int[2]);
+		set(Skill.class, _skill, "affectObject", AffectObject.ALL);
+		set(Skill.class, _skill, "affectScope", AffectScope.RANGE);
+	}
+	
+	@TearDown
+	public void tearDown() {
+		_region.getVisibleObjects().clear();
+	}
+	
+	@Benchmark
+	public int list() {
+		return AffectScope.RANGE.affectTargets(_caster, _target, _skill).size();
+	}
+	
+	@Benchmark
+	public int buffer() {
+		final TargetBuffer targets = TargetBuffer.get();
+		AffectScope.RANGE.affectTargets(_caster, _target, _skill, targets);
+		return targets.size();
+	}
+	
+	private L2Character createCharacter(int objectId, int x, int y) throws Exception {
+		final L2Character creature = _objenesis.newInstance(L2MonsterInstance.class);
+		set(L2Object.class, creature, "_objectId", objectId);
+		set(L2Object.class, creature, "_x", new AtomicInteger(x));
+		set(L2Object.class, creature, "_y", new AtomicInteger(y));
+		set(L2Object.class, creature, "_z", new AtomicInteger(Z));
+		set(L2Object.class, creature, "_heading", new AtomicInteger());
+		set(L2Object.class, creature, "_instanceId", new AtomicInteger());
+		set(L2Object.class, creature, "_isVisible", true);
+		set(L2Object.class, creature, "_worldRegion", _region);
+		_region.getVisibleObjects().put(objectId, creature);
+		return creature;
+	}
+	
+	private static void set(Class<?> type, Object target, String name, Object value) throws Exception {
+		final Field field = type.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(target, value);
+	}
+	
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(AffectScopeBenchmark.class.getSimpleName()).build()).run();
+	}
+}
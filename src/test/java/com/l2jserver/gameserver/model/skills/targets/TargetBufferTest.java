@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.skills.targets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.objenesis.ObjenesisStd;
+import org.testng.annotations.Test;
+
+import com.l2jserver.gameserver.model.L2Object;
+import com.l2jserver.gameserver.model.actor.instance.L2MonsterInstance;
+
+/**
+ * Target buffer test.
+ * @version 2.6.2.0
+ */
+public class TargetBufferTest {
+	
+	private final ObjenesisStd _objenesis = new ObjenesisStd();
+	
+	private final L2Object _first = _objenesis.newInstance(L2MonsterInstance.class);
+	
+	private final L2Object _second = _objenesis.newInstance(L2MonsterInstance.class);
+	
+	@Test
+	public void test_nested_collect_does_not_overwrite_targets() {
+		final TargetBuffer[] nested = new TargetBuffer[1];
+		final TargetBuffer targets = TargetBuffer.collect(buffer -> {
+			buffer.add(_first);
+			nested[0] = TargetBuffer.collect(inner -> inner.add(_second));
+			buffer.add(_second);
+		});
+		
+		assertNotSame(nested[0], targets);
+		assertEquals(nested[0].size(), 1);
+		assertSame(nested[0].get(0), _second);
+		assertEquals(targets.size(), 2);
+		assertSame(targets.get(0), _first);
+		assertSame(targets.get(1), _second);
+	}
+	
+	@Test
+	public void test_buffer_reused_after_collect() {
+		final TargetBuffer targets = TargetBuffer.collect(buffer -> buffer.add(_first));
+		
+		final TargetBuffer next = TargetBuffer.get();
+		assertSame(next, targets);
+		assertTrue(next.isEmpty());
+	}
+	
+	@Test
+	public void test_truncate_keeps_the_first_targets() {
+		final TargetBuffer targets = TargetBuffer.get();
+		targets.add(_first);
+		targets.add(_second);
+		targets.add(_first);
+		
+		assertTrue(targets.isFull(2));
+		targets.truncate(2);
+		targets.truncate(5);
+		
+		assertEquals(targets.size(), 2);
+		assertSame(targets.get(0), _first);
+		assertSame(targets.get(1), _second);
+	}
+}
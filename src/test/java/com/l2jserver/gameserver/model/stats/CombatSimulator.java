@@ -0,0 +1,482 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.stats;
+
+import static com.l2jserver.gameserver.config.Configuration.character;
+import static com.l2jserver.gameserver.config.Configuration.server;
+import static com.l2jserver.gameserver.model.stats.Formulas.SHIELD_DEFENSE_FAILED;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import com.l2jserver.gameserver.model.StatsSet;
+import com.l2jserver.gameserver.model.actor.L2Character;
+import com.l2jserver.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jserver.gameserver.model.actor.templates.L2CharTemplate;
+import com.l2jserver.gameserver.model.items.L2Item;
+import com.l2jserver.gameserver.model.items.L2Weapon;
+import com.l2jserver.gameserver.model.items.instance.L2ItemInstance;
+import com.l2jserver.gameserver.model.skills.Skill;
+import com.l2jserver.gameserver.model.skills.SkillOperateType;
+import com.l2jserver.gameserver.model.stats.functions.AbstractFunction;
+import com.l2jserver.gameserver.model.stats.functions.FuncAdd;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncAtkAccuracy;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncAtkCritical;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncAtkEvasion;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncMAtkCritical;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncMAtkMod;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncMDefMod;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncPAtkMod;
+import com.l2jserver.gameserver.model.stats.functions.formulas.FuncPDefMod;
+
+/**
+ * Combat simulator.<br>
+ * Runs seeded attack and skill exchanges through {@link Formulas} between two characters built from templates and gear, without a running server.<br>
+ * Exchanges are split in batches, each batch draws from its own generator seeded from the simulation seed, so the same seed produces the same report whatever the parallelism.<br>
+ * Attacks come from the side, on flat ground and by day, and neither side carries a shield or uses shots.<br>
+ * Magic failures and magic critical hits are rolled from the simulation generator as well.<br>
+ * Stat bonuses are read from {@code data/stats/statBonus.xml}, the datapack root must point to {@code src/test/resources}.
+ * @version 2.6.2.0
+ */
+public class CombatSimulator {
+	
+	static final int BATCH_SIZE = 10_000;
+	
+	private final Loadout _attacker;
+	private final Loadout _target;
+	
+	public CombatSimulator(Loadout attacker, Loadout target) {
+		_attacker = attacker;
+		_target = target;
+	}
+	
+	/**
+	 * Simulates normal attacks.
+	 * @param seed the seed
+	 * @param exchanges the number of attacks
+	 * @param parallelism the number of threads
+	 * @return the damage report
+	 */
+	public Report attack(long seed, int exchanges, int parallelism) {
+		return run(seed, exchanges, parallelism, CombatSimulator::attack);
+	}
+	
+	/**
+	 * Simulates physical skill attacks.
+	 * @param skill the skill
+	 * @param power the skill power
+	 * @param criticalChance the skill critical chance
+	 * @param seed the seed
+	 * @param exchanges the number of skill attacks
+	 * @param parallelism the number of threads
+	 * @return the damage report
+	 */
+	public Report skill(Skill skill, double power, int criticalChance, long seed, int exchanges, int parallelism) {
+		return run(seed, exchanges, parallelism, (attacker, target, random, report) -> skill(attacker, target, skill, power, criticalChance, random, report));
+	}
+	
+	/**
+	 * Simulates magic skill attacks.
+	 * @param skill the skill
+	 * @param power the skill power
+	 * @param seed the seed
+	 * @param exchanges the number of magic skill attacks
+	 * @param parallelism the number of threads
+	 * @return the damage report
+	 */
+	public Report magic(Skill skill, double power, long seed, int exchanges, int parallelism) {
+		return run(seed, exchanges, parallelism, (attacker, target, random, report) -> magic(attacker, target, skill, power, random, report));
+	}
+	
+	private Report run(long seed, int exchanges, int parallelism, Exchange exchange) {
+		final int batches = (exchanges + BATCH_SIZE - 1) / BATCH_SIZE;
+		final Report[] results = new Report[batches];
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+		final long start = System.nanoTime();
+		try {
+			pool.submit(() -> IntStream.range(0, batches).parallel().forEach(batch -> {
+				final SplittableRandom random = new SplittableRandom(seed + (batch * 0x9E3779B97F4A7C15L));
+				final Combatant attacker = _attacker.create(random);
+				final Combatant target = _target.create(random);
+				final Report report = new Report();
+				final int size = Math.min(BATCH_SIZE, exchanges - (batch * BATCH_SIZE));
+				for (int i = 0; i < size; i++) {
+					exchange.run(attacker, target, random, report);
+				}
+				results[batch] = report;
+			})).get();
+		} catch (Exception ex) {
+			throw new IllegalStateException("Combat simulation failed!", ex);
+		} finally {
+			pool.shutdown();
+		}
+		
+		// Merged in batch order, so the damage sum does not depend on the scheduling.
+		final Report report = new Report();
+		for (Report result : results) {
+			report.merge(result);
+		}
+		report._elapsed = System.nanoTime() - start;
+		return report;
+	}
+	
+	static void attack(Combatant attacker, Combatant target, SplittableRandom random, Report report) {
+		if (Formulas.calcHitChance(attacker.getAccuracy(), target.getEvasionRate(attacker), 1) < random.nextInt(1000)) {
+			report.miss();
+			return;
+		}
+		
+		final boolean crit = Formulas.calcCritRate(attacker, target) > random.nextInt(1000);
+		report.hit(Formulas.calcPhysDam(attacker, target, SHIELD_DEFENSE_FAILED, crit, false), crit);
+	}
+	
+	static void skill(Combatant attacker, Combatant target, Skill skill, double power, int criticalChance, SplittableRandom random, Report report) {
+		final boolean crit = Formulas.calcSkillCritRate(attacker, criticalChance) > (random.nextDouble() * 100);
+		report.hit(Formulas.calcSkillPhysDam(attacker, target, skill, SHIELD_DEFENSE_FAILED, crit, false, power), crit);
+	}
+	
+	static void magic(Combatant attacker, Combatant target, Skill skill, double power, SplittableRandom random, Report report) {
+		// Rolled like Formulas.calcMagicSuccess and Formulas.calcMCrit, a failed magic deals no critical damage.
+		final boolean failed = (Formulas.calcMagicSuccessRate(attacker, target, skill) <= random.nextInt(100)) && character().magicFailures();
+		final boolean crit = attacker.getMCriticalHit(target, skill) > random.nextInt(1000);
+		report.hit(Formulas.calcMagicDam(attacker, target, skill, SHIELD_DEFENSE_FAILED, 0, false, false, crit, power, failed), crit && !failed);
+	}
+	
+	/**
+	 * Creates a character template.
+	 * @param str the STR
+	 * @param dex the DEX
+	 * @param con the CON
+	 * @param pAtk the base P. Atk.
+	 * @param pDef the base P. Def.
+	 * @param critRate the base critical rate
+	 * @return the template
+	 */
+	public static L2CharTemplate template(int str, int dex, int con, int pAtk, int pDef, int critRate) {
+		final StatsSet set = new StatsSet();
+		set.set("baseSTR", str);
+		set.set("baseDEX", dex);
+		set.set("baseCON", con);
+		set.set("baseINT", 20);
+		set.set("baseWIT", 20);
+		set.set("baseMEN", 20);
+		set.set("basePAtk", pAtk);
+		set.set("basePDef", pDef);
+		set.set("baseMAtk", 6);
+		set.set("baseMDef", 40);
+		set.set("baseCritRate", critRate);
+		return new L2CharTemplate(set);
+	}
+	
+	/**
+	 * Creates an active physical skill.
+	 * @param id the skill ID
+	 * @param level the skill level
+	 * @return the skill
+	 */
+	public static Skill skill(int id, int level) {
+		final StatsSet set = new StatsSet();
+		set.set("skill_id", id);
+		set.set("level", level);
+		set.set("operateType", SkillOperateType.A1);
+		return new Skill(set);
+	}
+	
+	/**
+	 * Creates an active magic skill.
+	 * @param id the skill ID
+	 * @param level the skill level
+	 * @return the skill
+	 */
+	public static Skill magicSkill(int id, int level) {
+		final StatsSet set = new StatsSet();
+		set.set("skill_id", id);
+		set.set("level", level);
+		set.set("operateType", SkillOperateType.A1);
+		set.set("isMagic", 1);
+		return new Skill(set);
+	}
+	
+	@FunctionalInterface
+	interface Exchange {
+		void run(Combatant attacker, Combatant target, SplittableRandom random, Report report);
+	}
+	
+	/**
+	 * A character definition, template, level and gear.
+	 */
+	public static final class Loadout {
+		private final L2CharTemplate _template;
+		private final int _level;
+		private final List<AbstractFunction> _gear;
+		
+		/**
+		 * @param template the character template
+		 * @param level the character level
+		 * @param gear the stat functions of the equipped items
+		 */
+		public Loadout(L2CharTemplate template, int level, List<AbstractFunction> gear) {
+			_template = template;
+			_level = level;
+			_gear = gear;
+		}
+		
+		Combatant create(SplittableRandom random) {
+			final Combatant combatant = new Combatant(_template, _level, random);
+			for (AbstractFunction function : _gear) {
+				combatant.addStatFunc(function);
+			}
+			return combatant;
+		}
+	}
+	
+	/**
+	 * A character whose weapon random damage is drawn from the simulation generator.
+	 */
+	static final class Combatant extends L2Character {
+		private final int _level;
+		private final SplittableRandom _random;
+		
+		Combatant(L2CharTemplate template, int level, SplittableRandom random) {
+			super(0, template);
+			_level = level;
+			_random = random;
+			addStatFunc(FuncPAtkMod.getInstance());
+			addStatFunc(FuncMAtkMod.getInstance());
+			addStatFunc(FuncPDefMod.getInstance());
+			addStatFunc(FuncMDefMod.getInstance());
+			addStatFunc(FuncAtkCritical.getInstance());
+			addStatFunc(FuncMAtkCritical.getInstance());
+			addStatFunc(FuncAtkAccuracy.getInstance());
+			addStatFunc(FuncAtkEvasion.getInstance());
+		}
+		
+		@Override
+		public double getRandomDamageMultiplier() {
+			final int random = getRandomDamage();
+			return 1 + ((double) (_random.nextInt((random * 2) + 1) - random) / 100);
+		}
+		
+		@Override
+		public int getLevel() {
+			return _level;
+		}
+		
+		@Override
+		public int getId() {
+			return 0;
+		}
+		
+		@Override
+		public boolean isAutoAttackable(L2Character attacker) {
+			return true;
+		}
+		
+		@Override
+		public void sendInfo(L2PcInstance activeChar) {
+		}
+		
+		@Override
+		public void updateAbnormalEffect() {
+		}
+		
+		@Override
+		public L2ItemInstance getActiveWeaponInstance() {
+			return null;
+		}
+		
+		@Override
+		public L2Weapon getActiveWeaponItem() {
+			return null;
+		}
+		
+		@Override
+		public L2ItemInstance getSecondaryWeaponInstance() {
+			return null;
+		}
+		
+		@Override
+		public L2Item getSecondaryWeaponItem() {
+			return null;
+		}
+	}
+	
+	/**
+	 * Damage report, damage is bucketed by whole points.
+	 */
+	public static final class Report {
+		private final Map<Integer, Long> _histogram = new TreeMap<>();
+		private long _hits;
+		private long _misses;
+		private long _criticals;
+		private double _totalDamage;
+		private double _minDamage = Double.MAX_VALUE;
+		private double _maxDamage;
+		private long _elapsed;
+		
+		void hit(double damage, boolean crit) {
+			_hits++;
+			if (crit) {
+				_criticals++;
+			}
+			_totalDamage += damage;
+			_minDamage = Math.min(_minDamage, damage);
+			_maxDamage = Math.max(_maxDamage, damage);
+			_histogram.merge((int) damage, 1L, Long::sum);
+		}
+		
+		void miss() {
+			_misses++;
+		}
+		
+		void merge(Report report) {
+			_hits += report._hits;
+			_misses += report._misses;
+			_criticals += report._criticals;
+			_totalDamage += report._totalDamage;
+			_minDamage = Math.min(_minDamage, report._minDamage);
+			_maxDamage = Math.max(_maxDamage, report._maxDamage);
+			report._histogram.forEach((damage, count) -> _histogram.merge(damage, count, Long::sum));
+		}
+		
+		public long getExchanges() {
+			return _hits + _misses;
+		}
+		
+		public long getHits() {
+			return _hits;
+		}
+		
+		public long getMisses() {
+			return _misses;
+		}
+		
+		public long getCriticals() {
+			return _criticals;
+		}
+		
+		public double getTotalDamage() {
+			return _totalDamage;
+		}
+		
+		public double getMeanDamage() {
+			return _hits == 0 ? 0 : _totalDamage / _hits;
+		}
+		
+		public double getMinDamage() {
+			return _hits == 0 ? 0 : _minDamage;
+		}
+		
+		public double getMaxDamage() {
+			return _maxDamage;
+		}
+		
+		/**
+		 * @return the time the simulation took, in nanoseconds
+		 */
+		public long getElapsed() {
+			return _elapsed;
+		}
+		
+		/**
+		 * @return the number of exchanges simulated per second
+		 */
+		public double getThroughput() {
+			return _elapsed == 0 ? 0 : (getExchanges() * (double) TimeUnit.SECONDS.toNanos(1)) / _elapsed;
+		}
+		
+		/**
+		 * @return the number of hits per whole damage point, in damage order
+		 */
+		public Map<Integer, Long> getHistogram() {
+			return _histogram;
+		}
+		
+		/**
+		 * @param percentile the percentile, between 0 and 100
+		 * @return the damage below which the given percentile of hits falls
+		 */
+		public int getPercentile(double percentile) {
+			final long rank = (long) Math.ceil((percentile / 100) * _hits);
+			long seen = 0;
+			for (var entry : _histogram.entrySet()) {
+				seen += entry.getValue();
+				if (seen >= rank) {
+					return entry.getKey();
+				}
+			}
+			return 0;
+		}
+		
+		/**
+		 * Formats the histogram in ranges of equal width.
+		 * @param ranges the number of ranges
+		 * @return one line per range, with its damage range and number of hits
+		 */
+		public String formatHistogram(int ranges) {
+			if (_histogram.isEmpty()) {
+				return "";
+			}
+			
+			final int min = (int) getMinDamage();
+			final int width = Math.max(1, ((((int) _maxDamage) - min) / ranges) + 1);
+			final long[] counts = new long[ranges];
+			_histogram.forEach((damage, count) -> counts[Math.min((damage - min) / width, ranges - 1)] += count);
+			
+			final StringBuilder sb = new StringBuilder();
+			for (int i = 0; i < ranges; i++) {
+				sb.append(String.format("%6d - %6d: %d%n", min + (i * width), (min + ((i + 1) * width)) - 1, counts[i]));
+			}
+			return sb.toString();
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("exchanges %d, hits %d, misses %d, criticals %d, damage min %.0f mean %.1f p50 %d p90 %d p99 %d max %.0f, %.0f exchanges/s", getExchanges(), _hits, _misses, _criticals, getMinDamage(), getMeanDamage(), getPercentile(50), getPercentile(90), getPercentile(99), _maxDamage, getThroughput());
+		}
+	}
+	
+	/**
+	 * Runs a fighter against a monster with normal attacks, a physical skill and a magic skill, and prints the reports.
+	 * @param args the seed, the number of exchanges and the parallelism, defaulting to 1, 1000000 and the number of processors
+	 */
+	public static void main(String[] args) {
+		final long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+		final int exchanges = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+		final int parallelism = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		server().setProperty("DatapackRoot", "src/test/resources");
+		
+		final Loadout fighter = new Loadout(template(40, 30, 43, 4, 80, 4), 76, List.of(new FuncAdd(Stats.POWER_ATTACK, 0x10, null, 300, null), new FuncAdd(Stats.MAGIC_ATTACK, 0x10, null, 200, null)));
+		final Loadout monster = new Loadout(template(40, 30, 43, 1200, 800, 4), 78, List.of());
+		final CombatSimulator simulator = new CombatSimulator(fighter, monster);
+		print("Attacks", simulator.attack(seed, exchanges, parallelism));
+		print("Skills", simulator.skill(skill(190, 1), 1000, 15, seed, exchanges, parallelism));
+		print("Magic", simulator.magic(magicSkill(1177, 1), 50, seed, exchanges, parallelism));
+	}
+	
+	private static void print(String name, Report report) {
+		System.out.println(name + ": " + report);
+		System.out.print(report.formatHistogram(10));
+	}
+}
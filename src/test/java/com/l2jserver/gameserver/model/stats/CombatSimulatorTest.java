@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.stats;
+
+import static com.l2jserver.gameserver.config.Configuration.server;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.l2jserver.gameserver.model.stats.CombatSimulator.Loadout;
+import com.l2jserver.gameserver.model.stats.CombatSimulator.Report;
+import com.l2jserver.gameserver.model.stats.functions.FuncAdd;
+import com.l2jserver.gameserver.model.stats.functions.FuncMul;
+
+/**
+ * Combat simulator test.
+ * @version 2.6.2.0
+ */
+public class CombatSimulatorTest {
+	
+	private static final int EXCHANGES = 50_000;
+	
+	private Loadout _attacker;
+	
+	private CombatSimulator _simulator;
+	
+	@BeforeClass
+	private void init() {
+		server().setProperty("DatapackRoot", "src/test/resources");
+		
+		_attacker = new Loadout(CombatSimulator.template(40, 30, 43, 4, 80, 4), 76, List.of(new FuncAdd(Stats.POWER_ATTACK, 0x10, null, 300, null)));
+		final Loadout target = new Loadout(CombatSimulator.template(40, 30, 43, 1200, 800, 4), 76, List.of());
+		_simulator = new CombatSimulator(_attacker, target);
+	}
+	
+	@Test
+	public void test_attack_report() {
+		final Report report = _simulator.attack(1, EXCHANGES, 2);
+		
+		assertEquals(report.getExchanges(), EXCHANGES);
+		assertEquals(report.getHistogram().values().stream().mapToLong(Long::longValue).sum(), report.getHits());
+		assertTrue(report.getMisses() > 0);
+		assertTrue(report.getCriticals() > 0);
+		assertTrue(report.getMinDamage() >= 1);
+		assertTrue(report.getPercentile(50) <= report.getPercentile(99));
+		assertTrue(report.getPercentile(99) <= report.getMaxDamage());
+	}
+	
+	@Test
+	public void test_same_seed_same_report() {
+		final Report sequential = _simulator.attack(7, EXCHANGES, 1);
+		final Report parallel = _simulator.attack(7, EXCHANGES, 4);
+		
+		assertEquals(parallel.getMisses(), sequential.getMisses());
+		assertEquals(parallel.getCriticals(), sequential.getCriticals());
+		assertEquals(parallel.getTotalDamage(), sequential.getTotalDamage());
+		assertEquals(parallel.getHistogram(), sequential.getHistogram());
+	}
+	
+	@Test
+	public void test_different_seed_different_report() {
+		assertNotEquals(_simulator.attack(7, EXCHANGES, 2).getTotalDamage(), _simulator.attack(8, EXCHANGES, 2).getTotalDamage());
+	}
+	
+	@Test
+	public void test_skill_report() {
+		final Report first = _simulator.skill(CombatSimulator.skill(190, 1), 1000, 15, 3, EXCHANGES, 1);
+		final Report second = _simulator.skill(CombatSimulator.skill(190, 1), 1000, 15, 3, EXCHANGES, 3);
+		
+		assertEquals(first.getHits(), EXCHANGES);
+		assertEquals(first.getMisses(), 0);
+		assertTrue(first.getCriticals() > 0);
+		assertEquals(second.getTotalDamage(), first.getTotalDamage());
+		assertEquals(second.getHistogram(), first.getHistogram());
+	}
+	
+	@Test
+	public void test_target_gear_reduces_damage() {
+		final Loadout armored = new Loadout(CombatSimulator.template(40, 30, 43, 1200, 800, 4), 76, List.of(new FuncMul(Stats.POWER_DEFENCE, 0x30, null, 1.1, null)));
+		final Report report = _simulator.attack(5, EXCHANGES, 2);
+		final Report armoredReport = new CombatSimulator(_attacker, armored).attack(5, EXCHANGES, 2);
+		
+		assertEquals(armoredReport.getExchanges(), report.getExchanges());
+		assertTrue(armoredReport.getMeanDamage() < report.getMeanDamage());
+		assertTrue(armoredReport.getMaxDamage() <= report.getMaxDamage());
+	}
+	
+	@Test
+	public void test_magic_report() {
+		final Report first = _simulator.magic(CombatSimulator.magicSkill(1177, 1), 50, 5, EXCHANGES, 1);
+		final Report second = _simulator.magic(CombatSimulator.magicSkill(1177, 1), 50, 5, EXCHANGES, 3);
+		
+		assertEquals(first.getHits(), EXCHANGES);
+		assertTrue(first.getCriticals() > 0);
+		assertTrue(first.getMinDamage() > 0);
+		assertEquals(second.getCriticals(), first.getCriticals());
+		assertEquals(second.getTotalDamage(), first.getTotalDamage());
+		assertEquals(second.getHistogram(), first.getHistogram());
+	}
+	
+	@Test
+	public void test_throughput() {
+		final Report report = _simulator.attack(1, EXCHANGES, 2);
+		
+		assertTrue(report.getElapsed() > 0);
+		assertTrue(report.getThroughput() > 0);
+		assertEquals(report.formatHistogram(10).lines().count(), 10);
+	}
+}
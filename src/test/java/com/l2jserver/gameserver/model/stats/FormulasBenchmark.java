@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.stats;
+
+import static com.l2jserver.gameserver.config.Configuration.server;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.model.skills.Skill;
+import com.l2jserver.gameserver.model.stats.CombatSimulator.Combatant;
+import com.l2jserver.gameserver.model.stats.CombatSimulator.Loadout;
+import com.l2jserver.gameserver.model.stats.CombatSimulator.Report;
+import com.l2jserver.gameserver.model.stats.functions.FuncAdd;
+
+/**
+ * Formulas benchmark.<br>
+ * Measures the throughput of single seeded attack and skill exchanges through the {@link Formulas} damage path.<br>
+ * Run from the project root, stat bonuses are read from {@code src/test/resources}.
+ * @version 2.6.2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormulasBenchmark {
+	
+	private Combatant _attacker;
+	private Combatant _target;
+	private SplittableRandom _random;
+	private Skill _skill;
+	private Report _report;
+	
+	@Setup
+	public void setUp() {
+		server().setProperty("DatapackRoot", "src/test/resources");
+		
+		_random = new SplittableRandom(1);
+		_attacker = new Loadout(CombatSimulator.template(40, 30, 43, 4, 80, 4), 76, List.of(new FuncAdd(Stats.POWER_ATTACK, 0x10, null, 300, null))).create(_random);
+		_target = new Loadout(CombatSimulator.template(40, 30, 43, 1200, 800, 4), 78, List.of()).create(_random);
+		_skill = CombatSimulator.skill(190, 1);
+		_report = new Report();
+	}
+	
+	@Benchmark
+	public long attack() {
+		CombatSimulator.attack(_attacker, _target, _random, _report);
+		return _report.getHits();
+	}
+	
+	@Benchmark
+	public long skill() {
+		CombatSimulator.skill(_attacker, _target, _skill, 1000, 15, _random, _report);
+		return _report.getHits();
+	}
+	
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(FormulasBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.model.variables;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.l2jserver.gameserver.model.StatsSet;
+
+/**
+ * Abstract variables test.
+ * @version 2.6.2.0
+ */
+public class AbstractVariablesTest {
+	
+	@Test
+	public void test_every_setter_records_the_changed_variable() {
+		final AbstractVariables vars = new NpcVariables();
+		vars.set("boolean", true);
+		vars.set("byte", (byte) 1);
+		vars.set("short", (short) 2);
+		vars.set("int", 3);
+		vars.set("long", 4L);
+		vars.set("float", 5.0f);
+		vars.set("double", 6.0);
+		vars.set("string", "7");
+		vars.set("enum", Thread.State.NEW);
+		vars.set("object", (Object) Integer.valueOf(8));
+		
+		assertTrue(vars.hasChanges());
+		assertEquals(vars.takeChanges(), Set.of("boolean", "byte", "short", "int", "long", "float", "double", "string", "enum", "object"));
+		assertFalse(vars.hasChanges());
+	}
+	
+	@Test
+	public void test_added_variables_are_recorded() {
+		final StatsSet set = new StatsSet();
+		set.set("first", 1);
+		set.set("second", "2");
+		
+		final AbstractVariables vars = new NpcVariables();
+		vars.add(set);
+		
+		assertEquals(vars.takeChanges(), Set.of("first", "second"));
+	}
+	
+	@Test
+	public void test_same_value_is_not_recorded() {
+		final AbstractVariables vars = new NpcVariables();
+		vars.set("level", 10);
+		vars.takeChanges();
+		
+		vars.set("level", "10");
+		vars.set("level", 10L);
+		
+		assertFalse(vars.hasChanges());
+		assertTrue(vars.takeChanges().isEmpty());
+	}
+	
+	@Test
+	public void test_removed_variable_is_recorded() {
+		final AbstractVariables vars = new NpcVariables();
+		vars.set("quest", "done");
+		vars.takeChanges();
+		
+		vars.remove("quest");
+		vars.remove("missing");
+		
+		assertEquals(vars.takeChanges(), Set.of("quest"));
+	}
+	
+	@Test
+	public void test_restored_changes_are_taken_again() {
+		final AbstractVariables vars = new NpcVariables();
+		vars.set("first", 1);
+		final Set<String> changes = vars.takeChanges();
+		vars.set("second", 2);
+		
+		// A failed store gives its changes back.
+		vars.restoreChanges(changes);
+		
+		assertTrue(vars.hasChanges());
+		assertEquals(vars.takeChanges(), Set.of("first", "second"));
+	}
+	
+	@Test
+	public void test_cleared_changes_forget_the_variables() {
+		final AbstractVariables vars = new NpcVariables();
+		vars.set("first", 1);
+		
+		assertTrue(vars.compareAndSetChanges(true, false));
+		
+		assertFalse(vars.hasChanges());
+		assertTrue(vars.takeChanges().isEmpty());
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network.serverpackets;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.l2jserver.gameserver.cache.HtmTemplate;
+
+/**
+ * Abstract HTML packet test.
+ * @version 2.6.2.0
+ */
+public class AbstractHtmlPacketTest {
+	
+	private static final String[] PARTS = {
+		"%",
+		"a",
+		"b",
+		"ab",
+		"%a%",
+		"%b%",
+		"%ab%",
+		" ",
+		"$",
+		"<",
+		".",
+		"_"
+	};
+	
+	private static final String[] PATTERNS = {
+		"%a%",
+		"%b%",
+		"%ab%",
+		"%x%",
+		"a",
+		"%",
+		"a.",
+		"%a%b%",
+		"b%",
+		"%%"
+	};
+	
+	private static final String[] VALUES = {
+		"1",
+		"%b%",
+		"$",
+		"$1",
+		"b",
+		"",
+		"%",
+		"\\y",
+		"%a%",
+		"x%"
+	};
+	
+	@Test
+	public void test_template_replace_matches_sequential_replace() {
+		final Random random = new Random(41);
+		for (int i = 0; i < 200_000; i++) {
+			final StringBuilder sb = new StringBuilder("<html><body>");
+			final int parts = random.nextInt(20);
+			for (int part = 0; part < parts; part++) {
+				sb.append(PARTS[random.nextInt(PARTS.length)]);
+			}
+			sb.append("</body></html>");
+			
+			final NpcHtmlMessage html = new NpcHtmlMessage();
+			html.setHtml(HtmTemplate.parse(sb.toString()));
+			String expected = sb.toString();
+			final int replaces = random.nextInt(8);
+			for (int replace = 0; replace < replaces; replace++) {
+				final String pattern = PATTERNS[random.nextInt(PATTERNS.length)];
+				final String value = VALUES[random.nextInt(VALUES.length)];
+				expected = expected.replaceAll(pattern, value.replaceAll("\\$", "\\\\\\$"));
+				html.replace(pattern, value);
+			}
+			assertEquals(html.getHtml(), expected, sb.toString());
+		}
+	}
+	
+	@Test
+	public void test_template_replace() {
+		final NpcHtmlMessage html = new NpcHtmlMessage();
+		html.setHtml(HtmTemplate.parse("<html><body>%name%: <a action=\"bypass -h npc_%objectId%_Chat 1\">%count%%</a> %objectId%</body></html>"));
+		html.replace("%objectId%", 268435456);
+		html.replace("%name%", "$Gatekeeper");
+		html.replace("%count%", 15);
+		html.replace("%objectId%", 1);
+		
+		assertEquals(html.getHtml(), "<html><body>$Gatekeeper: <a action=\"bypass -h npc_268435456_Chat 1\">15%</a> 268435456</body></html>");
+	}
+	
+	@Test
+	public void test_regex_replace() {
+		final NpcHtmlMessage html = new NpcHtmlMessage();
+		html.setHtml(HtmTemplate.parse("<html><body>%a% %b1% %b2%</body></html>"));
+		html.replace("%a%", "x");
+		html.replace("%b[0-9]%", "y");
+		
+		assertEquals(html.getHtml(), "<html><body>x y y</body></html>");
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2004-2021 L2J Server
+ * 
+ * This file is part of L2J Server.
+ * 
+ * L2J Server is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * L2J Server is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jserver.gameserver.network.serverpackets;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.l2jserver.gameserver.cache.HtmTemplate;
+
+/**
+ * HTML replace benchmark.<br>
+ * Compares the former regular expression replace, the literal replace of plain HTML and the single pass replace of templates on a page shaped like the heavy admin and community board pages, with 10 and 50 placeholders.
+ * @version 2.6.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtmlReplaceBenchmark {
+	
+	@Param({
+		"10",
+		"50"
+	})
+	private int _placeholders;
+	
+	private String _html;
+	private HtmTemplate _template;
+	private String[] _patterns;
+	private String[] _values;
+	
+	@Setup
+	public void setUp() {
+		final StringBuilder sb = new StringBuilder("<html><title>Character Info</title><body><center><table width=270 border=0 bgcolor=444444>");
+		_patterns = new String[_placeholders];
+		_values = new String[_placeholders];
+		for (int i = 0; i < _placeholders; i++) {
+			_patterns[i] = "%value" + i + "%";
+			_values[i] = String.valueOf(1000 + (i * 37));
+			sb.append("<tr><td width=90><font color=\"LEVEL\">Stat ").append(i).append(":</font></td><td width=90>").append(_patterns[i]);
+			sb.append("</td><td width=90><button value=\"Edit\" action=\"bypass -h admin_edit_stat ").append(i).append(" $value\" width=60 height=15 back=\"L2UI_ct1.button_df\" fore=\"L2UI_ct1.button_df\"></td></tr>");
+		}
+		sb.append("</table><br><edit var=\"value\" width=110><br><a action=\"bypass -h admin_character_info %name%\">Back</a></center></body></html>");
+		_html = sb.toString();
+		_template = HtmTemplate.parse(_html);
+	}
+	
+	@Benchmark
+	public String regexReplace() {
+		String html = _html;
+		for (int i = 0; i < _placeholders; i++) {
+			html = html.replaceAll(_patterns[i], _values[i].replaceAll("\\$", "\\\\\\$"));
+		}
+		return html;
+	}
+	
+	@Benchmark
+	public String literalReplace() {
+		final NpcHtmlMessage html = new NpcHtmlMessage(_html);
+		for (int i = 0; i < _placeholders; i++) {
+			html.replace(_patterns[i], _values[i]);
+		}
+		return html.getHtml();
+	}
+	
+	@Benchmark
+	public String templateReplace() {
+		final NpcHtmlMessage html = new NpcHtmlMessage();
+		html.setHtml(_template);
+		for (int i = 0; i < _placeholders; i++) {
+			html.replace(_patterns[i], _values[i]);
+		}
+		return html.getHtml();
+	}
+	
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(HtmlReplaceBenchmark.class.getSimpleName()).build()).run();
+	}
+}